@@ -0,0 +1,28 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DataSourceRoutingMetrics {
+
+    public static final String ROUTE_PRIMARY = "primary";
+    public static final String ROUTE_REPLICA = "replica";
+    public static final String ROUTE_READ_YOUR_WRITES = "read-your-writes";
+    public static final String ROUTE_FALLBACK = "fallback";
+
+    private final MeterRegistry registry;
+
+    public DataSourceRoutingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordRoute(String route) {
+        Counter.builder("datasource.routing")
+                .description("Connections handed out by the read/write routing data source, by route")
+                .tag("route", route)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class PasswordHashingMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time a password hash or match waited in the hashing queue")
+                .register(registry);
+        hashTimer = Timer.builder("password.hashing.time")
+                .description("CPU time spent hashing or matching one password")
+                .register(registry);
+        rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(registry);
+    }
+
+    public void monitorQueue(Collection<?> queue) {
+        Gauge.builder("password.hashing.queue.depth", queue, Collection::size)
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+    }
+
+    public void recordWait(long nanos) {
+        waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T recordHash(Supplier<T> hash) {
+        return hashTimer.record(hash);
+    }
+
+    public void incrementRejected() {
+        rejectedCounter.increment();
+    }
+}
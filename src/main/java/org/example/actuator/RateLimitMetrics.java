@@ -0,0 +1,27 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RateLimitMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public RateLimitMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void incrementRejected(String route) {
+        rejectedCounters.computeIfAbsent(route, name -> Counter.builder("http.server.requests.rate.limited")
+                .description("Requests refused with 429 because the client's token bucket was empty")
+                .tag("route", name)
+                .register(registry))
+                .increment();
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class RegistrationMetrics {
+
+    public static final String STAGE_VALIDATE = "validate";
+    public static final String STAGE_ALLOCATE = "allocate";
+    public static final String STAGE_HASH = "hash";
+    public static final String STAGE_INSERT = "insert";
+
+    private final MeterRegistry registry;
+    private final Counter registeredCounter;
+    private final Counter rejectedCounter;
+
+    public RegistrationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        registeredCounter = Counter.builder("registration.bulk.registered")
+                .description("Profiles created through bulk registration")
+                .register(registry);
+        rejectedCounter = Counter.builder("registration.bulk.rejected")
+                .description("Bulk registration rows rejected")
+                .register(registry);
+    }
+
+    public <T> T recordStage(String stage, Supplier<T> supplier) {
+        return Timer.builder("registration.bulk.stage")
+                .description("Time spent per bulk registration stage and chunk")
+                .tag("stage", stage)
+                .register(registry)
+                .record(supplier);
+    }
+
+    public void incrementRegistered(int count) {
+        registeredCounter.increment(count);
+    }
+
+    public void incrementRejected(int count) {
+        rejectedCounter.increment(count);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenCacheMetrics {
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public TokenCacheMetrics(MeterRegistry registry) {
+        hitCounter = Counter.builder("jwt.verification.cache.lookups")
+                .description("Bearer tokens whose claims were served from the verified-token cache")
+                .tag("result", "hit")
+                .register(registry);
+        missCounter = Counter.builder("jwt.verification.cache.lookups")
+                .description("Bearer tokens whose claims were served from the verified-token cache")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    public void recordHit() {
+        hitCounter.increment();
+    }
+
+    public void recordMiss() {
+        missCounter.increment();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TrainingTypeCacheMetrics {
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter refreshCounter;
+
+    public TrainingTypeCacheMetrics(MeterRegistry registry) {
+        hitCounter = Counter.builder("training_types.cache.lookups")
+                .description("Training type lookups answered from the in-process cache")
+                .tag("result", "hit")
+                .register(registry);
+        missCounter = Counter.builder("training_types.cache.lookups")
+                .description("Training type lookups answered from the in-process cache")
+                .tag("result", "miss")
+                .register(registry);
+        refreshCounter = Counter.builder("training_types.cache.refreshes")
+                .description("Times the training type cache was reloaded from the database")
+                .register(registry);
+    }
+
+    public void recordHit() {
+        hitCounter.increment();
+    }
+
+    public void recordMiss() {
+        missCounter.increment();
+    }
+
+    public void recordRefresh() {
+        refreshCounter.increment();
+    }
+}
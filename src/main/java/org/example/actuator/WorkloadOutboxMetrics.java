@@ -0,0 +1,44 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class WorkloadOutboxMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter sentCounter;
+    private final Counter failedBatchCounter;
+
+    public WorkloadOutboxMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        sentCounter = Counter.builder("workload.outbox.sent")
+                .description("Workload events relayed from the outbox to the broker")
+                .register(registry);
+        failedBatchCounter = Counter.builder("workload.outbox.failed.batches")
+                .description("Outbox batches that could not be sent and were left for the next poll")
+                .register(registry);
+    }
+
+    public void monitorBacklog(Supplier<Number> unsentEvents, Supplier<Number> lagSeconds) {
+        Gauge.builder("workload.outbox.backlog", unsentEvents)
+                .description("Workload events written but not yet sent to the broker")
+                .register(registry);
+        Gauge.builder("workload.outbox.lag", lagSeconds)
+                .description("Age of the oldest unsent workload event")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public void recordSent(int events) {
+        sentCounter.increment(events);
+    }
+
+    public void incrementFailedBatches() {
+        failedBatchCounter.increment();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.actuator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class WorkloadPublisherMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer sendTimer;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSize;
+
+    public WorkloadPublisherMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        sendTimer = Timer.builder("workload.publish.send")
+                .description("Time a sender took to put one batch of workload events on the broker")
+                .register(registry);
+        droppedCounter = Counter.builder("workload.publish.dropped")
+                .description("Workload events turned away because the publish buffer was full")
+                .register(registry);
+        failedCounter = Counter.builder("workload.publish.failed")
+                .description("Workload events that could not be sent after retries or with the breaker open")
+                .register(registry);
+        batchSize = DistributionSummary.builder("workload.publish.batch.size")
+                .description("Workload events a sender took from the buffer and sent together")
+                .register(registry);
+    }
+
+    public void monitorBuffer(Supplier<Number> depth) {
+        Gauge.builder("workload.publish.buffer.depth", depth)
+                .description("Workload events waiting for a sender")
+                .register(registry);
+    }
+
+    public void recordSend(long nanos) {
+        sendTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // reason is "full" when the batch hit its size limit, "window" when the wait for more events ran out
+    public void recordFlush(int events, String reason) {
+        batchSize.record(events);
+        Counter.builder("workload.publish.flushes")
+                .description("Batches sent by the workload publisher, by what triggered the send")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void incrementDropped(int events) {
+        droppedCounter.increment(events);
+    }
+
+    public void incrementFailed(int events) {
+        failedCounter.increment(events);
+    }
+}
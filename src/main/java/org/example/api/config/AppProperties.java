@@ -3,12 +3,19 @@ package org.example.api.config;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.example.security.constants.SecurityConstants.LOCALHOST_3000;
 import static org.example.security.constants.SecurityConstants.LOCALHOST_4200;
 
@@ -32,6 +39,22 @@ public class AppProperties {
     @NotNull
     private Cors cors = new Cors();
 
+    @Valid
+    @NotNull
+    private ReadReplica readReplica = new ReadReplica();
+
+    @Valid
+    @NotNull
+    private RateLimit rateLimit = new RateLimit();
+
+    @Valid
+    @NotNull
+    private Outbox outbox = new Outbox();
+
+    @Valid
+    @NotNull
+    private WorkloadPublisher workloadPublisher = new WorkloadPublisher();
+
     @Data
     public static class Security {
         @NotBlank(message = "JWT secret cannot be blank")
@@ -40,6 +63,96 @@ public class AppProperties {
 
         @Min(value = 1000, message = "JWT expiration must be at least 1000ms")
         private long jwtExpiration;
+
+        // Verified tokens whose claims are kept between requests; zero disables the cache
+        @Min(value = 0, message = "Verified token cache size cannot be negative")
+        private int verifiedTokenCacheSize = 10_000;
+
+        // Revoked access tokens the in-memory filter is sized for; it grows past this when needed
+        @Min(value = 1, message = "Expected revoked tokens must be at least 1")
+        private int expectedRevokedTokens = 100_000;
+
+        // How long an instance trusts its cached copy of a user's security version; a password
+        // change or deactivation on another instance is enforced here after at most this long
+        @NotNull
+        private Duration securityVersionCacheTtl = Duration.ofSeconds(5);
+
+        // Accounts granted ROLE_ADMIN at login and refresh; only they may register users in bulk
+        @NotNull
+        private Set<String> adminUsernames = new HashSet<>();
+
+        // Lifetime of a refresh token; each exchange issues a new one with a fresh lifetime
+        @NotNull
+        private Duration refreshTokenTtl = Duration.ofDays(14);
+
+        @Valid
+        private PasswordHashing passwordHashing = new PasswordHashing();
+
+        @Valid
+        private LoginAttempts loginAttempts = new LoginAttempts();
+
+        @Valid
+        private CredentialStuffing credentialStuffing = new CredentialStuffing();
+
+        @Data
+        public static class PasswordHashing {
+            @Min(value = 1, message = "Password hashing pool needs at least one thread")
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            @Min(value = 1, message = "Password hashing queue capacity must be at least 1")
+            private int queueCapacity = 1000;
+
+            // Logins and password changes get a 503 once this many hashes are already waiting
+            @Min(value = 0, message = "Queued password hashing requests cannot be negative")
+            private int maxQueuedRequests = 50;
+
+            // Sent back as Retry-After when a request is turned away
+            @NotNull
+            private Duration retryAfter = Duration.ofSeconds(1);
+
+            // Bulk registration hashes on its own pool, so an import never queues ahead of logins
+            @Min(value = 1, message = "Bulk password hashing pool needs at least one thread")
+            private int bulkThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+            // Once this many bulk hashes are waiting, the importing thread waits for room
+            @Min(value = 1, message = "Bulk password hashing queue capacity must be at least 1")
+            private int bulkQueueCapacity = 100;
+        }
+
+        @Data
+        public static class LoginAttempts {
+            // Usernames with recent failures held in memory; beyond this the least useful entries are dropped
+            @Min(value = 1, message = "Login attempt tracking needs room for at least one username")
+            private int maxTrackedUsernames = 100_000;
+
+            // How often changed counters are written to login_attempts
+            @NotNull
+            private Duration flushInterval = Duration.ofSeconds(5);
+        }
+
+        /**
+         * Sources that fail logins for many different usernames are refused before the password
+         * is checked. Distinct usernames are estimated per address and per /24 (IPv6: /64).
+         */
+        @Data
+        public static class CredentialStuffing {
+            // Failures older than this no longer count
+            @NotNull
+            private Duration window = Duration.ofMinutes(10);
+
+            @Min(value = 1, message = "Usernames per address must be at least 1")
+            private int maxUsernamesPerAddress = 20;
+
+            @Min(value = 1, message = "Usernames per subnet must be at least 1")
+            private int maxUsernamesPerSubnet = 100;
+
+            // Fixed table sizes; each tracked source costs about 600 bytes
+            @Min(value = 1, message = "Credential stuffing detection needs room for at least one address")
+            private int trackedAddresses = 4096;
+
+            @Min(value = 1, message = "Credential stuffing detection needs room for at least one subnet")
+            private int trackedSubnets = 1024;
+        }
     }
 
     @Data
@@ -77,8 +190,139 @@ public class AppProperties {
         private String[] allowedOrigins = {LOCALHOST_3000, LOCALHOST_4200};
         private String[] allowedMethods = {"GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"};
         private String[] allowedHeaders = {"*"};
-        private String[] exposedHeaders = {"Authorization", "Content-Type"};
+        private String[] exposedHeaders = {"Authorization", "Content-Type", "X-Next-Cursor"};
         private boolean allowCredentials = true;
         private long maxAge = 3600L;
     }
-}
\ No newline at end of file
+
+    /**
+     * Routing of read-only transactions to spring.datasource.replica, when one is configured.
+     */
+    @Data
+    public static class ReadReplica {
+        // Reads by a user who just committed a write stay on the primary this long; zero disables
+        @NotNull
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        // How long to keep reads on the primary after the replica failed to hand out a connection
+        @NotNull
+        private Duration retryAfter = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Relay of workload events from the workload_outbox table to the broker.
+     */
+    @Data
+    public static class Outbox {
+        // Events sent per JMS session and marked sent per UPDATE
+        @Min(value = 1, message = "Outbox batch size must be at least 1")
+        private int batchSize = 100;
+
+        // Sent events are kept this long for troubleshooting, then purged
+        @NotNull
+        private Duration retention = Duration.ofDays(1);
+    }
+
+    /**
+     * Buffer and sender threads between the outbox relay and the broker.
+     */
+    @Data
+    public static class WorkloadPublisher {
+        // Events the buffer holds; the slots are allocated up front
+        @Min(value = 1, message = "Publisher buffer capacity must be at least 1")
+        private int bufferCapacity = 4096;
+
+        // Threads sending to the broker, each over its own session and producer
+        @Min(value = 1, message = "Publisher needs at least one sender")
+        private int senders = 2;
+
+        // Events a sender takes from the buffer and sends in one go; also the most events per envelope
+        @Min(value = 1, message = "Publisher send batch must be at least 1")
+        private int sendBatch = 100;
+
+        // Sends each chunk as one versioned envelope message instead of one message per event
+        private boolean batchEvents = false;
+
+        // With batchEvents, how long a sender waits for a chunk to fill before sending what it has
+        @NotNull
+        private Duration batchWindow = Duration.ofMillis(20);
+
+        // Message groups trainers are hashed into; changing it moves trainers between groups
+        @Min(value = 1, message = "Publisher needs at least one partition")
+        private int partitions = 16;
+
+        // Wire format; JSON goes out as text messages, SMILE as bytes messages
+        @NotNull
+        private Encoding encoding = Encoding.JSON;
+
+        // With batchEvents, gzips each envelope; sent as a bytes message whatever the encoding
+        private boolean compressEnvelopes = false;
+
+        // What a full buffer does to the caller; dropped events stay in the outbox for the next poll
+        @NotNull
+        private OverflowPolicy overflow = OverflowPolicy.BLOCK;
+
+        // How long BLOCK waits for a free slot before giving up
+        @NotNull
+        private Duration offerTimeout = Duration.ofSeconds(2);
+
+        // How long a caller waits for its events to reach the broker
+        @NotNull
+        private Duration sendTimeout = Duration.ofSeconds(30);
+
+        public enum OverflowPolicy {
+            BLOCK, DROP
+        }
+
+        public enum Encoding {
+            JSON, SMILE
+        }
+    }
+
+    /**
+     * Token buckets per client and route group, checked before the security filter chain.
+     * Authenticated requests are counted per username, anonymous ones per remote address.
+     */
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+
+        // Matched in order, first match wins; requests outside every group are not limited
+        @Valid
+        @NotNull
+        private List<Route> routes = new ArrayList<>(List.of(
+                Route.of("auth", 10, 10, Duration.ofMinutes(1), "/api/auth/**"),
+                Route.of("trainings", 30, 30, Duration.ofMinutes(1), "/api/trainings/**"),
+                Route.of("api", 100, 100, Duration.ofSeconds(10), "/api/**")));
+
+        @Data
+        public static class Route {
+            @NotBlank(message = "Rate limit route name cannot be blank")
+            private String name;
+
+            @NotEmpty(message = "Rate limit route needs at least one path pattern")
+            private List<String> paths = new ArrayList<>();
+
+            // Requests a client can make in a burst
+            @Min(value = 1, message = "Rate limit capacity must be at least 1")
+            private int capacity;
+
+            // The bucket gains refillTokens every refillPeriod, up to capacity
+            @Min(value = 1, message = "Rate limit refill must be at least one token")
+            private int refillTokens;
+
+            @NotNull
+            private Duration refillPeriod;
+
+            static Route of(String name, int capacity, int refillTokens, Duration refillPeriod, String... paths) {
+                Route route = new Route();
+                route.setName(name);
+                route.setCapacity(capacity);
+                route.setRefillTokens(refillTokens);
+                route.setRefillPeriod(refillPeriod);
+                route.setPaths(new ArrayList<>(List.of(paths)));
+                return route;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Shared reading/writing for the bulk endpoints: JSON array or NDJSON in, NDJSON out
+final class BulkPayloads {
+
+    private BulkPayloads() {
+    }
+
+    // A root-level JSON array and whitespace-separated NDJSON values both iterate row by row
+    static <T> List<T> read(ObjectMapper objectMapper, InputStream body, Class<T> type, int maxRows) throws IOException {
+        List<T> rows = new ArrayList<>();
+        try (MappingIterator<T> values = objectMapper.readerFor(type).readValues(body)) {
+            while (values.hasNextValue()) {
+                if (rows.size() == maxRows) {
+                    throw new IllegalArgumentException("Bulk request is limited to " + maxRows + " rows");
+                }
+                rows.add(values.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed row " + rows.size() + ": " + e.getOriginalMessage());
+        }
+        return rows;
+    }
+
+    static void writeLine(ObjectMapper objectMapper, OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void flush(OutputStream outputStream) {
+        try {
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,19 +1,25 @@
 package org.example.api.controller;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.LoginRequest;
+import org.example.api.dto.request.RefreshTokenRequest;
 import org.example.api.dto.response.LoginResponse;
+import org.example.security.AuthTokens;
 import org.example.security.service.AuthService;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
 import java.util.UUID;
 
+import static org.example.security.constants.SecurityConstants.TOKEN_PREFIX;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
@@ -23,7 +29,8 @@ public class LoginController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest httpRequest) {
         String txId = UUID.randomUUID().toString();
         MDC.put("txId", txId);
         MDC.put("endpoint", "POST /api/auth/login");
@@ -32,7 +39,9 @@ public class LoginController {
         try {
             log.info("Login request received for username: {}", request.getUsername());
 
-            String token = authService.login(request.getUsername(), new String(password));
+            String token = authService.login(request.getUsername(), new String(password),
+                    httpRequest.getRemoteAddr());
+            String refreshToken = authService.issueRefreshToken(request.getUsername());
 
             log.info("Login successful for username: {}", request.getUsername());
 
@@ -40,6 +49,7 @@ public class LoginController {
                     .success(true)
                     .message("Login successful")
                     .token(token)
+                    .refreshToken(refreshToken)
                     .username(request.getUsername())
                     .build();
 
@@ -51,16 +61,40 @@ public class LoginController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        String txId = UUID.randomUUID().toString();
+        MDC.put("txId", txId);
+        MDC.put("endpoint", "POST /api/auth/refresh");
+
+        AuthTokens tokens = authService.refresh(request.getRefreshToken());
+
+        LoginResponse response = LoginResponse.builder()
+                .success(true)
+                .message("Token refreshed")
+                .token(tokens.getAccessToken())
+                .refreshToken(tokens.getRefreshToken())
+                .username(tokens.getUsername())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @PostMapping("/logout")
-    public ResponseEntity<LoginResponse> logout() {
+    public ResponseEntity<LoginResponse> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
         String txId = UUID.randomUUID().toString();
         MDC.put("txId", txId);
         MDC.put("endpoint", "POST /api/auth/logout");
 
         log.info("Logout request received");
 
-        authService.logout();
+        String accessToken = authorization != null && authorization.startsWith(TOKEN_PREFIX)
+                ? authorization.substring(TOKEN_PREFIX.length())
+                : null;
+        authService.logout(accessToken, request == null ? null : request.getRefreshToken());
 
         LoginResponse response = LoginResponse.builder()
                 .success(true)
@@ -1,5 +1,6 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,14 +13,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.TraineeRequest;
 import org.example.api.dto.response.ErrorResponse;
+import org.example.api.dto.response.RegistrationOutcomeResponse;
 import org.example.api.dto.response.TraineeResponse;
 import org.example.exception.UserNotFoundException;
 import org.example.persistance.model.Trainee;
+import org.example.services.BulkRegistrationService;
 import org.example.services.TraineeService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
@@ -29,7 +36,12 @@ import java.util.List;
 @Tag(name = "Trainees", description = "Trainee management endpoints - ALL PUBLIC (no authentication required)")
 public class TraineeController {
 
+    public static final int MAX_BULK_REGISTRATIONS = 20_000;
+
     private final TraineeService traineeService;
+    private final BulkRegistrationService bulkRegistrationService;
+    private final ObjectMapper objectMapper;
+
     @Operation(
             summary = "Register a new trainee",
             description = "Public endpoint to register a new trainee. Username and password are auto-generated. " +
@@ -71,6 +83,63 @@ public class TraineeController {
                         .build());
     }
 
+    @Operation(
+            summary = "Register trainees in bulk",
+            description = "Register up to 20000 trainees from a JSON array or newline-delimited JSON " +
+                    "(Content-Type: application/x-ndjson). Generated credentials, or the reason a row was " +
+                    "rejected, are streamed back as newline-delimited JSON in request order as each chunk commits. Requires a JWT of an administrator account."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One line per row with credentials or an error",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = RegistrationOutcomeResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed payload or too many rows",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - administrator role required",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> registerTraineesInBulk(InputStream body) throws IOException {
+        List<TraineeRequest> requests = BulkPayloads.read(objectMapper, body, TraineeRequest.class, MAX_BULK_REGISTRATIONS);
+        log.info("Bulk registering {} trainees", requests.size());
+
+        List<Trainee> trainees = requests.stream()
+                .<Trainee>map(request -> request == null ? null : Trainee.builder()
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .dateOfBirth(request.getDateOfBirth())
+                        .address(request.getAddress())
+                        .isActive(true)
+                        .build())
+                .toList();
+
+        StreamingResponseBody responseBody = outputStream ->
+                bulkRegistrationService.registerTrainees(trainees, outcome -> {
+                    BulkPayloads.writeLine(objectMapper, outputStream, RegistrationOutcomeResponse.builder()
+                            .row(outcome.getRow())
+                            .username(outcome.getUsername())
+                            .password(outcome.getTemporaryPassword())
+                            .error(outcome.getError())
+                            .build());
+                    BulkPayloads.flush(outputStream);
+                });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
     @Operation(
             summary = "Get trainee by username",
             description = "Retrieve detailed information about a specific trainee. No authentication required."
@@ -1,5 +1,6 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +14,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.TrainerRequest;
 import org.example.api.dto.response.ErrorResponse;
+import org.example.api.dto.response.RegistrationOutcomeResponse;
 import org.example.integration.workload.dto.TrainerRegistrationResponse;
 import org.example.exception.UserNotFoundException;
 import org.example.persistance.model.Trainer;
 import org.example.persistance.model.TrainerRegistrationResult;
+import org.example.services.BulkRegistrationService;
 import org.example.services.TrainerService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
@@ -30,7 +37,12 @@ import java.util.List;
 @Tag(name = "Trainers", description = "Trainer management endpoints. POST (registration) is public, all other endpoints require JWT authentication.")
 public class TrainerController {
 
+    public static final int MAX_BULK_REGISTRATIONS = 20_000;
+
     private final TrainerService trainerService;
+    private final BulkRegistrationService bulkRegistrationService;
+    private final ObjectMapper objectMapper;
+
     @Operation(
             summary = "Register a new trainer",
             description = "Public endpoint to register a new trainer. Username and password are auto-generated. " +
@@ -63,6 +75,62 @@ public class TrainerController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Register trainers in bulk",
+            description = "Register up to 20000 trainers from a JSON array or newline-delimited JSON " +
+                    "(Content-Type: application/x-ndjson). Generated credentials, or the reason a row was " +
+                    "rejected, are streamed back as newline-delimited JSON in request order as each chunk commits. Requires a JWT of an administrator account."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One line per row with credentials or an error",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = RegistrationOutcomeResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed payload or too many rows",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - administrator role required",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> registerTrainersInBulk(InputStream body) throws IOException {
+        List<TrainerRequest> requests = BulkPayloads.read(objectMapper, body, TrainerRequest.class, MAX_BULK_REGISTRATIONS);
+        log.info("Bulk registering {} trainers", requests.size());
+
+        List<Trainer> trainers = requests.stream()
+                .<Trainer>map(request -> request == null ? null : Trainer.builder()
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .specialization(request.getSpecialization())
+                        .isActive(true)
+                        .build())
+                .toList();
+
+        StreamingResponseBody responseBody = outputStream ->
+                bulkRegistrationService.registerTrainers(trainers, outcome -> {
+                    BulkPayloads.writeLine(objectMapper, outputStream, RegistrationOutcomeResponse.builder()
+                            .row(outcome.getRow())
+                            .username(outcome.getUsername())
+                            .password(outcome.getTemporaryPassword())
+                            .error(outcome.getError())
+                            .build());
+                    BulkPayloads.flush(outputStream);
+                });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
     @Operation(
             summary = "Get trainer by username",
             description = "Retrieve detailed information about a specific trainer. Requires JWT authentication."
@@ -1,7 +1,9 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,16 +13,23 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.TrainingRequest;
+import org.example.api.dto.response.BulkTrainingResponse;
 import org.example.api.dto.response.ErrorResponse;
 import org.example.api.dto.response.TrainingResponse;
 import org.example.mapper.TrainingResponseMapper;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingPage;
 import org.example.services.TrainingService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,8 +41,12 @@ import java.util.stream.Collectors;
 @Tag(name = "Trainings", description = "Training session management endpoints - ALL PUBLIC (no authentication required)")
 public class TrainingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_BULK_ROWS = 10_000;
+
     private final TrainingService trainingService;
     private final TrainingResponseMapper trainingResponseMapper;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Create a new training session",
@@ -68,27 +81,97 @@ public class TrainingController {
                 .body(trainingResponseMapper.toResponse(created));
     }
 
+    @Operation(
+            summary = "Create training sessions in bulk",
+            description = "Import up to 10000 training sessions from a JSON array or newline-delimited JSON " +
+                    "(Content-Type: application/x-ndjson) in one transaction. Invalid rows are reported and " +
+                    "skipped, the rest are created. No authentication required."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import processed, see per-row errors",
+                    content = @Content(schema = @Schema(implementation = BulkTrainingResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed payload or too many rows",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkTrainingResponse> createTrainingsInBulk(InputStream body) throws IOException {
+        List<TrainingRequest> requests = BulkPayloads.read(objectMapper, body, TrainingRequest.class, MAX_BULK_ROWS);
+        log.info("Bulk importing {} trainings", requests.size());
+
+        BulkTrainingResult result = trainingService.createTrainings(requests);
+
+        log.info("Bulk import finished - created: {}, failed: {}", result.getCreated(), result.getFailures().size());
+
+        return ResponseEntity.ok(BulkTrainingResponse.builder()
+                .received(result.getReceived())
+                .created(result.getCreated())
+                .failed(result.getFailures().size())
+                .errors(result.getFailures().stream()
+                        .map(failure -> new BulkTrainingResponse.RowError(failure.getRow(), failure.getMessage()))
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
     @Operation(
             summary = "Get all training sessions",
-            description = "Retrieve a list of all training sessions in the system. No authentication required."
+            description = "Retrieve one page of training sessions ordered by date. Pass the X-Next-Cursor header " +
+                    "value of the previous page as the cursor to continue. No authentication required."
     )
     @ApiResponse(
             responseCode = "200",
-            description = "List of trainings retrieved successfully"
+            description = "Page of trainings retrieved successfully",
+            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Continuation token, absent on the last page")
     )
 
     @GetMapping
-    public ResponseEntity<List<TrainingResponse>> getAllTrainings() {
-        log.info("Fetching all trainings");
+    public ResponseEntity<List<TrainingResponse>> getAllTrainings(
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of trainings per page (1-500)")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Fetching trainings page - cursor: {}, limit: {}", cursor, limit);
 
-        List<Training> trainings = trainingService.listAll();
-        List<TrainingResponse> responses = trainings.stream()
+        TrainingPage page = trainingService.listPage(cursor, limit);
+        List<TrainingResponse> responses = page.getTrainings().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
 
-        log.info("Fetched {} trainings", responses.size());
+        log.info("Fetched {} trainings, hasNext: {}", responses.size(), page.getNextCursor() != null);
 
-        return ResponseEntity.ok(responses);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+
+        return builder.body(responses);
+    }
+
+    @Operation(
+            summary = "Stream all training sessions",
+            description = "Stream every training session as newline-delimited JSON straight from a database cursor. " +
+                    "Select it with Accept: application/x-ndjson. No authentication required."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Trainings streamed successfully"
+    )
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTrainings() {
+        log.info("Streaming all trainings");
+
+        StreamingResponseBody body = outputStream ->
+                trainingService.streamAll(training ->
+                        BulkPayloads.writeLine(objectMapper, outputStream, mapToResponse(training)));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(
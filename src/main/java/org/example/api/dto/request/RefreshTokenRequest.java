@@ -0,0 +1,20 @@
+package org.example.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Refresh token exchanged for a new access token")
+public class RefreshTokenRequest {
+
+    @Schema(description = "Refresh token from the last login or refresh", example = "q3Xk9...", required = true)
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
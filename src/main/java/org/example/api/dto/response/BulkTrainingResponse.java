@@ -0,0 +1,42 @@
+package org.example.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of a bulk training import")
+public class BulkTrainingResponse {
+
+    @Schema(description = "Number of rows in the request", example = "1000")
+    private int received;
+
+    @Schema(description = "Number of trainings created", example = "998")
+    private int created;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private int failed;
+
+    @Schema(description = "Rejected rows with their zero-based position in the request")
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+
+        @Schema(description = "Zero-based position of the row in the request", example = "17")
+        private int row;
+
+        @Schema(description = "Why the row was rejected", example = "Trainer not found: jane.smith")
+        private String message;
+    }
+}
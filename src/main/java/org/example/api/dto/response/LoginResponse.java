@@ -24,6 +24,9 @@ public class LoginResponse {
     @Schema(description = "JWT authentication token", example = "eyJhbGciOiJIUzI1NiJ9...")
     private String token;
 
+    @Schema(description = "Single-use refresh token for POST /api/auth/refresh", example = "q3Xk9...")
+    private String refreshToken;
+
     @Schema(description = "Username of authenticated user", example = "john.doe")
     private String username;
 
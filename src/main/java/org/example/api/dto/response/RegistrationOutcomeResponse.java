@@ -0,0 +1,29 @@
+package org.example.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One line of a bulk registration result: generated credentials or the reason the row was rejected")
+public class RegistrationOutcomeResponse {
+
+    @Schema(description = "Zero-based position of the row in the request", example = "0")
+    private int row;
+
+    @Schema(description = "Generated username", example = "john.doe")
+    private String username;
+
+    @Schema(description = "Generated temporary password", example = "aB3dE5fG7h")
+    private String password;
+
+    @Schema(description = "Why the row was rejected", example = "First name must be between 3 and 50 characters")
+    private String error;
+}
@@ -2,8 +2,11 @@ package org.example.dao;
 
 import org.example.persistance.model.Trainee;
 
+import java.util.Set;
+
 public interface TraineeDao extends GenericDao<Trainee> {
     void update(Trainee trainee);
     void delete(Trainee trainee);
     Trainee findByUsername(String username);
+    Set<String> findUsernamesByNameContaining(String fragment);
 }
@@ -2,7 +2,10 @@ package org.example.dao;
 
 import org.example.persistance.model.Trainer;
 
+import java.util.Set;
+
 public interface TrainerDao extends GenericDao<Trainer> {
     void update(Trainer trainer);
     Trainer findByUsername(String username);
+    Set<String> findUsernamesByNameContaining(String fragment);
 }
@@ -0,0 +1,81 @@
+package org.example.dao.impl;
+
+import org.example.util.SearchNames;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram inverted index over normalized full names, keyed by username. A substring query
+ * only verifies users found under its rarest trigram, so lookups touch a handful of
+ * candidates instead of every stored user.
+ */
+class NameGramIndex {
+
+    private final Map<String, String> namesByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> usernamesByGram = new ConcurrentHashMap<>();
+
+    synchronized void put(String username, String firstName, String lastName) {
+        remove(username);
+        String name = SearchNames.normalize(firstName, lastName);
+        namesByUsername.put(username, name);
+        for (String gram : SearchNames.grams(name)) {
+            usernamesByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(username);
+        }
+    }
+
+    synchronized void remove(String username) {
+        String name = namesByUsername.remove(username);
+        if (name == null) {
+            return;
+        }
+        for (String gram : SearchNames.grams(name)) {
+            Set<String> postings = usernamesByGram.get(gram);
+            if (postings != null) {
+                postings.remove(username);
+                if (postings.isEmpty()) {
+                    usernamesByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    synchronized void clear() {
+        namesByUsername.clear();
+        usernamesByGram.clear();
+    }
+
+    Set<String> search(String fragment) {
+        String query = SearchNames.normalize(fragment);
+        Set<String> grams = SearchNames.grams(query);
+
+        // Too short to form a trigram: nothing to intersect, check every name
+        if (grams.isEmpty()) {
+            Set<String> matches = new HashSet<>();
+            namesByUsername.forEach((username, name) -> {
+                if (name.contains(query)) {
+                    matches.add(username);
+                }
+            });
+            return matches;
+        }
+
+        // Every match contains all query trigrams, so the rarest one bounds the candidates
+        Set<String> candidates = grams.stream()
+                .map(gram -> usernamesByGram.getOrDefault(gram, Set.of()))
+                .min(Comparator.comparingInt(Set::size))
+                .orElseThrow();
+
+        Set<String> matches = new HashSet<>();
+        for (String username : candidates) {
+            String name = namesByUsername.get(username);
+            if (name != null && name.contains(query)) {
+                matches.add(username);
+            }
+        }
+        return matches;
+    }
+}
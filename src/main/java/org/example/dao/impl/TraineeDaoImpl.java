@@ -9,27 +9,33 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Repository
 @Slf4j
 public class TraineeDaoImpl implements TraineeDao {
 
     private Map<String, Trainee> traineeStorage;
+    private final NameGramIndex nameIndex = new NameGramIndex();
 
     @Autowired
     public void setTraineeStorage(@Qualifier("traineeStorage") Map<String, Trainee> traineeStorage) {
         this.traineeStorage = traineeStorage;
+        nameIndex.clear();
+        traineeStorage.values().forEach(this::index);
     }
 
     @Override
     public void save(Trainee trainee) {
         traineeStorage.put(trainee.getUsername(), trainee);
+        index(trainee);
         log.info("Saved new Trainee: {}", trainee.getUsername());
     }
 
     @Override
     public void update(Trainee trainee) {
         traineeStorage.put(trainee.getUsername(), trainee);
+        index(trainee);
         log.info("Updated Trainee: {}", trainee.getUsername());
     }
 
@@ -42,6 +48,7 @@ public class TraineeDaoImpl implements TraineeDao {
 
         if (traineeStorage.containsKey(trainee.getUsername())) {
             traineeStorage.remove(trainee.getUsername());
+            nameIndex.remove(trainee.getUsername());
             log.info("Deleted Trainee: {}", trainee.getUsername());
         } else {
             log.warn("Attempted to delete non-existent Trainee: {}", trainee.getUsername());
@@ -54,6 +61,12 @@ public class TraineeDaoImpl implements TraineeDao {
         return traineeStorage.get(username);
     }
 
+    @Override
+    public Set<String> findUsernamesByNameContaining(String fragment) {
+        log.debug("Searching Trainees by name fragment: {}", fragment);
+        return nameIndex.search(fragment);
+    }
+
     @Override
     public List<Trainee> findAll() {
         log.info("Fetching all Trainees. Total count: {}", traineeStorage.size());
@@ -64,4 +77,8 @@ public class TraineeDaoImpl implements TraineeDao {
     public Class<Trainee> getEntityClass() {
         return Trainee.class;
     }
+
+    private void index(Trainee trainee) {
+        nameIndex.put(trainee.getUsername(), trainee.getFirstName(), trainee.getLastName());
+    }
 }
@@ -9,27 +9,33 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Repository
 @Slf4j
 public class TrainerDaoImpl implements TrainerDao {
 
     private Map<String, Trainer> trainerStorage;
+    private final NameGramIndex nameIndex = new NameGramIndex();
 
     @Autowired
     public void setTrainerStorage(@Qualifier("trainerStorage") Map<String, Trainer> trainerStorage) {
         this.trainerStorage = trainerStorage;
+        nameIndex.clear();
+        trainerStorage.values().forEach(this::index);
     }
 
     @Override
     public void save(Trainer trainer) {
         trainerStorage.put(trainer.getUsername(), trainer);
+        index(trainer);
         log.info("Saved Trainer: {}", trainer.getUsername());
     }
 
     @Override
     public void update(Trainer trainer) {
         trainerStorage.put(trainer.getUsername(), trainer);
+        index(trainer);
         log.info("Updated Trainer: {}", trainer.getUsername());
     }
 
@@ -39,6 +45,12 @@ public class TrainerDaoImpl implements TrainerDao {
         return trainerStorage.get(username);
     }
 
+    @Override
+    public Set<String> findUsernamesByNameContaining(String fragment) {
+        log.debug("Searching Trainers by name fragment: {}", fragment);
+        return nameIndex.search(fragment);
+    }
+
     @Override
     public List<Trainer> findAll() {
         log.info("Fetching all Trainers. Total count: {}", trainerStorage.size());
@@ -49,4 +61,8 @@ public class TrainerDaoImpl implements TrainerDao {
     public Class<Trainer> getEntityClass() {
         return Trainer.class;
     }
+
+    private void index(Trainer trainer) {
+        nameIndex.put(trainer.getUsername(), trainer.getFirstName(), trainer.getLastName());
+    }
 }
@@ -0,0 +1,31 @@
+package org.example.integration.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envelope carrying several workload events in one JMS message, sent when
+ * {@code app.workload-publisher.batch-events} is on. Each event keeps its own eventId for
+ * de-duplication. Messages carrying an envelope have the {@link #TYPE_PROPERTY} and
+ * {@link #VERSION_PROPERTY} properties set, so consumers can tell them from single events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadEventBatch {
+
+    public static final String TYPE_PROPERTY = "envelope";
+    public static final String TYPE = "workload-event-batch";
+    public static final String VERSION_PROPERTY = "envelopeVersion";
+    public static final int CURRENT_VERSION = 1;
+
+    private int version;
+    @Builder.Default
+    private List<WorkloadEventMessage> events = new ArrayList<>();
+}
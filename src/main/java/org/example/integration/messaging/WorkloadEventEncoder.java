@@ -0,0 +1,133 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.example.api.config.AppProperties.WorkloadPublisher.Encoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Turns the JSON payloads kept in the outbox into JMS messages in the configured wire format.
+ * JSON stays a {@code TextMessage} so existing consumers keep working; Smile and compressed
+ * envelopes go out as a {@code BytesMessage}. Every message names its content type and schema
+ * version in properties. Smile is transcoded token by token from the stored JSON; field names
+ * repeated within one message are written once and back-referenced, which is where envelopes
+ * gain most.
+ */
+final class WorkloadEventEncoder {
+
+    static final String CONTENT_TYPE_JSON = "application/json";
+    static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+    static final String CONTENT_ENCODING_GZIP = "gzip";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final Encoding encoding;
+    private final boolean compressEnvelopes;
+
+    WorkloadEventEncoder(Encoding encoding, boolean compressEnvelopes) {
+        this.encoding = encoding;
+        this.compressEnvelopes = compressEnvelopes;
+    }
+
+    Message event(Session session, String payload) throws JMSException {
+        Message message;
+        if (encoding == Encoding.JSON) {
+            message = session.createTextMessage(payload);
+        } else {
+            message = bytesMessage(session, transcode(List.of(payload), false));
+        }
+        return withHeaders(message, false);
+    }
+
+    Message envelope(Session session, List<String> payloads) throws JMSException {
+        Message message;
+        if (encoding == Encoding.JSON && !compressEnvelopes) {
+            message = session.createTextMessage(jsonEnvelope(payloads));
+        } else if (encoding == Encoding.JSON) {
+            message = bytesMessage(session, gzip(jsonEnvelope(payloads).getBytes(StandardCharsets.UTF_8)));
+        } else {
+            byte[] smile = transcode(payloads, true);
+            message = bytesMessage(session, compressEnvelopes ? gzip(smile) : smile);
+        }
+        message.setStringProperty(WorkloadEventBatch.TYPE_PROPERTY, WorkloadEventBatch.TYPE);
+        message.setIntProperty(WorkloadEventBatch.VERSION_PROPERTY, WorkloadEventBatch.CURRENT_VERSION);
+        return withHeaders(message, compressEnvelopes);
+    }
+
+    // The payloads are already JSON, so the envelope is spliced together rather than re-serialized
+    String jsonEnvelope(List<String> payloads) {
+        StringBuilder json = new StringBuilder(payloads.size() * 256)
+                .append("{\"version\":").append(WorkloadEventBatch.CURRENT_VERSION).append(",\"events\":[");
+        for (int i = 0; i < payloads.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(payloads.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    // One event, or an envelope around all of them
+    byte[] transcode(List<String> payloads, boolean asEnvelope) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payloads.size() * 160);
+        try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+            if (asEnvelope) {
+                generator.writeStartObject();
+                generator.writeNumberField("version", WorkloadEventBatch.CURRENT_VERSION);
+                generator.writeArrayFieldStart("events");
+            }
+            for (String payload : payloads) {
+                try (JsonParser parser = jsonFactory.createParser(payload)) {
+                    parser.nextToken();
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            if (asEnvelope) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode workload events as Smile", e);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress workload events", e);
+        }
+        return out.toByteArray();
+    }
+
+    private BytesMessage bytesMessage(Session session, byte[] body) throws JMSException {
+        BytesMessage message = session.createBytesMessage();
+        message.writeBytes(body);
+        return message;
+    }
+
+    private Message withHeaders(Message message, boolean compressed) throws JMSException {
+        message.setStringProperty(WorkloadEventMessage.CONTENT_TYPE_PROPERTY,
+                encoding == Encoding.JSON ? CONTENT_TYPE_JSON : CONTENT_TYPE_SMILE);
+        if (compressed) {
+            message.setStringProperty(WorkloadEventMessage.CONTENT_ENCODING_PROPERTY, CONTENT_ENCODING_GZIP);
+        }
+        message.setIntProperty(WorkloadEventMessage.SCHEMA_VERSION_PROPERTY, WorkloadEventMessage.SCHEMA_VERSION);
+        return message;
+    }
+}
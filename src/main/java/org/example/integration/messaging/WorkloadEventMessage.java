@@ -8,6 +8,13 @@ import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
 @AllArgsConstructor
 @Builder
 public class WorkloadEventMessage {
+
+    // Message properties telling consumers which decoder to use
+    public static final String CONTENT_TYPE_PROPERTY = "contentType";
+    public static final String CONTENT_ENCODING_PROPERTY = "contentEncoding";
+    public static final String SCHEMA_VERSION_PROPERTY = "schemaVersion";
+    public static final int SCHEMA_VERSION = 1;
+
     private String eventId;
     private String transactionId;
     private TrainerWorkloadEventRequest request;
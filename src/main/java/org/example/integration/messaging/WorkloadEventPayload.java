@@ -0,0 +1,11 @@
+package org.example.integration.messaging;
+
+/**
+ * A serialized workload event on its way to the broker, with the trainer it is about so the
+ * publisher can keep that trainer's events in order.
+ *
+ * @param trainerUsername the trainer, or null when unknown; such events share one group
+ * @param json            the {@link WorkloadEventMessage} as JSON
+ */
+public record WorkloadEventPayload(String trainerUsername, String json) {
+}
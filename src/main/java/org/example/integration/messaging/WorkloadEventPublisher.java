@@ -1,32 +1,345 @@
 package org.example.integration.messaging;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jms.core.JmsTemplate;
+import org.example.actuator.WorkloadPublisherMetrics;
+import org.example.api.config.AppProperties;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Puts workload events on {@link Queues#WORKLOAD_EVENTS}. Callers hand payloads to bounded
+ * buffers, one per sender thread, and each sender drains its own over a session and producer it
+ * keeps open between batches. Every send goes through the {@code jmsPublishRetry} retry and the
+ * {@code jmsPublishCB} breaker, so a broker outage fails callers fast instead of tying up
+ * senders. With {@code batch-events} on, a sender waits up to {@code batch-window} for its chunk
+ * to fill and sends it as {@link WorkloadEventBatch} envelopes. The wire format is chosen by
+ * {@code encoding}, see {@link WorkloadEventEncoder}.
+ * <p>
+ * Each trainer hashes to one of {@code partitions} message groups, stamped as
+ * {@code JMSXGroupID}. A group always goes through the same sender, so a trainer's events reach
+ * the queue in submission order, and the broker hands a group to one consumer at a time, so
+ * consumers can run in parallel without reordering a trainer's ADD and DELETE.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class WorkloadEventPublisher {
 
-    private final JmsTemplate jmsTemplate;
+    static final String CIRCUIT_BREAKER = "jmsPublishCB";
+    static final String RETRY = "jmsPublishRetry";
+    static final String FLUSH_FULL = "full";
+    static final String FLUSH_WINDOW = "window";
+    static final String GROUP_ID_PROPERTY = "JMSXGroupID";
+    static final String GROUP_PREFIX = "workload-";
+
     private final ObjectMapper objectMapper;
+    private final ConnectionFactory connectionFactory;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final WorkloadPublisherMetrics metrics;
+    private final AppProperties.WorkloadPublisher config;
+    private final WorkloadEventEncoder encoder;
+    private final List<Sender> senders = new ArrayList<>();
+    private final List<Thread> senderThreads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public WorkloadEventPublisher(ObjectMapper objectMapper,
+                                  ConnectionFactory connectionFactory,
+                                  CircuitBreakerRegistry circuitBreakerRegistry,
+                                  RetryRegistry retryRegistry,
+                                  AppProperties appProperties,
+                                  WorkloadPublisherMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.connectionFactory = connectionFactory;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+        this.retry = retryRegistry.retry(RETRY);
+        this.metrics = metrics;
+        this.config = appProperties.getWorkloadPublisher();
+        this.encoder = new WorkloadEventEncoder(config.getEncoding(), config.isCompressEnvelopes());
+        // The configured capacity is shared out between the senders
+        int perSender = Math.max(1, config.getBufferCapacity() / config.getSenders());
+
+        ThreadFactory threads = new CustomizableThreadFactory("workload-publish-");
+        for (int i = 0; i < config.getSenders(); i++) {
+            Sender sender = new Sender(perSender);
+            Thread thread = threads.newThread(sender);
+            thread.setDaemon(true);
+            senders.add(sender);
+            senderThreads.add(thread);
+            thread.start();
+        }
+        metrics.monitorBuffer(() -> senders.stream().mapToInt(sender -> sender.buffer.size()).sum());
+    }
+
+    /**
+     * Message group of a trainer's events. Stable across restarts and instances, so a group
+     * keeps meaning the same trainers for as long as {@code partitions} is unchanged.
+     */
+    public static String groupId(String trainerUsername, int partitions) {
+        return GROUP_PREFIX + partition(trainerUsername, partitions);
+    }
+
+    private static int partition(String trainerUsername, int partitions) {
+        // String.hashCode is specified by the language, so every instance agrees on it
+        return trainerUsername == null ? 0 : Math.floorMod(trainerUsername.hashCode(), partitions);
+    }
 
-    @SneakyThrows
     public void publish(WorkloadEventMessage message) {
+        publishPayloads(List.of(toPayload(message)));
+    }
+
+    public void publishAll(List<WorkloadEventMessage> messages) {
+        publishPayloads(messages.stream().map(this::toPayload).toList());
+    }
+
+    /**
+     * Sends the payloads and waits until the broker has all of them.
+     *
+     * @throws RejectedExecutionException if the buffer had no room for them
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the breaker is open
+     * @throws org.springframework.jms.JmsException if sending failed after retries
+     */
+    public void publishPayloads(List<WorkloadEventPayload> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        Duration timeout = config.getSendTimeout();
+        try {
+            submit(payloads).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not publish workload events", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Workload events did not reach the broker within " + timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing workload events", e);
+        }
+
+        log.info("Published JMS batch -> queue={} events={}", Queues.WORKLOAD_EVENTS, payloads.size());
+    }
+
+    /**
+     * Queues the payloads for the senders. The future completes once every payload is on the
+     * broker, or fails with the first error; payloads refused by a full buffer are not sent.
+     */
+    public CompletableFuture<Void> submit(List<WorkloadEventPayload> payloads) {
+        Batch batch = new Batch(payloads.size());
+        if (payloads.isEmpty()) {
+            batch.done.complete(null);
+        }
+        for (int i = 0; i < payloads.size(); i++) {
+            WorkloadEventPayload payload = payloads.get(i);
+            int partition = partition(payload.trainerUsername(), config.getPartitions());
+            Sender sender = senders.get(partition % senders.size());
+            if (!offer(sender, new PendingEvent(GROUP_PREFIX + partition, payload.json(), batch))) {
+                metrics.incrementDropped(payloads.size() - i);
+                batch.failed(new RejectedExecutionException("Workload publish buffer is full"));
+                break;
+            }
+        }
+        return batch.done;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        senderThreads.forEach(Thread::interrupt);
+        for (Thread thread : senderThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Whatever is left was never sent; the outbox still has it
+        List<PendingEvent> unsent = new ArrayList<>();
+        senders.forEach(sender -> sender.buffer.drainTo(unsent));
+        unsent.forEach(event -> event.batch().failed(new RejectedExecutionException("Workload publisher stopped")));
+    }
+
+    @SneakyThrows
+    WorkloadEventPayload toPayload(WorkloadEventMessage message) {
+        String trainer = message.getRequest() == null ? null : message.getRequest().getUsername();
+        return new WorkloadEventPayload(trainer, objectMapper.writeValueAsString(message));
+    }
+
+    private boolean offer(Sender sender, PendingEvent event) {
+        if (!running) {
+            return false;
+        }
+        if (config.getOverflow() == AppProperties.WorkloadPublisher.OverflowPolicy.DROP) {
+            return sender.buffer.offer(event);
+        }
+        try {
+            return sender.buffer.offer(event, config.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record PendingEvent(String groupId, String payload, Batch batch) {
+    }
+
+    private static final class Batch {
+
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Batch(int size) {
+            this.remaining = new AtomicInteger(size);
+        }
+
+        void sent() {
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+
+        void failed(Throwable error) {
+            done.completeExceptionally(error);
+        }
+    }
+
+    private final class Sender implements Runnable {
+
+        private final ArrayBlockingQueue<PendingEvent> buffer;
+        private final List<PendingEvent> chunk = new ArrayList<>(config.getSendBatch());
+        private Connection connection;
+        private Session session;
+        private MessageProducer producer;
+
+        private Sender(int capacity) {
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    chunk.add(buffer.take());
+                    String reason = fill();
+                    metrics.recordFlush(chunk.size(), reason);
+                    sendChunk();
+                    chunk.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                chunk.forEach(event -> event.batch().failed(new RejectedExecutionException("Workload publisher stopped")));
+                close();
+            }
+        }
+
+        // Tops the chunk up from the buffer and tells why it stopped
+        private String fill() throws InterruptedException {
+            int max = config.getSendBatch();
+            long window = config.isBatchEvents() ? config.getBatchWindow().toNanos() : 0;
+            long deadline = System.nanoTime() + window;
+            while (true) {
+                buffer.drainTo(chunk, max - chunk.size());
+                if (chunk.size() >= max) {
+                    return FLUSH_FULL;
+                }
+                long remaining = deadline - System.nanoTime();
+                PendingEvent next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (next == null) {
+                    return FLUSH_WINDOW;
+                }
+                chunk.add(next);
+            }
+        }
+
+        private void sendChunk() {
+            long start = System.nanoTime();
+            try {
+                Retry.decorateCheckedRunnable(retry,
+                        CircuitBreaker.decorateCheckedRunnable(circuitBreaker, this::send)).run();
+            } catch (Throwable e) {
+                metrics.incrementFailed(chunk.size());
+                log.warn("Could not send {} workload events: {}", chunk.size(), e.getMessage());
+                chunk.forEach(event -> event.batch().failed(e));
+                return;
+            }
+            metrics.recordSend(System.nanoTime() - start);
+            chunk.forEach(event -> event.batch().sent());
+        }
 
-        String json = objectMapper.writeValueAsString(message);
+        // A failed send drops the session so the retry starts over on a fresh one
+        private void send() {
+            try {
+                if (producer == null) {
+                    connection = connectionFactory.createConnection();
+                    session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    producer = session.createProducer(session.createQueue(Queues.WORKLOAD_EVENTS));
+                }
+                if (config.isBatchEvents()) {
+                    sendEnvelopes();
+                    return;
+                }
+                for (PendingEvent event : chunk) {
+                    Message message = encoder.event(session, event.payload());
+                    message.setStringProperty(GROUP_ID_PROPERTY, event.groupId());
+                    producer.send(message);
+                }
+            } catch (JMSException e) {
+                close();
+                throw JmsUtils.convertJmsAccessException(e);
+            }
+        }
 
-        jmsTemplate.convertAndSend(Queues.WORKLOAD_EVENTS, json);
+        // One envelope per group in the chunk, in the order the groups first appear
+        private void sendEnvelopes() throws JMSException {
+            Map<String, List<String>> groups = new LinkedHashMap<>();
+            for (PendingEvent event : chunk) {
+                groups.computeIfAbsent(event.groupId(), group -> new ArrayList<>()).add(event.payload());
+            }
+            for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+                Message message = encoder.envelope(session, group.getValue());
+                message.setStringProperty(GROUP_ID_PROPERTY, group.getKey());
+                producer.send(message);
+            }
+        }
 
-        log.info(
-                "Published JMS -> queue={} eventId={} txId={}",
-                Queues.WORKLOAD_EVENTS,
-                message.getEventId(),
-                message.getTransactionId()
-        );
+        private void close() {
+            JmsUtils.closeMessageProducer(producer);
+            JmsUtils.closeSession(session);
+            JmsUtils.closeConnection(connection);
+            producer = null;
+            session = null;
+            connection = null;
+        }
     }
-}
\ No newline at end of file
+}
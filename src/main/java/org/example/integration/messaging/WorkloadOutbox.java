@@ -0,0 +1,57 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.example.persistance.entity.WorkloadOutboxEntity;
+import org.example.persistance.repository.WorkloadOutboxRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records workload events in the caller's transaction, so an event exists exactly when the
+ * change it describes was committed. {@link WorkloadOutboxRelay} sends them to the broker.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class WorkloadOutbox {
+
+    private final WorkloadOutboxRepo outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Autowired
+    public WorkloadOutbox(WorkloadOutboxRepo outboxRepo, ObjectMapper objectMapper) {
+        this(outboxRepo, objectMapper, Clock.systemDefaultZone());
+    }
+
+    WorkloadOutbox(WorkloadOutboxRepo outboxRepo, ObjectMapper objectMapper, Clock clock) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    public void enqueue(WorkloadEventMessage message) {
+        outboxRepo.save(toEntity(message, LocalDateTime.now(clock)));
+    }
+
+    public void enqueueAll(List<WorkloadEventMessage> messages) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        outboxRepo.saveAll(messages.stream().map(message -> toEntity(message, now)).toList());
+    }
+
+    @SneakyThrows
+    private WorkloadOutboxEntity toEntity(WorkloadEventMessage message, LocalDateTime now) {
+        WorkloadOutboxEntity entity = new WorkloadOutboxEntity();
+        entity.setEventId(message.getEventId());
+        entity.setTrainerUsername(message.getRequest() == null ? null : message.getRequest().getUsername());
+        entity.setPayload(objectMapper.writeValueAsString(message));
+        entity.setCreatedAt(now);
+        return entity;
+    }
+}
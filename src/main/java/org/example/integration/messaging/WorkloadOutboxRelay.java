@@ -0,0 +1,110 @@
+package org.example.integration.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.WorkloadOutboxMetrics;
+import org.example.api.config.AppProperties;
+import org.example.persistance.entity.WorkloadOutboxEntity;
+import org.example.persistance.repository.WorkloadOutboxRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the workload outbox to {@link Queues#WORKLOAD_EVENTS} in creation order. Each batch is
+ * locked, handed to the publisher and marked sent with one UPDATE once the broker has all of
+ * it, in one transaction:
+ * if the broker is down the batch stays unsent and is retried on the next poll. A crash after
+ * the send but before the commit sends the batch again, so delivery is at least once and
+ * consumers dedupe on eventId.
+ */
+@Slf4j
+@Component
+public class WorkloadOutboxRelay {
+
+    private final WorkloadOutboxRepo outboxRepo;
+    private final WorkloadEventPublisher publisher;
+    private final WorkloadOutboxMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Clock clock;
+
+    @Autowired
+    public WorkloadOutboxRelay(WorkloadOutboxRepo outboxRepo,
+                               WorkloadEventPublisher publisher,
+                               WorkloadOutboxMetrics metrics,
+                               AppProperties appProperties,
+                               PlatformTransactionManager transactionManager) {
+        this(outboxRepo, publisher, metrics, appProperties, transactionManager, Clock.systemDefaultZone());
+    }
+
+    WorkloadOutboxRelay(WorkloadOutboxRepo outboxRepo,
+                        WorkloadEventPublisher publisher,
+                        WorkloadOutboxMetrics metrics,
+                        AppProperties appProperties,
+                        PlatformTransactionManager transactionManager,
+                        Clock clock) {
+        this.outboxRepo = outboxRepo;
+        this.publisher = publisher;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = appProperties.getOutbox().getBatchSize();
+        this.retention = appProperties.getOutbox().getRetention();
+        this.clock = clock;
+        metrics.monitorBacklog(outboxRepo::countBySentAtIsNull, this::lagSeconds);
+    }
+
+    // Keeps sending while full batches come back, so a backlog drains without waiting for the next poll
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval:PT1S}",
+            fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void relay() {
+        int sent;
+        do {
+            sent = relayBatch();
+        } while (sent == batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.cleanup-interval:PT1H}",
+            fixedDelayString = "${app.outbox.cleanup-interval:PT1H}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(
+                status -> outboxRepo.deleteSentBefore(LocalDateTime.now(clock).minus(retention)));
+        log.debug("Purged {} sent workload events from the outbox", deleted);
+    }
+
+    private int relayBatch() {
+        try {
+            Integer sent = transactionTemplate.execute(status -> {
+                List<WorkloadOutboxEntity> batch = outboxRepo.lockUnsent(PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return 0;
+                }
+                publisher.publishPayloads(batch.stream()
+                        .map(event -> new WorkloadEventPayload(event.getTrainerUsername(), event.getPayload()))
+                        .toList());
+                outboxRepo.markSent(batch.stream().map(WorkloadOutboxEntity::getId).toList(), LocalDateTime.now(clock));
+                return batch.size();
+            });
+            int count = sent == null ? 0 : sent;
+            metrics.recordSent(count);
+            return count;
+        } catch (RuntimeException e) {
+            metrics.incrementFailedBatches();
+            log.warn("Could not relay workload events, retrying on the next poll: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = outboxRepo.findOldestUnsentCreatedAt();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now(clock)).toMillis() / 1000.0);
+    }
+}
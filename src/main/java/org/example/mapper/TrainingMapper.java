@@ -2,6 +2,7 @@ package org.example.mapper;
 
 import org.example.persistance.entity.TrainingEntity;
 import org.example.persistance.model.Training;
+import org.example.persistance.projection.TrainingView;
 import org.mapstruct.InheritInverseConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -20,4 +21,9 @@ public interface TrainingMapper {
     TrainingEntity toTrainingEntity(Training trainingModel);
 
     List<Training> toTrainingModels(List<TrainingEntity> trainingEntities);
+
+    @Mapping(source = "trainingTypeName", target = "trainingType.trainingTypeName")
+    Training toTrainingModelFromView(TrainingView trainingView);
+
+    List<Training> toTrainingModelsFromViews(List<TrainingView> trainingViews);
 }
\ No newline at end of file
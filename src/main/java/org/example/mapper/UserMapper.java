@@ -3,6 +3,7 @@ package org.example.mapper;
 import org.example.persistance.entity.UserEntity;
 import org.example.persistance.model.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 import java.util.List;
@@ -12,9 +13,14 @@ public interface UserMapper {
 
     User toModel(UserEntity userEntity);
 
+    // search_name is derived by UserEntity on persist/update, security_version is bumped in place
+    @Mapping(target = "searchName", ignore = true)
+    @Mapping(target = "securityVersion", ignore = true)
     UserEntity toEntity(User userModel);
 
     List<User> toModels(List<UserEntity> userEntityEntities);
 
+    @Mapping(target = "searchName", ignore = true)
+    @Mapping(target = "securityVersion", ignore = true)
     void updateEntityFromModel(User source, @MappingTarget UserEntity target);
 }
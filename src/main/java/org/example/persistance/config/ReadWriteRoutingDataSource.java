@@ -0,0 +1,138 @@
+package org.example.persistance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.DataSourceRoutingMetrics;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.example.actuator.DataSourceRoutingMetrics.*;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only visible once the first statement asks for a connection.
+ *
+ * <p>A replica that fails to connect is skipped for {@code retryAfter}. After a user's read-write
+ * transaction commits, that user's reads stay on the primary for {@code readYourWritesWindow} so
+ * they do not see replication lag on their own changes.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final DataSourceRoutingMetrics metrics;
+    private final Supplier<String> currentUser;
+    private final Duration readYourWritesWindow;
+    private final Duration retryAfter;
+    private final Clock clock;
+
+    private final Map<String, Instant> primaryReadsUntil = new ConcurrentHashMap<>();
+    private volatile Instant replicaSkippedUntil = Instant.MIN;
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      DataSource replica,
+                                      DataSourceRoutingMetrics metrics,
+                                      Supplier<String> currentUser,
+                                      Duration readYourWritesWindow,
+                                      Duration retryAfter,
+                                      Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.metrics = metrics;
+        this.currentUser = currentUser;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.retryAfter = retryAfter;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        String route = chooseRoute();
+        if (!ROUTE_REPLICA.equals(route)) {
+            metrics.recordRoute(route);
+            return source.open(primary);
+        }
+
+        try {
+            Connection connection = source.open(replica);
+            metrics.recordRoute(ROUTE_REPLICA);
+            return connection;
+        } catch (SQLException e) {
+            replicaSkippedUntil = clock.instant().plus(retryAfter);
+            log.warn("Replica connection failed, reading from primary for {}: {}", retryAfter, e.getMessage());
+            metrics.recordRoute(ROUTE_FALLBACK);
+            return source.open(primary);
+        }
+    }
+
+    private String chooseRoute() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return ROUTE_PRIMARY;
+        }
+
+        String user = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(user);
+            return ROUTE_PRIMARY;
+        }
+
+        Instant now = clock.instant();
+        if (now.isBefore(replicaSkippedUntil)) {
+            return ROUTE_FALLBACK;
+        }
+        if (user != null) {
+            Instant until = primaryReadsUntil.get(user);
+            if (until != null) {
+                if (now.isBefore(until)) {
+                    return ROUTE_READ_YOUR_WRITES;
+                }
+                primaryReadsUntil.remove(user, until);
+            }
+        }
+        return ROUTE_REPLICA;
+    }
+
+    private void rememberWriteOnCommit(String user) {
+        if (user == null || readYourWritesWindow.isZero() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Instant now = clock.instant();
+                if (primaryReadsUntil.size() > PRUNE_THRESHOLD) {
+                    primaryReadsUntil.values().removeIf(until -> !now.isBefore(until));
+                }
+                primaryReadsUntil.put(user, now.plus(readYourWritesWindow));
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -19,7 +19,8 @@ import java.util.List;
 public class TraineeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainee_seq")
+    @SequenceGenerator(name = "trainee_seq", sequenceName = "trainee_seq", allocationSize = 50)
     private Long id;
 
     @Past(message = "Date of birth must be in the past")
@@ -16,7 +16,8 @@ import java.util.List;
 public class TrainerEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainer_seq")
+    @SequenceGenerator(name = "trainer_seq", sequenceName = "trainer_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Training specialization is required")
@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "training")
+@Table(name = "training", indexes = {
+        @Index(name = "idx_training_date_id", columnList = "training_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,8 +16,10 @@ import java.time.LocalDate;
 @EqualsAndHashCode(of = {"id"})
 public class TrainingEntity {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (bulk import)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_seq")
+    @SequenceGenerator(name = "training_seq", sequenceName = "training_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Trainee is required")
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.example.persistance.entity.converter.PasswordConverter;
+import org.example.util.SearchNames;
 
 
 @Entity
@@ -18,7 +19,8 @@ import org.example.persistance.entity.converter.PasswordConverter;
 public class UserEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name cannot be blank")
@@ -46,5 +48,22 @@ public class UserEntity {
     @NotNull(message = "Account activity status cannot be null")
     @Column(nullable = false)
     private Boolean isActive = true;
+
+    // Normalized "first last" used for substring name search; backed by a trigram index on PostgreSQL
+    @Column(name = "search_name", length = 101)
+    @Setter(AccessLevel.NONE)
+    private String searchName;
+
+    // Bumped in place by UserRepo.incrementSecurityVersion only; never written from the entity,
+    // so a stale copy in the persistence context cannot roll a bump back
+    @Column(name = "security_version", nullable = false, insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Long securityVersion;
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = SearchNames.normalize(firstName, lastName);
+    }
 }
 
@@ -0,0 +1,25 @@
+package org.example.persistance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next free suffix per "First.Last" base name. Suffix 0 is the bare base name, so a value of 3
+ * means base, base1 and base2 are handed out. Only ever advanced with a single UPDATE.
+ */
+@Entity
+@Table(name = "username_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameCounterEntity {
+
+    @Id
+    @Column(name = "base_name", length = 101)
+    private String baseName;
+
+    @Column(name = "next_suffix", nullable = false)
+    private long nextSuffix;
+}
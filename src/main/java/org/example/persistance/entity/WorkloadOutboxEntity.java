@@ -0,0 +1,40 @@
+package org.example.persistance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A workload event waiting to be sent, or already sent when {@code sentAt} is set. The payload
+ * is the JSON body published to the queue.
+ */
+@Entity
+@Table(name = "workload_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workload_outbox_seq")
+    @SequenceGenerator(name = "workload_outbox_seq", sequenceName = "workload_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true, length = 36)
+    private String eventId;
+
+    @Column(name = "trainer_username")
+    private String trainerUsername;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
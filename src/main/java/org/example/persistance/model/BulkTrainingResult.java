@@ -0,0 +1,20 @@
+package org.example.persistance.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class BulkTrainingResult {
+    int received;
+    int created;
+    List<RowFailure> failures;
+
+    @Value
+    public static class RowFailure {
+        int row;
+        String message;
+    }
+}
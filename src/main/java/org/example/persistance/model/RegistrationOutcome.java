@@ -0,0 +1,13 @@
+package org.example.persistance.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class RegistrationOutcome {
+    int row;
+    String username;
+    String temporaryPassword;
+    String error;
+}
@@ -0,0 +1,61 @@
+package org.example.persistance.model;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over (trainingDate, tiebreak). The database
+ * breaks ties on the training id, the in-memory store on the training name.
+ */
+@Value
+public class TrainingCursor {
+
+    private static final char SEPARATOR = ':';
+
+    LocalDate trainingDate;
+    String tiebreak;
+
+    public TrainingCursor(LocalDate trainingDate, String tiebreak) {
+        this.trainingDate = trainingDate;
+        this.tiebreak = tiebreak;
+    }
+
+    public TrainingCursor(LocalDate trainingDate, long id) {
+        this(trainingDate, Long.toString(id));
+    }
+
+    // The tiebreak of a cursor issued by the database listing
+    public Long getId() {
+        try {
+            return Long.parseLong(tiebreak);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + encode(), e);
+        }
+    }
+
+    public String encode() {
+        String raw = trainingDate.toString() + SEPARATOR + tiebreak;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TrainingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TrainingCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1)
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.persistance.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class TrainingPage {
+
+    public static final int MAX_SIZE = 500;
+
+    List<Training> trainings;
+    String nextCursor;
+
+    // Requested limits outside 1..MAX_SIZE are clamped rather than rejected
+    public static int size(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SIZE));
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.persistance.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row for training listings; carries the keyset id plus the columns TrainingResponse needs.
+ */
+public record TrainingView(
+        Long id,
+        String traineeUsername,
+        String trainerUsername,
+        String trainingName,
+        String trainingTypeName,
+        LocalDate trainingDate,
+        Integer trainingDurationMinutes
+) {
+}
@@ -1,12 +1,15 @@
 package org.example.persistance.repository;
 
 import org.example.persistance.entity.LoginAttemptEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,7 +17,21 @@ public interface LoginAttemptRepo extends JpaRepository<LoginAttemptEntity, Long
 
     Optional<LoginAttemptEntity> findByUsername(String username);
 
+    @Query("SELECT l FROM LoginAttemptEntity l WHERE l.username = :username AND l.blockedUntil > :now")
+    Optional<LoginAttemptEntity> findBlocked(String username, LocalDateTime now);
+
     @Modifying
     @Query("DELETE FROM LoginAttemptEntity l WHERE l.blockedUntil < :now AND l.isBlocked = true")
     void deleteExpiredBlocks(LocalDateTime now);
-}
\ No newline at end of file
+
+    List<LoginAttemptEntity> findAllByUsernameIn(Collection<String> usernames);
+
+    @Query("SELECT l FROM LoginAttemptEntity l WHERE l.lastAttemptTime > :since OR l.blockedUntil > :now")
+    List<LoginAttemptEntity> findActive(LocalDateTime since, LocalDateTime now, Pageable pageable);
+
+    // A block set after the reset, e.g. by another node, is left in place
+    @Modifying
+    @Query("DELETE FROM LoginAttemptEntity l WHERE l.username IN :usernames"
+            + " AND (l.blockedUntil IS NULL OR l.blockedUntil <= :now)")
+    void deleteUnblockedByUsernameIn(Collection<String> usernames, LocalDateTime now);
+}
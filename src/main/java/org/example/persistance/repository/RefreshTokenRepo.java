@@ -0,0 +1,33 @@
+package org.example.persistance.repository;
+
+import org.example.persistance.entity.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepo extends JpaRepository<RefreshTokenEntity, Long> {
+
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    // Zero when another request exchanged the token first
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity r SET r.usedAt = :now WHERE r.id = :id AND r.usedAt IS NULL")
+    int markUsed(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity r WHERE r.familyId = :familyId")
+    int deleteByFamilyId(String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity r WHERE r.username = :username")
+    int deleteByUsername(String username);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -1,18 +1,30 @@
 package org.example.persistance.repository;
 
 import org.example.persistance.entity.TraineeEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TraineeRepo extends JpaRepository<TraineeEntity, Long> {
 
+    @EntityGraph(attributePaths = "userEntity")
     @Query("SELECT t FROM TraineeEntity t WHERE t.userEntity.username = :username")
     Optional<TraineeEntity> findByUsername(@Param("username") String username);
 
+    @Override
+    @EntityGraph(attributePaths = "userEntity")
+    List<TraineeEntity> findAll();
+
+    @EntityGraph(attributePaths = "userEntity")
+    @Query("SELECT t FROM TraineeEntity t WHERE t.userEntity.username IN :usernames")
+    List<TraineeEntity> findAllByUsernameIn(@Param("usernames") Collection<String> usernames);
+
     @Modifying
     @Query("DELETE FROM TraineeEntity t WHERE t.userEntity.username = :username")
     void deleteByUsername(@Param("username") String username);
@@ -1,15 +1,27 @@
 package org.example.persistance.repository;
 
 import org.example.persistance.entity.TrainerEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TrainerRepo extends JpaRepository<TrainerEntity, Long> {
 
+    @EntityGraph(attributePaths = {"userEntity", "specialization"})
     @Query("SELECT tr FROM TrainerEntity tr WHERE tr.userEntity.username = :username")
     Optional<TrainerEntity> findByUsername(@Param("username") String username);
+
+    @Override
+    @EntityGraph(attributePaths = {"userEntity", "specialization"})
+    List<TrainerEntity> findAll();
+
+    @EntityGraph(attributePaths = "userEntity")
+    @Query("SELECT tr FROM TrainerEntity tr WHERE tr.userEntity.username IN :usernames")
+    List<TrainerEntity> findAllByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
 
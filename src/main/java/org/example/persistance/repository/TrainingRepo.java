@@ -1,47 +1,75 @@
 package org.example.persistance.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.persistance.entity.TrainingEntity;
+import org.example.persistance.projection.TrainingView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TrainingRepo extends JpaRepository<TrainingEntity, Long> {
+public interface TrainingRepo extends JpaRepository<TrainingEntity, Long>, TrainingRepoCustom {
 
-    @Query("""
-            SELECT t FROM TrainingEntity t
-            WHERE t.traineeEntity.userEntity.username = :username
-              AND (:fromDate IS NULL OR t.trainingDate >= :fromDate)
-              AND (:toDate IS NULL OR t.trainingDate <= :toDate)
-              AND (:trainerName IS NULL OR CONCAT(t.trainerEntity.userEntity.firstName, ' ', t.trainerEntity.userEntity.lastName) LIKE %:trainerName%)
-              AND (:trainingType IS NULL OR t.trainingTypeEntity.trainingTypeName = :trainingType)
-           """)
-    List<TrainingEntity> findTraineeTrainings(
-            @Param("username") String username,
-            @Param("fromDate") LocalDate fromDate,
-            @Param("toDate") LocalDate toDate,
-            @Param("trainerName") String trainerName,
-            @Param("trainingType") String trainingType
-    );
+    String STREAM_FETCH_SIZE = "500";
+
+    // Single statement per listing: every column TrainingResponse needs comes from inner joins
+    String TRAINING_VIEW_SELECT = """
+            SELECT new org.example.persistance.projection.TrainingView(
+                t.id, traineeUser.username, trainerUser.username, t.trainingName,
+                type.trainingTypeName, t.trainingDate, t.trainingDurationMinutes)
+            FROM TrainingEntity t
+            JOIN t.traineeEntity trainee
+            JOIN trainee.userEntity traineeUser
+            JOIN t.trainerEntity trainer
+            JOIN trainer.userEntity trainerUser
+            JOIN t.trainingTypeEntity type
+            """;
+
+    @EntityGraph(attributePaths = {
+            "traineeEntity.userEntity",
+            "trainerEntity.userEntity",
+            "trainerEntity.specialization",
+            "trainingTypeEntity"
+    })
+    Optional<TrainingEntity> findByTrainingName(String trainingName);
 
+    @Override
+    @EntityGraph(attributePaths = {
+            "traineeEntity.userEntity",
+            "trainerEntity.userEntity",
+            "trainerEntity.specialization",
+            "trainingTypeEntity"
+    })
+    List<TrainingEntity> findAll();
 
-    @Query("""
-            SELECT t FROM TrainingEntity t
-            WHERE t.trainerEntity.userEntity.username = :username
-              AND (:fromDate IS NULL OR t.trainingDate >= :fromDate)
-              AND (:toDate IS NULL OR t.trainingDate <= :toDate)
-              AND (:traineeName IS NULL OR CONCAT(t.traineeEntity.userEntity.firstName, ' ', t.traineeEntity.userEntity.lastName) LIKE %:traineeName%)
+    @Query(TRAINING_VIEW_SELECT + """
+            ORDER BY t.trainingDate ASC, t.id ASC
            """)
-    List<TrainingEntity> findTrainerTrainings(
-            @Param("username") String username,
-            @Param("fromDate") LocalDate fromDate,
-            @Param("toDate") LocalDate toDate,
-            @Param("traineeName") String traineeName
+    List<TrainingView> findFirstPage(Pageable pageable);
+
+    // The leading range predicate gives the planner an index bound on (training_date, id)
+    @Query(TRAINING_VIEW_SELECT + """
+            WHERE t.trainingDate >= :trainingDate
+              AND (t.trainingDate > :trainingDate OR t.id > :id)
+            ORDER BY t.trainingDate ASC, t.id ASC
+           """)
+    List<TrainingView> findPageAfter(
+            @Param("trainingDate") LocalDate trainingDate,
+            @Param("id") Long id,
+            Pageable pageable
     );
 
-    Optional<TrainingEntity> findByTrainingName(String trainingName);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(TRAINING_VIEW_SELECT + """
+            ORDER BY t.trainingDate ASC, t.id ASC
+           """)
+    Stream<TrainingView> streamAllOrdered();
 }
-
@@ -0,0 +1,24 @@
+package org.example.persistance.repository;
+
+import org.example.persistance.projection.TrainingView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TrainingRepoCustom {
+
+    List<TrainingView> findTraineeTrainings(
+            String username,
+            LocalDate fromDate,
+            LocalDate toDate,
+            String trainerName,
+            String trainingType
+    );
+
+    List<TrainingView> findTrainerTrainings(
+            String username,
+            LocalDate fromDate,
+            LocalDate toDate,
+            String traineeName
+    );
+}
@@ -0,0 +1,142 @@
+package org.example.persistance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.TrainingEntity;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.TrainingView;
+import org.example.util.SearchNames;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds training history queries from the filters actually supplied. Unlike the
+ * {@code :param IS NULL OR ...} form, every filter combination renders its own SQL text,
+ * so PostgreSQL prepares and caches a plan per shape and can range-scan on training_date.
+ * Name filters go through the normalized search_name column and its trigram index.
+ */
+@RequiredArgsConstructor
+public class TrainingRepoCustomImpl implements TrainingRepoCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TrainingView> findTraineeTrainings(
+            String username,
+            LocalDate fromDate,
+            LocalDate toDate,
+            String trainerName,
+            String trainingType
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TrainingView> query = cb.createQuery(TrainingView.class);
+        TrainingJoins joins = TrainingJoins.of(query);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(joins.traineeUser().get("username"), username));
+        addDateRange(cb, predicates, joins.training(), fromDate, toDate);
+        if (StringUtils.hasText(trainerName)) {
+            predicates.add(fullNameContains(cb, joins.trainerUser(), trainerName));
+        }
+        if (StringUtils.hasText(trainingType)) {
+            predicates.add(cb.equal(joins.trainingType().get("trainingTypeName"), trainingType));
+        }
+
+        return execute(cb, query, joins, predicates);
+    }
+
+    @Override
+    public List<TrainingView> findTrainerTrainings(
+            String username,
+            LocalDate fromDate,
+            LocalDate toDate,
+            String traineeName
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TrainingView> query = cb.createQuery(TrainingView.class);
+        TrainingJoins joins = TrainingJoins.of(query);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(joins.trainerUser().get("username"), username));
+        addDateRange(cb, predicates, joins.training(), fromDate, toDate);
+        if (StringUtils.hasText(traineeName)) {
+            predicates.add(fullNameContains(cb, joins.traineeUser(), traineeName));
+        }
+
+        return execute(cb, query, joins, predicates);
+    }
+
+    private List<TrainingView> execute(
+            CriteriaBuilder cb,
+            CriteriaQuery<TrainingView> query,
+            TrainingJoins joins,
+            List<Predicate> predicates
+    ) {
+        Root<TrainingEntity> training = joins.training();
+
+        query.select(cb.construct(
+                        TrainingView.class,
+                        training.get("id"),
+                        joins.traineeUser().get("username"),
+                        joins.trainerUser().get("username"),
+                        training.get("trainingName"),
+                        joins.trainingType().get("trainingTypeName"),
+                        training.get("trainingDate"),
+                        training.get("trainingDurationMinutes")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(training.get("trainingDate")), cb.asc(training.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private void addDateRange(
+            CriteriaBuilder cb,
+            List<Predicate> predicates,
+            Root<TrainingEntity> training,
+            LocalDate fromDate,
+            LocalDate toDate
+    ) {
+        if (fromDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
+        }
+        if (toDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
+        }
+    }
+
+    // Matches against the stored search_name column, which carries the trigram index
+    private Predicate fullNameContains(CriteriaBuilder cb, Join<?, UserEntity> user, String name) {
+        return cb.like(user.get("searchName"), SearchNames.likeContains(SearchNames.normalize(name)), '\\');
+    }
+
+    private record TrainingJoins(
+            Root<TrainingEntity> training,
+            Join<TraineeEntity, UserEntity> traineeUser,
+            Join<TrainerEntity, UserEntity> trainerUser,
+            Join<TrainingEntity, TrainingTypeEntity> trainingType
+    ) {
+        static TrainingJoins of(CriteriaQuery<?> query) {
+            Root<TrainingEntity> training = query.from(TrainingEntity.class);
+            Join<TrainingEntity, TraineeEntity> trainee = training.join("traineeEntity");
+            Join<TrainingEntity, TrainerEntity> trainer = training.join("trainerEntity");
+
+            return new TrainingJoins(
+                    training,
+                    trainee.join("userEntity"),
+                    trainer.join("userEntity"),
+                    training.join("trainingTypeEntity")
+            );
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.example.persistance.repository;
 
 import org.example.persistance.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,6 +13,12 @@ public interface UserRepo extends JpaRepository<UserEntity, Long> {
     @Query("SELECT u FROM UserEntity u WHERE u.username = :username")
     Optional<UserEntity> findByUsername(@Param("username") String username);
 
+    @Query("SELECT u.securityVersion FROM UserEntity u WHERE u.username = :username")
+    Optional<Long> findSecurityVersionByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.securityVersion = u.securityVersion + 1 WHERE u.username = :username")
+    int incrementSecurityVersion(@Param("username") String username);
 }
 
 
@@ -0,0 +1,37 @@
+package org.example.persistance.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.persistance.entity.WorkloadOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkloadOutboxRepo extends JpaRepository<WorkloadOutboxEntity, Long> {
+
+    // Row locks keep a second relay instance from sending the same batch; it waits, then skips the sent rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // Pooled ids only increase within one node, so creation time orders events across nodes
+    @Query("SELECT o FROM WorkloadOutboxEntity o WHERE o.sentAt IS NULL ORDER BY o.createdAt, o.id")
+    List<WorkloadOutboxEntity> lockUnsent(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE WorkloadOutboxEntity o SET o.sentAt = :now WHERE o.id IN :ids")
+    int markSent(Collection<Long> ids, LocalDateTime now);
+
+    long countBySentAtIsNull();
+
+    @Query("SELECT MIN(o.createdAt) FROM WorkloadOutboxEntity o WHERE o.sentAt IS NULL")
+    LocalDateTime findOldestUnsentCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM WorkloadOutboxEntity o WHERE o.sentAt < :cutoff")
+    int deleteSentBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,12 @@
+package org.example.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class AuthTokens {
+    String username;
+    String accessToken;
+    String refreshToken;
+}
@@ -0,0 +1,108 @@
+package org.example.security;
+
+import org.example.actuator.PasswordHashingMetrics;
+import org.example.exception.PasswordHashingUnavailableException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Runs every encode and match of the delegate on the password hashing pool, so request
+ * threads only wait and never burn CPU on BCrypt. When more than {@code maxQueued} hashes
+ * are already waiting the caller is turned away with {@link PasswordHashingUnavailableException}
+ * instead of joining the queue. Work that is already on a hashing thread runs in place.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final ThreadLocal<Boolean> ON_HASHING_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int maxQueued;
+    private final Duration retryAfter;
+    private final PasswordHashingMetrics metrics;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  ThreadPoolExecutor executor,
+                                  int maxQueued,
+                                  Duration retryAfter,
+                                  PasswordHashingMetrics metrics) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxQueued = maxQueued;
+        this.retryAfter = retryAfter;
+        this.metrics = metrics;
+        metrics.monitorQueue(executor.getQueue());
+    }
+
+    /**
+     * Wraps a thread factory so its threads are recognised as hashing threads.
+     */
+    public static ThreadFactory hashingThreads(ThreadFactory threads) {
+        return task -> threads.newThread(() -> {
+            ON_HASHING_THREAD.set(true);
+            task.run();
+        });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Supplier<T> work) {
+        if (ON_HASHING_THREAD.get()) {
+            // Bulk registration already fans out on its own hashing pool; queueing again could deadlock it
+            return metrics.recordHash(work);
+        }
+        if (executor.getQueue().size() >= maxQueued) {
+            throw rejected();
+        }
+
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                metrics.recordWait(System.nanoTime() - queuedAt);
+                return metrics.recordHash(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private PasswordHashingUnavailableException rejected() {
+        metrics.incrementRejected();
+        return new PasswordHashingUnavailableException(
+                "The server is busy verifying passwords. Please retry shortly.", retryAfter);
+    }
+}
@@ -9,12 +9,18 @@ import java.util.Collections;
 
 public class GymUserDetails implements UserDetails {
     private final User user;
+    private final Collection<? extends GrantedAuthority> authorities;
 
-    public GymUserDetails(User user) { this.user = user; }
+    public GymUserDetails(User user) { this(user, Collections.emptyList()); }
+
+    public GymUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = authorities;
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
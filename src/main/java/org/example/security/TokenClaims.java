@@ -0,0 +1,23 @@
+package org.example.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ */
+@Value
+@Builder
+public class TokenClaims {
+    // The jti claim; null for tokens issued before ids were added, which cannot be revoked
+    String tokenId;
+    String username;
+    @Builder.Default
+    List<String> roles = List.of();
+    Instant issuedAt;
+    Instant expiresAt;
+    long securityVersion;
+}
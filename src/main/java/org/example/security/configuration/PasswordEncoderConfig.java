@@ -1,15 +1,80 @@
 package org.example.security.configuration;
 
+import org.example.actuator.PasswordHashingMetrics;
+import org.example.api.config.AppProperties;
+import org.example.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class PasswordEncoderConfig {
 
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+    public static final String BULK_PASSWORD_HASHING_EXECUTOR = "bulkPasswordHashingExecutor";
+
+    // Request threads hand hashing to the pool and get a 503 when too much is already queued
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Qualifier(PASSWORD_HASHING_EXECUTOR) ThreadPoolExecutor hashingExecutor,
+                                           AppProperties appProperties,
+                                           PasswordHashingMetrics metrics) {
+        AppProperties.Security.PasswordHashing hashing = appProperties.getSecurity().getPasswordHashing();
+
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingExecutor,
+                hashing.getMaxQueuedRequests(), hashing.getRetryAfter(), metrics);
+    }
+
+    // BCrypt is CPU bound: a fixed pool the size of the machine, bounded queue, caller runs when full
+    @Bean(name = PASSWORD_HASHING_EXECUTOR, destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(AppProperties appProperties) {
+        AppProperties.Security.PasswordHashing hashing = appProperties.getSecurity().getPasswordHashing();
+
+        return new ThreadPoolExecutor(
+                hashing.getThreads(),
+                hashing.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashing.getQueueCapacity()),
+                BoundedPasswordEncoder.hashingThreads(new CustomizableThreadFactory("password-hash-")),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /*
+     * Bulk registration gets a smaller pool of its own, so an import neither fills the queue that
+     * logins are admitted against nor takes every core. A full queue makes the importing thread
+     * wait for room rather than run the hash itself, which would send it to the interactive pool.
+     */
+    @Bean(name = BULK_PASSWORD_HASHING_EXECUTOR, destroyMethod = "shutdown")
+    public ThreadPoolExecutor bulkPasswordHashingExecutor(AppProperties appProperties) {
+        AppProperties.Security.PasswordHashing hashing = appProperties.getSecurity().getPasswordHashing();
+
+        return new ThreadPoolExecutor(
+                hashing.getBulkThreads(),
+                hashing.getBulkThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashing.getBulkQueueCapacity()),
+                BoundedPasswordEncoder.hashingThreads(new CustomizableThreadFactory("bulk-password-hash-")),
+                PasswordEncoderConfig::waitForRoom
+        );
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Bulk password hashing pool is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for bulk password hashing", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -96,6 +96,9 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(AUTH_PATH).permitAll()
+                        // Bulk registration hashes and hands back thousands of passwords per request,
+                        // so unlike self sign-up it is reserved for administrators
+                        .requestMatchers(TRAINEES_BULK_PATH, TRAINERS_BULK_PATH).hasRole(ADMIN_ROLE)
                         .requestMatchers(TRAINEES_PATH).permitAll()
                         .requestMatchers(TRAININGS_PATH).permitAll()
                         .requestMatchers(HttpMethod.POST, TRAINERS_PATH).permitAll()
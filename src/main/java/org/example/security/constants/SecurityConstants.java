@@ -13,12 +13,18 @@ public final class SecurityConstants {
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String AUTHORIZATION_HEADER = HttpHeaders.AUTHORIZATION;
 
+    // Roles
+    public static final String ADMIN_ROLE = "ADMIN";
+    public static final String ADMIN_AUTHORITY = "ROLE_" + ADMIN_ROLE;
+
     // Endpoints
     public static final String API_BASE_PATH = "/api";
     public static final String AUTH_PATH = API_BASE_PATH + "/auth/**";
     public static final String TRAINERS_PATH = API_BASE_PATH + "/trainers";
     public static final String TRAINERS_ALL_PATH = API_BASE_PATH + "/trainers/**";
     public static final String TRAINEES_PATH = API_BASE_PATH + "/trainees/**";
+    public static final String TRAINEES_BULK_PATH = API_BASE_PATH + "/trainees/bulk";
+    public static final String TRAINERS_BULK_PATH = API_BASE_PATH + "/trainers/bulk";
     public static final String TRAININGS_PATH = API_BASE_PATH + "/trainings/**";
     public static final String TRAINING_TYPES_PATH = API_BASE_PATH + "/training-types/**";
 
@@ -51,14 +57,17 @@ public final class SecurityConstants {
     // HTTP Status Codes
     public static final int STATUS_UNAUTHORIZED = 401;
     public static final int STATUS_FORBIDDEN = 403;
+    public static final int STATUS_TOO_MANY_REQUESTS = 429;
 
     // Error Types
     public static final String ERROR_UNAUTHORIZED = "Unauthorized";
     public static final String ERROR_FORBIDDEN = "Forbidden";
+    public static final String ERROR_TOO_MANY_REQUESTS = "Too Many Requests";
 
     // Error Messages
     public static final String MESSAGE_UNAUTHORIZED = "Authentication required. Please provide a valid JWT token.";
     public static final String MESSAGE_FORBIDDEN = "Access denied. You do not have permission to access this resource.";
+    public static final String MESSAGE_TOO_MANY_REQUESTS = "Request rate limit exceeded. Please retry later.";
 
     public static final String CHARSET_UTF_8 = "UTF-8";
 
@@ -9,14 +9,17 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.persistance.model.User;
 import org.example.security.GymUserDetails;
-import org.example.security.service.GymUserDetailsService;
+import org.example.security.TokenClaims;
+import org.example.security.constants.SecurityConstants;
+import org.example.security.service.TokenRevocationList;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -34,7 +37,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final int BEARER_PREFIX_LENGTH = 7;
 
     private final TokenService tokenService;
-    private final GymUserDetailsService gymUserDetails;
+    private final UserSecurityVersions securityVersions;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(
@@ -66,7 +70,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.debug("JWT Token extracted (first 20 chars): {}...",
                     jwt.substring(0, Math.min(jwt.length(), 20)));
 
-            String username = tokenService.getUsernameFromToken(jwt);
+            // Signature and expiry are checked here, once; everything below works off the claims
+            TokenClaims claims = tokenService.verifyToken(jwt);
+            String username = claims.getUsername();
 
             if (username == null) {
                 log.warn("❌ Username could not be extracted from token for request: {}", requestURI);
@@ -77,7 +83,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.debug("Username extracted from token: {}", username);
 
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                authenticateUser(request, jwt, username, requestURI);
+                authenticateUser(request, jwt, claims, requestURI);
             } else {
                 log.debug("User already authenticated in SecurityContext");
             }
@@ -91,9 +97,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (SignatureException e) {
             log.warn("❌ Invalid JWT signature for request: {} - {}", requestURI, e.getMessage());
             SecurityContextHolder.clearContext();
-        } catch (UsernameNotFoundException e) {
-            log.warn("❌ User not found: {} for request: {}", e.getMessage(), requestURI);
-            SecurityContextHolder.clearContext();
         } catch (Exception e) {
             log.error("❌ JWT Authentication failed for {}: {}", requestURI, e.getMessage(), e);
             SecurityContextHolder.clearContext();
@@ -112,38 +115,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private void authenticateUser(HttpServletRequest request, String jwt, String username, String requestURI) {
-        log.debug("Loading user details for: {}", username);
+    // The principal comes from the verified claims alone, so authenticated requests never hit the users table
+    private void authenticateUser(HttpServletRequest request, String jwt, TokenClaims claims, String requestURI) {
+        String username = claims.getUsername();
 
-        UserDetails userDetails = gymUserDetails.loadUserByUsername(username);
+        // Lower means issued before a bump; higher only means this node's cached version is behind
+        long currentVersion = securityVersions.current(username);
+        if (claims.getSecurityVersion() < currentVersion) {
+            log.warn("❌ Token for {} carries security version {}, current is {} - rejecting",
+                    username, claims.getSecurityVersion(), currentVersion);
+            return;
+        }
 
-        log.debug("User details loaded. Enabled: {}, AccountNonLocked: {}, Authorities: {}",
-                userDetails.isEnabled(),
-                userDetails.isAccountNonLocked(),
-                userDetails.getAuthorities());
+        if (claims.getTokenId() != null && revocationList.isRevoked(claims.getTokenId())) {
+            log.warn("❌ Token {} for {} was revoked - rejecting", claims.getTokenId(), username);
+            return;
+        }
 
-        if (tokenService.validateToken(jwt)) {
-            log.info("✅ JWT token valid for user: {} accessing: {}", username, requestURI);
+        GymUserDetails userDetails = new GymUserDetails(
+                User.builder()
+                        .username(username)
+                        .password(new char[0])
+                        .isActive(true)
+                        .build(),
+                claims.getRoles().stream().map(SimpleGrantedAuthority::new).toList()
+        );
 
-            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    jwt,
-                    userDetails.getAuthorities()
-            );
+        log.info("✅ JWT token valid for user: {} accessing: {}", username, requestURI);
 
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                jwt,
+                userDetails.getAuthorities()
+        );
 
-            log.debug("Authentication set in SecurityContext for user: {} with authorities: {}",
-                    username, userDetails.getAuthorities());
-        } else {
-            log.warn("❌ Invalid JWT token for user: {}", username);
-        }
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        log.debug("Authentication set in SecurityContext for user: {} with authorities: {}",
+                username, userDetails.getAuthorities());
     }
 
     private boolean isPublicEndpoint(String requestURI) {
         return requestURI.startsWith("/api/auth/") ||
-                requestURI.startsWith("/api/trainees/") ||
+                (requestURI.startsWith("/api/trainees/") && !requestURI.startsWith(SecurityConstants.TRAINEES_BULK_PATH)) ||
                 requestURI.startsWith("/api/trainings/") ||
                 requestURI.startsWith("/api/training-types/") ||
                 requestURI.startsWith("/swagger-ui") ||
@@ -0,0 +1,93 @@
+package org.example.security.filter;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.RateLimitMetrics;
+import org.example.security.service.RateLimiter;
+import org.example.services.TokenService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.example.security.constants.SecurityConstants.*;
+
+/**
+ * Refuses requests with 429 once the client has used up its budget for the route group. Every
+ * request is counted against its remote address and, with a valid bearer token, against the
+ * user as well, so neither several accounts behind one address nor one account spread over
+ * many addresses gets more than its budget. Runs right after the transaction id is assigned and before the security filter chain, so
+ * a refused request costs no authentication work beyond reading the bearer token's subject,
+ * which the verified-token cache usually answers.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final TokenService tokenService;
+    private final RateLimitMetrics rateLimitMetrics;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<String> clients = clients(request);
+        RateLimiter.Rejection rejection = rateLimiter.tryAcquire(path, clients);
+
+        if (rejection == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.warn("❌ Rate limit exceeded on route {} for {}", rejection.route(), clients);
+        rateLimitMetrics.incrementRejected(rejection.route());
+
+        // Retry-After is whole seconds, rounded up so a client honouring it finds a token
+        long retryAfterSeconds = Math.max(1, (rejection.retryAfter().toMillis() + 999) / 1000);
+        response.setStatus(STATUS_TOO_MANY_REQUESTS);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(APPLICATION_JSON);
+        response.setCharacterEncoding(CHARSET_UTF_8);
+        response.getWriter().write(String.format(
+                ERROR_RESPONSE_TEMPLATE,
+                LocalDateTime.now(),
+                STATUS_TOO_MANY_REQUESTS,
+                ERROR_TOO_MANY_REQUESTS,
+                MESSAGE_TOO_MANY_REQUESTS,
+                request.getRequestURI()
+        ));
+    }
+
+    // The remote address is used as-is; behind a proxy, server.forward-headers-strategy makes it the client's
+    private List<String> clients(HttpServletRequest request) {
+        String address = "ip:" + request.getRemoteAddr();
+        String authorization = request.getHeader(AUTHORIZATION_HEADER);
+        if (authorization != null && authorization.startsWith(TOKEN_PREFIX)) {
+            try {
+                String username = tokenService.verifyToken(authorization.substring(TOKEN_PREFIX.length())).getUsername();
+                return List.of(address, "user:" + username);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Invalid tokens are counted against the address alone
+            }
+        }
+        return List.of(address);
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.security.service;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.security.AuthTokens;
+import org.example.security.TokenClaims;
 import org.example.services.TokenService;
 import org.slf4j.MDC;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,13 +25,21 @@ public class AuthService {
     private final GymUserDetailsService userDetailsService;
     private final TokenService tokenService;
     private final BruteForceProtectionService bruteForceProtectionService;
-
-    public String login(String username, String password) {
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final CredentialStuffingDetector credentialStuffingDetector;
+
+    /**
+     * @param clientAddress remote address of the caller, used to refuse sources that are trying
+     *                      many usernames; may be null when unknown
+     */
+    public String login(String username, String password, String clientAddress) {
         MDC.put("operation", "login");
         MDC.put("username", username);
 
         log.info("Login attempt for user: {}", username);
 
+        credentialStuffingDetector.checkSource(clientAddress);
         bruteForceProtectionService.checkIfBlocked(username);
 
         try {
@@ -50,6 +61,7 @@ public class AuthService {
             log.error("Authentication failed for user: {} - {}", username, e.getMessage());
 
             bruteForceProtectionService.recordFailedAttempt(username);
+            credentialStuffingDetector.recordFailure(clientAddress, username);
 
             int remainingAttempts = bruteForceProtectionService.getRemainingAttempts(username);
 
@@ -63,7 +75,50 @@ public class AuthService {
         }
     }
 
-    public void logout() {
+    public String issueRefreshToken(String username) {
+        return refreshTokenService.issue(username);
+    }
+
+    /**
+     * Renews a session without a password check: the refresh token is rotated and a new access
+     * token is signed for its owner.
+     */
+    public AuthTokens refresh(String refreshToken) {
+        MDC.put("operation", "refresh");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        MDC.put("username", rotation.username());
+
+        String token = tokenService.generateToken(rotation.username(),
+                userDetailsService.authoritiesOf(rotation.username()));
+
+        log.info("Session refreshed for user {}", rotation.username());
+        return AuthTokens.builder()
+                .username(rotation.username())
+                .accessToken(token)
+                .refreshToken(rotation.refreshToken())
+                .build();
+    }
+
+    /**
+     * Revokes the presented access token until it expires and, when given, the refresh token
+     * family it was renewed with. Tokens that are already invalid need no revocation.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                TokenClaims claims = tokenService.verifyToken(accessToken);
+                if (claims.getTokenId() != null) {
+                    tokenRevocationList.revoke(claims.getTokenId(), claims.getExpiresAt());
+                }
+            } catch (JwtException e) {
+                log.debug("Logout with an invalid access token: {}", e.getMessage());
+            }
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
         SecurityContextHolder.clearContext();
         log.debug("Logged out successfully");
     }
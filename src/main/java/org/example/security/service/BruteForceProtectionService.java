@@ -1,134 +1,242 @@
 package org.example.security.service;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
 import org.example.persistance.entity.LoginAttemptEntity;
 import org.example.exception.UserBlockedException;
 import org.example.persistance.repository.LoginAttemptRepo;
+import org.example.security.service.LoginAttemptCounters.Attempts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Failed-login counting and blocking. A failure is counted by {@link LoginAttemptRecorder}
+ * in one atomic upsert, so the block decision holds across parallel requests and nodes, and
+ * the result is kept in {@link LoginAttemptCounters} where block checks read it first. A
+ * username not blocked locally costs one indexed read of its row, so a block set by another
+ * node is enforced here too, and is then kept locally. A successful login only clears memory; the row deletion is written behind in
+ * batches, as are failures counted in memory while the database was unreachable. Rows that
+ * are still active are read back on startup so blocks survive a restart.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class BruteForceProtectionService {
 
-    private final LoginAttemptRepo loginAttemptRepo;
+    static final int FLUSH_BATCH_SIZE = 500;
 
     private static final int MAX_ATTEMPTS = 3;
     private static final int BLOCK_DURATION_MINUTES = 5;
 
-    @Transactional(readOnly = true)
-    public void checkIfBlocked(String username) {
-        Optional<LoginAttemptEntity> attemptOpt = loginAttemptRepo.findByUsername(username);
-
-        if (attemptOpt.isPresent()) {
-            LoginAttemptEntity attempt = attemptOpt.get();
-
-            if (attempt.getIsBlocked()) {
-                LocalDateTime now = LocalDateTime.now();
-
-                if (attempt.getBlockedUntil() != null && now.isBefore(attempt.getBlockedUntil())) {
-                    long minutesLeft = java.time.Duration.between(now, attempt.getBlockedUntil()).toMinutes();
-                    log.warn("User {} is blocked. Time remaining: {} minutes", username, minutesLeft + 1);
-                    throw new UserBlockedException(
-                            String.format("Account is blocked due to too many failed login attempts. Try again in %d minute(s).",
-                                    minutesLeft + 1)
-                    );
-                } else {
-                    log.info("Block expired for user: {}", username);
-                }
-            }
-        }
+    private final LoginAttemptRepo loginAttemptRepo;
+    private final LoginAttemptRecorder loginAttemptRecorder;
+    private final TransactionTemplate transactionTemplate;
+    private final LoginAttemptCounters counters;
+    private final int maxTrackedUsernames;
+    private final Clock clock;
+
+    @Autowired
+    public BruteForceProtectionService(LoginAttemptRepo loginAttemptRepo,
+                                       LoginAttemptRecorder loginAttemptRecorder,
+                                       AppProperties appProperties,
+                                       PlatformTransactionManager transactionManager) {
+        this(loginAttemptRepo, loginAttemptRecorder, appProperties, transactionManager, Clock.systemDefaultZone());
     }
 
-    @Transactional
-    public void recordFailedAttempt(String username) {
-        LocalDateTime now = LocalDateTime.now();
-
-        Optional<LoginAttemptEntity> attemptOpt = loginAttemptRepo.findByUsername(username);
-
-        LoginAttemptEntity attempt;
-
-        if (attemptOpt.isPresent()) {
-            attempt = attemptOpt.get();
+    BruteForceProtectionService(LoginAttemptRepo loginAttemptRepo,
+                                LoginAttemptRecorder loginAttemptRecorder,
+                                AppProperties appProperties,
+                                PlatformTransactionManager transactionManager,
+                                Clock clock) {
+        this.loginAttemptRepo = loginAttemptRepo;
+        this.loginAttemptRecorder = loginAttemptRecorder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxTrackedUsernames = appProperties.getSecurity().getLoginAttempts().getMaxTrackedUsernames();
+        this.clock = clock;
+        this.counters = new LoginAttemptCounters(MAX_ATTEMPTS, Duration.ofMinutes(BLOCK_DURATION_MINUTES),
+                maxTrackedUsernames, clock);
+    }
 
-            if (attempt.getIsBlocked() && attempt.getBlockedUntil() != null
-                    && now.isAfter(attempt.getBlockedUntil())) {
-                log.info("Resetting expired block for user: {}", username);
-                attempt.setAttemptCount(1);
-                attempt.setIsBlocked(false);
-                attempt.setBlockedUntil(null);
-            } else {
-                attempt.setAttemptCount(attempt.getAttemptCount() + 1);
-            }
+    public void checkIfBlocked(String username) {
+        Attempts attempts = counters.get(username);
+        LocalDateTime now = LocalDateTime.now(clock);
 
-            attempt.setLastAttemptTime(now);
+        if (attempts == null || !attempts.blockedAt(now)) {
+            attempts = blockedElsewhere(username, now);
+        }
+        if (attempts != null && attempts.blockedAt(now)) {
+            long minutesLeft = Duration.between(now, attempts.blockedUntil()).toMinutes();
+            log.warn("User {} is blocked. Time remaining: {} minutes", username, minutesLeft + 1);
+            throw new UserBlockedException(
+                    String.format("Account is blocked due to too many failed login attempts. Try again in %d minute(s).",
+                            minutesLeft + 1)
+            );
+        }
+    }
 
-        } else {
-            attempt = new LoginAttemptEntity();
-            attempt.setUsername(username);
-            attempt.setAttemptCount(1);
-            attempt.setLastAttemptTime(now);
-            attempt.setIsBlocked(false);
+    public void recordFailedAttempt(String username) {
+        Attempts attempts;
+        try {
+            attempts = loginAttemptRecorder.recordFailure(username, LocalDateTime.now(clock),
+                    Duration.ofMinutes(BLOCK_DURATION_MINUTES), MAX_ATTEMPTS, counters.pendingReset(username));
+            counters.apply(username, attempts);
+        } catch (DataAccessException e) {
+            log.warn("Could not record failed login for {}, counting locally until the next flush: {}",
+                    username, e.getMessage());
+            attempts = counters.recordFailure(username);
         }
 
-        if (attempt.getAttemptCount() >= MAX_ATTEMPTS) {
-            attempt.setIsBlocked(true);
-            attempt.setBlockedUntil(now.plusMinutes(BLOCK_DURATION_MINUTES));
+        if (attempts.blockedUntil() != null) {
             log.warn("User {} blocked after {} failed attempts. Blocked until: {}",
-                    username, attempt.getAttemptCount(), attempt.getBlockedUntil());
+                    username, attempts.count(), attempts.blockedUntil());
         } else {
             log.info("Failed login attempt {} of {} for user: {}",
-                    attempt.getAttemptCount(), MAX_ATTEMPTS, username);
+                    attempts.count(), MAX_ATTEMPTS, username);
         }
-
-        loginAttemptRepo.save(attempt);
     }
 
-    @Transactional
+    // The common case of a user with no recent failures touches nothing but the map lookup
     public void resetAttempts(String username) {
-        Optional<LoginAttemptEntity> attemptOpt = loginAttemptRepo.findByUsername(username);
-
-        if (attemptOpt.isPresent()) {
-            LoginAttemptEntity attempt = attemptOpt.get();
-
-            if (attempt.getAttemptCount() > 0 || attempt.getIsBlocked()) {
-                log.info("Resetting login attempts for user: {} (previous attempts: {})",
-                        username, attempt.getAttemptCount());
-            }
-
-            attempt.setAttemptCount(0);
-            attempt.setIsBlocked(false);
-            attempt.setBlockedUntil(null);
-            attempt.setLastAttemptTime(LocalDateTime.now());
-
-            loginAttemptRepo.save(attempt);
+        if (counters.reset(username)) {
+            log.info("Resetting login attempts for user: {}", username);
         }
     }
 
     @Transactional
     public void cleanupExpiredBlocks() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
+        counters.sweep();
         loginAttemptRepo.deleteExpiredBlocks(now);
         log.info("Cleaned up expired login blocks");
     }
 
-    @Transactional(readOnly = true)
     public int getRemainingAttempts(String username) {
-        Optional<LoginAttemptEntity> attemptOpt = loginAttemptRepo.findByUsername(username);
+        Attempts attempts = counters.get(username);
+
+        if (attempts == null) {
+            return MAX_ATTEMPTS;
+        }
+        if (attempts.blockedAt(LocalDateTime.now(clock))) {
+            return 0;
+        }
+        return Math.max(0, MAX_ATTEMPTS - attempts.count());
+    }
+
+    int trackedUsernames() {
+        return counters.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveAttempts() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            List<LoginAttemptEntity> active = loginAttemptRepo.findActive(
+                    now.minusMinutes(BLOCK_DURATION_MINUTES), now, PageRequest.of(0, maxTrackedUsernames));
+            active.forEach(row -> counters.restore(row.getUsername(),
+                    new Attempts(row.getAttemptCount(), row.getLastAttemptTime(), row.getBlockedUntil())));
+            log.info("Restored {} active login attempt records", active.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not restore login attempts, starting with empty counters: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes usernames changed since the last flush. Failures counted locally are upserted, and
+     * users reset by a successful login have their row deleted unless a block was set on it
+     * since. Entries that merely expired or were evicted are not written. A batch that fails is
+     * retried on the next flush.
+     */
+    @Scheduled(initialDelayString = "${app.security.login-attempts.flush-interval:PT5S}",
+            fixedDelayString = "${app.security.login-attempts.flush-interval:PT5S}")
+    public void flush() {
+        List<String> dirty = counters.drainDirty();
+        for (int start = 0; start < dirty.size(); start += FLUSH_BATCH_SIZE) {
+            List<String> batch = dirty.subList(start, Math.min(start + FLUSH_BATCH_SIZE, dirty.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> flushBatch(batch));
+            } catch (DataAccessException e) {
+                log.warn("Could not persist {} login attempt records, retrying on next flush: {}",
+                        batch.size(), e.getMessage());
+                counters.markDirty(batch);
+            }
+        }
+
+        List<String> resets = counters.drainResets();
+        for (int start = 0; start < resets.size(); start += FLUSH_BATCH_SIZE) {
+            List<String> batch = resets.subList(start, Math.min(start + FLUSH_BATCH_SIZE, resets.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        loginAttemptRepo.deleteUnblockedByUsernameIn(batch, LocalDateTime.now(clock)));
+            } catch (DataAccessException e) {
+                log.warn("Could not clear {} login attempt records, retrying on next flush: {}",
+                        batch.size(), e.getMessage());
+                counters.markReset(batch);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushBatch(List<String> usernames) {
+        Map<String, LoginAttemptEntity> existing = loginAttemptRepo.findAllByUsernameIn(usernames).stream()
+                .collect(Collectors.toMap(LoginAttemptEntity::getUsername, Function.identity()));
 
-        if (attemptOpt.isPresent()) {
-            LoginAttemptEntity attempt = attemptOpt.get();
-            if (attempt.getIsBlocked()) {
-                return 0;
+        List<LoginAttemptEntity> toSave = new ArrayList<>();
+        for (String username : usernames) {
+            Attempts attempts = counters.get(username);
+            if (attempts == null) {
+                // Expired or evicted since it was drained; the stored row stays as it is
+                continue;
+            }
+            LoginAttemptEntity row = existing.get(username);
+            if (row == null) {
+                row = new LoginAttemptEntity();
+                row.setUsername(username);
             }
-            return Math.max(0, MAX_ATTEMPTS - attempt.getAttemptCount());
+            row.setAttemptCount(attempts.count());
+            row.setLastAttemptTime(attempts.lastAttempt());
+            row.setBlockedUntil(attempts.blockedUntil());
+            row.setIsBlocked(attempts.blockedUntil() != null);
+            toSave.add(row);
         }
 
-        return MAX_ATTEMPTS;
+        loginAttemptRepo.saveAll(toSave);
+    }
+
+    // A block decided by another node's upsert; the database being down leaves the local answer
+    private Attempts blockedElsewhere(String username, LocalDateTime now) {
+        try {
+            return loginAttemptRepo.findBlocked(username, now)
+                    .map(row -> {
+                        Attempts stored = new Attempts(row.getAttemptCount(), row.getLastAttemptTime(),
+                                row.getBlockedUntil());
+                        counters.apply(username, stored);
+                        return stored;
+                    })
+                    .orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not read login block for {}, using local counters only: {}", username, e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,216 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
+import org.example.exception.UserBlockedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Spots one source failing logins across many usernames, which per-username counting never
+ * sees: one guess each for 100,000 accounts trips no account lock but still costs 100,000
+ * BCrypt checks. For each source address and its subnet a {@link HyperLogLog} estimates the
+ * distinct usernames that failed within the window; past the threshold the source is refused
+ * before any hashing.
+ *
+ * <p>Sources live in two fixed tables, so memory does not grow with the number of attackers.
+ * Each source can sit in one of two slots; a new source takes whichever holds the fewer
+ * usernames and is not tracked if both hold sources over the threshold, so a flood of new
+ * addresses cannot push a refused one out. The window is split into
+ * {@value #SEGMENTS} segments with a sketch each, and the oldest segment is cleared when the
+ * window moves past it.
+ */
+@Slf4j
+@Component
+public class CredentialStuffingDetector {
+
+    static final int SEGMENTS = 4;
+
+    private final SourceTable addresses;
+    private final SourceTable subnets;
+    private final long segmentMillis;
+    private final Clock clock;
+
+    @Autowired
+    public CredentialStuffingDetector(AppProperties appProperties) {
+        this(appProperties, Clock.systemUTC());
+    }
+
+    CredentialStuffingDetector(AppProperties appProperties, Clock clock) {
+        AppProperties.Security.CredentialStuffing properties = appProperties.getSecurity().getCredentialStuffing();
+        this.addresses = new SourceTable("address", properties.getTrackedAddresses(),
+                properties.getMaxUsernamesPerAddress());
+        this.subnets = new SourceTable("subnet", properties.getTrackedSubnets(),
+                properties.getMaxUsernamesPerSubnet());
+        this.segmentMillis = Math.max(1, properties.getWindow().toMillis() / SEGMENTS);
+        this.clock = clock;
+    }
+
+    /**
+     * @throws UserBlockedException if the address or its subnet failed for too many usernames
+     */
+    public void checkSource(String address) {
+        if (address == null) {
+            return;
+        }
+        long segment = segment();
+        if (addresses.isOverThreshold(address, segment) || subnets.isOverThreshold(subnet(address), segment)) {
+            throw new UserBlockedException("Too many failed logins from this network. Please try again later.");
+        }
+    }
+
+    public void recordFailure(String address, String username) {
+        if (address == null || username == null) {
+            return;
+        }
+        long segment = segment();
+        long usernameHash = Hashes.hash64(username);
+        addresses.record(address, usernameHash, segment);
+        subnets.record(subnet(address), usernameHash, segment);
+    }
+
+    long distinctUsernames(String address) {
+        return addresses.distinct(address, segment());
+    }
+
+    long distinctUsernamesInSubnet(String address) {
+        return subnets.distinct(subnet(address), segment());
+    }
+
+    private long segment() {
+        return clock.millis() / segmentMillis;
+    }
+
+    // IPv4 addresses are grouped by /24 and IPv6 by /64, the usual size of one allocation
+    static String subnet(String address) {
+        if (address.indexOf(':') < 0) {
+            int lastDot = address.lastIndexOf('.');
+            return lastDot < 0 ? address : address.substring(0, lastDot) + ".0/24";
+        }
+        try {
+            // A literal with a colon is parsed in place, never resolved
+            byte[] bytes = InetAddress.getByName(address).getAddress();
+            if (bytes.length == 16) {
+                return HexFormat.of().formatHex(bytes, 0, 8) + "::/64";
+            }
+        } catch (UnknownHostException e) {
+            log.debug("Unparseable remote address {}", address);
+        }
+        return address;
+    }
+
+    private static final class SourceTable {
+
+        private final String kind;
+        private final Slot[] slots;
+        private final int threshold;
+
+        SourceTable(String kind, int size, int threshold) {
+            this.kind = kind;
+            this.slots = new Slot[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = new Slot();
+            }
+            this.threshold = threshold;
+        }
+
+        boolean isOverThreshold(String source, long segment) {
+            return distinct(source, segment) >= threshold;
+        }
+
+        long distinct(String source, long segment) {
+            long hash = Hashes.hash64(source);
+            long first = slot(hash).distinctIfOwner(source, segment);
+            return first >= 0 ? first : Math.max(0, slot(Hashes.mix(hash)).distinctIfOwner(source, segment));
+        }
+
+        void record(String source, long usernameHash, long segment) {
+            long hash = Hashes.hash64(source);
+            Slot first = slot(hash);
+            Slot second = slot(Hashes.mix(hash));
+            Slot target;
+            if (first.isOwnedBy(source)) {
+                target = first;
+            } else if (second.isOwnedBy(source)) {
+                target = second;
+            } else {
+                target = first.distinct(segment) <= second.distinct(segment) ? first : second;
+                // Both slots hold sources that are being refused; those matter more than a new one
+                if (target.distinct(segment) >= threshold) {
+                    return;
+                }
+            }
+            if (target.record(source, usernameHash, segment, threshold)) {
+                log.warn("❌ Failed logins for {}+ distinct usernames from {} {} - refusing further attempts",
+                        threshold, kind, source);
+            }
+        }
+
+        private Slot slot(long hash) {
+            return slots[(int) Math.floorMod(hash, (long) slots.length)];
+        }
+    }
+
+    private static final class Slot {
+
+        private final HyperLogLog[] sketches = new HyperLogLog[SEGMENTS];
+        private final long[] sketchSegments = new long[SEGMENTS];
+        private String owner;
+
+        Slot() {
+            for (int i = 0; i < SEGMENTS; i++) {
+                sketches[i] = new HyperLogLog();
+                sketchSegments[i] = -1;
+            }
+        }
+
+        synchronized boolean isOwnedBy(String source) {
+            return source.equals(owner);
+        }
+
+        synchronized long distinctIfOwner(String source, long segment) {
+            return source.equals(owner) ? distinct(segment) : -1;
+        }
+
+        /**
+         * @return whether this failure took the source over the threshold
+         */
+        synchronized boolean record(String source, long usernameHash, long segment, int threshold) {
+            if (!source.equals(owner)) {
+                owner = source;
+                for (int i = 0; i < SEGMENTS; i++) {
+                    sketches[i].clear();
+                    sketchSegments[i] = -1;
+                }
+            }
+            long before = distinct(segment);
+            int index = (int) (segment % SEGMENTS);
+            if (sketchSegments[index] != segment) {
+                sketches[index].clear();
+                sketchSegments[index] = segment;
+            }
+            sketches[index].add(usernameHash);
+            return before < threshold && distinct(segment) >= threshold;
+        }
+
+        synchronized long distinct(long segment) {
+            if (owner == null) {
+                return 0;
+            }
+            HyperLogLog[] live = new HyperLogLog[SEGMENTS];
+            int count = 0;
+            for (int i = 0; i < SEGMENTS; i++) {
+                if (sketchSegments[i] > segment - SEGMENTS) {
+                    live[count++] = sketches[i];
+                }
+            }
+            return count == 0 ? 0 : HyperLogLog.estimateUnion(Arrays.copyOf(live, count));
+        }
+    }
+}
@@ -2,19 +2,27 @@ package org.example.security.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
 import org.example.security.GymUserDetails;
 import org.example.services.UserService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+import static org.example.security.constants.SecurityConstants.ADMIN_AUTHORITY;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GymUserDetailsService implements UserDetailsService {
 
     private final UserService userService;
+    private final AppProperties appProperties;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -22,11 +30,19 @@ public class GymUserDetailsService implements UserDetailsService {
 
         try {
             return new GymUserDetails(
-                    userService.getByUsername(username)
+                    userService.getByUsername(username),
+                    authoritiesOf(username)
             );
         } catch (Exception e) {
             log.error("User not found: {}", username);
             throw new UsernameNotFoundException("User not found: " + username, e);
         }
     }
-}
\ No newline at end of file
+
+    // Roles are not stored per user; administrators are the accounts named in configuration
+    public List<GrantedAuthority> authoritiesOf(String username) {
+        return appProperties.getSecurity().getAdminUsernames().contains(username)
+                ? List.of(new SimpleGrantedAuthority(ADMIN_AUTHORITY))
+                : List.of();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.security.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit string hashing shared by the in-memory sketches in this package.
+ */
+final class Hashes {
+
+    private Hashes() {
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with mix() so every output bit depends on every input byte
+    static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 finalizer, spreads FNV's weak low bits across the word
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e87f5L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.security.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Failed-login counters per username. Each entry is an immutable snapshot replaced through
+ * {@link ConcurrentHashMap#compute}, which locks only the entry's bin, so concurrent failures
+ * for different users never contend and reads take no lock at all. Entries expire a window
+ * after the last failure, or when their block ends, and the map never holds more than
+ * {@code maxEntries}. Usernames with failures counted only here are remembered until the next
+ * {@link #drainDirty()}, and usernames reset by a successful login until the next
+ * {@link #drainResets()}, so both can be written behind to the database. Only the latter have
+ * their row deleted: an entry that expires or is evicted leaves its row, and any block in it,
+ * alone. Dirty usernames always have an entry, so both sets stay within {@code maxEntries}.
+ */
+class LoginAttemptCounters {
+
+    record Attempts(int count, LocalDateTime lastAttempt, LocalDateTime blockedUntil) {
+
+        boolean blockedAt(LocalDateTime now) {
+            return blockedUntil != null && now.isBefore(blockedUntil);
+        }
+
+        boolean expiredAt(LocalDateTime now, Duration window) {
+            if (blockedUntil != null) {
+                return !now.isBefore(blockedUntil);
+            }
+            return !now.isBefore(lastAttempt.plus(window));
+        }
+    }
+
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<String> resets = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration window;
+    private final int maxEntries;
+    private final Clock clock;
+
+    LoginAttemptCounters(int maxAttempts, Duration window, int maxEntries, Clock clock) {
+        this.maxAttempts = maxAttempts;
+        this.window = window;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    Attempts get(String username) {
+        Attempts current = attempts.get(username);
+        if (current != null && current.expiredAt(now(), window)) {
+            remove(username, current);
+            return null;
+        }
+        return current;
+    }
+
+    Attempts recordFailure(String username) {
+        LocalDateTime now = now();
+        Attempts updated = attempts.compute(username, (name, current) -> {
+            int count = current == null || current.expiredAt(now, window) ? 1 : current.count() + 1;
+            LocalDateTime blockedUntil = count >= maxAttempts ? now.plus(window) : null;
+            return new Attempts(count, now, blockedUntil);
+        });
+        dirty.add(username);
+        resets.remove(username);
+
+        if (attempts.size() > maxEntries) {
+            shrink();
+        }
+        return updated;
+    }
+
+    // Takes state already decided and stored elsewhere, so the username is no longer dirty
+    void apply(String username, Attempts stored) {
+        attempts.put(username, stored);
+        dirty.remove(username);
+        resets.remove(username);
+
+        if (attempts.size() > maxEntries) {
+            shrink();
+        }
+    }
+
+    // A reset whose row deletion has not been flushed yet
+    boolean pendingReset(String username) {
+        return resets.contains(username);
+    }
+
+    /*
+     * Past maxEntries pending resets (only while the database is unreachable) a reset is not
+     * queued; its row keeps the old count, which the next upsert carries on from.
+     */
+    boolean reset(String username) {
+        if (attempts.remove(username) == null) {
+            return false;
+        }
+        dirty.remove(username);
+        if (resets.size() < maxEntries) {
+            resets.add(username);
+        }
+        return true;
+    }
+
+    // Restores state read back from the database; it is already persisted, so not dirty
+    void restore(String username, Attempts restored) {
+        if (attempts.size() < maxEntries && !restored.expiredAt(now(), window)) {
+            attempts.putIfAbsent(username, restored);
+        }
+    }
+
+    List<String> drainDirty() {
+        return drain(dirty);
+    }
+
+    List<String> drainResets() {
+        return drain(resets);
+    }
+
+    // A batch that could not be written; usernames that have since lost their entry stay clean
+    void markDirty(List<String> usernames) {
+        usernames.stream().filter(attempts::containsKey).forEach(dirty::add);
+    }
+
+    // Resets that could not be written, unless a failure has since been counted again
+    void markReset(List<String> usernames) {
+        usernames.stream()
+                .filter(username -> !attempts.containsKey(username))
+                .filter(username -> resets.size() < maxEntries)
+                .forEach(resets::add);
+    }
+
+    int sweep() {
+        LocalDateTime now = now();
+        int removed = 0;
+        for (Map.Entry<String, Attempts> entry : attempts.entrySet()) {
+            if (entry.getValue().expiredAt(now, window) && remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return attempts.size();
+    }
+
+    /*
+     * Over capacity: drop expired entries first, then single failures that are not blocking
+     * anyone, then whatever is left. Trims to 90% so a flood does not shrink on every insert.
+     */
+    private void shrink() {
+        sweep();
+        int target = maxEntries - maxEntries / 10;
+        LocalDateTime now = now();
+        evictWhile(target, entry -> !entry.blockedAt(now) && entry.count() <= 1);
+        evictWhile(target, entry -> !entry.blockedAt(now));
+        evictWhile(target, entry -> true);
+    }
+
+    private void evictWhile(int target, Predicate<Attempts> evictable) {
+        Iterator<Map.Entry<String, Attempts>> iterator = attempts.entrySet().iterator();
+        while (attempts.size() > target && iterator.hasNext()) {
+            Map.Entry<String, Attempts> entry = iterator.next();
+            if (evictable.test(entry.getValue())) {
+                iterator.remove();
+                dirty.remove(entry.getKey());
+            }
+        }
+    }
+
+    // Dropping an entry drops its unwritten failures with it, never the stored row
+    private boolean remove(String username, Attempts expected) {
+        if (!attempts.remove(username, expected)) {
+            return false;
+        }
+        dirty.remove(username);
+        return true;
+    }
+
+    private static List<String> drain(Set<String> usernames) {
+        List<String> drained = new ArrayList<>();
+        Iterator<String> iterator = usernames.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.security.service.LoginAttemptCounters.Attempts;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Counts a failed login in login_attempts with one upsert that returns the new count and block
+ * state. The increment, the window reset and the block decision all happen inside the statement
+ * under the row lock, so parallel failures on any node are never lost and the first failure for
+ * a username cannot trip the unique constraint.
+ */
+@Slf4j
+@Component
+class LoginAttemptRecorder {
+
+    // Failures restart from one when asked to, when a block has run out, or when the last one left the window
+    private static final String NEXT_COUNT = "CASE WHEN CAST(:restart AS BOOLEAN)"
+            + " OR l.blocked_until <= :now"
+            + " OR (l.blocked_until IS NULL AND l.last_attempt_time <= :windowStart)"
+            + " THEN 1 ELSE l.attempt_count + 1 END";
+
+    private static final String UPDATE_SET = "attempt_count = " + NEXT_COUNT
+            + ", last_attempt_time = :now"
+            + ", blocked_until = CASE WHEN " + NEXT_COUNT + " >= :maxAttempts THEN CAST(:blockedUntil AS TIMESTAMP) END"
+            + ", is_blocked = " + NEXT_COUNT + " >= :maxAttempts";
+
+    private static final String INSERT_VALUES = "1, :now"
+            + ", CASE WHEN 1 >= :maxAttempts THEN CAST(:blockedUntil AS TIMESTAMP) END"
+            + ", 1 >= :maxAttempts";
+
+    static final String POSTGRES = "INSERT INTO login_attempts AS l"
+            + " (username, attempt_count, last_attempt_time, blocked_until, is_blocked)"
+            + " VALUES (:username, " + INSERT_VALUES + ")"
+            + " ON CONFLICT (username) DO UPDATE SET " + UPDATE_SET
+            + " RETURNING attempt_count, last_attempt_time, blocked_until";
+
+    static final String STANDARD = "SELECT attempt_count, last_attempt_time, blocked_until FROM FINAL TABLE"
+            + " (MERGE INTO login_attempts l USING (VALUES (CAST(:username AS VARCHAR(255)))) s (username)"
+            + " ON l.username = s.username"
+            + " WHEN MATCHED THEN UPDATE SET " + UPDATE_SET
+            + " WHEN NOT MATCHED THEN INSERT (username, attempt_count, last_attempt_time, blocked_until, is_blocked)"
+            + " VALUES (s.username, " + INSERT_VALUES + "))";
+
+    private static final RowMapper<Attempts> ATTEMPTS = (rs, rowNum) -> new Attempts(
+            rs.getInt("attempt_count"),
+            rs.getTimestamp("last_attempt_time").toLocalDateTime(),
+            rs.getTimestamp("blocked_until") == null ? null : rs.getTimestamp("blocked_until").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    private volatile String upsert;
+
+    LoginAttemptRecorder(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param restart start the count over regardless of the stored row, for a user whose
+     *                successful login has not been written yet
+     */
+    Attempts recordFailure(String username, LocalDateTime now, Duration window, int maxAttempts, boolean restart) {
+        // TIMESTAMP(6) rounds nanoseconds, which could push a stored block past the one decided here
+        now = now.truncatedTo(ChronoUnit.MICROS);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("windowStart", Timestamp.valueOf(now.minus(window)))
+                .addValue("blockedUntil", Timestamp.valueOf(now.plus(window)))
+                .addValue("maxAttempts", maxAttempts)
+                .addValue("restart", restart);
+        try {
+            return jdbcTemplate.queryForObject(upsert(), params, ATTEMPTS);
+        } catch (DuplicateKeyException e) {
+            // MERGE can race another node inserting the same new username; the row exists now
+            log.debug("Login attempt row for {} was inserted concurrently", username);
+            return jdbcTemplate.queryForObject(upsert(), params, ATTEMPTS);
+        }
+    }
+
+    private String upsert() {
+        String resolved = upsert;
+        if (resolved == null) {
+            resolved = isPostgres() ? POSTGRES : STANDARD;
+            upsert = resolved;
+        }
+        return resolved;
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            log.warn("Could not determine database product, using standard SQL for login attempts: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets per route group and client. Buckets are created on a client's first request
+ * and dropped by {@link #evictIdle} once they have refilled completely, since a full bucket
+ * is the same as no bucket; the map therefore only holds clients active within the last
+ * refill of their route.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final List<RouteBuckets> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Clock clock;
+
+    @Autowired
+    public RateLimiter(AppProperties appProperties) {
+        this(appProperties, Clock.systemUTC());
+    }
+
+    RateLimiter(AppProperties appProperties, Clock clock) {
+        AppProperties.RateLimit rateLimit = appProperties.getRateLimit();
+        this.routes = rateLimit.isEnabled()
+                ? rateLimit.getRoutes().stream().map(RouteBuckets::new).toList()
+                : List.of();
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the client's bucket for the route group the path belongs to.
+     *
+     * @return {@code null} if the request may proceed, otherwise the refusal
+     */
+    public Rejection tryAcquire(String path, String client) {
+        return tryAcquire(path, List.of(client));
+    }
+
+    /**
+     * Takes a token from each of the clients' buckets, e.g. the address and the user a request
+     * comes from. The request is refused if any bucket is empty; tokens already taken from the
+     * others are then given back.
+     *
+     * @return {@code null} if the request may proceed, otherwise the first refusal
+     */
+    public Rejection tryAcquire(String path, List<String> clients) {
+        RouteBuckets route = route(path);
+        if (route == null) {
+            return null;
+        }
+        long now = nanos();
+        for (int i = 0; i < clients.size(); i++) {
+            TokenBucket bucket = route.buckets.computeIfAbsent(clients.get(i), key -> route.newBucket(now));
+            long wait = bucket.tryConsume(now);
+            if (wait > 0) {
+                for (int taken = 0; taken < i; taken++) {
+                    TokenBucket consumed = route.buckets.get(clients.get(taken));
+                    if (consumed != null) {
+                        consumed.refund();
+                    }
+                }
+                return new Rejection(route.name, Duration.ofNanos(wait));
+            }
+        }
+        return null;
+    }
+
+    // A request racing with eviction may land on a bucket that is being dropped; the client
+    // then gets at most one token for free
+    @Scheduled(initialDelayString = "${app.rate-limit.cleanup-interval:PT1M}",
+            fixedDelayString = "${app.rate-limit.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        long now = nanos();
+        int evicted = 0;
+        for (RouteBuckets route : routes) {
+            int before = route.buckets.size();
+            route.buckets.values().removeIf(bucket -> bucket.isFull(now));
+            evicted += before - route.buckets.size();
+        }
+        log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    int trackedClients() {
+        return routes.stream().mapToInt(route -> route.buckets.size()).sum();
+    }
+
+    private RouteBuckets route(String path) {
+        for (RouteBuckets route : routes) {
+            for (String pattern : route.paths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private long nanos() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    public record Rejection(String route, Duration retryAfter) {
+    }
+
+    private static final class RouteBuckets {
+
+        private final String name;
+        private final List<String> paths;
+        private final int capacity;
+        private final long nanosPerToken;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        RouteBuckets(AppProperties.RateLimit.Route route) {
+            this.name = route.getName();
+            this.paths = List.copyOf(route.getPaths());
+            this.capacity = route.getCapacity();
+            this.nanosPerToken = Math.max(1, route.getRefillPeriod().toNanos() / route.getRefillTokens());
+        }
+
+        TokenBucket newBucket(long now) {
+            return new TokenBucket(nanosPerToken, capacity, now);
+        }
+    }
+}
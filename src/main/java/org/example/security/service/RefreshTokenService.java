@@ -0,0 +1,154 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
+import org.example.exception.InvalidRefreshTokenException;
+import org.example.persistance.entity.RefreshTokenEntity;
+import org.example.persistance.repository.RefreshTokenRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Only an HMAC-SHA256 of each token is stored, so a leaked
+ * table cannot be replayed, and checking a token costs one keyed digest and one lookup on a
+ * unique index instead of a BCrypt round. Exchanging a token marks it used and issues the next
+ * one in the same family; presenting a used token again means it was copied, so the whole
+ * family is revoked and both holders have to log in again.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final SecretKeySpec hashKey;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepo refreshTokenRepo,
+                               AppProperties appProperties,
+                               UserSecurityVersions securityVersions,
+                               PlatformTransactionManager transactionManager) {
+        this(refreshTokenRepo, appProperties, securityVersions, transactionManager, Clock.systemDefaultZone());
+    }
+
+    RefreshTokenService(RefreshTokenRepo refreshTokenRepo,
+                        AppProperties appProperties,
+                        UserSecurityVersions securityVersions,
+                        PlatformTransactionManager transactionManager,
+                        Clock clock) {
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Separate key from the JWT signing key, derived from the same configured secret
+        this.hashKey = new SecretKeySpec(
+                ("refresh-token:" + appProperties.getSecurity().getJwtSecret()).getBytes(StandardCharsets.UTF_8),
+                HMAC_ALGORITHM);
+        this.ttl = appProperties.getSecurity().getRefreshTokenTtl();
+        this.clock = clock;
+        securityVersions.onInvalidate(this::revokeAll);
+    }
+
+    public String issue(String username) {
+        return transactionTemplate.execute(status -> store(username, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Exchanges a refresh token for the next one in its family.
+     *
+     * @return the username the token was issued to and the replacement token
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, revoked or reused
+     */
+    public Rotation rotate(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        Rotation rotation = transactionTemplate.execute(status -> {
+            RefreshTokenEntity current = refreshTokenRepo.findByTokenHash(tokenHash).orElse(null);
+            if (current == null || !now.isBefore(current.getExpiresAt())) {
+                return null;
+            }
+            if (current.getUsedAt() != null || refreshTokenRepo.markUsed(current.getId(), now) == 0) {
+                int revoked = refreshTokenRepo.deleteByFamilyId(current.getFamilyId());
+                log.warn("Refresh token reuse detected for user {}; revoked {} token(s) in the family",
+                        current.getUsername(), revoked);
+                return null;
+            }
+            return new Rotation(current.getUsername(), store(current.getUsername(), current.getFamilyId()));
+        });
+
+        if (rotation == null) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or expired");
+        }
+        return rotation;
+    }
+
+    // Ends the session the token belongs to; unknown tokens are ignored
+    public void revoke(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepo.findByTokenHash(tokenHash)
+                .ifPresent(token -> refreshTokenRepo.deleteByFamilyId(token.getFamilyId())));
+    }
+
+    public void revokeAll(String username) {
+        Integer revoked = transactionTemplate.execute(status -> refreshTokenRepo.deleteByUsername(username));
+        if (revoked != null && revoked > 0) {
+            log.info("Revoked {} refresh token(s) for user {}", revoked, username);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.security.refresh-token-cleanup-interval:PT1H}",
+            fixedDelayString = "${app.security.refresh-token-cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(
+                status -> refreshTokenRepo.deleteExpired(LocalDateTime.now(clock)));
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String store(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setTokenHash(hash(token));
+        entity.setUsername(username);
+        entity.setFamilyId(familyId);
+        entity.setExpiresAt(LocalDateTime.now(clock).plus(ttl));
+        refreshTokenRepo.save(entity);
+        return token;
+    }
+
+    private String hash(String token) {
+        try {
+            // Mac instances are not thread-safe and cheap to create next to the HMAC itself
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            return HexFormat.of().formatHex(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public record Rotation(String username, String refreshToken) {
+    }
+}
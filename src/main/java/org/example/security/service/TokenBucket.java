@@ -0,0 +1,49 @@
+package org.example.security.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp (the generic cell rate algorithm): the instant at
+ * which the bucket would be full again. Taking a token pushes that instant one refill interval
+ * further; the request is refused if it would land more than a full bucket ahead of now. One
+ * CAS per request, no lock and no refill bookkeeping.
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    // Nanos at which the bucket is full again; anything at or before now means full
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nanosPerToken, int capacity, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanos until one becomes available
+     */
+    long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryConsume, for a request refused by another bucket
+    void refund() {
+        fullAt.addAndGet(-nanosPerToken);
+    }
+
+    boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
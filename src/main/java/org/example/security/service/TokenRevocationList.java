@@ -0,0 +1,157 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
+import org.example.persistance.entity.RevokedTokenEntity;
+import org.example.persistance.repository.RevokedTokenRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked before their expiry. Lookups go through a {@link BloomFilter} first, so a
+ * token that was never revoked, which is nearly every request, is cleared by a few bit probes
+ * without locking or I/O; only filter hits consult the exact map of id to expiry. Revocations
+ * are written to revoked_tokens, loaded back on startup and picked up from other instances on
+ * a short interval. Expired ids are dropped and the filter is rebuilt without them.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Revocations from other instances are re-read with this much overlap to tolerate clock skew
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepo revokedTokenRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedRevocations;
+    private final Clock clock;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    private int filterCapacity;
+    private volatile LocalDateTime lastSync;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepo revokedTokenRepo,
+                               AppProperties appProperties,
+                               PlatformTransactionManager transactionManager) {
+        this(revokedTokenRepo, appProperties, transactionManager, Clock.systemDefaultZone());
+    }
+
+    TokenRevocationList(RevokedTokenRepo revokedTokenRepo,
+                        AppProperties appProperties,
+                        PlatformTransactionManager transactionManager,
+                        Clock clock) {
+        this.revokedTokenRepo = revokedTokenRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedRevocations = appProperties.getSecurity().getExpectedRevokedTokens();
+        this.clock = clock;
+        this.filterCapacity = expectedRevocations;
+        this.filter = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+        this.lastSync = LocalDateTime.now(clock);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(tokenId);
+        return expiresAt != null && clock.instant().isBefore(expiresAt);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (!clock.instant().isBefore(expiresAt)) {
+            return;
+        }
+        RevokedTokenEntity entity = new RevokedTokenEntity(tokenId, toLocal(expiresAt), LocalDateTime.now(clock));
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepo.save(entity));
+        add(tokenId, expiresAt);
+        log.info("Revoked token {} until {}", tokenId, expiresAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            List<RevokedTokenEntity> active = revokedTokenRepo.findByExpiresAtAfter(now);
+            active.forEach(this::add);
+            lastSync = now;
+            log.info("Loaded {} revoked tokens", active.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load revoked tokens, relying on the next sync: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.security.revocation-sync-interval:PT10S}",
+            fixedDelayString = "${app.security.revocation-sync-interval:PT10S}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            revokedTokenRepo.findByRevokedAtAfter(lastSync.minus(SYNC_OVERLAP)).forEach(this::add);
+            lastSync = now;
+        } catch (DataAccessException e) {
+            log.warn("Could not sync revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.security.revocation-cleanup-interval:PT5M}",
+            fixedDelayString = "${app.security.revocation-cleanup-interval:PT5M}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        if (revoked.values().removeIf(expiresAt -> !now.isBefore(expiresAt))) {
+            rebuild();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> revokedTokenRepo.deleteExpired(LocalDateTime.now(clock)));
+        } catch (DataAccessException e) {
+            log.warn("Could not delete expired revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    // Adds and rebuilds are serialized so an id added while the filter is replaced is not lost
+    private synchronized void add(String tokenId, Instant expiresAt) {
+        if (revoked.put(tokenId, expiresAt) == null) {
+            filter.put(tokenId);
+            if (revoked.size() > filterCapacity) {
+                rebuild();
+            }
+        }
+    }
+
+    private void add(RevokedTokenEntity entity) {
+        add(entity.getJti(), entity.getExpiresAt().atZone(clock.getZone()).toInstant());
+    }
+
+    // Sized for twice the current entries so a growing list keeps its false positive rate
+    private synchronized void rebuild() {
+        filterCapacity = Math.max(expectedRevocations, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        log.debug("Rebuilt token revocation filter with {} ids", revoked.size());
+    }
+
+    private LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, clock.getZone());
+    }
+}
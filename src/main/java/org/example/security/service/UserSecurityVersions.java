@@ -0,0 +1,120 @@
+package org.example.security.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties;
+import org.example.persistance.repository.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Per-user security version stamped into issued tokens. Changes that must cut off existing
+ * tokens (password change, deactivation, rename, deletion) bump users.security_version in the
+ * same transaction, and the JWT filter refuses tokens carrying a lower version. A username
+ * without a row, renamed away or deleted, accepts no tokens at all. The version survives
+ * restarts and is shared by every instance. Each instance caches it for a short TTL, so a
+ * bump made elsewhere is enforced here within that TTL, while the instance that made it
+ * drops its entry on commit. Other credentials tied to the user, such as refresh tokens,
+ * are revoked by listeners that run after each bump commits.
+ */
+@Slf4j
+@Component
+public class UserSecurityVersions {
+
+    // What current() answers for a username with no row, so no token carrying it passes
+    public static final long NO_USER = Long.MAX_VALUE;
+
+    private final UserRepo userRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration cacheTtl;
+    private final Clock clock;
+    private final Map<String, CachedVersion> cache = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public UserSecurityVersions(UserRepo userRepo,
+                                AppProperties appProperties,
+                                PlatformTransactionManager transactionManager) {
+        this(userRepo, appProperties, transactionManager, Clock.systemUTC());
+    }
+
+    UserSecurityVersions(UserRepo userRepo,
+                         AppProperties appProperties,
+                         PlatformTransactionManager transactionManager,
+                         Clock clock) {
+        this.userRepo = userRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheTtl = appProperties.getSecurity().getSecurityVersionCacheTtl();
+        this.clock = clock;
+    }
+
+    /**
+     * Version a presented token must not be below; {@link #NO_USER} when the username is gone.
+     * Served from the cache while the entry is younger than the TTL.
+     */
+    public long current(String username) {
+        Instant now = clock.instant();
+        CachedVersion cached = cache.get(username);
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            return cached.version();
+        }
+        long version = userRepo.findSecurityVersionByUsername(username).orElse(NO_USER);
+        cache.put(username, new CachedVersion(version, now.plus(cacheTtl)));
+        return version;
+    }
+
+    /**
+     * Version to stamp into a token issued now. Always read from the database, so a token minted
+     * right after a bump on another instance is not stamped with the old version.
+     */
+    public long forNewToken(String username) {
+        return transactionTemplate.execute(status -> userRepo.findSecurityVersionByUsername(username).orElse(0L));
+    }
+
+    public void onInvalidate(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    // Written with the caller's change; the local entry and listeners wait for the commit
+    public void invalidate(String username) {
+        transactionTemplate.executeWithoutResult(status -> userRepo.incrementSecurityVersion(username));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumped(username);
+                }
+            });
+        } else {
+            bumped(username);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.security-version-cache-ttl:PT5S}")
+    public void evictExpired() {
+        Instant now = clock.instant();
+        cache.values().removeIf(cached -> !now.isBefore(cached.expiresAt()));
+    }
+
+    private void bumped(String username) {
+        cache.remove(username);
+        log.info("Security version for {} was bumped; earlier tokens are rejected", username);
+        listeners.forEach(listener -> listener.accept(username));
+    }
+
+    private record CachedVersion(long version, Instant expiresAt) {
+    }
+}
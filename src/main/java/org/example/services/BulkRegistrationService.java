@@ -0,0 +1,15 @@
+package org.example.services;
+
+import org.example.persistance.model.RegistrationOutcome;
+import org.example.persistance.model.Trainee;
+import org.example.persistance.model.Trainer;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BulkRegistrationService {
+
+    void registerTrainees(List<Trainee> trainees, Consumer<RegistrationOutcome> outcomes);
+
+    void registerTrainers(List<Trainer> trainers, Consumer<RegistrationOutcome> outcomes);
+}
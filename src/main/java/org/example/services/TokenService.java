@@ -1,13 +1,26 @@
 package org.example.services;
 
+import org.example.security.TokenClaims;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
+
 public interface TokenService {
 
     String generateToken(String username);
 
     String generateToken(UserDetails userDetails);
 
+    String generateToken(String username, Collection<? extends GrantedAuthority> authorities);
+
+    /**
+     * Verifies signature and expiry once and returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    TokenClaims verifyToken(String token);
+
     String getUsernameFromToken(String token);
 
     boolean validateToken(String token);
@@ -2,10 +2,13 @@ package org.example.services;
 
 import jakarta.validation.Valid;
 import org.example.api.dto.request.TrainingRequest;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingPage;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TrainingService {
 
@@ -26,8 +29,14 @@ public interface TrainingService {
 
     Training createTraining(@Valid TrainingRequest request);
 
+    BulkTrainingResult createTrainings(List<TrainingRequest> requests);
+
     Training getTraining(String name);
 
     List<Training> listAll();
 
+    TrainingPage listPage(String cursor, int limit);
+
+    void streamAll(Consumer<Training> consumer);
+
 }
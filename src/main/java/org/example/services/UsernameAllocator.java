@@ -0,0 +1,14 @@
+package org.example.services;
+
+import java.util.List;
+
+public interface UsernameAllocator {
+
+    String allocate(String firstName, String lastName);
+
+    /**
+     * Allocates one username per base name, in input order. Repeated base names get distinct
+     * suffixes.
+     */
+    List<String> allocateAll(List<String> baseNames);
+}
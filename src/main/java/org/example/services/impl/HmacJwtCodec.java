@@ -0,0 +1,448 @@
+package org.example.services.impl;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.example.security.TokenClaims;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * HS256 compact JWS writer and reader for the fixed claim set this service issues: sub, iat,
+ * exp, jti, roles and sv. The header is encoded once, the payload JSON is written and read
+ * byte by byte, and each thread keeps its own initialised {@link Mac}, so neither direction
+ * allocates a claims map or goes through Jackson. Tokens are plain RFC 7519 tokens that jjwt
+ * signs and parses the same way.
+ *
+ * <p>{@link #decode} only answers for tokens in exactly the shape {@link #encode} produces.
+ * Anything else (another header, an unknown claim such as nbf, a fractional number or a token
+ * that does not even split into three parts) yields {@code null}, and the caller hands the
+ * token to jjwt, which either accepts it or throws the precise exception.
+ */
+class HmacJwtCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final byte[] HEADER = ENCODER.encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final ThreadLocal<Mac> macs;
+
+    HmacJwtCodec(SecretKey key) {
+        SecretKeySpec hs256Key = new SecretKeySpec(key.getEncoded(), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(hs256Key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+        // Fails at startup rather than on the first login if the provider is missing
+        macs.get();
+    }
+
+    // iat and exp are written in whole seconds, as the JWT spec requires; roles only when present
+    String encode(TokenClaims claims) {
+        JsonWriter json = new JsonWriter();
+        json.begin();
+        json.number("sv", claims.getSecurityVersion());
+        if (claims.getTokenId() != null) {
+            json.string("jti", claims.getTokenId());
+        }
+        json.string("sub", claims.getUsername());
+        json.number("iat", claims.getIssuedAt().getEpochSecond());
+        json.number("exp", claims.getExpiresAt().getEpochSecond());
+        if (!claims.getRoles().isEmpty()) {
+            json.strings("roles", claims.getRoles());
+        }
+        json.end();
+
+        byte[] payload = ENCODER.encode(json.toBytes());
+        int signedLength = HEADER.length + 1 + payload.length;
+        byte[] token = new byte[signedLength + 1 + ENCODED_SIGNATURE_LENGTH];
+        System.arraycopy(HEADER, 0, token, 0, HEADER.length);
+        token[HEADER.length] = '.';
+        System.arraycopy(payload, 0, token, HEADER.length + 1, payload.length);
+
+        Mac mac = macs.get();
+        mac.update(token, 0, signedLength);
+        byte[] signature = ENCODER.encode(mac.doFinal());
+        token[signedLength] = '.';
+        System.arraycopy(signature, 0, token, signedLength + 1, signature.length);
+        return new String(token, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Checks signature then expiry, in the same order as jjwt.
+     *
+     * @return the claims, or {@code null} if the token is not in the shape written by {@link #encode}
+     * @throws SignatureException    if the signature does not match
+     * @throws ExpiredJwtException   if the signature matches but exp is in the past
+     */
+    TokenClaims decode(String token, Instant now) {
+        byte[] bytes = token.getBytes(StandardCharsets.ISO_8859_1);
+        if (bytes.length <= HEADER.length || bytes[HEADER.length] != '.'
+                || !Arrays.equals(bytes, 0, HEADER.length, HEADER, 0, HEADER.length)) {
+            return null;
+        }
+        int payloadStart = HEADER.length + 1;
+        int signatureDot = indexOf(bytes, payloadStart);
+        if (signatureDot < 0 || indexOf(bytes, signatureDot + 1) >= 0) {
+            return null;
+        }
+
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = DECODER.decode(Arrays.copyOfRange(bytes, signatureDot + 1, bytes.length));
+            payload = DECODER.decode(Arrays.copyOfRange(bytes, payloadStart, signatureDot));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (signature.length != SIGNATURE_BYTES) {
+            return null;
+        }
+
+        Mac mac = macs.get();
+        mac.update(bytes, 0, signatureDot);
+        if (!MessageDigest.isEqual(mac.doFinal(), signature)) {
+            throw new SignatureException("JWT signature does not match locally computed signature. "
+                    + "JWT validity cannot be asserted and should not be trusted.");
+        }
+
+        TokenClaims claims = new JsonReader(payload).read();
+        if (claims != null && claims.getExpiresAt() != null && now.isAfter(claims.getExpiresAt())) {
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.getExpiresAt()
+                    + ". Current time: " + now + ".");
+        }
+        return claims;
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class JsonWriter {
+
+        private byte[] buffer = new byte[256];
+        private int length;
+        private boolean first = true;
+
+        void begin() {
+            put('{');
+        }
+
+        void end() {
+            put('}');
+        }
+
+        void number(String name, long value) {
+            name(name);
+            ascii(Long.toString(value));
+        }
+
+        void string(String name, String value) {
+            name(name);
+            quoted(value);
+        }
+
+        void strings(String name, List<String> values) {
+            name(name);
+            put('[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    put(',');
+                }
+                quoted(values.get(i));
+            }
+            put(']');
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void name(String name) {
+            if (!first) {
+                put(',');
+            }
+            first = false;
+            quoted(name);
+            put(':');
+        }
+
+        private void ascii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                put(value.charAt(i));
+            }
+        }
+
+        // Escapes quotes, backslashes and control characters; everything else is written as UTF-8
+        private void quoted(String value) {
+            put('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    put('\\');
+                    put(c);
+                } else if (c < 0x20) {
+                    put('\\');
+                    put('u');
+                    put('0');
+                    put('0');
+                    put(HEX[c >> 4]);
+                    put(HEX[c & 0xf]);
+                } else if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xc0 | c >> 6);
+                    put(0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put(0xf0 | codePoint >> 18);
+                    put(0x80 | codePoint >> 12 & 0x3f);
+                    put(0x80 | codePoint >> 6 & 0x3f);
+                    put(0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate, written as '?' like String.getBytes does
+                    put('?');
+                } else {
+                    put(0xe0 | c >> 12);
+                    put(0x80 | c >> 6 & 0x3f);
+                    put(0x80 | c & 0x3f);
+                }
+            }
+            put('"');
+        }
+
+        private void put(int b) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            buffer[length++] = (byte) b;
+        }
+    }
+
+    // Reads the payload object; returns null as soon as it sees something outside the fixed shape
+    private static final class JsonReader {
+
+        private final byte[] bytes;
+        private int position;
+
+        JsonReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        TokenClaims read() {
+            TokenClaims.TokenClaimsBuilder claims = TokenClaims.builder();
+            skipWhitespace();
+            if (!consume('{')) {
+                return null;
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return atEnd() ? claims.build() : null;
+            }
+            do {
+                skipWhitespace();
+                String name = string();
+                skipWhitespace();
+                if (name == null || !consume(':')) {
+                    return null;
+                }
+                skipWhitespace();
+                if (!readClaim(name, claims)) {
+                    return null;
+                }
+                skipWhitespace();
+            } while (consume(','));
+            return consume('}') && atEnd() ? claims.build() : null;
+        }
+
+        private boolean readClaim(String name, TokenClaims.TokenClaimsBuilder claims) {
+            switch (name) {
+                case "sub", "jti" -> {
+                    String value = string();
+                    if (value == null) {
+                        return false;
+                    }
+                    if (name.equals("sub")) {
+                        claims.username(value);
+                    } else {
+                        claims.tokenId(value);
+                    }
+                }
+                case "iat", "exp", "sv" -> {
+                    Long value = integer();
+                    if (value == null) {
+                        return false;
+                    }
+                    switch (name) {
+                        case "iat" -> claims.issuedAt(Instant.ofEpochSecond(value));
+                        case "exp" -> claims.expiresAt(Instant.ofEpochSecond(value));
+                        default -> claims.securityVersion(value);
+                    }
+                }
+                case "roles" -> {
+                    List<String> roles = strings();
+                    if (roles == null) {
+                        return false;
+                    }
+                    claims.roles(roles);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private List<String> strings() {
+            if (!consume('[')) {
+                return null;
+            }
+            List<String> values = new ArrayList<>(2);
+            skipWhitespace();
+            if (consume(']')) {
+                return List.of();
+            }
+            do {
+                skipWhitespace();
+                String value = string();
+                if (value == null) {
+                    return null;
+                }
+                values.add(value);
+                skipWhitespace();
+            } while (consume(','));
+            return consume(']') ? List.copyOf(values) : null;
+        }
+
+        // Plain runs are decoded straight from the bytes; escapes, which Jackson writes for quotes,
+        // control characters and characters outside the BMP, take the slower path
+        private String string() {
+            if (!consume('"')) {
+                return null;
+            }
+            StringBuilder escaped = null;
+            int run = position;
+            while (position < bytes.length) {
+                byte b = bytes[position];
+                if (b == '"') {
+                    String tail = new String(bytes, run, position++ - run, StandardCharsets.UTF_8);
+                    return escaped == null ? tail : escaped.append(tail).toString();
+                }
+                if (b >= 0 && b < 0x20) {
+                    return null;
+                }
+                if (b != '\\') {
+                    position++;
+                    continue;
+                }
+                if (escaped == null) {
+                    escaped = new StringBuilder();
+                }
+                escaped.append(new String(bytes, run, position - run, StandardCharsets.UTF_8));
+                if (!unescape(escaped)) {
+                    return null;
+                }
+                run = position;
+            }
+            return null;
+        }
+
+        private boolean unescape(StringBuilder text) {
+            if (position + 1 >= bytes.length) {
+                return false;
+            }
+            byte escape = bytes[position + 1];
+            position += 2;
+            switch (escape) {
+                case '"', '\\', '/' -> text.append((char) escape);
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    if (position + 4 > bytes.length) {
+                        return false;
+                    }
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(bytes[position++], 16);
+                        if (digit < 0) {
+                            return false;
+                        }
+                        c = c << 4 | digit;
+                    }
+                    text.append((char) c);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Long integer() {
+            boolean negative = consume('-');
+            int start = position;
+            long value = 0;
+            while (position < bytes.length && bytes[position] >= '0' && bytes[position] <= '9') {
+                if (position - start == 18) {
+                    return null;
+                }
+                value = value * 10 + (bytes[position++] - '0');
+            }
+            if (position == start) {
+                return null;
+            }
+            if (position < bytes.length && (bytes[position] == '.' || bytes[position] == 'e' || bytes[position] == 'E')) {
+                return null;
+            }
+            return negative ? -value : value;
+        }
+
+        private void skipWhitespace() {
+            while (position < bytes.length
+                    && (bytes[position] == ' ' || bytes[position] == '\t'
+                    || bytes[position] == '\n' || bytes[position] == '\r')) {
+                position++;
+            }
+        }
+
+        private boolean consume(char expected) {
+            if (position < bytes.length && bytes[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean atEnd() {
+            skipWhitespace();
+            return position == bytes.length;
+        }
+    }
+}
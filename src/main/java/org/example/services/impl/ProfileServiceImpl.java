@@ -6,8 +6,10 @@ import org.example.persistance.entity.UserEntity;
 import org.example.exception.UserNotFoundException;
 import org.example.persistance.model.User;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.ProfileService;
 import org.example.services.UserService;
+import org.example.services.UsernameAllocator;
 import org.example.util.ProfileGenerator;
 import org.slf4j.MDC;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,8 +17,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.List;
-
 @Slf4j
 @Service
 @Validated
@@ -26,6 +26,8 @@ public class ProfileServiceImpl implements ProfileService {
     private final UserService userService;
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameAllocator usernameAllocator;
+    private final UserSecurityVersions securityVersions;
 
 
     @Override
@@ -37,17 +39,11 @@ public class ProfileServiceImpl implements ProfileService {
 
         log.info("Creating profile for user: {} {}", user.getFirstName(), user.getLastName());
 
-        List<User> existingUsers = userService.fetchAll();
-
-        String username = ProfileGenerator.generateUsername(
-                user.getFirstName(),
-                user.getLastName(),
-                existingUsers
-        );
-
         char[] rawPassword = ProfileGenerator.generateRandomPassword();
         char[] encodedPassword = passwordEncoder.encode(new String(rawPassword)).toCharArray();
 
+        String username = usernameAllocator.allocate(user.getFirstName(), user.getLastName());
+
         user.setUsername(username);
         user.setPassword(encodedPassword);
         user.setIsActive(true);
@@ -90,6 +86,7 @@ public class ProfileServiceImpl implements ProfileService {
         );
 
         userRepo.save(user);
+        securityVersions.invalidate(username);
 
         log.info("Password updated for {}", username);
     }
@@ -113,6 +110,7 @@ public class ProfileServiceImpl implements ProfileService {
         user.setIsActive(newStatus);
 
         userRepo.save(user);
+        securityVersions.invalidate(username);
 
         log.info("Active status toggled for {} -> {}", username, newStatus);
 
@@ -3,44 +3,72 @@ package org.example.services.impl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.TokenCacheMetrics;
 import org.example.api.config.AppProperties;
+import org.example.security.TokenClaims;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Service
 public class TokenServiceImpl implements TokenService {
 
+    private static final String ROLES_CLAIM = "roles";
+    private static final String SECURITY_VERSION_CLAIM = "sv";
+
     private final SecretKey secretKey;
     private final long expirationTime;
+    private final Clock clock;
+    // Immutable and thread-safe once built, so one instance serves every request
+    private final JwtParser jwtParser;
+    private final HmacJwtCodec codec;
+    private final VerifiedTokenCache verifiedTokens;
+    private final TokenCacheMetrics tokenCacheMetrics;
+    private final UserSecurityVersions securityVersions;
+
+    @Autowired
+    public TokenServiceImpl(AppProperties appProperties,
+                            TokenCacheMetrics tokenCacheMetrics,
+                            UserSecurityVersions securityVersions) {
+        this(appProperties, tokenCacheMetrics, securityVersions, Clock.systemUTC());
+    }
 
-    public TokenServiceImpl(AppProperties appProperties) {
+    TokenServiceImpl(AppProperties appProperties,
+                     TokenCacheMetrics tokenCacheMetrics,
+                     UserSecurityVersions securityVersions,
+                     Clock clock) {
         String secret = appProperties.getSecurity().getJwtSecret();
         this.expirationTime = appProperties.getSecurity().getJwtExpiration();
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.clock = clock;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+        this.codec = new HmacJwtCodec(secretKey);
+        this.verifiedTokens = new VerifiedTokenCache(appProperties.getSecurity().getVerifiedTokenCacheSize(), clock);
+        this.tokenCacheMetrics = tokenCacheMetrics;
+        this.securityVersions = securityVersions;
         log.info("TokenService initialized with expiration time: {} ms", expirationTime);
     }
 
     @Override
     public String generateToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expirationTime);
-
-        String token = Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
-                .compact();
+        String token = sign(username, List.of());
 
         log.debug("Generated token for user: {}", username);
         return token;
@@ -48,37 +76,56 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> extraClaims = new HashMap<>();
-
-        extraClaims.put("roles", userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList()));
+        return generateToken(userDetails.getUsername(), userDetails.getAuthorities());
+    }
 
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expirationTime);
+    @Override
+    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        List<String> roles = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            roles.add(authority.getAuthority());
+        }
 
-        String token = Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
-                .compact();
+        String token = sign(username, roles);
 
-        log.debug("Generated token for user: {}", userDetails.getUsername());
+        log.debug("Generated token for user: {}", username);
         return token;
     }
 
+    @Override
+    public TokenClaims verifyToken(String token) {
+        TokenClaims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            tokenCacheMetrics.recordHit();
+            return cached;
+        }
+        tokenCacheMetrics.recordMiss();
+
+        TokenClaims verified = codec.decode(token, clock.instant());
+        if (verified == null) {
+            verified = parse(token);
+        }
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
+    // Tokens the codec does not recognise, e.g. ones issued before it, go through jjwt
+    private TokenClaims parse(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return TokenClaims.builder()
+                .tokenId(claims.getId())
+                .username(claims.getSubject())
+                .roles(roles(claims))
+                .issuedAt(claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant())
+                .expiresAt(claims.getExpiration() == null ? null : claims.getExpiration().toInstant())
+                .securityVersion(securityVersion(claims))
+                .build();
+    }
+
     @Override
     public String getUsernameFromToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getSubject();
+            return verifyToken(token).getUsername();
         } catch (JwtException e) {
             log.error("Error extracting username from token: {}", e.getMessage());
             throw new RuntimeException("Invalid token", e);
@@ -88,11 +135,7 @@ public class TokenServiceImpl implements TokenService {
     @Override
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-
+            verifyToken(token);
             return true;
         } catch (ExpiredJwtException e) {
             log.warn("Token expired: {}", e.getMessage());
@@ -106,15 +149,36 @@ public class TokenServiceImpl implements TokenService {
     @Override
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getExpiration().before(new Date());
+            verifyToken(token);
+            return false;
         } catch (JwtException e) {
             return true;
         }
     }
-}
\ No newline at end of file
+
+    private String sign(String username, List<String> roles) {
+        Instant now = clock.instant();
+        return codec.encode(TokenClaims.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .username(username)
+                .roles(roles)
+                .issuedAt(now)
+                .expiresAt(now.plusMillis(expirationTime))
+                .securityVersion(securityVersions.forNewToken(username))
+                .build());
+    }
+
+    // Tokens issued before the claim existed count as version 0
+    private static long securityVersion(Claims claims) {
+        Object version = claims.get(SECURITY_VERSION_CLAIM);
+        return version instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (roles instanceof List<?> list) {
+            return list.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+}
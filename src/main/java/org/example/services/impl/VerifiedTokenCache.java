@@ -0,0 +1,108 @@
+package org.example.services.impl;
+
+import org.example.security.TokenClaims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claims of recently verified tokens, keyed by the SHA-256 digest of the compact token so
+ * bearer tokens themselves are never kept. Serves an entry only until the token's own expiry.
+ * Lookups take no lock: entries sit in a {@link ConcurrentHashMap} and only note when they
+ * were last used. A put that takes the cache past {@code maxEntries} drops expired entries,
+ * then the least recently used, down to 90% so the trim runs once per many inserts.
+ */
+class VerifiedTokenCache {
+
+    private final Map<String, Cached> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+
+    VerifiedTokenCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    TokenClaims get(String token) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        String key = digest(token);
+        Cached entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiredAt(clock.instant())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.lastUsed = System.nanoTime();
+        return entry.claims;
+    }
+
+    void put(String token, TokenClaims claims) {
+        // Tokens without an expiry would stay valid in the cache forever
+        if (maxEntries == 0 || claims.getExpiresAt() == null) {
+            return;
+        }
+        entries.put(digest(token), new Cached(claims));
+        if (entries.size() > maxEntries) {
+            shrink();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Only writers past the limit get here; the size is checked again once the lock is held
+    private synchronized void shrink() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Instant now = clock.instant();
+        entries.entrySet().removeIf(entry -> entry.getValue().expiredAt(now));
+        int excess = entries.size() - (maxEntries - maxEntries / 10);
+        if (excess <= 0) {
+            return;
+        }
+        // Sorted on a snapshot of lastUsed, which hits keep moving while this runs
+        List<Map.Entry<Long, Map.Entry<String, Cached>>> leastRecentlyUsed = entries.entrySet().stream()
+                .map(entry -> Map.entry(entry.getValue().lastUsed, entry))
+                .sorted(Map.Entry.comparingByKey())
+                .limit(excess)
+                .toList();
+        leastRecentlyUsed.forEach(used -> entries.remove(used.getValue().getKey(), used.getValue().getValue()));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Cached {
+
+        private final TokenClaims claims;
+        // System.nanoTime() of the last put or hit, written without taking any lock
+        private volatile long lastUsed = System.nanoTime();
+
+        private Cached(TokenClaims claims) {
+            this.claims = claims;
+        }
+
+        private boolean expiredAt(Instant now) {
+            return !now.isBefore(claims.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.services.impl.dbImpl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.RegistrationMetrics;
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.model.RegistrationOutcome;
+import org.example.persistance.model.Trainee;
+import org.example.persistance.model.Trainer;
+import org.example.persistance.model.User;
+import org.example.persistance.repository.TraineeRepo;
+import org.example.persistance.repository.TrainerRepo;
+import org.example.persistance.repository.UserRepo;
+import org.example.services.BulkRegistrationService;
+import org.example.services.UsernameAllocator;
+import org.example.util.ProfileGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.example.security.configuration.PasswordEncoderConfig.BULK_PASSWORD_HASHING_EXECUTOR;
+
+/**
+ * Registers profiles in chunks of {@link #CHUNK_SIZE}, each chunk in its own transaction.
+ * Passwords are hashed in parallel on the bulk hashing pool before the transaction opens,
+ * usernames are allocated per chunk, and users plus profile rows go out as JDBC batches.
+ * Outcomes for a chunk are handed to the caller only after it commits.
+ */
+@Slf4j
+@Service
+public class BulkRegistrationServiceDbImpl implements BulkRegistrationService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final UserRepo userRepo;
+    private final TraineeRepo traineeRepo;
+    private final TrainerRepo trainerRepo;
+    private final TrainingTypeCache trainingTypeCache;
+    private final PasswordEncoder passwordEncoder;
+    private final UsernameAllocator usernameAllocator;
+    private final Validator validator;
+    private final RegistrationMetrics registrationMetrics;
+    private final ExecutorService hashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkRegistrationServiceDbImpl(UserRepo userRepo,
+                                         TraineeRepo traineeRepo,
+                                         TrainerRepo trainerRepo,
+                                         TrainingTypeCache trainingTypeCache,
+                                         PasswordEncoder passwordEncoder,
+                                         UsernameAllocator usernameAllocator,
+                                         Validator validator,
+                                         RegistrationMetrics registrationMetrics,
+                                         @Qualifier(BULK_PASSWORD_HASHING_EXECUTOR) ExecutorService hashingExecutor,
+                                         PlatformTransactionManager transactionManager) {
+        this.userRepo = userRepo;
+        this.traineeRepo = traineeRepo;
+        this.trainerRepo = trainerRepo;
+        this.trainingTypeCache = trainingTypeCache;
+        this.passwordEncoder = passwordEncoder;
+        this.usernameAllocator = usernameAllocator;
+        this.validator = validator;
+        this.registrationMetrics = registrationMetrics;
+        this.hashingExecutor = hashingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void registerTrainees(List<Trainee> trainees, Consumer<RegistrationOutcome> outcomes) {
+        log.info("Bulk registering {} trainees", trainees.size());
+
+        register(trainees, trainee -> null, (chunk, users) -> {
+            List<TraineeEntity> entities = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                TraineeEntity entity = new TraineeEntity();
+                entity.setUserEntity(users.get(i));
+                entity.setDateOfBirth(chunk.get(i).getDateOfBirth());
+                entity.setAddress(chunk.get(i).getAddress());
+                entities.add(entity);
+            }
+            traineeRepo.saveAll(entities);
+        }, outcomes);
+    }
+
+    @Override
+    public void registerTrainers(List<Trainer> trainers, Consumer<RegistrationOutcome> outcomes) {
+        log.info("Bulk registering {} trainers", trainers.size());
+
+        // One cache lookup per distinct specialization, reused for validation and the references below
+        Map<String, Long> specializationIds = new HashMap<>();
+        trainers.stream()
+                .map(Trainer::getSpecialization)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(name -> trainingTypeCache.findId(name).ifPresent(id -> specializationIds.put(name, id)));
+
+        register(trainers,
+                trainer -> specializationIds.containsKey(trainer.getSpecialization())
+                        ? null
+                        : "Invalid specialization: " + trainer.getSpecialization(),
+                (chunk, users) -> {
+                    // Referenced inside the chunk transaction: specialization cascades, so it must be managed
+                    List<TrainerEntity> entities = new ArrayList<>(chunk.size());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        TrainerEntity entity = new TrainerEntity();
+                        entity.setUserEntity(users.get(i));
+                        entity.setSpecialization(trainingTypeCache.reference(
+                                specializationIds.get(chunk.get(i).getSpecialization())));
+                        entities.add(entity);
+                    }
+                    trainerRepo.saveAll(entities);
+                }, outcomes);
+    }
+
+    private <T extends User> void register(List<T> profiles,
+                                           Function<T, String> extraCheck,
+                                           ProfileWriter<T> writer,
+                                           Consumer<RegistrationOutcome> outcomes) {
+        for (int start = 0; start < profiles.size(); start += CHUNK_SIZE) {
+            List<T> chunk = profiles.subList(start, Math.min(start + CHUNK_SIZE, profiles.size()));
+            registerChunk(chunk, start, extraCheck, writer).forEach(outcomes);
+        }
+    }
+
+    private <T extends User> List<RegistrationOutcome> registerChunk(List<T> chunk,
+                                                                     int offset,
+                                                                     Function<T, String> extraCheck,
+                                                                     ProfileWriter<T> writer) {
+        List<RegistrationOutcome> rejected = new ArrayList<>();
+        List<Integer> acceptedRows = registrationMetrics.recordStage(RegistrationMetrics.STAGE_VALIDATE, () -> {
+            List<Integer> rows = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                T profile = chunk.get(i);
+                String error = profile == null ? "Profile is empty" : nameViolations(profile);
+                if (error == null) {
+                    error = extraCheck.apply(profile);
+                }
+                if (error == null) {
+                    rows.add(i);
+                } else {
+                    rejected.add(RegistrationOutcome.builder().row(offset + i).error(error).build());
+                }
+            }
+            return rows;
+        });
+
+        List<T> accepted = acceptedRows.stream().map(chunk::get).toList();
+        List<String> passwords = accepted.stream()
+                .map(profile -> new String(ProfileGenerator.generateRandomPassword()))
+                .toList();
+
+        // CPU-bound work happens before the transaction so no connection is held while hashing
+        List<String> hashes = registrationMetrics.recordStage(RegistrationMetrics.STAGE_HASH, () -> hashAll(passwords));
+
+        List<RegistrationOutcome> created = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> usernames = registrationMetrics.recordStage(RegistrationMetrics.STAGE_ALLOCATE,
+                        () -> usernameAllocator.allocateAll(accepted.stream()
+                                .map(profile -> profile.getFirstName() + "." + profile.getLastName())
+                                .toList()));
+
+                registrationMetrics.recordStage(RegistrationMetrics.STAGE_INSERT, () -> {
+                    List<UserEntity> users = new ArrayList<>(accepted.size());
+                    for (int i = 0; i < accepted.size(); i++) {
+                        UserEntity user = new UserEntity();
+                        user.setUsername(usernames.get(i));
+                        user.setFirstName(accepted.get(i).getFirstName());
+                        user.setLastName(accepted.get(i).getLastName());
+                        user.setPassword(hashes.get(i).toCharArray());
+                        user.setIsActive(true);
+                        users.add(user);
+                    }
+                    userRepo.saveAll(users);
+                    writer.write(accepted, users);
+                    userRepo.flush();
+                    return null;
+                });
+
+                for (int i = 0; i < accepted.size(); i++) {
+                    created.add(RegistrationOutcome.builder()
+                            .row(offset + acceptedRows.get(i))
+                            .username(usernames.get(i))
+                            .temporaryPassword(passwords.get(i))
+                            .build());
+                }
+            });
+        } catch (DataAccessException e) {
+            // Nothing from the chunk was stored; the rows are safe to resubmit
+            log.warn("Bulk registration chunk at row {} rolled back: {}", offset, e.getMessage());
+            created.clear();
+            acceptedRows.forEach(row -> rejected.add(RegistrationOutcome.builder()
+                    .row(offset + row)
+                    .error("Registration failed, resubmit this row")
+                    .build()));
+        }
+
+        registrationMetrics.incrementRegistered(created.size());
+        registrationMetrics.incrementRejected(rejected.size());
+        log.info("Bulk registration chunk at row {}: {} created, {} rejected", offset, created.size(), rejected.size());
+
+        return Stream.concat(created.stream(), rejected.stream())
+                .sorted(Comparator.comparingInt(RegistrationOutcome::getRow))
+                .toList();
+    }
+
+    private List<String> hashAll(List<String> passwords) {
+        List<CompletableFuture<String>> hashes = passwords.stream()
+                .map(password -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashingExecutor))
+                .toList();
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Checked against the entity constraints so a bad row cannot fail the whole chunk at flush
+    private String nameViolations(User profile) {
+        Set<ConstraintViolation<UserEntity>> violations = new HashSet<>();
+        violations.addAll(validator.validateValue(UserEntity.class, "firstName", profile.getFirstName()));
+        violations.addAll(validator.validateValue(UserEntity.class, "lastName", profile.getLastName()));
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    @FunctionalInterface
+    private interface ProfileWriter<T> {
+        void write(List<T> profiles, List<UserEntity> users);
+    }
+}
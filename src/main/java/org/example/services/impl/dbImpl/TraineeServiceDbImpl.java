@@ -9,8 +9,10 @@ import org.example.mapper.TraineeMapper;
 import org.example.persistance.model.Trainee;
 import org.example.persistance.repository.TraineeRepo;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
 import org.example.services.TraineeService;
+import org.example.services.UsernameAllocator;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -35,6 +37,8 @@ public class TraineeServiceDbImpl implements TraineeService {
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
+    private final UsernameAllocator usernameAllocator;
+    private final UserSecurityVersions securityVersions;
 
     private static final int PASSWORD_LENGTH = 10;
     private static final SecureRandom random = new SecureRandom();
@@ -45,10 +49,11 @@ public class TraineeServiceDbImpl implements TraineeService {
 
         MDC.put("operation", "createTrainee");
 
-        String baseUsername = trainee.getFirstName() + "." + trainee.getLastName();
-        String username = generateUniqueUsername(baseUsername);
-
+        // Hash first: allocating the username locks its counter row until commit
         String plainPassword = generateRandomPassword();
+        String encodedPassword = passwordEncoder.encode(plainPassword);
+
+        String username = usernameAllocator.allocate(trainee.getFirstName(), trainee.getLastName());
 
         trainee.setUsername(username);
         trainee.setPassword(plainPassword.toCharArray());
@@ -60,8 +65,6 @@ public class TraineeServiceDbImpl implements TraineeService {
         userEntity.setUsername(username);
         userEntity.setFirstName(trainee.getFirstName());
         userEntity.setLastName(trainee.getLastName());
-
-        String encodedPassword = passwordEncoder.encode(plainPassword);
         userEntity.setPassword(encodedPassword.toCharArray());
         userEntity.setIsActive(true);
 
@@ -86,18 +89,6 @@ public class TraineeServiceDbImpl implements TraineeService {
         return traineeModel;
     }
 
-    private String generateUniqueUsername(String baseUsername) {
-        String username = baseUsername;
-        int counter = 1;
-
-        while (userRepo.findByUsername(username).isPresent()) {
-            username = baseUsername + counter;
-            counter++;
-        }
-
-        return username;
-    }
-
     private String generateRandomPassword() {
         return random.ints(PASSWORD_LENGTH, 0, 62)
                 .map(i -> {
@@ -149,9 +140,9 @@ public class TraineeServiceDbImpl implements TraineeService {
 
         // Regenerate username and token if name changed
         if (nameChanged) {
-            String baseUsername = updatedTrainee.getFirstName() + "." + updatedTrainee.getLastName();
-            String newUsername = generateUniqueUsername(baseUsername);
+            String newUsername = usernameAllocator.allocate(updatedTrainee.getFirstName(), updatedTrainee.getLastName());
             traineeEntity.getUserEntity().setUsername(newUsername);
+            securityVersions.invalidate(username);
 
             // Generate new token with new username
             newToken = tokenService.generateToken(newUsername);
@@ -193,6 +184,7 @@ public class TraineeServiceDbImpl implements TraineeService {
         boolean exists = traineeRepo.findByUsername(username).isPresent();
         if (exists) {
             traineeRepo.deleteByUsername(username);
+            securityVersions.invalidate(username);
             log.info("Trainee deleted successfully: {}", username);
         } else {
             log.warn("Trainee not found for deletion: {}", username);
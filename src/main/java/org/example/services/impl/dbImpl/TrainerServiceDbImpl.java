@@ -10,11 +10,12 @@ import org.example.mapper.TrainerMapper;
 import org.example.persistance.model.Trainer;
 import org.example.persistance.model.TrainerRegistrationResult;
 import org.example.persistance.repository.TrainerRepo;
-import org.example.persistance.repository.TrainingTypeRepo;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
 import org.example.services.TrainerService;
 import org.example.services.UserService;
+import org.example.services.UsernameAllocator;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -37,10 +38,12 @@ public class TrainerServiceDbImpl implements TrainerService {
     private final TrainerRepo trainerRepo;
     private final TrainerMapper trainerMapper;
     private final UserRepo userRepo;
-    private final TrainingTypeRepo trainingTypeRepo;
+    private final TrainingTypeCache trainingTypeCache;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
     private final UserService userService;
+    private final UsernameAllocator usernameAllocator;
+    private final UserSecurityVersions securityVersions;
 
     private static final int PASSWORD_LENGTH = 10;
     private static final SecureRandom random = new SecureRandom();
@@ -50,21 +53,22 @@ public class TrainerServiceDbImpl implements TrainerService {
     @Transactional
     public TrainerRegistrationResult createTrainer(Trainer trainer) {
 
-        String baseUsername = trainer.getFirstName() + "." + trainer.getLastName();
-        String username = generateUniqueUsername(baseUsername);
-
+        // Hash first: allocating the username locks its counter row until commit
         String plainPassword = generateRandomPassword();
+        String encodedPassword = passwordEncoder.encode(plainPassword);
+
+        String username = usernameAllocator.allocate(trainer.getFirstName(), trainer.getLastName());
 
         UserEntity userEntity = new UserEntity();
         userEntity.setUsername(username);
         userEntity.setFirstName(trainer.getFirstName());
         userEntity.setLastName(trainer.getLastName());
-        userEntity.setPassword(passwordEncoder.encode(plainPassword).toCharArray());
+        userEntity.setPassword(encodedPassword.toCharArray());
         userEntity.setIsActive(true);
 
         UserEntity savedUser = userRepo.save(userEntity);
 
-        TrainingTypeEntity trainingType = trainingTypeRepo.findByTrainingTypeName(trainer.getSpecialization())
+        TrainingTypeEntity trainingType = trainingTypeCache.getReference(trainer.getSpecialization())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid specialization: " + trainer.getSpecialization()));
 
         TrainerEntity trainerEntity = new TrainerEntity();
@@ -83,18 +87,6 @@ public class TrainerServiceDbImpl implements TrainerService {
     }
 
 
-    private String generateUniqueUsername(String baseUsername) {
-        String username = baseUsername;
-        int counter = 1;
-
-        while (userRepo.findByUsername(username).isPresent()) {
-            username = baseUsername + counter;
-            counter++;
-        }
-
-        return username;
-    }
-
     private String generateRandomPassword() {
         return random.ints(PASSWORD_LENGTH, 0, 62)
                 .map(i -> {
@@ -150,9 +142,9 @@ public class TrainerServiceDbImpl implements TrainerService {
 
         // Regenerate username if name changed
         if (nameChanged) {
-            String baseUsername = updatedTrainer.getFirstName() + "." + updatedTrainer.getLastName();
-            String newUsername = generateUniqueUsername(baseUsername);
+            String newUsername = usernameAllocator.allocate(updatedTrainer.getFirstName(), updatedTrainer.getLastName());
             trainerEntity.getUserEntity().setUsername(newUsername);
+            securityVersions.invalidate(username);
             log.debug("Username updated from {} to {}", username, newUsername);
         }
 
@@ -1,34 +1,50 @@
 package org.example.services.impl.dbImpl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.TrainingRequest;
 import org.example.integration.messaging.WorkloadEventMessage;
-import org.example.integration.messaging.WorkloadEventPublisher;
+import org.example.integration.messaging.WorkloadOutbox;
 import org.example.integration.workload.TransactionIdFilter;
 import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
 import org.example.mapper.TrainerWorkloadEventMapper;
 import org.example.persistance.entity.*;
 import org.example.exception.UserNotFoundException;
 import org.example.mapper.TrainingMapper;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingCursor;
+import org.example.persistance.model.TrainingPage;
+import org.example.persistance.projection.TrainingView;
 import org.example.persistance.repository.TraineeRepo;
 import org.example.persistance.repository.TrainerRepo;
 import org.example.persistance.repository.TrainingRepo;
-import org.example.persistance.repository.TrainingTypeRepo;
 import org.example.services.TrainingService;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -38,13 +54,17 @@ import java.util.UUID;
 @Transactional
 public class TrainingServiceDbImpl implements TrainingService {
 
+    static final int BULK_FLUSH_SIZE = 500;
+
     private final TrainingRepo trainingRepo;
     private final TraineeRepo traineeRepo;
     private final TrainerRepo trainerRepo;
     private final TrainingMapper trainingMapper;
-    private final TrainingTypeRepo trainingTypeRepo;
+    private final TrainingTypeCache trainingTypeCache;
     private final TrainerWorkloadEventMapper trainerWorkloadEventMapper;
-    private final WorkloadEventPublisher workloadEventPublisher;
+    private final WorkloadOutbox workloadOutbox;
+    private final Validator validator;
+    private final EntityManager entityManager;
 
 
 
@@ -67,7 +87,7 @@ public class TrainingServiceDbImpl implements TrainingService {
         log.debug("Fetching trainee trainings: username={}, from={}, to={}, trainerName={}, trainingType={}",
                 traineeUsername, fromDate, toDate, trainerName, trainingType);
 
-        List<TrainingEntity> trainingEntities = trainingRepo.findTraineeTrainings(
+        List<TrainingView> trainingViews = trainingRepo.findTraineeTrainings(
                 traineeUsername,
                 fromDate,
                 toDate,
@@ -75,9 +95,9 @@ public class TrainingServiceDbImpl implements TrainingService {
                 trainingType
         );
 
-        log.info("Fetched {} trainee trainings for username={}", trainingEntities.size(), traineeUsername);
+        log.info("Fetched {} trainee trainings for username={}", trainingViews.size(), traineeUsername);
 
-        return trainingMapper.toTrainingModels(trainingEntities);
+        return trainingMapper.toTrainingModelsFromViews(trainingViews);
     }
 
     @Override
@@ -98,16 +118,16 @@ public class TrainingServiceDbImpl implements TrainingService {
         log.debug("Fetching trainer trainings: username={}, from={}, to={}, traineeName={}",
                 trainerUsername, fromDate, toDate, traineeName);
 
-        List<TrainingEntity> trainingEntities = trainingRepo.findTrainerTrainings(
+        List<TrainingView> trainingViews = trainingRepo.findTrainerTrainings(
                 trainerUsername,
                 fromDate,
                 toDate,
                 traineeName
         );
 
-        log.info("Fetched {} trainer trainings for username={}", trainingEntities.size(), trainerUsername);
+        log.info("Fetched {} trainer trainings for username={}", trainingViews.size(), trainerUsername);
 
-        return trainingMapper.toTrainingModels(trainingEntities);
+        return trainingMapper.toTrainingModelsFromViews(trainingViews);
     }
 
 
@@ -127,8 +147,8 @@ public class TrainingServiceDbImpl implements TrainingService {
             );
         }
 
-        TrainingTypeEntity trainingTypeEntity = trainingTypeRepo
-                .findByTrainingTypeName(request.getTrainingType())
+        TrainingTypeEntity trainingTypeEntity = trainingTypeCache
+                .find(request.getTrainingType())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid training type: " + request.getTrainingType()));
 
         TrainingEntity entity = new TrainingEntity();
@@ -141,29 +161,80 @@ public class TrainingServiceDbImpl implements TrainingService {
 
         TrainingEntity saved = trainingRepo.save(entity);
 
-        String eventId = UUID.randomUUID().toString();
-        TrainerWorkloadEventRequest event = trainerWorkloadEventMapper.toAddEvent(saved, trainerUser);
+        // Written in this transaction; the relay sends it once committed, off the request thread
+        workloadOutbox.enqueue(toAddEventMessage(saved, trainerUser));
 
-        String txId = MDC.get(TransactionIdFilter.MDC_KEY);
-        WorkloadEventMessage msg = WorkloadEventMessage.builder()
-                .eventId(eventId)
-                .transactionId(txId)
-                .request(event)
-                .build();
+        return trainingMapper.toTrainingModel(saved);
+    }
 
-        if (TransactionSynchronizationManager.isActualTransactionActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    workloadEventPublisher.publish(msg);
-                }
-            });
-        } else {
-            // if method is not transactional, publish immediately
-            workloadEventPublisher.publish(msg);
+    @Override
+    public BulkTrainingResult createTrainings(List<TrainingRequest> requests) {
+        log.debug("Bulk importing {} trainings", requests.size());
+        long start = System.nanoTime();
+
+        // Resolve every referenced trainee and trainer up front: two queries for the whole batch, types come from the cache
+        Map<String, TraineeEntity> trainees = traineeRepo.findAllByUsernameIn(
+                        collect(requests, TrainingRequest::getTraineeUsername)).stream()
+                .collect(Collectors.toMap(t -> t.getUserEntity().getUsername(), Function.identity()));
+        Map<String, TrainerEntity> trainers = trainerRepo.findAllByUsernameIn(
+                        collect(requests, TrainingRequest::getTrainerUsername)).stream()
+                .collect(Collectors.toMap(t -> t.getUserEntity().getUsername(), Function.identity()));
+        Map<String, TrainingTypeEntity> types = new HashMap<>();
+        collect(requests, TrainingRequest::getTrainingType)
+                .forEach(name -> trainingTypeCache.find(name).ifPresent(type -> types.put(name, type)));
+
+        List<BulkTrainingResult.RowFailure> failures = new ArrayList<>();
+        List<TrainingEntity> entities = new ArrayList<>(Math.min(requests.size(), BULK_FLUSH_SIZE));
+        int created = 0;
+
+        for (int row = 0; row < requests.size(); row++) {
+            TrainingRequest request = requests.get(row);
+            String rejection = rejectionReason(request, trainees, trainers, types);
+            if (rejection != null) {
+                failures.add(new BulkTrainingResult.RowFailure(row, rejection));
+                continue;
+            }
+
+            TrainingEntity entity = new TrainingEntity();
+            entity.setTrainingName(request.getTrainingName());
+            entity.setTrainingDate(request.getTrainingDate());
+            entity.setTrainingDurationMinutes(request.getTrainingDurationMinutes());
+            entity.setTraineeEntity(trainees.get(request.getTraineeUsername()));
+            entity.setTrainerEntity(trainers.get(request.getTrainerUsername()));
+            entity.setTrainingTypeEntity(types.get(request.getTrainingType()));
+            entities.add(entity);
+
+            if (entities.size() == BULK_FLUSH_SIZE) {
+                created += saveChunk(entities);
+                entities = new ArrayList<>(BULK_FLUSH_SIZE);
+            }
+        }
+        if (!entities.isEmpty()) {
+            created += saveChunk(entities);
         }
 
-        return trainingMapper.toTrainingModel(saved);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk imported {} of {} trainings in {} ms ({} rows/s), {} rejected",
+                created, requests.size(), elapsedMillis, created * 1000L / elapsedMillis, failures.size());
+
+        return BulkTrainingResult.builder()
+                .received(requests.size())
+                .created(created)
+                .failures(failures)
+                .build();
+    }
+
+    // Sequence ids are assigned on persist and the inserts go out as JDBC batches at flush. Clearing
+    // afterwards keeps the persistence context at one chunk instead of the whole import; the
+    // detached trainees, trainers and types are only referenced by id from here on.
+    private int saveChunk(List<TrainingEntity> entities) {
+        List<TrainingEntity> saved = trainingRepo.saveAll(entities);
+        workloadOutbox.enqueueAll(saved.stream()
+                .map(training -> toAddEventMessage(training, training.getTrainerEntity().getUserEntity()))
+                .toList());
+        entityManager.flush();
+        entityManager.clear();
+        return saved.size();
     }
 
     @Override
@@ -197,4 +268,99 @@ public class TrainingServiceDbImpl implements TrainingService {
 
         return trainingMapper.toTrainingModels(trainingEntities);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public TrainingPage listPage(String cursor, int limit) {
+        int pageSize = TrainingPage.size(limit);
+        log.debug("Fetching trainings page: cursor={}, pageSize={}", cursor, pageSize);
+
+        // One extra row tells us whether another page exists without a COUNT query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<TrainingView> trainingViews;
+        if (cursor == null || cursor.isBlank()) {
+            trainingViews = trainingRepo.findFirstPage(pageable);
+        } else {
+            TrainingCursor after = TrainingCursor.decode(cursor);
+            trainingViews = trainingRepo.findPageAfter(after.getTrainingDate(), after.getId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (trainingViews.size() > pageSize) {
+            trainingViews = trainingViews.subList(0, pageSize);
+            TrainingView last = trainingViews.get(pageSize - 1);
+            nextCursor = new TrainingCursor(last.trainingDate(), last.id()).encode();
+        }
+
+        log.info("Fetched page of {} trainings, hasNext={}", trainingViews.size(), nextCursor != null);
+
+        return TrainingPage.builder()
+                .trainings(trainingMapper.toTrainingModelsFromViews(trainingViews))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Training> consumer) {
+        log.debug("Streaming all trainings");
+
+        long count = 0;
+        try (Stream<TrainingView> trainingViews = trainingRepo.streamAllOrdered()) {
+            Iterator<TrainingView> iterator = trainingViews.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(trainingMapper.toTrainingModelFromView(iterator.next()));
+                count++;
+            }
+        }
+
+        log.info("Streamed {} trainings", count);
+    }
+
+    private String rejectionReason(TrainingRequest request,
+                                   Map<String, TraineeEntity> trainees,
+                                   Map<String, TrainerEntity> trainers,
+                                   Map<String, TrainingTypeEntity> types) {
+        if (request == null) {
+            return "Training request is empty";
+        }
+
+        Set<ConstraintViolation<TrainingRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (!trainees.containsKey(request.getTraineeUsername())) {
+            return "Trainee not found: " + request.getTraineeUsername();
+        }
+        if (!trainers.containsKey(request.getTrainerUsername())) {
+            return "Trainer not found: " + request.getTrainerUsername();
+        }
+        if (!types.containsKey(request.getTrainingType())) {
+            return "Invalid training type: " + request.getTrainingType();
+        }
+        return null;
+    }
+
+    private Set<String> collect(List<TrainingRequest> requests, Function<TrainingRequest, String> field) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(field)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private WorkloadEventMessage toAddEventMessage(TrainingEntity saved, UserEntity trainerUser) {
+        TrainerWorkloadEventRequest event = trainerWorkloadEventMapper.toAddEvent(saved, trainerUser);
+
+        return WorkloadEventMessage.builder()
+                .eventId(UUID.randomUUID().toString())
+                .transactionId(MDC.get(TransactionIdFilter.MDC_KEY))
+                .request(event)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.services.impl.dbImpl;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.TrainingTypeCacheMetrics;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.repository.TrainingTypeRepo;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable name-to-id snapshot of the training type catalog, swapped as a whole on refresh.
+ * Resolving a type never queries the database: callers get either a detached copy (enough for
+ * a plain foreign key) or a persistence-context reference where the owning side cascades.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingTypeCache {
+
+    private final TrainingTypeRepo trainingTypeRepo;
+    private final EntityManager entityManager;
+    private final TrainingTypeCacheMetrics metrics;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+
+    public synchronized void refresh() {
+        Map<String, Long> idsByName = new LinkedHashMap<>();
+        trainingTypeRepo.findAll(Sort.by("id"))
+                .forEach(type -> idsByName.put(type.getTrainingTypeName(), type.getId()));
+
+        Snapshot loaded = new Snapshot(Collections.unmodifiableMap(idsByName), List.copyOf(idsByName.keySet()));
+        if (!loaded.idsByName().equals(snapshot.idsByName())) {
+            log.info("Training type cache loaded {} types", loaded.names().size());
+        }
+        snapshot = loaded;
+        metrics.recordRefresh();
+    }
+
+    // Called where the application writes training types; waits for the commit so the snapshot
+    // is reloaded from what other transactions can actually see
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduledRefresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    // Picks up types added or renamed outside the application
+    @Scheduled(initialDelayString = "${app.training-types.refresh-interval:PT5M}",
+            fixedDelayString = "${app.training-types.refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh training type cache, keeping {} cached types: {}",
+                    snapshot.names().size(), e.getMessage());
+        }
+    }
+
+    public List<String> names() {
+        return snapshot.names();
+    }
+
+    /**
+     * The single counted lookup: resolve a name once, then build from the id with
+     * {@link #reference(Long)} instead of asking again.
+     */
+    public Optional<Long> findId(String name) {
+        return Optional.ofNullable(lookup(name));
+    }
+
+    /**
+     * Detached copy carrying the id and name. Suitable for non-cascading associations and
+     * for reading the name without touching the persistence context.
+     */
+    public Optional<TrainingTypeEntity> find(String name) {
+        return findId(name).map(id -> TrainingTypeEntity.builder().id(id).trainingTypeName(name).build());
+    }
+
+    /**
+     * Uninitialized reference bound to the current persistence context, for associations that
+     * cascade persist and therefore cannot point at a detached instance.
+     */
+    public Optional<TrainingTypeEntity> getReference(String name) {
+        return findId(name).map(this::reference);
+    }
+
+    // For an id already resolved through findId; not counted as another lookup
+    public TrainingTypeEntity reference(Long id) {
+        return entityManager.getReference(TrainingTypeEntity.class, id);
+    }
+
+    private Long lookup(String name) {
+        Long id = name == null ? null : snapshot.idsByName().get(name);
+        if (id == null) {
+            metrics.recordMiss();
+        } else {
+            metrics.recordHit();
+        }
+        return id;
+    }
+
+    private record Snapshot(Map<String, Long> idsByName, List<String> names) {
+    }
+}
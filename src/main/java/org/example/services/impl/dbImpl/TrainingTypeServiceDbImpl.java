@@ -4,7 +4,6 @@ import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.persistance.entity.TrainingTypeEntity;
-import org.example.mapper.TrainingTypeMapper;
 import org.example.persistance.model.TrainingType;
 import org.example.persistance.repository.TrainingTypeRepo;
 import org.example.services.TrainingTypeService;
@@ -23,7 +22,7 @@ import java.util.Optional;
 public class TrainingTypeServiceDbImpl implements TrainingTypeService {
 
     private final TrainingTypeRepo trainingTypeRepo;
-    private final TrainingTypeMapper trainingTypeMapper;
+    private final TrainingTypeCache trainingTypeCache;
 
     @PostConstruct
     @Transactional
@@ -44,24 +43,23 @@ public class TrainingTypeServiceDbImpl implements TrainingTypeService {
         } else {
             log.debug("Training types already initialized, count: {}", trainingTypeRepo.count());
         }
+
+        trainingTypeCache.refreshAfterCommit();
     }
 
     @Override
     public Optional<TrainingType> getTrainingTypeByName(String name) {
         log.debug("Fetching training type by name: {}", name);
-        return trainingTypeRepo.findByTrainingTypeName(name)
-                .map(entity -> {
-                    log.debug("Training type found: {}", name);
-                    return trainingTypeMapper.toModel(entity);
-                });
+        return trainingTypeCache.findId(name).map(id -> new TrainingType(name));
     }
 
     @Override
     public List<TrainingType> getAllTrainingTypes() {
         log.debug("Fetching all training types");
 
-        List<TrainingTypeEntity> entities = trainingTypeRepo.findAll();
-        List<TrainingType> trainingTypes = trainingTypeMapper.toModels(entities);
+        List<TrainingType> trainingTypes = trainingTypeCache.names().stream()
+                .map(TrainingType::new)
+                .toList();
 
         log.info("Total training types fetched: {}", trainingTypes.size());
         return trainingTypes;
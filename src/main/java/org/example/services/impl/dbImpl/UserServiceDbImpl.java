@@ -6,6 +6,7 @@ import org.example.exception.UserNotFoundException;
 import org.example.mapper.UserMapper;
 import org.example.persistance.model.User;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.UserService;
 import org.slf4j.MDC;
 import org.springframework.context.annotation.Primary;
@@ -30,14 +31,17 @@ public class UserServiceDbImpl implements UserService {
     private final UserRepo userRepo;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserSecurityVersions securityVersions;
 
     public UserServiceDbImpl(
             UserRepo userRepo,
             UserMapper userMapper,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            UserSecurityVersions securityVersions) {
         this.userRepo = userRepo;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.securityVersions = securityVersions;
     }
 
     private boolean shouldEnforceSecurity() {
@@ -129,6 +133,10 @@ public class UserServiceDbImpl implements UserService {
         userMapper.updateEntityFromModel(updatedUser, userEntity);
         UserEntity saved = userRepo.save(userEntity);
 
+        if (updatedUser.getPassword() != null || !username.equals(saved.getUsername())) {
+            securityVersions.invalidate(username);
+        }
+
         log.info("User updated: {}", username);
         return userMapper.toModel(saved);
     }
@@ -149,6 +157,7 @@ public class UserServiceDbImpl implements UserService {
                 });
 
         userRepo.delete(entity);
+        securityVersions.invalidate(username);
 
         log.info("User deleted: {}", username);
     }
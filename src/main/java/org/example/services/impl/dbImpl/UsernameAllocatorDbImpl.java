@@ -0,0 +1,186 @@
+package org.example.services.impl.dbImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.services.UsernameAllocator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hands out "First.Last", "First.Last1", ... from a per-base-name counter in username_counters.
+ * A reservation is one UPDATE that bumps the counter and returns the new value, so the cost
+ * does not grow with the number of people sharing a name and concurrent registrations on any
+ * node never receive the same suffix. The first reservation for a base name seeds its counter
+ * past the usernames already in the users table.
+ *
+ * <p>A base name that ends in digits, such as "John.Smith1", can produce a username another
+ * counter also produces ("John.Smith" plus suffix 1). Usernames ending in a digit are checked
+ * against the users table and against the rest of the batch, and the base draws its next
+ * suffix on a clash.
+ *
+ * <p>The counter row stays locked until the caller's transaction ends, so callers should do
+ * slow work such as password hashing before allocating.
+ */
+@Slf4j
+@Service
+public class UsernameAllocatorDbImpl implements UsernameAllocator {
+
+    static final Dialect POSTGRES = new Dialect(
+            "UPDATE username_counters SET next_suffix = next_suffix + ? WHERE base_name = ? RETURNING next_suffix",
+            "INSERT INTO username_counters (base_name, next_suffix) VALUES (?, ?) ON CONFLICT (base_name) DO NOTHING");
+
+    static final Dialect STANDARD = new Dialect(
+            "SELECT next_suffix FROM FINAL TABLE "
+                    + "(UPDATE username_counters SET next_suffix = next_suffix + ? WHERE base_name = ?)",
+            "MERGE INTO username_counters t USING (VALUES (CAST(? AS VARCHAR(101)), CAST(? AS BIGINT))) "
+                    + "s (base_name, next_suffix) ON t.base_name = s.base_name "
+                    + "WHEN NOT MATCHED THEN INSERT (base_name, next_suffix) VALUES (s.base_name, s.next_suffix)");
+
+    static final String EXISTING_USERNAMES_SQL = "SELECT username FROM users WHERE username LIKE ? ESCAPE '\\'";
+
+    static final String TAKEN_USERNAMES_SQL = "SELECT username FROM users WHERE username IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Dialect dialect;
+
+    public UsernameAllocatorDbImpl(JdbcTemplate jdbcTemplate,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String allocate(String firstName, String lastName) {
+        return allocateAll(List.of(firstName + "." + lastName)).get(0);
+    }
+
+    @Override
+    public List<String> allocateAll(List<String> baseNames) {
+        // Sorted so concurrent batches lock counter rows in the same order
+        Map<String, Integer> counts = new TreeMap<>();
+        baseNames.forEach(base -> counts.merge(base, 1, Integer::sum));
+
+        Map<String, Long> nextSuffix = transactionTemplate.execute(status -> {
+            Map<String, Long> firstSuffixes = new TreeMap<>();
+            counts.forEach((base, count) -> firstSuffixes.put(base, reserve(base, count)));
+            return firstSuffixes;
+        });
+
+        List<String> usernames = new ArrayList<>(baseNames.size());
+        for (String base : baseNames) {
+            long suffix = nextSuffix.merge(base, 1L, Long::sum) - 1;
+            usernames.add(username(base, suffix));
+        }
+        return resolveClashes(baseNames, usernames);
+    }
+
+    private List<String> resolveClashes(List<String> baseNames, List<String> usernames) {
+        List<String> ambiguous = usernames.stream().filter(UsernameAllocatorDbImpl::endsInDigit).toList();
+        if (ambiguous.isEmpty()) {
+            return usernames;
+        }
+
+        Set<String> taken = new HashSet<>(existingUsernames(ambiguous));
+        Set<String> assigned = new HashSet<>();
+        List<String> resolved = new ArrayList<>(usernames.size());
+        for (int i = 0; i < usernames.size(); i++) {
+            String base = baseNames.get(i);
+            String username = usernames.get(i);
+            while (taken.contains(username) || !assigned.add(username)) {
+                log.debug("Username {} is already taken, drawing the next suffix for {}", username, base);
+                username = username(base, transactionTemplate.execute(status -> reserve(base, 1)));
+                if (endsInDigit(username) && !existingUsernames(List.of(username)).isEmpty()) {
+                    taken.add(username);
+                }
+            }
+            resolved.add(username);
+        }
+        return resolved;
+    }
+
+    private List<String> existingUsernames(List<String> usernames) {
+        String placeholders = String.join(", ", Collections.nCopies(usernames.size(), "?"));
+        return jdbcTemplate.queryForList(String.format(TAKEN_USERNAMES_SQL, placeholders), String.class,
+                usernames.toArray());
+    }
+
+    private static String username(String base, long suffix) {
+        return suffix == 0 ? base : base + suffix;
+    }
+
+    private static boolean endsInDigit(String username) {
+        return !username.isEmpty() && Character.isDigit(username.charAt(username.length() - 1));
+    }
+
+    // Returns the first of count consecutive suffixes now owned by the caller
+    private long reserve(String base, int count) {
+        List<Long> reserved = jdbcTemplate.queryForList(dialect().increment(), Long.class, count, base);
+        if (reserved.isEmpty()) {
+            // Concurrent seeders compute the same value, so it does not matter whose insert lands
+            try {
+                jdbcTemplate.update(dialect().insertIfAbsent(), base, firstFreeSuffix(base));
+            } catch (DuplicateKeyException e) {
+                log.debug("Username counter for {} was seeded concurrently", base);
+            }
+            reserved = jdbcTemplate.queryForList(dialect().increment(), Long.class, count, base);
+            log.debug("Seeded username counter for {}", base);
+        }
+        return reserved.get(0) - count;
+    }
+
+    private long firstFreeSuffix(String base) {
+        String pattern = base.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        long next = 0;
+        for (String username : jdbcTemplate.queryForList(EXISTING_USERNAMES_SQL, String.class, pattern)) {
+            String suffix = username.substring(base.length());
+            if (suffix.isEmpty()) {
+                next = Math.max(next, 1);
+            } else if (suffix.chars().allMatch(Character::isDigit) && suffix.charAt(0) != '0' && suffix.length() < 18) {
+                next = Math.max(next, Long.parseLong(suffix) + 1);
+            }
+        }
+        return next;
+    }
+
+    private Dialect dialect() {
+        Dialect resolved = dialect;
+        if (resolved == null) {
+            resolved = isPostgres() ? POSTGRES : STANDARD;
+            dialect = resolved;
+        }
+        return resolved;
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            log.warn("Could not determine database product, using standard SQL for username counters: {}",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    record Dialect(String increment, String insertIfAbsent) {
+    }
+}
@@ -3,24 +3,41 @@ package org.example.services.impl.inMemoryImpl;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.dto.request.TrainingRequest;
+import org.example.dao.TraineeDao;
+import org.example.dao.TrainerDao;
 import org.example.dao.TrainingDao;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingCursor;
+import org.example.persistance.model.TrainingPage;
 import org.example.persistance.model.TrainingType;
 import org.example.services.TrainingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
 @Validated
 public class TrainingServiceInMemoryImpl implements TrainingService {
 
+    private static final Comparator<Training> PAGE_ORDER = Comparator
+            .comparing(Training::getTrainingDate)
+            .thenComparing(Training::getTrainingName);
+
     private TrainingDao trainingDao;
+    private TraineeDao traineeDao;
+    private TrainerDao trainerDao;
 
     // Setter-based injection
     @Autowired
@@ -28,6 +45,16 @@ public class TrainingServiceInMemoryImpl implements TrainingService {
         this.trainingDao = trainingDao;
     }
 
+    @Autowired
+    public void setTraineeDao(TraineeDao traineeDao) {
+        this.traineeDao = traineeDao;
+    }
+
+    @Autowired
+    public void setTrainerDao(TrainerDao trainerDao) {
+        this.trainerDao = trainerDao;
+    }
+
     @Override
     public Training createTraining(@Valid TrainingRequest request) {
         log.debug("Attempting to create new Training: {}", request.getTrainingName());
@@ -49,6 +76,28 @@ public class TrainingServiceInMemoryImpl implements TrainingService {
         return training;
     }
 
+    @Override
+    public BulkTrainingResult createTrainings(List<TrainingRequest> requests) {
+        log.debug("Bulk importing {} trainings into in-memory store", requests.size());
+
+        List<BulkTrainingResult.RowFailure> failures = new ArrayList<>();
+        for (int row = 0; row < requests.size(); row++) {
+            try {
+                createTraining(requests.get(row));
+            } catch (RuntimeException e) {
+                failures.add(new BulkTrainingResult.RowFailure(row, e.getMessage()));
+            }
+        }
+
+        log.info("Bulk imported {} trainings, {} rejected", requests.size() - failures.size(), failures.size());
+
+        return BulkTrainingResult.builder()
+                .received(requests.size())
+                .created(requests.size() - failures.size())
+                .failures(failures)
+                .build();
+    }
+
     @Override
     public Training getTraining(String name) {
         log.debug("Fetching Training by name: {}", name);
@@ -73,14 +122,67 @@ public class TrainingServiceInMemoryImpl implements TrainingService {
         return trainings;
     }
 
+    @Override
+    public TrainingPage listPage(String cursor, int limit) {
+        int pageSize = TrainingPage.size(limit);
+        log.debug("Fetching in-memory trainings page: cursor={}, pageSize={}", cursor, pageSize);
+
+        // The store is keyed by training name, so the name breaks ties where the DB uses the id
+        Predicate<Training> afterCursor = training -> true;
+        if (cursor != null && !cursor.isBlank()) {
+            TrainingCursor decoded = TrainingCursor.decode(cursor);
+            Training after = Training.builder()
+                    .trainingDate(decoded.getTrainingDate())
+                    .trainingName(decoded.getTiebreak())
+                    .build();
+            afterCursor = training -> PAGE_ORDER.compare(training, after) > 0;
+        }
+
+        List<Training> trainings = trainingDao.findAll().stream()
+                .filter(afterCursor)
+                .sorted(PAGE_ORDER)
+                .limit(pageSize + 1L)
+                .toList();
+
+        String nextCursor = null;
+        if (trainings.size() > pageSize) {
+            trainings = trainings.subList(0, pageSize);
+            Training last = trainings.get(pageSize - 1);
+            nextCursor = new TrainingCursor(last.getTrainingDate(), last.getTrainingName()).encode();
+        }
+
+        log.info("Fetched page of {} trainings, hasNext={}", trainings.size(), nextCursor != null);
+
+        return TrainingPage.builder()
+                .trainings(trainings)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void streamAll(Consumer<Training> consumer) {
+        log.debug("Streaming all Trainings from in-memory store");
+        trainingDao.findAll().forEach(consumer);
+    }
+
     @Override
     public List<Training> getTraineeTrainings(String traineeUsername,
                                               LocalDate fromDate,
                                               LocalDate toDate,
                                               String trainerName,
                                               String trainingType) {
-        log.debug("Attempted filtering trainee trainings in in-memory service (not supported)");
-        throw new UnsupportedOperationException("Filtering not supported in in-memory implementation");
+        log.debug("Filtering in-memory trainings for trainee: {}", traineeUsername);
+
+        // Name filter resolves to usernames through the n-gram index, same matching as the DB search column
+        Set<String> trainerUsernames = StringUtils.hasText(trainerName)
+                ? trainerDao.findUsernamesByNameContaining(trainerName)
+                : null;
+
+        return filterTrainings(training -> traineeUsername.equals(training.getTraineeUsername())
+                && (trainerUsernames == null || trainerUsernames.contains(training.getTrainerUsername()))
+                && (!StringUtils.hasText(trainingType) || (training.getTrainingType() != null
+                        && trainingType.equals(training.getTrainingType().getTrainingTypeName()))),
+                fromDate, toDate);
     }
 
     @Override
@@ -88,8 +190,29 @@ public class TrainingServiceInMemoryImpl implements TrainingService {
                                               LocalDate fromDate,
                                               LocalDate toDate,
                                               String traineeName) {
-        log.debug("Attempted filtering trainer trainings in in-memory service (not supported)");
-        throw new UnsupportedOperationException("Filtering not supported in in-memory implementation");
+        log.debug("Filtering in-memory trainings for trainer: {}", trainerUsername);
+
+        Set<String> traineeUsernames = StringUtils.hasText(traineeName)
+                ? traineeDao.findUsernamesByNameContaining(traineeName)
+                : null;
+
+        return filterTrainings(training -> trainerUsername.equals(training.getTrainerUsername())
+                && (traineeUsernames == null || traineeUsernames.contains(training.getTraineeUsername())),
+                fromDate, toDate);
+    }
+
+    private List<Training> filterTrainings(Predicate<Training> filter, LocalDate fromDate, LocalDate toDate) {
+        List<Training> trainings = trainingDao.findAll().stream()
+                .filter(filter)
+                .filter(training -> fromDate == null
+                        || (training.getTrainingDate() != null && !training.getTrainingDate().isBefore(fromDate)))
+                .filter(training -> toDate == null
+                        || (training.getTrainingDate() != null && !training.getTrainingDate().isAfter(toDate)))
+                .sorted(Comparator.comparing(Training::getTrainingDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        log.info("Filtered {} trainings", trainings.size());
+        return trainings;
     }
 
 }
@@ -0,0 +1,43 @@
+package org.example.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public final class SearchNames {
+
+    public static final int GRAM_SIZE = 3;
+
+    private SearchNames() {
+    }
+
+    // Stored form of "First Last": lower-case, trimmed, single spaces
+    public static String normalize(String firstName, String lastName) {
+        return normalize((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName));
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Same n-grams pg_trgm would match on for a substring search, minus its word padding
+    public static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    // Escapes LIKE wildcards so user input is matched literally (escape char '\')
+    public static String likeContains(String normalized) {
+        String escaped = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,3 @@
+-- Bumped when a password change, deactivation, rename or deletion must cut off issued tokens;
+-- tokens carry the value they were issued with and are refused once it is lower than this
+ALTER TABLE users ADD COLUMN security_version BIGINT DEFAULT 0 NOT NULL;
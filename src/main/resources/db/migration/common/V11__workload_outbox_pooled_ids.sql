@@ -0,0 +1,9 @@
+-- Pooled outbox ids, so the events of a bulk import go out as JDBC batches with the trainings.
+-- The identity default stays on the column but is no longer used; PostgreSQL moves the
+-- sequence past existing rows in afterMigrate.
+CREATE SEQUENCE IF NOT EXISTS workload_outbox_seq START WITH 1 INCREMENT BY 50;
+
+-- Each node hands out ids from its own block, so ids only order events within a node; the
+-- relay reads in creation order and uses the id to break ties
+DROP INDEX IF EXISTS idx_workload_outbox_sent_at;
+CREATE INDEX idx_workload_outbox_sent_at ON workload_outbox (sent_at, created_at, id);
@@ -0,0 +1,67 @@
+-- Schema as ddl-auto created it before migrations took over. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE users
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_name VARCHAR(50)  NOT NULL,
+    last_name  VARCHAR(50)  NOT NULL,
+    username   VARCHAR(50)  NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    is_active  BOOLEAN      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE training_type
+(
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    training_type_name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE trainee
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    date_of_birth DATE,
+    address       VARCHAR(255),
+    user_id       BIGINT NOT NULL UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trainee_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE trainer
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    training_type_id BIGINT NOT NULL,
+    user_id          BIGINT NOT NULL UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trainer_training_type FOREIGN KEY (training_type_id) REFERENCES training_type (id),
+    CONSTRAINT fk_trainer_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE training
+(
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    trainee_id                BIGINT       NOT NULL,
+    trainer_id                BIGINT       NOT NULL,
+    training_type_id          BIGINT       NOT NULL,
+    training_name             VARCHAR(100) NOT NULL,
+    training_date             DATE         NOT NULL,
+    training_duration_minutes INTEGER      NOT NULL
+        CHECK (training_duration_minutes >= 1 AND training_duration_minutes <= 600),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_training_trainee FOREIGN KEY (trainee_id) REFERENCES trainee (id),
+    CONSTRAINT fk_training_trainer FOREIGN KEY (trainer_id) REFERENCES trainer (id),
+    CONSTRAINT fk_training_training_type FOREIGN KEY (training_type_id) REFERENCES training_type (id)
+);
+
+CREATE TABLE login_attempts
+(
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username          VARCHAR(255) NOT NULL UNIQUE,
+    attempt_count     INTEGER      NOT NULL,
+    last_attempt_time TIMESTAMP(6) NOT NULL,
+    blocked_until     TIMESTAMP(6),
+    is_blocked        BOOLEAN      NOT NULL,
+    PRIMARY KEY (id)
+);
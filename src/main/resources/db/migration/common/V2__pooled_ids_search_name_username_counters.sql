@@ -0,0 +1,33 @@
+-- Catches up with entity changes that ddl-auto may or may not have applied already,
+-- so every statement is guarded and the script is safe on either kind of database.
+
+-- Pooled sequence ids; PostgreSQL moves them past existing rows in V4
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS trainee_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS trainer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS training_seq START WITH 1 INCREMENT BY 50;
+
+-- Normalized full name for trainer/trainee name filters, kept current by UserEntity
+ALTER TABLE users ADD COLUMN IF NOT EXISTS search_name VARCHAR(101);
+
+-- Same as SearchNames.normalize: whitespace runs become one space. Written with REPLACE rather
+-- than REGEXP_REPLACE, whose replace-all flag differs between H2 and PostgreSQL; CHR(1) marks
+-- the start of each run so everything after its first space can be dropped.
+UPDATE users
+SET search_name = LOWER(REPLACE(REPLACE(REPLACE(
+        TRIM(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+                COALESCE(first_name, '') || ' ' || COALESCE(last_name, ''),
+                CHR(9), ' '), CHR(10), ' '), CHR(11), ' '), CHR(12), ' '), CHR(13), ' ')),
+        ' ', ' ' || CHR(1)), CHR(1) || ' ', ''), CHR(1), ''))
+WHERE search_name IS NULL;
+
+-- Next free numeric suffix per first.last base name
+CREATE TABLE IF NOT EXISTS username_counters
+(
+    base_name   VARCHAR(101) NOT NULL,
+    next_suffix BIGINT       NOT NULL,
+    PRIMARY KEY (base_name)
+);
+
+-- Keyset pagination over GET /api/trainings
+CREATE INDEX IF NOT EXISTS idx_training_date_id ON training (training_date, id);
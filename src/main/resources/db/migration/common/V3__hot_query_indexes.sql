@@ -0,0 +1,9 @@
+-- Training history by trainee or trainer: equality on the owner, range and order on the date
+CREATE INDEX IF NOT EXISTS idx_training_trainee_date ON training (trainee_id, training_date);
+CREATE INDEX IF NOT EXISTS idx_training_trainer_date ON training (trainer_id, training_date);
+
+-- TrainingRepo.findByTrainingName
+CREATE INDEX IF NOT EXISTS idx_training_name ON training (training_name);
+
+-- LoginAttemptRepo.deleteExpiredBlocks
+CREATE INDEX IF NOT EXISTS idx_login_attempts_blocked_until ON login_attempts (blocked_until);
@@ -0,0 +1,18 @@
+-- Rotating refresh tokens; only an HMAC of the token is stored
+CREATE TABLE refresh_tokens
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64)  NOT NULL UNIQUE,
+    username   VARCHAR(255) NOT NULL,
+    family_id  VARCHAR(36)  NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    used_at    TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- Reuse detection revokes a whole family; credential changes revoke everything a user holds
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_username ON refresh_tokens (username);
+
+-- RefreshTokenRepo.deleteExpired
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,14 @@
+-- Access tokens revoked by logout, kept until they would have expired anyway
+CREATE TABLE revoked_tokens
+(
+    jti        VARCHAR(64)  NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (jti)
+);
+
+-- Startup load and RevokedTokenRepo.deleteExpired
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- Incremental sync of revocations made on other instances
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
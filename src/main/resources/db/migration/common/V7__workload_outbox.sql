@@ -0,0 +1,14 @@
+-- Workload events written in the same transaction as the training they describe and relayed
+-- to the broker afterwards; sent rows are kept for a while and then purged
+CREATE TABLE workload_outbox
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_id   VARCHAR(36)   NOT NULL UNIQUE,
+    payload    VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL,
+    sent_at    TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+-- The relay reads unsent rows in id order; the purge removes old sent ones
+CREATE INDEX idx_workload_outbox_sent_at ON workload_outbox (sent_at, id);
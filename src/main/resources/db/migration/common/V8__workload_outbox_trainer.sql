@@ -0,0 +1,3 @@
+-- Trainer the event is about, so the relay can keep each trainer's events in one message group
+-- without parsing the payload; rows written before this column existed share one group
+ALTER TABLE workload_outbox ADD COLUMN trainer_username VARCHAR(255);
@@ -0,0 +1,10 @@
+-- Rows inserted through the old identity columns sit below the new sequences. Hibernate's
+-- pooled optimizer hands out (value - 49 .. value), so the next value must clear max(id) by 50.
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+SELECT setval('trainee_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM trainee), false);
+SELECT setval('trainer_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM trainer), false);
+SELECT setval('training_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM training), false);
+
+-- Substring name filters (LIKE '%...%') on search_name
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_search_name_trgm ON users USING gin (search_name gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- Runs after every migrate, not just once like V4. A database that took rows through the old
+-- identity columns after V4 ran (a node on a build from before the pooled ids, or one that got
+-- the training_seq switch without V4) is caught up on the next deploy. A sequence is only moved
+-- when the next pooled block (next value - 49 .. next value) would reach an existing id, so
+-- blocks already handed out are never reissued.
+SELECT setval('users_seq', (SELECT MAX(id) FROM users) + 50, false)
+WHERE (SELECT MAX(id) FROM users) + 50 >
+      (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM users_seq);
+SELECT setval('trainee_seq', (SELECT MAX(id) FROM trainee) + 50, false)
+WHERE (SELECT MAX(id) FROM trainee) + 50 >
+      (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM trainee_seq);
+SELECT setval('trainer_seq', (SELECT MAX(id) FROM trainer) + 50, false)
+WHERE (SELECT MAX(id) FROM trainer) + 50 >
+      (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM trainer_seq);
+SELECT setval('training_seq', (SELECT MAX(id) FROM training) + 50, false)
+WHERE (SELECT MAX(id) FROM training) + 50 >
+      (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM training_seq);
+SELECT setval('workload_outbox_seq', (SELECT MAX(id) FROM workload_outbox) + 50, false)
+WHERE (SELECT MAX(id) FROM workload_outbox) + 50 >
+      (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM workload_outbox_seq);
@@ -1,7 +1,9 @@
 package org.example.api.controller;
 
 import org.example.api.dto.request.LoginRequest;
+import org.example.api.dto.request.RefreshTokenRequest;
 import org.example.api.dto.response.LoginResponse;
+import org.example.security.AuthTokens;
 import org.example.security.service.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,10 +41,11 @@ class LoginControllerTest {
         request.setUsername(username);
         request.setPassword(password);
 
-        when(authService.login(eq(username), anyString())).thenReturn(token);
+        when(authService.login(eq(username), anyString(), eq("10.0.0.1"))).thenReturn(token);
+        when(authService.issueRefreshToken(username)).thenReturn("refresh-token");
 
         // Act
-        ResponseEntity<LoginResponse> response = loginController.login(request);
+        ResponseEntity<LoginResponse> response = loginController.login(request, httpRequest());
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
@@ -51,13 +55,14 @@ class LoginControllerTest {
         assertEquals("Login successful", body.getMessage());
         assertEquals(username, body.getUsername());
         assertEquals(token, body.getToken());
+        assertEquals("refresh-token", body.getRefreshToken());
 
         // Verify that password array is cleared
         for (char c : password) {
             assertEquals(' ', c);
         }
 
-        verify(authService, times(1)).login(eq(username), anyString());
+        verify(authService, times(1)).login(eq(username), anyString(), eq("10.0.0.1"));
     }
 
     @Test
@@ -70,13 +75,13 @@ class LoginControllerTest {
         request.setUsername(username);
         request.setPassword(password);
 
-        when(authService.login(eq(username), anyString()))
+        when(authService.login(eq(username), anyString(), eq("10.0.0.1")))
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
         // Act & Assert
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
-                () -> loginController.login(request)
+                () -> loginController.login(request, httpRequest())
         );
 
         assertEquals("Invalid credentials", exception.getMessage());
@@ -86,13 +91,34 @@ class LoginControllerTest {
             assertEquals(' ', c);
         }
 
-        verify(authService, times(1)).login(eq(username), anyString());
+        verify(authService, times(1)).login(eq(username), anyString(), eq("10.0.0.1"));
+        verify(authService, never()).issueRefreshToken(anyString());
+    }
+
+    @Test
+    void testRefresh() {
+        when(authService.refresh("old-refresh")).thenReturn(AuthTokens.builder()
+                .username("user1")
+                .accessToken("new-jwt")
+                .refreshToken("new-refresh")
+                .build());
+
+        ResponseEntity<LoginResponse> response = loginController.refresh(new RefreshTokenRequest("old-refresh"));
+
+        assertEquals(200, response.getStatusCode().value());
+        LoginResponse body = response.getBody();
+        assertNotNull(body);
+        assertTrue(body.isSuccess());
+        assertEquals("user1", body.getUsername());
+        assertEquals("new-jwt", body.getToken());
+        assertEquals("new-refresh", body.getRefreshToken());
     }
 
     @Test
     void testLogout() {
         // Act
-        ResponseEntity<LoginResponse> response = loginController.logout();
+        ResponseEntity<LoginResponse> response = loginController.logout("Bearer access-jwt",
+                new RefreshTokenRequest("refresh-token"));
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
@@ -103,6 +129,20 @@ class LoginControllerTest {
         assertNull(body.getToken());
         assertNull(body.getUsername());
 
-        verify(authService, times(1)).logout();
+        verify(authService, times(1)).logout("access-jwt", "refresh-token");
+    }
+
+    @Test
+    void testLogoutWithoutTokens() {
+        ResponseEntity<LoginResponse> response = loginController.logout(null, null);
+
+        assertEquals(200, response.getStatusCode().value());
+        verify(authService).logout(null, null);
+    }
+
+    private static MockHttpServletRequest httpRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        return request;
     }
 }
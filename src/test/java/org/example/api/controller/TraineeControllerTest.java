@@ -1,9 +1,12 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.api.controller.TraineeController;
 import org.example.api.dto.request.TraineeRequest;
 import org.example.exception.UserNotFoundException;
+import org.example.persistance.model.RegistrationOutcome;
 import org.example.persistance.model.Trainee;
+import org.example.services.BulkRegistrationService;
 import org.example.services.TraineeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,12 +14,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class TraineeControllerTest {
@@ -24,6 +34,9 @@ class TraineeControllerTest {
     @Mock
     private TraineeService traineeService;
 
+    @Mock
+    private BulkRegistrationService bulkRegistrationService;
+
     @InjectMocks
     private TraineeController traineeController;
 
@@ -133,4 +146,33 @@ class TraineeControllerTest {
         assertEquals(204, response.getStatusCodeValue());
         verify(traineeService, times(1)).deleteTraineeByUsername(username);
     }
+
+    @Test
+    void testRegisterTraineesInBulkStreamsOneLinePerRow() throws Exception {
+        TraineeController controller = new TraineeController(traineeService, bulkRegistrationService,
+                new ObjectMapper().findAndRegisterModules());
+        String ndjson = """
+                {"firstName":"John","lastName":"Smith"}
+                {"firstName":"Al","lastName":"Doe"}
+                """;
+
+        doAnswer(invocation -> {
+            List<Trainee> trainees = invocation.getArgument(0);
+            assertEquals("John", trainees.get(0).getFirstName());
+            Consumer<RegistrationOutcome> outcomes = invocation.getArgument(1);
+            outcomes.accept(RegistrationOutcome.builder().row(0).username("John.Smith").temporaryPassword("pw").build());
+            outcomes.accept(RegistrationOutcome.builder().row(1).error("First name must be between 3 and 50 characters").build());
+            return null;
+        }).when(bulkRegistrationService).registerTrainees(anyList(), any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.registerTraineesInBulk(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"row\":0,\"username\":\"John.Smith\",\"password\":\"pw\"}", lines[0]);
+        assertEquals("{\"row\":1,\"error\":\"First name must be between 3 and 50 characters\"}", lines[1]);
+    }
 }
@@ -1,23 +1,36 @@
 package org.example.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.api.controller.TrainingController;
 import org.example.api.dto.request.TrainingRequest;
+import org.example.api.dto.response.BulkTrainingResponse;
 import org.example.api.dto.response.TrainingResponse;
 import org.example.mapper.TrainingResponseMapper;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingPage;
 import org.example.persistance.model.TrainingType;
 import org.example.services.TrainingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class TrainingControllerTest {
@@ -81,20 +94,53 @@ class TrainingControllerTest {
     void testGetAllTrainings() {
         Training t1 = Training.builder().trainingName("T1").build();
         Training t2 = Training.builder().trainingName("T2").build();
-        when(trainingService.listAll()).thenReturn(List.of(t1, t2));
+        when(trainingService.listPage(null, 50)).thenReturn(TrainingPage.builder()
+                .trainings(List.of(t1, t2))
+                .build());
 
-        when(trainingResponseMapper.toResponse(t1)).thenReturn(
-                TrainingResponse.builder().trainingName("T1").build()
-        );
-        when(trainingResponseMapper.toResponse(t2)).thenReturn(
-                TrainingResponse.builder().trainingName("T2").build()
-        );
-
-        ResponseEntity<List<TrainingResponse>> response = trainingController.getAllTrainings();
+        ResponseEntity<List<TrainingResponse>> response = trainingController.getAllTrainings(null, 50);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(2, response.getBody().size());
-        verify(trainingService, times(1)).listAll();
+        assertFalse(response.getHeaders().containsKey(TrainingController.NEXT_CURSOR_HEADER));
+        verify(trainingService, times(1)).listPage(null, 50);
+    }
+
+    @Test
+    void testGetAllTrainings_exposesNextCursor() {
+        Training t1 = Training.builder().trainingName("T1").build();
+        when(trainingService.listPage("abc", 1)).thenReturn(TrainingPage.builder()
+                .trainings(List.of(t1))
+                .nextCursor("def")
+                .build());
+
+        ResponseEntity<List<TrainingResponse>> response = trainingController.getAllTrainings("abc", 1);
+
+        assertEquals(1, response.getBody().size());
+        assertEquals("def", response.getHeaders().getFirst(TrainingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testStreamAllTrainings() throws Exception {
+        TrainingController controller = new TrainingController(
+                trainingService, trainingResponseMapper, new ObjectMapper().findAndRegisterModules());
+
+        doAnswer(invocation -> {
+            Consumer<Training> consumer = invocation.getArgument(0);
+            consumer.accept(Training.builder().trainingName("T1").build());
+            consumer.accept(Training.builder().trainingName("T2").build());
+            return null;
+        }).when(trainingService).streamAll(any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamAllTrainings();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"trainingName\":\"T1\""));
+        assertTrue(lines[1].contains("\"trainingName\":\"T2\""));
     }
 
     @Test
@@ -160,4 +206,71 @@ class TrainingControllerTest {
 
     }
 
+    @Test
+    void testCreateTrainingsInBulk_readsJsonArray() throws Exception {
+        TrainingController controller = bulkController();
+        when(trainingService.createTrainings(any())).thenReturn(BulkTrainingResult.builder()
+                .received(2)
+                .created(1)
+                .failures(List.of(new BulkTrainingResult.RowFailure(1, "Trainer not found: ghost")))
+                .build());
+
+        String body = """
+                [{"traineeUsername":"trainee1","trainerUsername":"trainer1","trainingName":"Yoga",
+                  "trainingType":"Yoga","trainingDate":"2025-01-10","trainingDurationMinutes":60},
+                 {"traineeUsername":"trainee1","trainerUsername":"ghost","trainingName":"Run",
+                  "trainingType":"Cardio","trainingDate":"2025-01-11","trainingDurationMinutes":30}]
+                """;
+
+        ResponseEntity<BulkTrainingResponse> response = controller.createTrainingsInBulk(stream(body));
+
+        ArgumentCaptor<List<TrainingRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(trainingService).createTrainings(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(LocalDate.of(2025, 1, 11), captor.getValue().get(1).getTrainingDate());
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getCreated());
+        assertEquals(1, response.getBody().getFailed());
+        assertEquals(1, response.getBody().getErrors().get(0).getRow());
+    }
+
+    @Test
+    void testCreateTrainingsInBulk_readsNdjson() throws Exception {
+        TrainingController controller = bulkController();
+        when(trainingService.createTrainings(any())).thenReturn(BulkTrainingResult.builder()
+                .received(3).created(3).failures(List.of()).build());
+
+        String body = """
+                {"traineeUsername":"a","trainerUsername":"t","trainingName":"One","trainingType":"Yoga","trainingDate":"2025-01-01","trainingDurationMinutes":60}
+                {"traineeUsername":"b","trainerUsername":"t","trainingName":"Two","trainingType":"Yoga","trainingDate":"2025-01-02","trainingDurationMinutes":60}
+                {"traineeUsername":"c","trainerUsername":"t","trainingName":"Three","trainingType":"Yoga","trainingDate":"2025-01-03","trainingDurationMinutes":60}
+                """;
+
+        controller.createTrainingsInBulk(stream(body));
+
+        ArgumentCaptor<List<TrainingRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(trainingService).createTrainings(captor.capture());
+        assertEquals(List.of("a", "b", "c"),
+                captor.getValue().stream().map(TrainingRequest::getTraineeUsername).toList());
+    }
+
+    @Test
+    void testCreateTrainingsInBulk_rejectsMalformedPayload() {
+        TrainingController controller = bulkController();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> controller.createTrainingsInBulk(stream("{\"traineeUsername\":\"a\"}\n{broken")));
+
+        assertTrue(ex.getMessage().startsWith("Malformed row 1"));
+        verify(trainingService, never()).createTrainings(any());
+    }
+
+    private TrainingController bulkController() {
+        return new TrainingController(trainingService, trainingResponseMapper, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
 }
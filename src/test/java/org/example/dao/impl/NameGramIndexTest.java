@@ -0,0 +1,54 @@
+package org.example.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameGramIndexTest {
+
+    private NameGramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameGramIndex();
+        index.put("john.smith", "John", "Smith");
+        index.put("jane.smithers", "Jane", "Smithers");
+        index.put("bob.stone", "Bob", "Stone");
+    }
+
+    @Test
+    void search_matchesSubstringAcrossFirstAndLastName() {
+        assertEquals(Set.of("john.smith"), index.search("n smi"));
+        assertEquals(Set.of("john.smith", "jane.smithers"), index.search("SMITH"));
+    }
+
+    @Test
+    void search_verifiesCandidatesSoSharedTrigramsDoNotMatch() {
+        // "smithstone" shares trigrams with both names but is a substring of neither
+        assertTrue(index.search("smithstone").isEmpty());
+    }
+
+    @Test
+    void search_shortQueryFallsBackToScan() {
+        assertEquals(Set.of("bob.stone"), index.search("bo"));
+        assertEquals(3, index.search("").size());
+    }
+
+    @Test
+    void remove_dropsPostings() {
+        index.remove("john.smith");
+
+        assertEquals(Set.of("jane.smithers"), index.search("smith"));
+    }
+
+    @Test
+    void put_replacesPreviousName() {
+        index.put("bob.stone", "Bob", "Marley");
+
+        assertTrue(index.search("stone").isEmpty());
+        assertEquals(Set.of("bob.stone"), index.search("marley"));
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -105,4 +106,27 @@ class TraineeDaoImplTest {
         assertTrue(trainees.contains(t1));
         assertTrue(trainees.contains(t2));
     }
+
+    @Test
+    void testFindUsernamesByNameContaining_dropsDeletedTrainees() {
+        Trainee anna = createTrainee("trainee1", "Anna", "Smith", "Street 1");
+        traineeDao.save(anna);
+        traineeDao.save(createTrainee("trainee2", "Hanna", "Lee", "Street 2"));
+
+        assertEquals(Set.of("trainee1", "trainee2"), traineeDao.findUsernamesByNameContaining("anna"));
+
+        traineeDao.delete(anna);
+
+        assertEquals(Set.of("trainee2"), traineeDao.findUsernamesByNameContaining("anna"));
+    }
+
+    @Test
+    void testSetStorage_indexesExistingTrainees() {
+        Map<String, Trainee> preloaded = new HashMap<>();
+        preloaded.put("trainee1", createTrainee("trainee1", "Anna", "Smith", "Street 1"));
+
+        traineeDao.setTraineeStorage(preloaded);
+
+        assertEquals(Set.of("trainee1"), traineeDao.findUsernamesByNameContaining("a s"));
+    }
 }
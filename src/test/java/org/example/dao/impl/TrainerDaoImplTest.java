@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -87,4 +88,28 @@ class TrainerDaoImplTest {
         assertTrue(trainers.contains(t1));
         assertTrue(trainers.contains(t2));
     }
+
+    @Test
+    void testFindUsernamesByNameContaining() {
+        trainerDao.save(createTrainer("trainer1", "Tom", "Cruise", "Java"));
+        trainerDao.save(createTrainer("trainer2", "Emma", "Watson", "Python"));
+        trainerDao.save(createTrainer("trainer3", "Tomas", "Watts", "Go"));
+
+        assertEquals(Set.of("trainer1", "trainer3"), trainerDao.findUsernamesByNameContaining("TOM"));
+        assertEquals(Set.of("trainer2"), trainerDao.findUsernamesByNameContaining("emma wat"));
+        assertEquals(Set.of("trainer2", "trainer3"), trainerDao.findUsernamesByNameContaining("wat"));
+        assertTrue(trainerDao.findUsernamesByNameContaining("nobody").isEmpty());
+    }
+
+    @Test
+    void testFindUsernamesByNameContaining_followsUpdates() {
+        Trainer trainer = createTrainer("trainer1", "Tom", "Cruise", "Java");
+        trainerDao.save(trainer);
+
+        trainer.setLastName("Hanks");
+        trainerDao.update(trainer);
+
+        assertTrue(trainerDao.findUsernamesByNameContaining("cruise").isEmpty());
+        assertEquals(Set.of("trainer1"), trainerDao.findUsernamesByNameContaining("hanks"));
+    }
 }
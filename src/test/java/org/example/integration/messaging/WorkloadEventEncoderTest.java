@@ -0,0 +1,133 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.example.api.config.AppProperties.WorkloadPublisher.Encoding;
+import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WorkloadEventEncoderTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper().findAndRegisterModules();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+
+    @Test
+    void smileEvent_decodesToTheSameMessage() throws Exception {
+        WorkloadEventMessage event = event(1);
+        WorkloadEventEncoder encoder = new WorkloadEventEncoder(Encoding.SMILE, false);
+
+        byte[] smile = encoder.transcode(List.of(jsonMapper.writeValueAsString(event)), false);
+
+        assertEquals(event, smileMapper.readValue(smile, WorkloadEventMessage.class));
+    }
+
+    @Test
+    void smileEnvelope_keepsEventsAndIsSmallerThanJson() throws Exception {
+        List<WorkloadEventMessage> events = IntStream.range(0, 50).mapToObj(this::event).toList();
+        List<String> payloads = events.stream().map(this::json).toList();
+        WorkloadEventEncoder encoder = new WorkloadEventEncoder(Encoding.SMILE, false);
+
+        byte[] smile = encoder.transcode(payloads, true);
+
+        WorkloadEventBatch batch = smileMapper.readValue(smile, WorkloadEventBatch.class);
+        assertEquals(WorkloadEventBatch.CURRENT_VERSION, batch.getVersion());
+        assertEquals(events, batch.getEvents());
+        assertTrue(smile.length < encoder.jsonEnvelope(payloads).length() / 2);
+    }
+
+    @Test
+    void jsonEvent_staysTextMessageNamingItsFormat() throws JMSException {
+        Session session = mock(Session.class);
+        TextMessage text = mock(TextMessage.class);
+        when(session.createTextMessage("{}")).thenReturn(text);
+
+        Message message = new WorkloadEventEncoder(Encoding.JSON, true).event(session, "{}");
+
+        assertSame(text, message);
+        verify(text).setStringProperty(WorkloadEventMessage.CONTENT_TYPE_PROPERTY, WorkloadEventEncoder.CONTENT_TYPE_JSON);
+        verify(text).setIntProperty(WorkloadEventMessage.SCHEMA_VERSION_PROPERTY, WorkloadEventMessage.SCHEMA_VERSION);
+        // Only envelopes are compressed
+        verify(text, never()).setStringProperty(eq(WorkloadEventMessage.CONTENT_ENCODING_PROPERTY), anyString());
+    }
+
+    @Test
+    void compressedJsonEnvelope_sentAsGzippedBytes() throws Exception {
+        Session session = mock(Session.class);
+        BytesMessage bytes = mock(BytesMessage.class);
+        when(session.createBytesMessage()).thenReturn(bytes);
+        List<WorkloadEventMessage> events = List.of(event(1), event(2));
+
+        new WorkloadEventEncoder(Encoding.JSON, true).envelope(session, events.stream().map(this::json).toList());
+
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(bytes).writeBytes(body.capture());
+        WorkloadEventBatch batch = jsonMapper.readValue(gunzip(body.getValue()), WorkloadEventBatch.class);
+        assertEquals(events, batch.getEvents());
+        verify(bytes).setStringProperty(WorkloadEventMessage.CONTENT_TYPE_PROPERTY, WorkloadEventEncoder.CONTENT_TYPE_JSON);
+        verify(bytes).setStringProperty(WorkloadEventMessage.CONTENT_ENCODING_PROPERTY, WorkloadEventEncoder.CONTENT_ENCODING_GZIP);
+        verify(bytes).setStringProperty(WorkloadEventBatch.TYPE_PROPERTY, WorkloadEventBatch.TYPE);
+    }
+
+    @Test
+    void smileEvent_sentAsBytesNamingItsFormat() throws Exception {
+        Session session = mock(Session.class);
+        BytesMessage bytes = mock(BytesMessage.class);
+        when(session.createBytesMessage()).thenReturn(bytes);
+        WorkloadEventMessage event = event(1);
+
+        new WorkloadEventEncoder(Encoding.SMILE, false).event(session, json(event));
+
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(bytes).writeBytes(body.capture());
+        assertEquals(event, smileMapper.readValue(body.getValue(), WorkloadEventMessage.class));
+        verify(bytes).setStringProperty(WorkloadEventMessage.CONTENT_TYPE_PROPERTY, WorkloadEventEncoder.CONTENT_TYPE_SMILE);
+    }
+
+    private WorkloadEventMessage event(int i) {
+        return WorkloadEventMessage.builder()
+                .eventId("event-" + i)
+                .transactionId("tx-" + i)
+                .request(TrainerWorkloadEventRequest.builder()
+                        .trainingId(String.valueOf(i))
+                        .username("trainer." + (i % 5))
+                        .firstName("Trainer")
+                        .lastName("Number" + (i % 5))
+                        .isActive(true)
+                        .trainingDate(LocalDate.of(2025, 1, 1).plusDays(i))
+                        .trainingDurationMinutes(60)
+                        .actionType(TrainerWorkloadEventRequest.ActionType.ADD)
+                        .build())
+                .build();
+    }
+
+    private String json(WorkloadEventMessage event) {
+        try {
+            return jsonMapper.writeValueAsString(event);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
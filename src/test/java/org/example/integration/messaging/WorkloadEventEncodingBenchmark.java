@@ -0,0 +1,95 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.config.AppProperties.WorkloadPublisher.Encoding;
+import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bytes on the wire and encode cost per workload event for each format the publisher can
+ * send, starting from the JSON payloads the outbox holds: single events and envelopes of
+ * {@code benchmark.batch} events, plain and gzipped. Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=WorkloadEventEncodingBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class WorkloadEventEncodingBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 10_000);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 100);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+
+    // Serialized the way Spring Boot's ObjectMapper does it, with ISO dates
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final WorkloadEventEncoder json = new WorkloadEventEncoder(Encoding.JSON, false);
+    private final WorkloadEventEncoder smile = new WorkloadEventEncoder(Encoding.SMILE, false);
+
+    @Test
+    void compareFormats() throws Exception {
+        List<String> payloads = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            payloads.add(objectMapper.writeValueAsString(event(i)));
+        }
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < EVENTS; from += BATCH) {
+            batches.add(payloads.subList(from, Math.min(from + BATCH, EVENTS)));
+        }
+
+        report("json event", payloads, payload -> payload.getBytes(StandardCharsets.UTF_8));
+        report("smile event", payloads, payload -> smile.transcode(List.of(payload), false));
+        report("json envelope", batches, batch -> json.jsonEnvelope(batch).getBytes(StandardCharsets.UTF_8));
+        report("json envelope gzip", batches,
+                batch -> WorkloadEventEncoder.gzip(json.jsonEnvelope(batch).getBytes(StandardCharsets.UTF_8)));
+        report("smile envelope", batches, batch -> smile.transcode(batch, true));
+        report("smile envelope gzip", batches, batch -> WorkloadEventEncoder.gzip(smile.transcode(batch, true)));
+    }
+
+    private <T> void report(String format, List<T> units, Function<T, byte[]> encode) {
+        long bytes = 0;
+        for (T unit : units) {
+            bytes += encode.apply(unit).length;
+        }
+        // First round warms up, the rest are timed
+        long sink = 0;
+        long start = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            if (round == 1) {
+                start = System.nanoTime();
+            }
+            for (T unit : units) {
+                sink += encode.apply(unit).length;
+            }
+        }
+        double nanosPerEvent = (System.nanoTime() - start) / (double) ROUNDS / EVENTS;
+        log.info("{}: {} bytes/event, {} ns/event (checksum {})", format,
+                Math.round(bytes * 10.0 / EVENTS) / 10.0, Math.round(nanosPerEvent), sink);
+    }
+
+    private WorkloadEventMessage event(int i) {
+        return WorkloadEventMessage.builder()
+                .eventId(UUID.randomUUID().toString())
+                .transactionId(UUID.randomUUID().toString())
+                .request(TrainerWorkloadEventRequest.builder()
+                        .trainingId(String.valueOf(100_000 + i))
+                        .username("trainer.user" + (i % 200))
+                        .firstName("Trainer" + (i % 200))
+                        .lastName("Lastname" + (i % 200))
+                        .isActive(true)
+                        .trainingDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                        .trainingDurationMinutes(30 + i % 90)
+                        .actionType(TrainerWorkloadEventRequest.ActionType.ADD)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.example.actuator.WorkloadPublisherMetrics;
+import org.example.api.config.AppProperties;
+import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes interleaved events for many trainers through the real publisher to an in-VM Artemis
+ * broker and consumes them with several concurrent, randomly slow consumers. Each trainer's
+ * events must arrive in the order they were published, and all of a trainer's events must land
+ * on one consumer.
+ */
+class WorkloadEventOrderingTest {
+
+    private static final int TRAINERS = 24;
+    private static final int EVENTS_PER_TRAINER = 20;
+    private static final int CONSUMERS = 4;
+    private static final int RELAY_BATCH = 50;
+
+    @TempDir
+    Path brokerDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> consumersByTrainer = new ConcurrentHashMap<>();
+    private final CountDownLatch allReceived = new CountDownLatch(TRAINERS * EVENTS_PER_TRAINER);
+    private EmbeddedActiveMQ broker;
+    private ActiveMQConnectionFactory connectionFactory;
+    private Connection consumerConnection;
+    private WorkloadEventPublisher publisher;
+
+    @BeforeEach
+    void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setBindingsDirectory(brokerDir.resolve("bindings").toString())
+                .setJournalDirectory(brokerDir.resolve("journal").toString())
+                .setPagingDirectory(brokerDir.resolve("paging").toString())
+                .setLargeMessagesDirectory(brokerDir.resolve("large-messages").toString())
+                .addAcceptorConfiguration("in-vm", "vm://1"));
+        broker.start();
+        connectionFactory = new ActiveMQConnectionFactory("vm://1");
+    }
+
+    @AfterEach
+    void stopBroker() throws Exception {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+        if (consumerConnection != null) {
+            consumerConnection.close();
+        }
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @ParameterizedTest(name = "batchEvents={0}")
+    @ValueSource(booleans = {false, true})
+    void eachTrainersEventsArriveInOrderAcrossConcurrentConsumers(boolean batchEvents) throws Exception {
+        startConsumers();
+        publisher = publisher(batchEvents);
+
+        // Trainers interleaved the way the outbox holds them, handed over in relay-sized batches
+        List<WorkloadEventPayload> payloads = new ArrayList<>();
+        for (int sequence = 0; sequence < EVENTS_PER_TRAINER; sequence++) {
+            for (int trainer = 0; trainer < TRAINERS; trainer++) {
+                payloads.add(publisher.toPayload(event("trainer" + trainer, sequence)));
+            }
+        }
+        for (int from = 0; from < payloads.size(); from += RELAY_BATCH) {
+            publisher.publishPayloads(payloads.subList(from, Math.min(from + RELAY_BATCH, payloads.size())));
+        }
+
+        assertTrue(allReceived.await(30, TimeUnit.SECONDS), "not every event arrived");
+        List<Integer> expected = new ArrayList<>();
+        for (int sequence = 0; sequence < EVENTS_PER_TRAINER; sequence++) {
+            expected.add(sequence);
+        }
+        for (int trainer = 0; trainer < TRAINERS; trainer++) {
+            assertEquals(expected, received.get("trainer" + trainer), "events of trainer" + trainer);
+            assertEquals(1, consumersByTrainer.get("trainer" + trainer).size(), "consumers of trainer" + trainer);
+        }
+        long busyConsumers = consumersByTrainer.values().stream().flatMap(Set::stream).distinct().count();
+        assertTrue(busyConsumers > 1, "groups should spread over the consumers");
+    }
+
+    // Every consumer is up before anything is sent, so the broker can spread the groups
+    private void startConsumers() throws JMSException {
+        consumerConnection = connectionFactory.createConnection();
+        for (int i = 0; i < CONSUMERS; i++) {
+            int consumerId = i;
+            Session session = consumerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = session.createConsumer(session.createQueue(Queues.WORKLOAD_EVENTS));
+            consumer.setMessageListener(message -> consume(consumerId, message));
+        }
+        consumerConnection.start();
+    }
+
+    private void consume(int consumerId, Message message) {
+        try {
+            String body = ((TextMessage) message).getText();
+            List<WorkloadEventMessage> events = message.propertyExists(WorkloadEventBatch.TYPE_PROPERTY)
+                    ? objectMapper.readValue(body, WorkloadEventBatch.class).getEvents()
+                    : List.of(objectMapper.readValue(body, WorkloadEventMessage.class));
+            for (WorkloadEventMessage event : events) {
+                String trainer = event.getRequest().getUsername();
+                received.computeIfAbsent(trainer, key -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(event.getRequest().getTrainingDurationMinutes());
+                consumersByTrainer.computeIfAbsent(trainer, key -> ConcurrentHashMap.newKeySet()).add(consumerId);
+                allReceived.countDown();
+            }
+            // Uneven processing time, so an unordered setup would show it
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private WorkloadEventPublisher publisher(boolean batchEvents) {
+        AppProperties properties = new AppProperties();
+        properties.getWorkloadPublisher().setSenders(4);
+        properties.getWorkloadPublisher().setPartitions(8);
+        properties.getWorkloadPublisher().setSendBatch(10);
+        properties.getWorkloadPublisher().setBatchEvents(batchEvents);
+        return new WorkloadEventPublisher(objectMapper, connectionFactory, CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.ofDefaults(), properties, new WorkloadPublisherMetrics(new SimpleMeterRegistry()));
+    }
+
+    // The sequence number rides in the duration field so the consumer can check the order
+    private WorkloadEventMessage event(String trainer, int sequence) {
+        return WorkloadEventMessage.builder()
+                .eventId(trainer + "-" + sequence)
+                .request(TrainerWorkloadEventRequest.builder()
+                        .username(trainer)
+                        .trainingDurationMinutes(sequence)
+                        .actionType(sequence % 2 == 0
+                                ? TrainerWorkloadEventRequest.ActionType.ADD
+                                : TrainerWorkloadEventRequest.ActionType.DELETE)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.example.actuator.WorkloadPublisherMetrics;
+import org.example.api.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Events per second put on an in-VM Artemis broker: the old inline {@code convertAndSend}
+ * per event against the buffered publisher fed in outbox-sized batches, with one and with
+ * several senders, and with each batch sent as one envelope. Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=WorkloadEventPublisherBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class WorkloadEventPublisherBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 20_000);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 5_000);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 100);
+
+    @TempDir
+    Path brokerDir;
+
+    private EmbeddedActiveMQ broker;
+    private CachingConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setBindingsDirectory(brokerDir.resolve("bindings").toString())
+                .setJournalDirectory(brokerDir.resolve("journal").toString())
+                .setPagingDirectory(brokerDir.resolve("paging").toString())
+                .setLargeMessagesDirectory(brokerDir.resolve("large-messages").toString())
+                .addAcceptorConfiguration("in-vm", "vm://0"));
+        broker.start();
+        // What Spring Boot puts in front of the broker by default
+        connectionFactory = new CachingConnectionFactory(new ActiveMQConnectionFactory("vm://0"));
+    }
+
+    @AfterEach
+    void stopBroker() throws Exception {
+        connectionFactory.destroy();
+        broker.stop();
+    }
+
+    @Test
+    void compareInlineAndBufferedPublishing() {
+        List<WorkloadEventPayload> payloads = payloads(Math.max(EVENTS, WARMUP));
+        JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+
+        double inline = eventsPerSecond(payloads, batch -> batch.forEach(
+                payload -> jmsTemplate.convertAndSend(Queues.WORKLOAD_EVENTS, payload.json())));
+
+        WorkloadEventPublisher oneSender = publisher(1, false);
+        double buffered = eventsPerSecond(payloads, oneSender::publishPayloads);
+        oneSender.shutdown();
+
+        WorkloadEventPublisher fourSenders = publisher(4, false);
+        double parallel = eventsPerSecond(payloads, fourSenders::publishPayloads);
+        fourSenders.shutdown();
+
+        WorkloadEventPublisher enveloping = publisher(1, true);
+        double enveloped = eventsPerSecond(payloads, enveloping::publishPayloads);
+        enveloping.shutdown();
+
+        log.info("events/s: inline {}, buffered 1 sender {}, buffered 4 senders {}, envelopes {}",
+                Math.round(inline), Math.round(buffered), Math.round(parallel), Math.round(enveloped));
+    }
+
+    private double eventsPerSecond(List<WorkloadEventPayload> payloads, Consumer<List<WorkloadEventPayload>> publish) {
+        run(payloads.subList(0, WARMUP), publish);
+        long start = System.nanoTime();
+        run(payloads.subList(0, EVENTS), publish);
+        return EVENTS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private void run(List<WorkloadEventPayload> payloads, Consumer<List<WorkloadEventPayload>> publish) {
+        for (int from = 0; from < payloads.size(); from += BATCH) {
+            publish.accept(payloads.subList(from, Math.min(from + BATCH, payloads.size())));
+        }
+    }
+
+    private WorkloadEventPublisher publisher(int senders, boolean batchEvents) {
+        AppProperties properties = new AppProperties();
+        properties.getWorkloadPublisher().setSenders(senders);
+        properties.getWorkloadPublisher().setBatchEvents(batchEvents);
+        properties.getWorkloadPublisher().setSendBatch(Math.max(1, BATCH / senders));
+        return new WorkloadEventPublisher(new ObjectMapper(), connectionFactory, CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.ofDefaults(), properties, new WorkloadPublisherMetrics(new SimpleMeterRegistry()));
+    }
+
+    private List<WorkloadEventPayload> payloads(int count) {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<WorkloadEventPayload> payloads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WorkloadEventMessage message = WorkloadEventMessage.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .transactionId(UUID.randomUUID().toString())
+                    .build();
+            try {
+                payloads.add(new WorkloadEventPayload("trainer" + i % 200, objectMapper.writeValueAsString(message)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.example.actuator.WorkloadPublisherMetrics;
+import org.example.api.config.AppProperties;
+import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.JmsException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WorkloadEventPublisherTest {
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final Connection connection = mock(Connection.class);
+    private final Session session = mock(Session.class);
+    private final MessageProducer producer = mock(MessageProducer.class);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<TextMessage> created = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final AppProperties properties = new AppProperties();
+    private WorkloadEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws JMSException {
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createProducer(any())).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenAnswer(invocation -> {
+            TextMessage message = mock(TextMessage.class);
+            when(message.getText()).thenReturn(invocation.getArgument(0));
+            created.add(message);
+            return message;
+        });
+        doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getText()))
+                .when(producer).send(any(TextMessage.class));
+
+        properties.getWorkloadPublisher().setSenders(1);
+        properties.getWorkloadPublisher().setSendTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    void publishPayloads_sendsAllInOrderOverOneSession() throws JMSException {
+        publisher = start();
+
+        publisher.publishPayloads(payloads("a", "b", "c"));
+        publisher.publishPayloads(payloads("d"));
+
+        assertEquals(List.of("a", "b", "c", "d"), sent);
+        verify(connection, times(1)).createSession(anyBoolean(), anyInt());
+        // The sender may pick up a batch before all of it is queued, so chunks can be smaller
+        assertTrue(registry.get("workload.publish.send").timer().count() >= 2);
+    }
+
+    @Test
+    void publishPayloads_brokerHiccup_retriedOnFreshSession() throws JMSException {
+        doThrow(new JMSException("connection reset"))
+                .doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getText()))
+                .when(producer).send(any(TextMessage.class));
+        publisher = start();
+
+        publisher.publishPayloads(payloads("a"));
+
+        assertEquals(List.of("a"), sent);
+        verify(connection, times(2)).createSession(anyBoolean(), anyInt());
+        verify(session).close();
+    }
+
+    @Test
+    void publishPayloads_brokerDown_failsAfterRetries() throws JMSException {
+        doThrow(new JMSException("broker down")).when(producer).send(any(TextMessage.class));
+        publisher = start();
+
+        assertThrows(JmsException.class, () -> publisher.publishPayloads(payloads("a")));
+
+        verify(producer, times(3)).send(any(TextMessage.class));
+        assertEquals(1.0, registry.get("workload.publish.failed").counter().count());
+    }
+
+    @Test
+    void publishPayloads_breakerOpen_failsWithoutTouchingBroker() throws JMSException {
+        publisher = start();
+        circuitBreakers.circuitBreaker(WorkloadEventPublisher.CIRCUIT_BREAKER).transitionToOpenState();
+
+        assertThrows(CallNotPermittedException.class, () -> publisher.publishPayloads(payloads("a")));
+
+        verify(connectionFactory, never()).createConnection();
+    }
+
+    @Test
+    void submit_fullBufferWithDropPolicy_rejectsRestOfBatch() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return sent.add(invocation.<TextMessage>getArgument(0).getText());
+        }).when(producer).send(any(TextMessage.class));
+        properties.getWorkloadPublisher().setBufferCapacity(1);
+        properties.getWorkloadPublisher().setSendBatch(1);
+        properties.getWorkloadPublisher().setOverflow(AppProperties.WorkloadPublisher.OverflowPolicy.DROP);
+        publisher = start();
+
+        // The only sender is stuck on the first event, the second takes the only slot
+        CompletableFuture<Void> first = publisher.submit(payloads("a"));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> overflowing = publisher.submit(payloads("b", "c", "d"));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> overflowing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        assertEquals(2.0, registry.get("workload.publish.dropped").counter().count());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void batchEvents_sendsOneVersionedEnvelopeKeepingEventIds() throws Exception {
+        properties.getWorkloadPublisher().setBatchEvents(true);
+        properties.getWorkloadPublisher().setSendBatch(10);
+        publisher = start();
+
+        publisher.publishAll(List.of(event("e-1"), event("e-2"), event("e-3")));
+
+        assertEquals(1, sent.size());
+        WorkloadEventBatch batch = objectMapper.readValue(sent.get(0), WorkloadEventBatch.class);
+        assertEquals(WorkloadEventBatch.CURRENT_VERSION, batch.getVersion());
+        assertEquals(List.of("e-1", "e-2", "e-3"),
+                batch.getEvents().stream().map(WorkloadEventMessage::getEventId).toList());
+        verify(created.get(0)).setStringProperty(WorkloadEventBatch.TYPE_PROPERTY, WorkloadEventBatch.TYPE);
+        verify(created.get(0)).setIntProperty(WorkloadEventBatch.VERSION_PROPERTY, WorkloadEventBatch.CURRENT_VERSION);
+        assertEquals(1.0, flushes(WorkloadEventPublisher.FLUSH_WINDOW));
+    }
+
+    @Test
+    void batchEvents_fullChunkSentWithoutWaitingForWindow() throws Exception {
+        properties.getWorkloadPublisher().setBatchEvents(true);
+        properties.getWorkloadPublisher().setSendBatch(2);
+        properties.getWorkloadPublisher().setBatchWindow(Duration.ofMinutes(1));
+        publisher = start();
+
+        publisher.publishAll(List.of(event("e-1"), event("e-2"), event("e-3"), event("e-4")));
+
+        assertEquals(2, sent.size());
+        assertEquals(List.of("e-3", "e-4"), objectMapper.readValue(sent.get(1), WorkloadEventBatch.class)
+                .getEvents().stream().map(WorkloadEventMessage::getEventId).toList());
+        assertEquals(2.0, flushes(WorkloadEventPublisher.FLUSH_FULL));
+        assertEquals(2.0, registry.get("workload.publish.batch.size").summary().mean());
+    }
+
+    @Test
+    void publishPayloads_stampsTrainerGroupOnEveryMessage() throws JMSException {
+        publisher = start();
+
+        publisher.publishPayloads(List.of(new WorkloadEventPayload("john", "a"), new WorkloadEventPayload(null, "b")));
+
+        verify(created.get(0)).setStringProperty(WorkloadEventPublisher.GROUP_ID_PROPERTY,
+                WorkloadEventPublisher.groupId("john", properties.getWorkloadPublisher().getPartitions()));
+        verify(created.get(1)).setStringProperty(WorkloadEventPublisher.GROUP_ID_PROPERTY, "workload-0");
+    }
+
+    @Test
+    void groupId_isStableAndWithinPartitions() {
+        assertEquals(WorkloadEventPublisher.groupId("john", 8), WorkloadEventPublisher.groupId("john", 8));
+        for (int i = 0; i < 100; i++) {
+            int partition = Integer.parseInt(WorkloadEventPublisher.groupId("trainer" + i, 8).substring("workload-".length()));
+            assertTrue(partition >= 0 && partition < 8);
+        }
+    }
+
+    @Test
+    void batchEvents_oneEnvelopePerGroupKeepingOrderWithinIt() throws Exception {
+        properties.getWorkloadPublisher().setBatchEvents(true);
+        properties.getWorkloadPublisher().setSendBatch(10);
+        properties.getWorkloadPublisher().setPartitions(2);
+        String first = trainerInPartition(0, 2);
+        String second = trainerInPartition(1, 2);
+        publisher = start();
+
+        publisher.publishAll(List.of(event("e-1", first), event("e-2", second), event("e-3", first), event("e-4", second)));
+
+        assertEquals(2, sent.size());
+        assertEquals(List.of("e-1", "e-3"), eventIds(sent.get(0)));
+        assertEquals(List.of("e-2", "e-4"), eventIds(sent.get(1)));
+        verify(created.get(0)).setStringProperty(WorkloadEventPublisher.GROUP_ID_PROPERTY, "workload-0");
+        verify(created.get(1)).setStringProperty(WorkloadEventPublisher.GROUP_ID_PROPERTY, "workload-1");
+    }
+
+    @Test
+    void submit_emptyBatch_completesImmediately() {
+        publisher = start();
+
+        assertTrue(publisher.submit(List.of()).isDone());
+    }
+
+    // All for one trainer, so they share a group and a sender
+    private List<WorkloadEventPayload> payloads(String... jsons) {
+        return Arrays.stream(jsons).map(json -> new WorkloadEventPayload("trainer", json)).toList();
+    }
+
+    private WorkloadEventMessage event(String eventId) {
+        return WorkloadEventMessage.builder().eventId(eventId).transactionId("tx").build();
+    }
+
+    private WorkloadEventMessage event(String eventId, String trainer) {
+        return WorkloadEventMessage.builder()
+                .eventId(eventId)
+                .request(TrainerWorkloadEventRequest.builder().username(trainer).build())
+                .build();
+    }
+
+    private List<String> eventIds(String envelope) throws Exception {
+        return objectMapper.readValue(envelope, WorkloadEventBatch.class)
+                .getEvents().stream().map(WorkloadEventMessage::getEventId).toList();
+    }
+
+    private static String trainerInPartition(int partition, int partitions) {
+        return IntStream.iterate(0, i -> i + 1).mapToObj(i -> "trainer" + i)
+                .filter(trainer -> WorkloadEventPublisher.groupId(trainer, partitions).equals("workload-" + partition))
+                .findFirst().orElseThrow();
+    }
+
+    private double flushes(String reason) {
+        return registry.get("workload.publish.flushes").tag("reason", reason).counter().count();
+    }
+
+    private WorkloadEventPublisher start() {
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(JmsException.class)
+                .build());
+        return new WorkloadEventPublisher(objectMapper, connectionFactory, circuitBreakers, retries,
+                properties, new WorkloadPublisherMetrics(registry));
+    }
+}
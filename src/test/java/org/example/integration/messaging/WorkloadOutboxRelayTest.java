@@ -0,0 +1,193 @@
+package org.example.integration.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.WorkloadOutboxMetrics;
+import org.example.api.config.AppProperties;
+import org.example.persistance.entity.WorkloadOutboxEntity;
+import org.example.persistance.repository.WorkloadOutboxRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WorkloadOutboxRelayTest {
+
+    @Autowired
+    private WorkloadOutboxRepo outboxRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MutableClock clock = new MutableClock();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final WorkloadEventPublisher publisher = mock(WorkloadEventPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private WorkloadOutbox outbox;
+    private WorkloadOutboxRelay relay;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getOutbox().setBatchSize(2);
+        properties.getOutbox().setRetention(Duration.ofHours(1));
+        outbox = new WorkloadOutbox(outboxRepo, objectMapper, clock);
+        relay = new WorkloadOutboxRelay(outboxRepo, publisher, new WorkloadOutboxMetrics(registry),
+                properties, transactionManager, clock);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void relay_sendsAllEventsInOrderAndMarksThemSent() throws Exception {
+        enqueue("e-1", "e-2", "e-3");
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkloadEventPayload>> batches = ArgumentCaptor.forClass(List.class);
+        verify(publisher, times(2)).publishPayloads(batches.capture());
+        List<String> sentIds = batches.getAllValues().stream().flatMap(List::stream)
+                .map(WorkloadEventPayload::json).map(this::eventId).toList();
+        assertEquals(List.of("e-1", "e-2", "e-3"), sentIds);
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(0, outboxRepo.countBySentAtIsNull());
+        assertEquals(3.0, registry.get("workload.outbox.sent").counter().count());
+    }
+
+    @Test
+    void relay_eventFromAnotherNodesLowerIdBlock_sentInCreationOrder() throws Exception {
+        enqueue("e-1");
+        long firstId = outboxRepo.findAll().get(0).getId();
+        clock.advance(Duration.ofSeconds(1));
+        // Another node still drawing ids from a block below this one
+        jdbcTemplate.update("INSERT INTO workload_outbox (id, event_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                firstId - 1, "e-2", objectMapper.writeValueAsString(event("e-2")), LocalDateTime.now(clock));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WorkloadEventPayload>> batch = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publishPayloads(batch.capture());
+        assertEquals(List.of("e-1", "e-2"), batch.getValue().stream()
+                .map(WorkloadEventPayload::json).map(this::eventId).toList());
+    }
+
+    @Test
+    void relay_nothingToSend_doesNotTouchTheBroker() {
+        relay.relay();
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void relay_brokerDown_leavesEventsForNextPoll() {
+        enqueue("e-1", "e-2", "e-3");
+        doThrow(new UncategorizedJmsException("broker down")).when(publisher).publishPayloads(anyList());
+
+        relay.relay();
+
+        assertEquals(3, outboxRepo.countBySentAtIsNull());
+        assertEquals(1.0, registry.get("workload.outbox.failed.batches").counter().count());
+
+        reset(publisher);
+        relay.relay();
+
+        assertEquals(0, outboxRepo.countBySentAtIsNull());
+    }
+
+    @Test
+    void gauges_reportBacklogAndAgeOfOldestEvent() {
+        enqueue("e-1", "e-2");
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(2.0, registry.get("workload.outbox.backlog").gauge().value());
+        assertEquals(30.0, registry.get("workload.outbox.lag").gauge().value());
+
+        relay.relay();
+
+        assertEquals(0.0, registry.get("workload.outbox.backlog").gauge().value());
+        assertEquals(0.0, registry.get("workload.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void purgeSent_removesOnlyEventsSentBeforeRetention() {
+        enqueue("e-1");
+        relay.relay();
+        clock.advance(Duration.ofHours(2));
+        enqueue("e-2");
+        relay.relay();
+
+        relay.purgeSent();
+
+        assertEquals(List.of("e-2"), outboxRepo.findAll().stream().map(WorkloadOutboxEntity::getEventId).toList());
+    }
+
+    private void enqueue(String... eventIds) {
+        transactionTemplate.executeWithoutResult(status ->
+                outbox.enqueueAll(IntStream.range(0, eventIds.length).mapToObj(i -> event(eventIds[i])).toList()));
+    }
+
+    private WorkloadEventMessage event(String eventId) {
+        return WorkloadEventMessage.builder().eventId(eventId).transactionId("tx").build();
+    }
+
+    private String eventId(String payload) {
+        try {
+            return objectMapper.readValue(payload, WorkloadEventMessage.class).getEventId();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.example.persistance.entity.TrainingTypeEntity;
 import org.example.persistance.entity.UserEntity;
 import org.example.persistance.model.Training;
 import org.example.persistance.model.TrainingType;
+import org.example.persistance.projection.TrainingView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -143,6 +144,32 @@ class TrainingMapperTest {
         assertNull(result);
     }
 
+    @Test
+    void testToTrainingModelFromView_Success() {
+        TrainingView view = new TrainingView(1L, "john.doe", "jane.smith", "Morning Yoga Session",
+                "Yoga", LocalDate.of(2024, 12, 1), 60);
+
+        Training result = trainingMapper.toTrainingModelFromView(view);
+
+        assertEquals(trainingModel, result);
+        assertEquals("john.doe", result.getTraineeUsername());
+        assertEquals("jane.smith", result.getTrainerUsername());
+        assertEquals("Yoga", result.getTrainingType().getTrainingTypeName());
+        assertEquals(LocalDate.of(2024, 12, 1), result.getTrainingDate());
+        assertEquals(60, result.getTrainingDurationMinutes());
+    }
+
+    @Test
+    void testToTrainingModelsFromViews_Success() {
+        TrainingView view = new TrainingView(1L, "john.doe", "jane.smith", "Morning Yoga Session",
+                "Yoga", LocalDate.of(2024, 12, 1), 60);
+
+        List<Training> result = trainingMapper.toTrainingModelsFromViews(List.of(view));
+
+        assertEquals(1, result.size());
+        assertEquals("Morning Yoga Session", result.get(0).getTrainingName());
+    }
+
     @Test
     void testToTrainingModel_WithNullTrainee() {
         trainingEntity.setTraineeEntity(null);
@@ -0,0 +1,170 @@
+package org.example.persistance.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.DataSourceRoutingMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each holds one row naming itself.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final AtomicReference<String> user = new AtomicReference<>();
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource primary;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = database("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        Routing routing = new Routing(database("replica"));
+
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        assertEquals(1.0, routes("replica"));
+        assertEquals(2.0, routes("primary"));
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryWithinWindow() {
+        Routing routing = new Routing(database("replica"));
+
+        user.set("john");
+        routing.write();
+        assertEquals("primary", routing.read());
+
+        user.set("jane");
+        assertEquals("replica", routing.read());
+
+        user.set("john");
+        clock.advance(WINDOW);
+        assertEquals("replica", routing.read());
+        assertEquals(1.0, routes("read-your-writes"));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReadsToPrimary() {
+        Routing routing = new Routing(database("replica"));
+        user.set("john");
+
+        routing.transactions.executeWithoutResult(status -> {
+            routing.jdbcTemplate.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void failingReplicaFallsBackToPrimaryAndIsSkippedUntilRetry() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Routing routing = new Routing(replica);
+
+        assertEquals("primary", routing.read());
+        assertEquals("primary", routing.read());
+        verify(replica, times(1)).getConnection();
+
+        clock.advance(RETRY_AFTER);
+        assertEquals("primary", routing.read());
+        verify(replica, times(2)).getConnection();
+        assertEquals(3.0, routes("fallback"));
+    }
+
+    private double routes(String route) {
+        return meterRegistry.get("datasource.routing").tag("route", route).counter().count();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private class Routing {
+
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate transactions;
+        final TransactionTemplate readOnlyTransactions;
+
+        Routing(DataSource replica) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                    primary, replica, new DataSourceRoutingMetrics(meterRegistry), user::get,
+                    WINDOW, RETRY_AFTER, clock));
+            // Otherwise the proxy borrows one connection up front to detect these, skewing the route counts
+            dataSource.setDefaultAutoCommit(true);
+            dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactions = new TransactionTemplate(transactionManager);
+            readOnlyTransactions = new TransactionTemplate(transactionManager);
+            readOnlyTransactions.setReadOnly(true);
+        }
+
+        String read() {
+            return readOnlyTransactions.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return transactions.execute(status -> {
+                jdbcTemplate.update("UPDATE node SET name = name");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.example.persistance.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs {@code EXPLAIN} for every statement the hot repository queries issue against a seeded
+ * schema built by the Flyway migrations, and fails when one of the large tables is read with
+ * a sequential scan. Runs on H2 by default; point it at a local PostgreSQL with
+ * {@code -Dspring.test.database.replace=none} and the usual {@code spring.datasource.*} properties.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(QueryPlanVerificationTest.StatementRecording.class)
+class QueryPlanVerificationTest {
+
+    private static final int TRAINEES = 2_000;
+    private static final int TRAINERS = 200;
+    private static final int TRAININGS = 50_000;
+    private static final int LOGIN_ATTEMPTS = 5_000;
+    private static final int TYPES = 5;
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private static final Set<String> LARGE_TABLES = Set.of("users", "trainee", "trainer", "training", "login_attempts");
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+    private static final Pattern POSTGRES_SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @TestConfiguration
+    static class StatementRecording {
+
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+
+    @Autowired
+    private TrainingRepo trainingRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private TraineeRepo traineeRepo;
+
+    @Autowired
+    private TrainerRepo trainerRepo;
+
+    @Autowired
+    private LoginAttemptRepo loginAttemptRepo;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM training", Long.class) > 0) {
+            return;
+        }
+
+        List<Object[]> types = new ArrayList<>();
+        for (int i = 1; i <= TYPES; i++) {
+            types.add(new Object[]{(long) i, "Type" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO training_type (id, training_type_name) VALUES (?, ?)", types);
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> trainees = new ArrayList<>();
+        List<Object[]> trainers = new ArrayList<>();
+        for (int i = 1; i <= TRAINEES; i++) {
+            users.add(user(i, "Trainee", "Number" + i, "plan.trainee" + i));
+            trainees.add(new Object[]{(long) i, (long) i, START.minusYears(20)});
+        }
+        for (int i = 1; i <= TRAINERS; i++) {
+            long userId = TRAINEES + i;
+            users.add(user(userId, "Trainer", "Number" + i, "plan.trainer" + i));
+            trainers.add(new Object[]{(long) i, userId, (long) (i % TYPES + 1)});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, first_name, last_name, username, password, is_active, search_name)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, users);
+        jdbcTemplate.batchUpdate("INSERT INTO trainee (id, user_id, date_of_birth) VALUES (?, ?, ?)", trainees);
+        jdbcTemplate.batchUpdate("INSERT INTO trainer (id, user_id, training_type_id) VALUES (?, ?, ?)", trainers);
+
+        List<Object[]> trainings = new ArrayList<>();
+        for (int i = 1; i <= TRAININGS; i++) {
+            trainings.add(new Object[]{(long) i, (long) (i % TRAINEES + 1), (long) (i % TRAINERS + 1),
+                    (long) (i % TYPES + 1), "Session " + i, START.plusDays(i % 1_500), 60});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO training (id, trainee_id, trainer_id, training_type_id, training_name,
+                                      training_date, training_duration_minutes)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, trainings);
+
+        // Only a handful of accounts are blocked at any time
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Object[]> attempts = new ArrayList<>();
+        for (int i = 1; i <= LOGIN_ATTEMPTS; i++) {
+            boolean blocked = i % 100 == 0;
+            attempts.add(new Object[]{"plan.login" + i, blocked ? 3 : 1, now,
+                    blocked ? now.plusMinutes(i % 10 - 5) : null, blocked});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO login_attempts (username, attempt_count, last_attempt_time, blocked_until, is_blocked)
+                VALUES (?, ?, ?, ?, ?)
+                """, attempts);
+
+        if (isPostgres()) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void findTraineeTrainings_usesIndexes() {
+        assertNoSequentialScan(() -> trainingRepo.findTraineeTrainings("plan.trainee7", null, null, null, null));
+        assertNoSequentialScan(() -> trainingRepo.findTraineeTrainings(
+                "plan.trainee7", START.plusDays(100), START.plusDays(400), "number 3", "Type2"));
+    }
+
+    @Test
+    void findTrainerTrainings_usesIndexes() {
+        assertNoSequentialScan(() -> trainingRepo.findTrainerTrainings("plan.trainer7", null, null, null));
+        assertNoSequentialScan(() -> trainingRepo.findTrainerTrainings(
+                "plan.trainer7", START.plusDays(100), START.plusDays(400), "number 3"));
+    }
+
+    @Test
+    void findByTrainingName_usesIndex() {
+        assertNoSequentialScan(() -> trainingRepo.findByTrainingName("Session 4242"));
+    }
+
+    @Test
+    void trainingPages_useIndexes() {
+        assertNoSequentialScan(() -> trainingRepo.findFirstPage(PageRequest.ofSize(20)));
+        assertNoSequentialScan(() -> trainingRepo.findPageAfter(START.plusDays(700), 35_000L, PageRequest.ofSize(20)));
+    }
+
+    @Test
+    void findByUsername_usesIndexes() {
+        assertNoSequentialScan(() -> userRepo.findByUsername("plan.trainee7"));
+        assertNoSequentialScan(() -> traineeRepo.findByUsername("plan.trainee7"));
+        assertNoSequentialScan(() -> trainerRepo.findByUsername("plan.trainer7"));
+    }
+
+    @Test
+    void deleteExpiredBlocks_usesIndex() {
+        assertNoSequentialScan(() -> loginAttemptRepo.deleteExpiredBlocks(LocalDateTime.of(2025, 1, 1, 12, 0)));
+    }
+
+    private void assertNoSequentialScan(Runnable query) {
+        List<RecordedStatement> statements = record(query);
+        assertFalse(statements.isEmpty(), "query issued no statements");
+
+        boolean postgres = isPostgres();
+        for (RecordedStatement statement : statements) {
+            String plan = explain(statement);
+            Matcher matcher = (postgres ? POSTGRES_SEQ_SCAN : H2_TABLE_SCAN).matcher(plan);
+            while (matcher.find()) {
+                String table = matcher.group(1).toLowerCase(Locale.ROOT);
+                assertFalse(LARGE_TABLES.contains(table),
+                        () -> "Sequential scan on " + table + "\n" + statement.sql() + "\n" + plan);
+            }
+        }
+    }
+
+    // Rolled back so modifying queries leave the seeded data alone
+    private List<RecordedStatement> record(Runnable query) {
+        statementRecorder.start();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            statementRecorder.stop();
+        }
+        return statementRecorder.statements();
+    }
+
+    private String explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (ParameterBinding binding : statement.bindings()) {
+                    binding.applyTo(explain);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Object[] user(long id, String firstName, String lastName, String username) {
+        return new Object[]{id, firstName, lastName, username, "encodedPassword", true,
+                (firstName + " " + lastName).toLowerCase(Locale.ROOT)};
+    }
+
+    record RecordedStatement(String sql, List<ParameterBinding> bindings) {
+    }
+
+    record ParameterBinding(Method setter, Object[] args) {
+
+        void applyTo(PreparedStatement statement) {
+            try {
+                setter.invoke(statement, args);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not replay " + setter.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Wraps the test data source so prepared statements executed while recording are kept
+     * together with their parameter bindings, ready to be replayed under {@code EXPLAIN}.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+
+        private final List<RecordedStatement> statements = new ArrayList<>();
+        private volatile boolean recording;
+
+        synchronized void start() {
+            statements.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        synchronized List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        private synchronized void add(RecordedStatement statement) {
+            statements.add(statement);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection
+                            ? proxy(Connection.class, connection, this::onConnection)
+                            : result;
+                });
+            }
+            return bean;
+        }
+
+        private Object onConnection(Connection connection, Method method, Object[] args) throws Throwable {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                String sql = (String) args[0];
+                List<ParameterBinding> bindings = new ArrayList<>();
+                return proxy(PreparedStatement.class, statement, (target, call, callArgs) -> {
+                    String name = call.getName();
+                    if (name.startsWith("set") && callArgs != null && callArgs.length >= 2
+                            && call.getParameterTypes()[0] == int.class) {
+                        bindings.add(new ParameterBinding(call, callArgs));
+                    } else if (name.equals("clearParameters")) {
+                        bindings.clear();
+                    } else if (name.startsWith("execute") && recording) {
+                        add(new RecordedStatement(sql, List.copyOf(bindings)));
+                    }
+                    return invoke(target, call, callArgs);
+                });
+            }
+            return result;
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+        }
+
+        @FunctionalInterface
+        private interface Handler<T> {
+            Object handle(T target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.persistance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.TrainingEntity;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.TrainingView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old catch-all {@code :param IS NULL OR ...} JPQL with the per-shape Criteria
+ * queries over a synthetic dataset. Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=TrainingQueryShapeBenchmark}.
+ * Runs on H2 unless pointed at PostgreSQL with {@code -Dspring.test.database.replace=none}
+ * and the usual {@code spring.datasource.*} properties.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class TrainingQueryShapeBenchmark {
+
+    private static final String CATCH_ALL_TRAINEE_QUERY = TrainingRepo.TRAINING_VIEW_SELECT + """
+            WHERE traineeUser.username = :username
+              AND (:fromDate IS NULL OR t.trainingDate >= :fromDate)
+              AND (:toDate IS NULL OR t.trainingDate <= :toDate)
+              AND (:trainerName IS NULL OR CONCAT(trainerUser.firstName, ' ', trainerUser.lastName) LIKE CONCAT('%', :trainerName, '%'))
+              AND (:trainingType IS NULL OR type.trainingTypeName = :trainingType)
+            ORDER BY t.trainingDate, t.id
+            """;
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000);
+    private static final int TRAINEES = 200;
+    private static final int TRAINERS = 50;
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 50);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private static final String HOT_TRAINEE = "bench.trainee0";
+
+    @Autowired
+    private TrainingRepo trainingRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        List<TrainingTypeEntity> types = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            TrainingTypeEntity type = new TrainingTypeEntity();
+            type.setTrainingTypeName("Type" + i);
+            entityManager.persist(type);
+            types.add(type);
+        }
+
+        List<TrainerEntity> trainers = new ArrayList<>();
+        for (int i = 0; i < TRAINERS; i++) {
+            TrainerEntity trainer = new TrainerEntity();
+            trainer.setUserEntity(persistUser("bench.trainer" + i, "Coach" + i));
+            trainer.setSpecialization(types.get(i % types.size()));
+            entityManager.persist(trainer);
+            trainers.add(trainer);
+        }
+
+        List<TraineeEntity> trainees = new ArrayList<>();
+        for (int i = 0; i < TRAINEES; i++) {
+            TraineeEntity trainee = new TraineeEntity();
+            trainee.setUserEntity(persistUser("bench.trainee" + i, "Student" + i));
+            entityManager.persist(trainee);
+            trainees.add(trainee);
+        }
+
+        // a tenth of all rows belong to one trainee so the filtered shapes have real work to do
+        for (int i = 0; i < ROWS; i++) {
+            TrainingEntity training = new TrainingEntity();
+            training.setTrainingName("Session " + i);
+            training.setTrainingDate(START.plusDays(i % 1825));
+            training.setTrainingDurationMinutes(30 + i % 90);
+            training.setTraineeEntity(i % 10 == 0 ? trainees.get(0) : trainees.get(i % TRAINEES));
+            training.setTrainerEntity(trainers.get(i % TRAINERS));
+            training.setTrainingTypeEntity(types.get(i % types.size()));
+            entityManager.persist(training);
+
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+                types.replaceAll(t -> entityManager.getReference(TrainingTypeEntity.class, t.getId()));
+                trainers.replaceAll(t -> entityManager.getReference(TrainerEntity.class, t.getId()));
+                trainees.replaceAll(t -> entityManager.getReference(TraineeEntity.class, t.getId()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void compareCatchAllAndPerShapeQueries() {
+        LocalDate from = START.plusDays(300);
+        LocalDate to = START.plusDays(390);
+
+        compare("username only",
+                () -> catchAll(null, null, null, null),
+                () -> trainingRepo.findTraineeTrainings(HOT_TRAINEE, null, null, null, null));
+        compare("date range",
+                () -> catchAll(from, to, null, null),
+                () -> trainingRepo.findTraineeTrainings(HOT_TRAINEE, from, to, null, null));
+        compare("date range + type",
+                () -> catchAll(from, to, null, "Type3"),
+                () -> trainingRepo.findTraineeTrainings(HOT_TRAINEE, from, to, null, "Type3"));
+        compare("trainer name",
+                () -> catchAll(null, null, "Coach1", null),
+                () -> trainingRepo.findTraineeTrainings(HOT_TRAINEE, null, null, "Coach1", null));
+    }
+
+    private void compare(String shape, Supplier<List<TrainingView>> catchAll, Supplier<List<TrainingView>> perShape) {
+        assertEquals(catchAll.get(), perShape.get(), shape);
+
+        double catchAllMicros = averageMicros(catchAll);
+        double perShapeMicros = averageMicros(perShape);
+
+        log.info("{} rows, shape [{}]: catch-all {} us/op, per-shape {} us/op",
+                ROWS, shape, String.format("%.1f", catchAllMicros), String.format("%.1f", perShapeMicros));
+    }
+
+    private double averageMicros(Supplier<List<TrainingView>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private List<TrainingView> catchAll(LocalDate fromDate, LocalDate toDate, String trainerName, String trainingType) {
+        TypedQuery<TrainingView> query = entityManager.createQuery(CATCH_ALL_TRAINEE_QUERY, TrainingView.class);
+        query.setParameter("username", HOT_TRAINEE);
+        query.setParameter("fromDate", fromDate);
+        query.setParameter("toDate", toDate);
+        query.setParameter("trainerName", trainerName);
+        query.setParameter("trainingType", trainingType);
+        return query.getResultList();
+    }
+
+    private UserEntity persistUser(String username, String firstName) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName("Bench");
+        user.setPassword("encodedPassword".toCharArray());
+        user.setIsActive(true);
+        entityManager.persist(user);
+        return user;
+    }
+}
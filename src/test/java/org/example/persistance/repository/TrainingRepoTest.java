@@ -0,0 +1,264 @@
+package org.example.persistance.repository;
+
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.TrainingEntity;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.TrainingView;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TrainingRepoTest {
+
+    @Autowired
+    private TrainingRepo trainingRepo;
+
+    @Autowired
+    private TraineeRepo traineeRepo;
+
+    @Autowired
+    private TrainerRepo trainerRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void findTraineeTrainings_usesOneStatementRegardlessOfResultSize() {
+        seedTraineeWithDistinctTrainers("small", 2);
+        seedTraineeWithDistinctTrainers("large", 25);
+
+        long small = countStatements(() -> trainingRepo.findTraineeTrainings("small.trainee", null, null, null, null), 2);
+        long large = countStatements(() -> trainingRepo.findTraineeTrainings("large.trainee", null, null, null, null), 25);
+
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void findTrainerTrainings_usesOneStatementRegardlessOfResultSize() {
+        seedTrainerWithDistinctTrainees("small", 2);
+        seedTrainerWithDistinctTrainees("large", 25);
+
+        long small = countStatements(() -> trainingRepo.findTrainerTrainings("small.trainer", null, null, null), 2);
+        long large = countStatements(() -> trainingRepo.findTrainerTrainings("large.trainer", null, null, null), 25);
+
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void findTraineeTrainings_projectsResponseColumns() {
+        seedTraineeWithDistinctTrainers("proj", 1);
+        em.clear();
+
+        TrainingView view = trainingRepo.findTraineeTrainings("proj.trainee", null, null, null, null).get(0);
+
+        assertEquals("proj.trainee", view.traineeUsername());
+        assertEquals("proj.trainer0", view.trainerUsername());
+        assertEquals("proj session 0", view.trainingName());
+        assertEquals("proj type 0", view.trainingTypeName());
+        assertEquals(60, view.trainingDurationMinutes());
+    }
+
+    @Test
+    void listingEndpoints_useOneStatementRegardlessOfTableSize() {
+        seedTraineeWithDistinctTrainers("small", 3);
+        long pageSmall = countStatements(() -> trainingRepo.findFirstPage(PageRequest.of(0, 100)), 3);
+        long allSmall = countStatements(() -> trainingRepo.findAll(), 3);
+        long traineesSmall = countStatements(() -> traineeRepo.findAll(), 1);
+        long trainersSmall = countStatements(() -> trainerRepo.findAll(), 3);
+
+        seedTraineeWithDistinctTrainers("large", 30);
+        long pageLarge = countStatements(() -> trainingRepo.findFirstPage(PageRequest.of(0, 100)), 33);
+        long allLarge = countStatements(() -> trainingRepo.findAll(), 33);
+        long traineesLarge = countStatements(() -> traineeRepo.findAll(), 2);
+        long trainersLarge = countStatements(() -> trainerRepo.findAll(), 33);
+
+        assertEquals(1, pageSmall);
+        assertEquals(pageSmall, pageLarge);
+        assertEquals(1, allSmall);
+        assertEquals(allSmall, allLarge);
+        assertEquals(1, traineesSmall);
+        assertEquals(traineesSmall, traineesLarge);
+        assertEquals(1, trainersSmall);
+        assertEquals(trainersSmall, trainersLarge);
+    }
+
+    @Test
+    void findTraineeTrainings_appliesOnlySuppliedFilters() {
+        TraineeEntity trainee = persistTrainee("filter.trainee");
+        TrainingTypeEntity yoga = persistType("Yoga");
+        TrainingTypeEntity cardio = persistType("Cardio");
+        TrainerEntity anna = persistTrainer("anna.trainer", yoga);
+        anna.getUserEntity().setFirstName("Anna");
+        anna.getUserEntity().setLastName("Stone");
+        TrainerEntity boris = persistTrainer("boris.trainer", cardio);
+
+        persistTraining("January yoga", trainee, anna, yoga, LocalDate.of(2025, 1, 10));
+        persistTraining("February cardio", trainee, boris, cardio, LocalDate.of(2025, 2, 10));
+        persistTraining("March yoga", trainee, anna, yoga, LocalDate.of(2025, 3, 10));
+        em.flush();
+        em.clear();
+
+        assertEquals(List.of("January yoga", "February cardio", "March yoga"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee", null, null, null, null)));
+        assertEquals(List.of("February cardio", "March yoga"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee", LocalDate.of(2025, 2, 1), null, null, null)));
+        assertEquals(List.of("January yoga", "February cardio"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee", null, LocalDate.of(2025, 2, 28), null, null)));
+        assertEquals(List.of("January yoga", "March yoga"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee", null, null, "Anna St", null)));
+        assertEquals(List.of("February cardio"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee", null, null, null, "Cardio")));
+        assertEquals(List.of("March yoga"),
+                names(trainingRepo.findTraineeTrainings("filter.trainee",
+                        LocalDate.of(2025, 2, 1), LocalDate.of(2025, 12, 31), "Anna", "Yoga")));
+    }
+
+    @Test
+    void findTrainerTrainings_appliesOnlySuppliedFilters() {
+        TrainingTypeEntity yoga = persistType("Yoga");
+        TrainerEntity trainer = persistTrainer("filter.trainer", yoga);
+        TraineeEntity clara = persistTrainee("clara.trainee");
+        clara.getUserEntity().setFirstName("Clara");
+        TraineeEntity dmitri = persistTrainee("dmitri.trainee");
+
+        persistTraining("Clara early", clara, trainer, yoga, LocalDate.of(2025, 1, 5));
+        persistTraining("Dmitri late", dmitri, trainer, yoga, LocalDate.of(2025, 6, 5));
+        em.flush();
+        em.clear();
+
+        assertEquals(List.of("Clara early", "Dmitri late"),
+                names(trainingRepo.findTrainerTrainings("filter.trainer", null, null, null)));
+        assertEquals(List.of("Clara early"),
+                names(trainingRepo.findTrainerTrainings("filter.trainer", null, null, "Clara")));
+        assertEquals(List.of("Dmitri late"),
+                names(trainingRepo.findTrainerTrainings("filter.trainer", LocalDate.of(2025, 3, 1), null, "")));
+        assertTrue(trainingRepo.findTrainerTrainings("unknown", null, null, null).isEmpty());
+    }
+
+    @Test
+    void nameFilters_matchCaseInsensitivelyAndTreatWildcardsLiterally() {
+        TrainingTypeEntity yoga = persistType("Yoga");
+        TrainerEntity trainer = persistTrainer("case.trainer", yoga);
+        trainer.getUserEntity().setFirstName("Anna");
+        trainer.getUserEntity().setLastName("Stone");
+        TraineeEntity trainee = persistTrainee("case.trainee");
+        persistTraining("Case session", trainee, trainer, yoga, LocalDate.of(2025, 1, 5));
+        em.flush();
+        em.clear();
+
+        assertEquals("anna stone", em.find(UserEntity.class, trainer.getUserEntity().getId()).getSearchName());
+        assertEquals(List.of("Case session"),
+                names(trainingRepo.findTraineeTrainings("case.trainee", null, null, "  ANNA   sto ", null)));
+        assertTrue(trainingRepo.findTraineeTrainings("case.trainee", null, null, "a%e", null).isEmpty());
+        assertTrue(trainingRepo.findTraineeTrainings("case.trainee", null, null, "ann_", null).isEmpty());
+    }
+
+    private List<String> names(List<TrainingView> views) {
+        return views.stream().map(TrainingView::trainingName).toList();
+    }
+
+    private long countStatements(Supplier<List<?>> query, int expectedRows) {
+        em.clear();
+        statistics.clear();
+
+        List<?> rows = query.get();
+
+        assertEquals(expectedRows, rows.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedTraineeWithDistinctTrainers(String prefix, int trainings) {
+        TraineeEntity trainee = persistTrainee(prefix + ".trainee");
+
+        for (int i = 0; i < trainings; i++) {
+            TrainingTypeEntity type = persistType(prefix + " type " + i);
+            TrainerEntity trainer = persistTrainer(prefix + ".trainer" + i, type);
+            persistTraining(prefix + " session " + i, trainee, trainer, type);
+        }
+
+        em.flush();
+    }
+
+    private void seedTrainerWithDistinctTrainees(String prefix, int trainings) {
+        TrainingTypeEntity type = persistType(prefix + " type");
+        TrainerEntity trainer = persistTrainer(prefix + ".trainer", type);
+
+        for (int i = 0; i < trainings; i++) {
+            TraineeEntity trainee = persistTrainee(prefix + ".trainee" + i);
+            persistTraining(prefix + " session " + i, trainee, trainer, type);
+        }
+
+        em.flush();
+    }
+
+    private TrainingTypeEntity persistType(String name) {
+        TrainingTypeEntity type = new TrainingTypeEntity();
+        type.setTrainingTypeName(name);
+        return em.persist(type);
+    }
+
+    private TraineeEntity persistTrainee(String username) {
+        TraineeEntity trainee = new TraineeEntity();
+        trainee.setUserEntity(persistUser(username));
+        return em.persist(trainee);
+    }
+
+    private TrainerEntity persistTrainer(String username, TrainingTypeEntity specialization) {
+        TrainerEntity trainer = new TrainerEntity();
+        trainer.setUserEntity(persistUser(username));
+        trainer.setSpecialization(specialization);
+        return em.persist(trainer);
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("encodedPassword".toCharArray());
+        user.setIsActive(true);
+        return em.persist(user);
+    }
+
+    private void persistTraining(String name, TraineeEntity trainee, TrainerEntity trainer, TrainingTypeEntity type) {
+        persistTraining(name, trainee, trainer, type, LocalDate.of(2025, 1, 1));
+    }
+
+    private void persistTraining(String name, TraineeEntity trainee, TrainerEntity trainer,
+                                 TrainingTypeEntity type, LocalDate date) {
+        TrainingEntity training = new TrainingEntity();
+        training.setTrainingName(name);
+        training.setTrainingDate(date);
+        training.setTrainingDurationMinutes(60);
+        training.setTraineeEntity(trainee);
+        training.setTrainerEntity(trainer);
+        training.setTrainingTypeEntity(type);
+        em.persist(training);
+    }
+}
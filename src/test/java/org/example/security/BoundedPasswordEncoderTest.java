@@ -0,0 +1,100 @@
+package org.example.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.PasswordHashingMetrics;
+import org.example.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ThreadPoolExecutor executor;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10),
+                BoundedPasswordEncoder.hashingThreads(new CustomizableThreadFactory("password-hash-")),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        encoder = new BoundedPasswordEncoder(new ThreadRecordingEncoder(), executor, 2, Duration.ofSeconds(3),
+                new PasswordHashingMetrics(registry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void encodeAndMatches_runOnHashingPool() {
+        assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+        assertTrue(encoder.matches("secret", "ignored"));
+
+        assertEquals(2, registry.get("password.hashing.time").timer().count());
+        assertEquals(2, registry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void encode_queueFull_rejectedWithRetryAfter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+
+        try {
+            assertEquals(2.0, registry.get("password.hashing.queue.depth").gauge().value());
+
+            PasswordHashingUnavailableException ex = assertThrows(PasswordHashingUnavailableException.class,
+                    () -> encoder.encode("secret"));
+
+            assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+            assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void encode_fromHashingThread_runsInPlace() throws Exception {
+        // A single pool thread waiting on its own queue would never finish
+        String hashedBy = CompletableFuture.supplyAsync(() -> encoder.encode("secret"), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(hashedBy.startsWith("password-hash-"));
+        assertEquals(0, registry.get("password.hashing.wait").timer().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class ThreadRecordingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().startsWith("password-hash-");
+        }
+    }
+}
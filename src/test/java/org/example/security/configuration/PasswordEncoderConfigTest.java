@@ -0,0 +1,99 @@
+package org.example.security.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.PasswordHashingMetrics;
+import org.example.api.config.AppProperties;
+import org.example.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    private static final int BULK_PASSWORDS = 100;
+
+    private final PasswordEncoderConfig config = new PasswordEncoderConfig();
+    private final CountDownLatch releaseBulk = new CountDownLatch(1);
+    private ThreadPoolExecutor hashingExecutor;
+    private ThreadPoolExecutor bulkExecutor;
+    private PasswordEncoder encoder;
+
+    @BeforeEach
+    void setup() {
+        AppProperties properties = new AppProperties();
+        AppProperties.Security.PasswordHashing hashing = properties.getSecurity().getPasswordHashing();
+        hashing.setThreads(1);
+        hashing.setMaxQueuedRequests(2);
+        hashing.setBulkThreads(1);
+        hashing.setBulkQueueCapacity(5);
+
+        hashingExecutor = config.passwordHashingExecutor(properties);
+        bulkExecutor = config.bulkPasswordHashingExecutor(properties);
+        encoder = new BoundedPasswordEncoder(new HeldBulkEncoder(), hashingExecutor, hashing.getMaxQueuedRequests(),
+                hashing.getRetryAfter(), new PasswordHashingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBulk.countDown();
+        hashingExecutor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+
+    @Test
+    void loginDuringBulkRegistration_isNotTurnedAway() throws Exception {
+        // The way BulkRegistrationServiceDbImpl fans a chunk out, far more passwords than either queue holds
+        CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> IntStream.range(0, BULK_PASSWORDS)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> encoder.encode("password" + i), bulkExecutor))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList());
+        awaitFullBulkQueue();
+
+        assertTrue(encoder.matches("secret", "ignored"));
+        assertEquals(0, hashingExecutor.getQueue().size());
+
+        releaseBulk.countDown();
+        List<String> hashedBy = bulk.get(10, TimeUnit.SECONDS);
+        assertEquals(BULK_PASSWORDS, hashedBy.size());
+        assertTrue(hashedBy.stream().allMatch(thread -> thread.startsWith("bulk-password-hash-")));
+    }
+
+    private void awaitFullBulkQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkExecutor.getQueue().remainingCapacity() > 0) {
+            assertTrue(System.nanoTime() < deadline, "bulk queue never filled up");
+            Thread.sleep(5);
+        }
+    }
+
+    // Bulk hashes hold their thread until released; logins answer whether they ran on the interactive pool
+    private class HeldBulkEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                releaseBulk.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().startsWith("password-hash-");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.security.configuration;
+
+import org.example.api.config.AppProperties;
+import org.example.api.controller.TraineeController;
+import org.example.persistance.model.Trainee;
+import org.example.security.TokenClaims;
+import org.example.security.constants.SecurityConstants;
+import org.example.security.filter.JwtAuthenticationFilter;
+import org.example.security.filter.RateLimitFilter;
+import org.example.security.handler.JwtAccessDeniedHandler;
+import org.example.security.handler.JwtAuthenticationEntryPoint;
+import org.example.security.service.GymUserDetailsService;
+import org.example.security.service.TokenRevocationList;
+import org.example.security.service.UserSecurityVersions;
+import org.example.services.BulkRegistrationService;
+import org.example.services.TokenService;
+import org.example.services.TraineeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs requests through the real security filter chain to pin down which endpoints are public.
+ */
+@WebMvcTest(controllers = TraineeController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = RateLimitFilter.class))
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class,
+        JwtAuthenticationEntryPoint.class, JwtAccessDeniedHandler.class, SecurityConfigTest.Properties.class})
+class SecurityConfigTest {
+
+    @TestConfiguration
+    @EnableConfigurationProperties(AppProperties.class)
+    static class Properties {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TraineeService traineeService;
+
+    @MockBean
+    private BulkRegistrationService bulkRegistrationService;
+
+    @MockBean
+    private GymUserDetailsService userDetailsService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private UserSecurityVersions securityVersions;
+
+    @MockBean
+    private TokenRevocationList revocationList;
+
+    @Test
+    void bulkTraineeRegistration_withoutToken_isUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/trainees/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\",\"lastName\":\"Doe\"}]"))
+                .andExpect(status().isUnauthorized());
+
+        verify(bulkRegistrationService, never()).registerTrainees(anyList(), any());
+    }
+
+    @Test
+    void bulkTraineeRegistration_withTraineeToken_isForbidden() throws Exception {
+        token("trainee.jwt.token", "John.Doe");
+
+        mockMvc.perform(post("/api/trainees/bulk")
+                        .header("Authorization", "Bearer trainee.jwt.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\",\"lastName\":\"Doe\"}]"))
+                .andExpect(status().isForbidden());
+
+        verify(bulkRegistrationService, never()).registerTrainees(anyList(), any());
+    }
+
+    @Test
+    void bulkTrainerRegistration_withTraineeToken_isForbidden() throws Exception {
+        token("trainee.jwt.token", "John.Doe");
+
+        mockMvc.perform(post("/api/trainers/bulk")
+                        .header("Authorization", "Bearer trainee.jwt.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\",\"lastName\":\"Doe\",\"specialization\":\"Cardio\"}]"))
+                .andExpect(status().isForbidden());
+
+        verify(bulkRegistrationService, never()).registerTrainers(anyList(), any());
+    }
+
+    @Test
+    void bulkTraineeRegistration_withAdminToken_reachesController() throws Exception {
+        token("admin.jwt.token", "admin", SecurityConstants.ADMIN_AUTHORITY);
+
+        mockMvc.perform(post("/api/trainees/bulk")
+                        .header("Authorization", "Bearer admin.jwt.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\",\"lastName\":\"Doe\"}]"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void traineeSignUp_withoutToken_isStillPublic() throws Exception {
+        when(traineeService.createTrainee(any())).thenReturn(Trainee.builder().username("John.Doe").build());
+
+        mockMvc.perform(post("/api/trainees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"John\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private void token(String token, String username, String... roles) {
+        when(tokenService.verifyToken(token)).thenReturn(TokenClaims.builder()
+                .username(username)
+                .roles(List.of(roles))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build());
+    }
+}
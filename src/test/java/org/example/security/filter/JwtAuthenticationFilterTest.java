@@ -8,12 +8,15 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.example.security.GymUserDetails;
-import org.example.security.service.GymUserDetailsService;
+import org.example.security.TokenClaims;
+import org.example.security.service.TokenRevocationList;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,10 +24,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,7 +40,10 @@ class JwtAuthenticationFilterTest {
     private TokenService tokenService;
 
     @Mock
-    private GymUserDetailsService gymUserDetailsService;
+    private UserSecurityVersions securityVersions;
+
+    @Mock
+    private TokenRevocationList revocationList;
 
     @Mock
     private HttpServletRequest request;
@@ -48,9 +54,6 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @Mock
-    private GymUserDetails userDetails;
-
     @Mock
     private SecurityContext securityContext;
 
@@ -79,8 +82,8 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
-        verify(gymUserDetailsService, never()).loadUserByUsername(any());
+        verify(tokenService, never()).verifyToken(any());
+        verify(securityContext, never()).setAuthentication(any());
     }
 
     @Test
@@ -93,7 +96,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -107,7 +110,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -121,7 +124,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -129,67 +132,141 @@ class JwtAuthenticationFilterTest {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenReturn(USERNAME);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(claims(USERNAME));
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(gymUserDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(tokenService.validateToken(VALID_TOKEN)).thenReturn(true);
-        when(userDetails.isEnabled()).thenReturn(true);
-        when(userDetails.isAccountNonLocked()).thenReturn(true);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(tokenService).getUsernameFromToken(VALID_TOKEN);
-        verify(gymUserDetailsService).loadUserByUsername(USERNAME);
-        verify(tokenService).validateToken(VALID_TOKEN);
+        verify(tokenService).verifyToken(VALID_TOKEN);
+        verifyNoMoreInteractions(tokenService);
         verify(securityContext).setAuthentication(any(UsernamePasswordAuthenticationToken.class));
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_WithInvalidToken_ShouldNotAuthenticate() throws ServletException, IOException {
+    void doFilterInternal_WithValidToken_BuildsPrincipalFromClaims() throws ServletException, IOException {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + INVALID_TOKEN);
-        when(tokenService.getUsernameFromToken(INVALID_TOKEN)).thenReturn(USERNAME);
+        when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(TokenClaims.builder()
+                .username(USERNAME)
+                .roles(List.of("ROLE_TRAINEE"))
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+        when(securityContext.getAuthentication()).thenReturn(null);
+        ArgumentCaptor<Authentication> authentication = ArgumentCaptor.forClass(Authentication.class);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(securityContext).setAuthentication(authentication.capture());
+        GymUserDetails principal = (GymUserDetails) authentication.getValue().getPrincipal();
+        assertEquals(USERNAME, principal.getUsername());
+        assertTrue(principal.isEnabled());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_TRAINEE")), List.copyOf(principal.getAuthorities()));
+    }
+
+    @Test
+    void doFilterInternal_WithStaleSecurityVersion_ShouldNotAuthenticate() throws ServletException, IOException {
+        // Arrange
+        when(request.getRequestURI()).thenReturn(PROTECTED_URI);
+        when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(claims(USERNAME));
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(gymUserDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(tokenService.validateToken(INVALID_TOKEN)).thenReturn(false);
-        when(userDetails.getAuthorities()).thenReturn(Collections.emptyList());
-        when(userDetails.isEnabled()).thenReturn(true);
-        when(userDetails.isAccountNonLocked()).thenReturn(true);
+        when(securityVersions.current(USERNAME)).thenReturn(1L);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(tokenService).validateToken(INVALID_TOKEN);
         verify(securityContext, never()).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_WithExpiredToken_ShouldClearSecurityContext() throws ServletException, IOException {
+    void doFilterInternal_WithNewerSecurityVersionThanCached_ShouldAuthenticate() throws ServletException, IOException {
+        // Arrange: minted after a bump this node has not picked up yet
+        when(request.getRequestURI()).thenReturn(PROTECTED_URI);
+        when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(TokenClaims.builder()
+                .username(USERNAME)
+                .securityVersion(3)
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+        when(securityContext.getAuthentication()).thenReturn(null);
+        when(securityVersions.current(USERNAME)).thenReturn(1L);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(securityContext).setAuthentication(any(UsernamePasswordAuthenticationToken.class));
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithDeletedUser_ShouldNotAuthenticate() throws ServletException, IOException {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenThrow(new ExpiredJwtException(null, null, "Token expired"));
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(claims(USERNAME));
+        when(securityContext.getAuthentication()).thenReturn(null);
+        when(securityVersions.current(USERNAME)).thenReturn(UserSecurityVersions.NO_USER);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(securityContext, never()).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_WithMalformedToken_ShouldClearSecurityContext() throws ServletException, IOException {
+    void doFilterInternal_WithRevokedToken_ShouldNotAuthenticate() throws ServletException, IOException {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenThrow(new MalformedJwtException("Malformed token"));
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(TokenClaims.builder()
+                .tokenId("jti-1")
+                .username(USERNAME)
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build());
+        when(securityContext.getAuthentication()).thenReturn(null);
+        when(revocationList.isRevoked("jti-1")).thenReturn(true);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(securityContext, never()).setAuthentication(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithInvalidToken_ShouldNotAuthenticate() throws ServletException, IOException {
+        // Arrange
+        when(request.getRequestURI()).thenReturn(PROTECTED_URI);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + INVALID_TOKEN);
+        when(tokenService.verifyToken(INVALID_TOKEN)).thenThrow(new SignatureException("Invalid signature"));
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(securityContext, never()).setAuthentication(any());
+        verify(securityContext, never()).setAuthentication(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithExpiredToken_ShouldClearSecurityContext() throws ServletException, IOException {
+        // Arrange
+        when(request.getRequestURI()).thenReturn(PROTECTED_URI);
+        when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenThrow(new ExpiredJwtException(null, null, "Token expired"));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -200,11 +277,11 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void doFilterInternal_WithInvalidSignature_ShouldClearSecurityContext() throws ServletException, IOException {
+    void doFilterInternal_WithMalformedToken_ShouldClearSecurityContext() throws ServletException, IOException {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenThrow(new SignatureException("Invalid signature"));
+        when(tokenService.verifyToken(VALID_TOKEN)).thenThrow(new MalformedJwtException("Malformed token"));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -215,13 +292,11 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void doFilterInternal_WithUserNotFound_ShouldClearSecurityContext() throws ServletException, IOException {
+    void doFilterInternal_WithInvalidSignature_ShouldClearSecurityContext() throws ServletException, IOException {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenReturn(USERNAME);
-        when(securityContext.getAuthentication()).thenReturn(null);
-        when(gymUserDetailsService.loadUserByUsername(USERNAME)).thenThrow(new UsernameNotFoundException("User not found"));
+        when(tokenService.verifyToken(VALID_TOKEN)).thenThrow(new SignatureException("Invalid signature"));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -236,13 +311,13 @@ class JwtAuthenticationFilterTest {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenReturn(null);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(claims(null));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(gymUserDetailsService, never()).loadUserByUsername(any());
+        verify(securityContext, never()).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -252,15 +327,14 @@ class JwtAuthenticationFilterTest {
         Authentication existingAuth = mock(Authentication.class);
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenReturn(USERNAME);
+        when(tokenService.verifyToken(VALID_TOKEN)).thenReturn(claims(USERNAME));
         when(securityContext.getAuthentication()).thenReturn(existingAuth);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(gymUserDetailsService, never()).loadUserByUsername(any());
-        verify(tokenService, never()).validateToken(any());
+        verify(securityContext, never()).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -269,7 +343,7 @@ class JwtAuthenticationFilterTest {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn(BEARER_TOKEN);
-        when(tokenService.getUsernameFromToken(VALID_TOKEN)).thenThrow(new RuntimeException("Unexpected error"));
+        when(tokenService.verifyToken(VALID_TOKEN)).thenThrow(new RuntimeException("Unexpected error"));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -289,7 +363,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -302,7 +376,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -315,7 +389,7 @@ class JwtAuthenticationFilterTest {
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        verify(tokenService, never()).getUsernameFromToken(any());
+        verify(tokenService, never()).verifyToken(any());
     }
 
     @Test
@@ -323,14 +397,14 @@ class JwtAuthenticationFilterTest {
         // Arrange
         when(request.getRequestURI()).thenReturn(PROTECTED_URI);
         when(request.getHeader("Authorization")).thenReturn("Bearer ");
-        when(tokenService.getUsernameFromToken("")).thenReturn(null);
+        when(tokenService.verifyToken("")).thenReturn(claims(null));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(tokenService).getUsernameFromToken("");
-        verify(gymUserDetailsService, never()).loadUserByUsername(any());
+        verify(tokenService).verifyToken("");
+        verify(securityContext, never()).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -346,4 +420,11 @@ class JwtAuthenticationFilterTest {
         // Assert
         verify(filterChain, times(1)).doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static TokenClaims claims(String username) {
+        return TokenClaims.builder()
+                .username(username)
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+}
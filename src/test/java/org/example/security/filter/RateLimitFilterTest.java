@@ -0,0 +1,159 @@
+package org.example.security.filter;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.RateLimitMetrics;
+import org.example.api.config.AppProperties;
+import org.example.security.TokenClaims;
+import org.example.security.service.RateLimiter;
+import org.example.services.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private TokenService tokenService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(rateLimiter, tokenService, new RateLimitMetrics(meterRegistry));
+    }
+
+    @Test
+    void anonymousRequest_limitedByRemoteAddress() throws Exception {
+        MockHttpServletRequest request = request("/api/auth/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(rateLimiter).tryAcquire("/api/auth/login", List.of("ip:10.0.0.1"));
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void authenticatedRequest_limitedByAddressAndUsername() throws Exception {
+        MockHttpServletRequest request = request("/api/trainings");
+        request.addHeader("Authorization", "Bearer good.jwt.token");
+        when(tokenService.verifyToken("good.jwt.token")).thenReturn(TokenClaims.builder().username("john").build());
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).tryAcquire("/api/trainings", List.of("ip:10.0.0.1", "user:john"));
+    }
+
+    @Test
+    void invalidToken_fallsBackToRemoteAddress() throws Exception {
+        MockHttpServletRequest request = request("/api/trainings");
+        request.addHeader("Authorization", "Bearer bad.jwt.token");
+        when(tokenService.verifyToken("bad.jwt.token")).thenThrow(new MalformedJwtException("bad"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).tryAcquire("/api/trainings", List.of("ip:10.0.0.1"));
+    }
+
+    @Test
+    void oneAddressRotatingUserTokens_limitedByAddressBudget() throws Exception {
+        RateLimitFilter limitingFilter = new RateLimitFilter(
+                new RateLimiter(rateLimitProperties(3)), tokenService, new RateLimitMetrics(meterRegistry));
+        for (String user : List.of("ann", "bob", "cid", "dan", "eve")) {
+            lenient().when(tokenService.verifyToken(user + ".jwt"))
+                    .thenReturn(TokenClaims.builder().username(user).build());
+        }
+
+        int allowed = 0;
+        for (String user : List.of("ann", "bob", "cid", "dan", "eve")) {
+            MockHttpServletRequest request = request("/api/trainings");
+            request.addHeader("Authorization", "Bearer " + user + ".jwt");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            limitingFilter.doFilter(request, response, new MockFilterChain());
+            if (response.getStatus() != 429) {
+                allowed++;
+            }
+        }
+
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void userRefusedElsewhere_doesNotDrainAddressBudget() throws Exception {
+        RateLimitFilter limitingFilter = new RateLimitFilter(
+                new RateLimiter(rateLimitProperties(3)), tokenService, new RateLimitMetrics(meterRegistry));
+        when(tokenService.verifyToken("ann.jwt")).thenReturn(TokenClaims.builder().username("ann").build());
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("/api/trainings");
+            request.addHeader("Authorization", "Bearer ann.jwt");
+            request.setRemoteAddr("10.0.0." + (i + 2));
+            limitingFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        MockHttpServletRequest refused = request("/api/trainings");
+        refused.addHeader("Authorization", "Bearer ann.jwt");
+        MockHttpServletResponse refusedResponse = new MockHttpServletResponse();
+        limitingFilter.doFilter(refused, refusedResponse, new MockFilterChain());
+        MockHttpServletResponse anonymousResponse = new MockHttpServletResponse();
+        for (int i = 0; i < 3; i++) {
+            anonymousResponse = new MockHttpServletResponse();
+            limitingFilter.doFilter(request("/api/trainings"), anonymousResponse, new MockFilterChain());
+        }
+
+        assertEquals(429, refusedResponse.getStatus());
+        assertEquals(200, anonymousResponse.getStatus());
+    }
+
+    @Test
+    void exhaustedBucket_returns429WithRetryAfter() throws Exception {
+        when(rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0.1")))
+                .thenReturn(new RateLimiter.Rejection("auth", Duration.ofMillis(1_200)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/api/auth/login"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.rate.limited")
+                .tag("route", "auth").counter().count());
+    }
+
+    private static AppProperties rateLimitProperties(int capacity) {
+        AppProperties.RateLimit.Route route = new AppProperties.RateLimit.Route();
+        route.setName("api");
+        route.setCapacity(capacity);
+        route.setRefillTokens(1);
+        route.setRefillPeriod(Duration.ofHours(1));
+        route.setPaths(List.of("/api/**"));
+        AppProperties properties = new AppProperties();
+        properties.getRateLimit().setRoutes(List.of(route));
+        return properties;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
@@ -1,5 +1,10 @@
 package org.example.security.service;
 
+import org.example.exception.InvalidRefreshTokenException;
+import org.example.exception.UserBlockedException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.example.security.AuthTokens;
+import org.example.security.TokenClaims;
 import org.example.services.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,8 +13,12 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +36,15 @@ class AuthServiceTest {
     @Mock
     private BruteForceProtectionService bruteForceProtectionService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private CredentialStuffingDetector credentialStuffingDetector;
+
     @InjectMocks
     private AuthService authService;
 
@@ -51,7 +69,7 @@ class AuthServiceTest {
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
         when(tokenService.generateToken(userDetails)).thenReturn(token);
 
-        String result = authService.login(username, password);
+        String result = authService.login(username, password, "10.0.0.1");
 
         assertEquals(token, result);
         verify(bruteForceProtectionService).checkIfBlocked(username);
@@ -72,10 +90,21 @@ class AuthServiceTest {
         when(bruteForceProtectionService.getRemainingAttempts(username)).thenReturn(2);
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class,
-                () -> authService.login(username, password));
+                () -> authService.login(username, password, "10.0.0.1"));
 
         assertTrue(exception.getMessage().contains("2 attempt(s) remaining"));
         verify(bruteForceProtectionService).recordFailedAttempt(username);
+        verify(credentialStuffingDetector).recordFailure("10.0.0.1", username);
+    }
+
+    @Test
+    void login_sourceTryingManyUsernames_refusedBeforePasswordCheck() {
+        doThrow(new UserBlockedException("Too many failed logins from this network"))
+                .when(credentialStuffingDetector).checkSource("10.0.0.1");
+
+        assertThrows(UserBlockedException.class, () -> authService.login("user9", "guess", "10.0.0.1"));
+
+        verifyNoInteractions(authenticationManager, bruteForceProtectionService);
     }
 
     @Test
@@ -89,16 +118,66 @@ class AuthServiceTest {
         when(bruteForceProtectionService.getRemainingAttempts(username)).thenReturn(0);
 
         BadCredentialsException exception = assertThrows(BadCredentialsException.class,
-                () -> authService.login(username, password));
+                () -> authService.login(username, password, "10.0.0.1"));
 
         assertEquals("Invalid username or password", exception.getMessage());
         verify(bruteForceProtectionService).recordFailedAttempt(username);
     }
 
+    @Test
+    void refresh_rotatesTokenAndSignsNewAccessTokenWithoutPasswordCheck() {
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(new RefreshTokenService.Rotation("user4", "new-refresh"));
+        when(userDetailsService.authoritiesOf("user4")).thenReturn(List.of());
+        when(tokenService.generateToken("user4", List.of())).thenReturn("jwt-token");
+
+        AuthTokens tokens = authService.refresh("old-refresh");
+
+        assertEquals("user4", tokens.getUsername());
+        assertEquals("jwt-token", tokens.getAccessToken());
+        assertEquals("new-refresh", tokens.getRefreshToken());
+        verifyNoInteractions(authenticationManager, bruteForceProtectionService);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void refresh_invalidToken_propagates() {
+        when(refreshTokenService.rotate("reused"))
+                .thenThrow(new InvalidRefreshTokenException("Refresh token is invalid or expired"));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("reused"));
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void logout_revokesAccessTokenIdAndRefreshFamily() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        when(tokenService.verifyToken("access-jwt")).thenReturn(TokenClaims.builder()
+                .tokenId("jti-1")
+                .username("user5")
+                .expiresAt(expiresAt)
+                .build());
+
+        authService.logout("access-jwt", "refresh-token");
+
+        verify(tokenRevocationList).revoke("jti-1", expiresAt);
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    void logout_invalidAccessToken_nothingToRevoke() {
+        when(tokenService.verifyToken("expired-jwt")).thenThrow(new MalformedJwtException("expired"));
+
+        authService.logout("expired-jwt", null);
+
+        verifyNoInteractions(tokenRevocationList, refreshTokenService);
+    }
 
     @Test
     void logout_clearsSecurityContext() {
-        authService.logout();
+        authService.logout(null, null);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 }
 
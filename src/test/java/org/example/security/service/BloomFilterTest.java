@@ -0,0 +1,49 @@
+package org.example.security.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        var keys = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        keys.forEach(filter::put);
+
+        assertTrue(keys.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put(UUID.randomUUID().toString()));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        // 1% target; allow for variance while still catching a broken hash
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilter_containsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("jti"));
+    }
+
+    @Test
+    void bitCount_aboutTenBitsPerKeyAtOnePercent() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // ~9.6 bits per key, rounded up to whole words
+        assertEquals(958_528, filter.bitCount());
+    }
+}
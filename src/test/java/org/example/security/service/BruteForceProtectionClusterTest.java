@@ -0,0 +1,138 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.example.exception.UserBlockedException;
+import org.example.persistance.repository.LoginAttemptRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two service instances sharing one database, the way two nodes behind a load balancer do.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(LoginAttemptRecorder.class)
+class BruteForceProtectionClusterTest {
+
+    @Autowired
+    private LoginAttemptRecorder recorder;
+
+    @Autowired
+    private LoginAttemptRepo loginAttemptRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+    private BruteForceProtectionService nodeA;
+    private BruteForceProtectionService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        loginAttemptRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void blockOnOneNode_isEnforcedOnTheOther() {
+        // Node B has seen the user before and holds an unblocked entry for them
+        nodeB.recordFailedAttempt("john");
+        nodeA.recordFailedAttempt("john");
+        nodeA.recordFailedAttempt("john");
+
+        assertThrows(UserBlockedException.class, () -> nodeA.checkIfBlocked("john"));
+        assertThrows(UserBlockedException.class, () -> nodeB.checkIfBlocked("john"));
+        assertThrows(UserBlockedException.class, () -> node().checkIfBlocked("john"));
+    }
+
+    @Test
+    void blockOnOneNode_endsOnTheOtherWhenItRunsOut() {
+        for (int i = 0; i < 3; i++) {
+            nodeA.recordFailedAttempt("john");
+        }
+        assertThrows(UserBlockedException.class, () -> nodeB.checkIfBlocked("john"));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertDoesNotThrow(() -> nodeB.checkIfBlocked("john"));
+        assertEquals(3, nodeB.getRemainingAttempts("john"));
+    }
+
+    @Test
+    void failuresSpreadOverNodes_blockOnBoth() {
+        nodeA.recordFailedAttempt("john");
+        nodeB.recordFailedAttempt("john");
+        nodeA.recordFailedAttempt("john");
+
+        assertThrows(UserBlockedException.class, () -> nodeB.checkIfBlocked("john"));
+    }
+
+    @Test
+    void resetFlushedAfterAnotherNodeBlocked_keepsTheBlock() {
+        nodeA.recordFailedAttempt("john");
+        nodeA.resetAttempts("john");
+        for (int i = 0; i < 3; i++) {
+            nodeB.recordFailedAttempt("john");
+        }
+
+        nodeA.flush();
+
+        assertTrue(loginAttemptRepo.findByUsername("john").orElseThrow().getIsBlocked());
+        assertThrows(UserBlockedException.class, () -> nodeA.checkIfBlocked("john"));
+    }
+
+    @Test
+    void resetFlushed_deletesTheRow() {
+        nodeA.recordFailedAttempt("john");
+        nodeA.resetAttempts("john");
+
+        nodeA.flush();
+
+        assertTrue(loginAttemptRepo.findByUsername("john").isEmpty());
+    }
+
+    private BruteForceProtectionService node() {
+        return new BruteForceProtectionService(loginAttemptRepo, recorder, new AppProperties(), transactionManager, clock);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package org.example.security.service;
 
+import org.example.api.config.AppProperties;
 import org.example.exception.UserBlockedException;
 import org.example.persistance.entity.LoginAttemptEntity;
 import org.example.persistance.repository.LoginAttemptRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import java.time.LocalDateTime;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.*;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class BruteForceProtectionServiceTest {
@@ -17,30 +23,71 @@ class BruteForceProtectionServiceTest {
     @Mock
     private LoginAttemptRepo loginAttemptRepo;
 
-    @InjectMocks
+    @Mock
+    private LoginAttemptRecorder loginAttemptRecorder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<LoginAttemptEntity>> savedCaptor;
+
+    private final MutableClock clock = new MutableClock();
+    // Stands in for the login_attempts row that the upsert maintains
+    private final LoginAttemptCounters database = new LoginAttemptCounters(3, Duration.ofMinutes(5), 100_000, clock);
+    private AppProperties properties;
     private BruteForceProtectionService service;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(loginAttemptRecorder.recordFailure(anyString(), any(), any(), anyInt(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    String username = invocation.getArgument(0);
+                    if (invocation.<Boolean>getArgument(4)) {
+                        database.reset(username);
+                    }
+                    return database.recordFailure(username);
+                });
+        properties = new AppProperties();
+        service = newService();
     }
 
     @Test
     void checkIfBlocked_userNotBlocked_noException() {
-        when(loginAttemptRepo.findByUsername("user1")).thenReturn(Optional.empty());
+        assertDoesNotThrow(() -> service.checkIfBlocked("user1"));
+        verify(loginAttemptRepo).findBlocked(eq("user1"), any());
+        verifyNoMoreInteractions(loginAttemptRepo);
+    }
+
+    @Test
+    void checkIfBlocked_blockedByAnotherNode_throwsAndKeepsBlockLocally() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LoginAttemptEntity row = new LoginAttemptEntity();
+        row.setUsername("user1");
+        row.setAttemptCount(3);
+        row.setIsBlocked(true);
+        row.setLastAttemptTime(now);
+        row.setBlockedUntil(now.plusMinutes(5));
+        when(loginAttemptRepo.findBlocked(eq("user1"), any())).thenReturn(Optional.of(row));
+
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("user1"));
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("user1"));
+
+        verify(loginAttemptRepo).findBlocked(eq("user1"), any());
+        assertEquals(0, service.getRemainingAttempts("user1"));
+    }
+
+    @Test
+    void checkIfBlocked_databaseDown_fallsBackToLocalCounters() {
+        when(loginAttemptRepo.findBlocked(anyString(), any())).thenThrow(new QueryTimeoutException("database down"));
 
         assertDoesNotThrow(() -> service.checkIfBlocked("user1"));
     }
 
     @Test
     void checkIfBlocked_userBlocked_throwsException() {
-        LocalDateTime future = LocalDateTime.now().plusMinutes(3);
-        LoginAttemptEntity attempt = new LoginAttemptEntity();
-        attempt.setUsername("user2");
-        attempt.setIsBlocked(true);
-        attempt.setBlockedUntil(future);
-
-        when(loginAttemptRepo.findByUsername("user2")).thenReturn(Optional.of(attempt));
+        failTimes("user2", 3);
 
         UserBlockedException ex = assertThrows(UserBlockedException.class,
                 () -> service.checkIfBlocked("user2"));
@@ -49,83 +96,273 @@ class BruteForceProtectionServiceTest {
     }
 
     @Test
-    void recordFailedAttempt_newUser_attemptCount1() {
-        when(loginAttemptRepo.findByUsername("user3")).thenReturn(Optional.empty());
+    void checkIfBlocked_blockExpired_noException() {
+        failTimes("user2", 3);
+        clock.advance(Duration.ofMinutes(5));
 
-        service.recordFailedAttempt("user3");
+        assertDoesNotThrow(() -> service.checkIfBlocked("user2"));
+        assertEquals(3, service.getRemainingAttempts("user2"));
+    }
 
-        ArgumentCaptor<LoginAttemptEntity> captor = ArgumentCaptor.forClass(LoginAttemptEntity.class);
-        verify(loginAttemptRepo).save(captor.capture());
+    @Test
+    void recordFailedAttempt_usesStateReturnedByUpsert() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        // Two failures already counted on another node
+        when(loginAttemptRecorder.recordFailure(eq("user3"), any(), any(), anyInt(), anyBoolean()))
+                .thenReturn(new LoginAttemptCounters.Attempts(3, now, now.plusMinutes(5)));
+
+        service.recordFailedAttempt("user3");
 
-        assertEquals("user3", captor.getValue().getUsername());
-        assertEquals(1, captor.getValue().getAttemptCount());
-        assertFalse(captor.getValue().getIsBlocked());
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("user3"));
+        verifyNoInteractions(loginAttemptRepo);
     }
 
     @Test
-    void recordFailedAttempt_reachesMax_attemptsBlocked() {
-        LoginAttemptEntity attempt = new LoginAttemptEntity();
-        attempt.setUsername("user4");
-        attempt.setAttemptCount(2);
-        attempt.setIsBlocked(false);
-        attempt.setLastAttemptTime(LocalDateTime.now());
+    void recordFailedAttempt_afterUnflushedReset_restartsStoredCount() {
+        failTimes("user3", 2);
+        service.resetAttempts("user3");
 
-        when(loginAttemptRepo.findByUsername("user4")).thenReturn(Optional.of(attempt));
+        service.recordFailedAttempt("user3");
 
-        service.recordFailedAttempt("user4");
+        verify(loginAttemptRecorder).recordFailure(eq("user3"), any(), any(), eq(3), eq(true));
+        assertEquals(2, service.getRemainingAttempts("user3"));
+    }
+
+    @Test
+    void recordFailedAttempt_databaseDown_countsLocally() {
+        databaseDown();
 
-        ArgumentCaptor<LoginAttemptEntity> captor = ArgumentCaptor.forClass(LoginAttemptEntity.class);
-        verify(loginAttemptRepo).save(captor.capture());
+        failTimes("user3", 3);
 
-        LoginAttemptEntity saved = captor.getValue();
-        assertTrue(saved.getIsBlocked());
-        assertEquals(3, saved.getAttemptCount());
-        assertNotNull(saved.getBlockedUntil());
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("user3"));
     }
 
     @Test
-    void resetAttempts_resetsAttemptCountAndBlock() {
-        LoginAttemptEntity attempt = new LoginAttemptEntity();
-        attempt.setUsername("user5");
-        attempt.setAttemptCount(2);
-        attempt.setIsBlocked(true);
+    void recordFailedAttempt_failuresOutsideWindowStartOver() {
+        failTimes("user4", 2);
+        clock.advance(Duration.ofMinutes(6));
 
-        when(loginAttemptRepo.findByUsername("user5")).thenReturn(Optional.of(attempt));
+        service.recordFailedAttempt("user4");
 
-        service.resetAttempts("user5");
+        assertEquals(2, service.getRemainingAttempts("user4"));
+    }
 
-        ArgumentCaptor<LoginAttemptEntity> captor = ArgumentCaptor.forClass(LoginAttemptEntity.class);
-        verify(loginAttemptRepo).save(captor.capture());
+    @Test
+    void resetAttempts_clearsCountersWithoutDatabaseWrite() {
+        failTimes("user5", 3);
 
-        LoginAttemptEntity saved = captor.getValue();
-        assertEquals(0, saved.getAttemptCount());
-        assertFalse(saved.getIsBlocked());
-        assertNull(saved.getBlockedUntil());
+        service.resetAttempts("user5");
+
+        assertDoesNotThrow(() -> service.checkIfBlocked("user5"));
+        assertEquals(3, service.getRemainingAttempts("user5"));
+        verify(loginAttemptRepo, never()).saveAll(anyList());
+        verify(loginAttemptRepo, never()).deleteUnblockedByUsernameIn(anyCollection(), any());
     }
 
     @Test
     void getRemainingAttempts_userNotExist_returnsMaxAttempts() {
-        when(loginAttemptRepo.findByUsername("user6")).thenReturn(Optional.empty());
         assertEquals(3, service.getRemainingAttempts("user6"));
     }
 
     @Test
     void getRemainingAttempts_userBlocked_returnsZero() {
-        LoginAttemptEntity attempt = new LoginAttemptEntity();
-        attempt.setIsBlocked(true);
-        when(loginAttemptRepo.findByUsername("user7")).thenReturn(Optional.of(attempt));
+        failTimes("user7", 3);
 
         assertEquals(0, service.getRemainingAttempts("user7"));
     }
 
     @Test
     void getRemainingAttempts_someAttempts_remainingCalculated() {
-        LoginAttemptEntity attempt = new LoginAttemptEntity();
-        attempt.setIsBlocked(false);
-        attempt.setAttemptCount(1);
-        when(loginAttemptRepo.findByUsername("user8")).thenReturn(Optional.of(attempt));
+        failTimes("user8", 1);
 
         assertEquals(2, service.getRemainingAttempts("user8"));
     }
-}
 
+    @Test
+    void flush_upsertsChangedCountersInOneBatch() {
+        LoginAttemptEntity existing = new LoginAttemptEntity();
+        existing.setId(7L);
+        existing.setUsername("user9");
+        when(loginAttemptRepo.findAllByUsernameIn(anyCollection())).thenReturn(List.of(existing));
+        databaseDown();
+        failTimes("user9", 3);
+        failTimes("user10", 1);
+
+        service.flush();
+
+        verify(loginAttemptRepo).saveAll(savedCaptor.capture());
+        List<LoginAttemptEntity> saved = savedCaptor.getValue();
+        assertEquals(2, saved.size());
+        LoginAttemptEntity blocked = saved.stream().filter(row -> row.getUsername().equals("user9")).findFirst().orElseThrow();
+        assertSame(existing, blocked);
+        assertEquals(3, blocked.getAttemptCount());
+        assertTrue(blocked.getIsBlocked());
+        assertNotNull(blocked.getBlockedUntil());
+        verify(loginAttemptRepo, never()).deleteUnblockedByUsernameIn(anyCollection(), any());
+    }
+
+    @Test
+    void flush_deletesRowsOfResetUsers() {
+        failTimes("user11", 2);
+        service.resetAttempts("user11");
+
+        service.flush();
+
+        verify(loginAttemptRepo).deleteUnblockedByUsernameIn(eq(List.of("user11")), any());
+    }
+
+    @Test
+    void flush_failedReset_retriedOnNextFlush() {
+        doThrow(new QueryTimeoutException("down")).doNothing()
+                .when(loginAttemptRepo).deleteUnblockedByUsernameIn(anyCollection(), any());
+        failTimes("user11", 2);
+        service.resetAttempts("user11");
+
+        service.flush();
+        service.flush();
+
+        verify(loginAttemptRepo, times(2)).deleteUnblockedByUsernameIn(eq(List.of("user11")), any());
+    }
+
+    @Test
+    void flush_evictedBlockedEntry_leavesItsRowAlone() {
+        properties.getSecurity().getLoginAttempts().setMaxTrackedUsernames(10);
+        service = newService();
+        databaseDown();
+        failTimes("victim", 3);
+        for (int i = 0; i < 100; i++) {
+            failTimes("blocked" + i, 3);
+        }
+
+        service.flush();
+
+        assertTrue(service.trackedUsernames() <= 10);
+        verify(loginAttemptRepo, never()).deleteUnblockedByUsernameIn(anyCollection(), any());
+    }
+
+    @Test
+    void flush_expiredEntry_notWritten() {
+        databaseDown();
+        failTimes("user11", 3);
+        clock.advance(Duration.ofMinutes(5));
+
+        service.flush();
+
+        verify(loginAttemptRepo, never()).saveAll(argThat(rows -> rows.iterator().hasNext()));
+        verify(loginAttemptRepo, never()).deleteUnblockedByUsernameIn(anyCollection(), any());
+    }
+
+    @Test
+    void flush_failuresAlreadyUpserted_noDatabaseAccess() {
+        failTimes("user12", 2);
+        service.resetAttempts("user12-other");
+
+        service.flush();
+
+        verifyNoInteractions(loginAttemptRepo);
+    }
+
+    @Test
+    void flush_failedBatch_retriedOnNextFlush() {
+        when(loginAttemptRepo.findAllByUsernameIn(anyCollection()))
+                .thenThrow(new QueryTimeoutException("down"))
+                .thenReturn(List.of());
+        databaseDown();
+        failTimes("user13", 1);
+
+        service.flush();
+        service.flush();
+
+        verify(loginAttemptRepo).saveAll(savedCaptor.capture());
+        assertEquals("user13", savedCaptor.getValue().get(0).getUsername());
+    }
+
+    @Test
+    void loadActiveAttempts_restoresBlocksAfterRestart() {
+        LoginAttemptEntity row = new LoginAttemptEntity();
+        row.setUsername("user14");
+        row.setAttemptCount(3);
+        row.setIsBlocked(true);
+        row.setLastAttemptTime(LocalDateTime.now(clock));
+        row.setBlockedUntil(LocalDateTime.now(clock).plusMinutes(4));
+        when(loginAttemptRepo.findActive(any(), any(), any())).thenReturn(List.of(row));
+
+        service.loadActiveAttempts();
+
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("user14"));
+    }
+
+    @Test
+    void recordFailedAttempt_manyDistinctUsernames_memoryStaysBounded() {
+        properties.getSecurity().getLoginAttempts().setMaxTrackedUsernames(1_000);
+        service = newService();
+        failTimes("victim", 3);
+
+        for (int i = 0; i < 50_000; i++) {
+            service.recordFailedAttempt("spray" + i);
+        }
+
+        assertTrue(service.trackedUsernames() <= 1_000);
+        // Single failures are shed before anyone who is actually blocked
+        assertThrows(UserBlockedException.class, () -> service.checkIfBlocked("victim"));
+    }
+
+    @Test
+    void recordFailedAttempt_manyDistinctUsernamesWhileDatabaseDown_pendingWritesStayBounded() {
+        properties.getSecurity().getLoginAttempts().setMaxTrackedUsernames(1_000);
+        service = newService();
+        databaseDown();
+
+        for (int i = 0; i < 50_000; i++) {
+            service.recordFailedAttempt("spray" + i);
+            service.resetAttempts("spray" + (i - 1));
+        }
+        service.flush();
+
+        verify(loginAttemptRepo, atLeastOnce()).saveAll(savedCaptor.capture());
+        assertTrue(savedCaptor.getAllValues().stream().mapToInt(List::size).sum() <= 1_000);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(loginAttemptRepo, atLeastOnce()).deleteUnblockedByUsernameIn(deleted.capture(), any());
+        assertTrue(deleted.getAllValues().stream().mapToInt(List::size).sum() <= 1_000);
+    }
+
+    private BruteForceProtectionService newService() {
+        return new BruteForceProtectionService(loginAttemptRepo, loginAttemptRecorder, properties, transactionManager, clock);
+    }
+
+    private void databaseDown() {
+        when(loginAttemptRecorder.recordFailure(anyString(), any(), any(), anyInt(), anyBoolean()))
+                .thenThrow(new QueryTimeoutException("database down"));
+    }
+
+    private void failTimes(String username, int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordFailedAttempt(username);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.example.exception.UserBlockedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialStuffingDetectorTest {
+
+    private final MutableClock clock = new MutableClock();
+    private AppProperties properties;
+    private CredentialStuffingDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties();
+        properties.getSecurity().getCredentialStuffing().setMaxUsernamesPerAddress(20);
+        properties.getSecurity().getCredentialStuffing().setMaxUsernamesPerSubnet(50);
+        detector = new CredentialStuffingDetector(properties, clock);
+    }
+
+    @Test
+    void checkSource_oneUsernameRepeatedly_notRefused() {
+        for (int i = 0; i < 100; i++) {
+            detector.recordFailure("10.0.0.1", "john");
+        }
+
+        assertDoesNotThrow(() -> detector.checkSource("10.0.0.1"));
+        assertEquals(1, detector.distinctUsernames("10.0.0.1"));
+    }
+
+    @Test
+    void checkSource_manyUsernamesFromOneAddress_refused() {
+        for (int i = 0; i < 25; i++) {
+            detector.recordFailure("10.0.0.1", "user" + i);
+        }
+
+        assertThrows(UserBlockedException.class, () -> detector.checkSource("10.0.0.1"));
+        assertDoesNotThrow(() -> detector.checkSource("10.0.1.1"));
+    }
+
+    @Test
+    void checkSource_attackSpreadOverSubnet_refusesWholeSubnet() {
+        // 10 usernames from each of 10 addresses: no address crosses 20, the /24 crosses 50
+        for (int host = 1; host <= 10; host++) {
+            for (int i = 0; i < 10; i++) {
+                detector.recordFailure("10.0.0." + host, "user" + host + "-" + i);
+            }
+        }
+
+        assertThrows(UserBlockedException.class, () -> detector.checkSource("10.0.0.200"));
+        assertDoesNotThrow(() -> detector.checkSource("10.0.1.1"));
+    }
+
+    @Test
+    void checkSource_failuresAgeOutOfWindow() {
+        for (int i = 0; i < 25; i++) {
+            detector.recordFailure("10.0.0.1", "user" + i);
+        }
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertDoesNotThrow(() -> detector.checkSource("10.0.0.1"));
+        assertEquals(0, detector.distinctUsernames("10.0.0.1"));
+    }
+
+    @Test
+    void checkSource_windowSlidesSegmentBySegment() {
+        for (int i = 0; i < 15; i++) {
+            detector.recordFailure("10.0.0.1", "early" + i);
+        }
+        clock.advance(Duration.ofMinutes(5));
+        for (int i = 0; i < 15; i++) {
+            detector.recordFailure("10.0.0.1", "late" + i);
+        }
+
+        assertThrows(UserBlockedException.class, () -> detector.checkSource("10.0.0.1"));
+
+        // The early failures leave the window, the late ones are still in it
+        clock.advance(Duration.ofMinutes(6));
+        assertDoesNotThrow(() -> detector.checkSource("10.0.0.1"));
+        assertEquals(15, detector.distinctUsernames("10.0.0.1"), 2);
+    }
+
+    @Test
+    void fixedTables_manySourcesDoNotDisplaceAnAttacker() {
+        properties.getSecurity().getCredentialStuffing().setTrackedAddresses(64);
+        properties.getSecurity().getCredentialStuffing().setTrackedSubnets(64);
+        detector = new CredentialStuffingDetector(properties, clock);
+        for (int i = 0; i < 25; i++) {
+            detector.recordFailure("10.0.0.1", "user" + i);
+        }
+
+        for (int host = 0; host < 10_000; host++) {
+            detector.recordFailure("172.16." + host / 256 + "." + host % 256, "john");
+        }
+
+        assertThrows(UserBlockedException.class, () -> detector.checkSource("10.0.0.1"));
+    }
+
+    @Test
+    void checkSource_unknownAddress_ignored() {
+        detector.recordFailure(null, "john");
+
+        assertDoesNotThrow(() -> detector.checkSource(null));
+    }
+
+    @Test
+    void subnet_groupsIpv4By24AndIpv6By64() {
+        assertEquals("192.168.1.0/24", CredentialStuffingDetector.subnet("192.168.1.77"));
+        assertEquals("20010db885a30000::/64", CredentialStuffingDetector.subnet("2001:db8:85a3:0:1:2:3:4"));
+        assertEquals(CredentialStuffingDetector.subnet("2001:db8:85a3::1"),
+                CredentialStuffingDetector.subnet("2001:db8:85a3:0:ffff::9"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
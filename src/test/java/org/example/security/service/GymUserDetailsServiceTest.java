@@ -1,17 +1,21 @@
 package org.example.security.service;
 
+import org.example.api.config.AppProperties;
 import org.example.persistance.model.User;
 import org.example.security.GymUserDetails;
+import org.example.security.constants.SecurityConstants;
 import org.example.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -21,7 +25,7 @@ class GymUserDetailsServiceTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
+    private final AppProperties appProperties = new AppProperties();
     private GymUserDetailsService gymUserDetailsService;
 
     private User testUser;
@@ -30,6 +34,7 @@ class GymUserDetailsServiceTest {
 
     @BeforeEach
     void setUp() {
+        gymUserDetailsService = new GymUserDetailsService(userService, appProperties);
         testUser = new User();
         testUser.setUsername(TEST_USERNAME);
         testUser.setPassword(TEST_PASSWORD);
@@ -50,6 +55,21 @@ class GymUserDetailsServiceTest {
         verify(userService, times(1)).getByUsername(TEST_USERNAME);
     }
 
+    @Test
+    void loadUserByUsername_ConfiguredAdmin_ShouldGrantAdminRole() {
+        // Arrange
+        appProperties.getSecurity().getAdminUsernames().add(TEST_USERNAME);
+        when(userService.getByUsername(TEST_USERNAME)).thenReturn(testUser);
+
+        // Act
+        UserDetails result = gymUserDetailsService.loadUserByUsername(TEST_USERNAME);
+
+        // Assert
+        assertEquals(List.of(SecurityConstants.ADMIN_AUTHORITY),
+                result.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(gymUserDetailsService.authoritiesOf("someone.else").isEmpty());
+    }
+
     @Test
     void loadUserByUsername_WhenUserNotFound_ShouldThrowUsernameNotFoundException() {
         // Arrange
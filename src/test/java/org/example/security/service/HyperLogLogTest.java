@@ -0,0 +1,52 @@
+package org.example.security.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_smallCountsNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20; i++) {
+            sketch.add(Hashes.hash64("user" + i));
+            sketch.add(Hashes.hash64("user" + i));
+        }
+
+        assertEquals(20, HyperLogLog.estimateUnion(sketch), 2);
+    }
+
+    @Test
+    void estimate_largeCountsWithinStandardError() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(Hashes.hash64("user" + i));
+        }
+
+        // Three standard errors (~9% each) either side
+        assertEquals(100_000, HyperLogLog.estimateUnion(sketch), 28_000);
+    }
+
+    @Test
+    void estimateUnion_countsOverlapOnce() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 60; i++) {
+            first.add(Hashes.hash64("user" + i));
+            second.add(Hashes.hash64("user" + (i + 30)));
+        }
+
+        assertEquals(90, HyperLogLog.estimateUnion(first, second), 10);
+    }
+
+    @Test
+    void clear_forgetsEverything() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add(Hashes.hash64("user"));
+
+        sketch.clear();
+
+        assertEquals(0, HyperLogLog.estimateUnion(sketch));
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.security.service;
+
+import org.example.persistance.entity.LoginAttemptEntity;
+import org.example.persistance.repository.LoginAttemptRepo;
+import org.example.security.service.LoginAttemptCounters.Attempts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(LoginAttemptRecorder.class)
+class LoginAttemptRecorderTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private LoginAttemptRecorder recorder;
+
+    @Autowired
+    private LoginAttemptRepo loginAttemptRepo;
+
+    @AfterEach
+    void cleanUp() {
+        loginAttemptRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void recordFailure_firstFailureInsertsRow() {
+        Attempts attempts = fail("john", NOW, false);
+
+        assertEquals(new Attempts(1, NOW, null), attempts);
+        LoginAttemptEntity row = loginAttemptRepo.findByUsername("john").orElseThrow();
+        assertEquals(1, row.getAttemptCount());
+        assertFalse(row.getIsBlocked());
+    }
+
+    @Test
+    void recordFailure_blocksOnMaxAttempts() {
+        fail("john", NOW, false);
+        fail("john", NOW.plusSeconds(1), false);
+
+        Attempts attempts = fail("john", NOW.plusSeconds(2), false);
+
+        assertEquals(3, attempts.count());
+        assertEquals(NOW.plusSeconds(2).plus(WINDOW), attempts.blockedUntil());
+        LoginAttemptEntity row = loginAttemptRepo.findByUsername("john").orElseThrow();
+        assertTrue(row.getIsBlocked());
+        assertEquals(attempts.blockedUntil(), row.getBlockedUntil());
+    }
+
+    @Test
+    void recordFailure_subMicrosecondClock_blockEndsNoLaterThanDecided() {
+        LocalDateTime now = NOW.plusNanos(999_500);
+        fail("john", now, false);
+        fail("john", now, false);
+
+        Attempts attempts = fail("john", now, false);
+
+        assertFalse(attempts.blockedAt(now.plus(WINDOW)));
+        assertFalse(loginAttemptRepo.findByUsername("john").orElseThrow().getBlockedUntil().isAfter(now.plus(WINDOW)));
+    }
+
+    @Test
+    void recordFailure_startsOverOutsideWindow() {
+        fail("john", NOW, false);
+        fail("john", NOW.plusSeconds(1), false);
+
+        assertEquals(1, fail("john", NOW.plusSeconds(1).plus(WINDOW), false).count());
+    }
+
+    @Test
+    void recordFailure_startsOverWhenBlockHasEnded() {
+        fail("john", NOW, false);
+        fail("john", NOW, false);
+        Attempts blocked = fail("john", NOW, false);
+
+        Attempts attempts = fail("john", blocked.blockedUntil(), false);
+
+        assertEquals(new Attempts(1, blocked.blockedUntil(), null), attempts);
+        assertFalse(loginAttemptRepo.findByUsername("john").orElseThrow().getIsBlocked());
+    }
+
+    @Test
+    void recordFailure_restartIgnoresStoredCount() {
+        fail("john", NOW, false);
+        fail("john", NOW, false);
+
+        assertEquals(1, fail("john", NOW.plusSeconds(1), true).count());
+    }
+
+    @Test
+    void recordFailure_parallelFailuresForOneUserAreAllCounted() throws Exception {
+        int failures = 400;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            Callable<Integer> failure = () -> fail("target", NOW, false).count();
+            List<Future<Integer>> results = executor.invokeAll(
+                    IntStream.range(0, failures).mapToObj(i -> failure).toList());
+
+            List<Integer> counts = results.stream().map(LoginAttemptRecorderTest::join).sorted().toList();
+
+            // Every failure saw its own increment, so none was lost and the third one blocked
+            assertEquals(IntStream.rangeClosed(1, failures).boxed().toList(), counts);
+            LoginAttemptEntity row = loginAttemptRepo.findByUsername("target").orElseThrow();
+            assertEquals(failures, row.getAttemptCount());
+            assertTrue(row.getIsBlocked());
+            assertEquals(1, loginAttemptRepo.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Attempts fail(String username, LocalDateTime now, boolean restart) {
+        return recorder.recordFailure(username, now, WINDOW, 3, restart);
+    }
+
+    private static int join(Future<Integer> result) {
+        try {
+            return result.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final MutableClock clock = new MutableClock();
+    private AppProperties properties;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties();
+        properties.getRateLimit().setRoutes(List.of(
+                route("auth", 3, 1, Duration.ofSeconds(10), "/api/auth/**"),
+                route("api", 100, 100, Duration.ofSeconds(1), "/api/**")));
+        rateLimiter = new RateLimiter(properties, clock);
+    }
+
+    @Test
+    void tryAcquire_allowsBurstThenRefusesWithWait() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1"));
+        }
+
+        RateLimiter.Rejection rejection = rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1");
+
+        assertNotNull(rejection);
+        assertEquals("auth", rejection.route());
+        assertEquals(Duration.ofSeconds(10), rejection.retryAfter());
+    }
+
+    @Test
+    void tryAcquire_refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1");
+        }
+        clock.advance(Duration.ofSeconds(4));
+        assertEquals(Duration.ofSeconds(6), rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1").retryAfter());
+
+        clock.advance(Duration.ofSeconds(6));
+
+        assertNull(rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1"));
+        assertNotNull(rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_separateBudgetsPerClientAndRoute() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1");
+        }
+
+        assertNull(rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.2"));
+        assertNull(rateLimiter.tryAcquire("/api/trainings", "ip:10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_severalClients_refusedWhenAnyBucketIsEmpty() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0.1", "user:user" + i)));
+        }
+
+        assertNotNull(rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0.1", "user:other")));
+        assertNull(rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0.2", "user:other")));
+    }
+
+    @Test
+    void tryAcquire_severalClients_refusalGivesBackTokensAlreadyTaken() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0." + (i + 2), "user:john"));
+        }
+
+        assertNotNull(rateLimiter.tryAcquire("/api/auth/login", List.of("ip:10.0.0.1", "user:john")));
+        for (int i = 0; i < 3; i++) {
+            assertNull(rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1"));
+        }
+    }
+
+    @Test
+    void tryAcquire_unmatchedPath_notLimited() {
+        for (int i = 0; i < 1_000; i++) {
+            assertNull(rateLimiter.tryAcquire("/actuator/health", "ip:10.0.0.1"));
+        }
+        assertEquals(0, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void tryAcquire_disabled_neverRefuses() {
+        properties.getRateLimit().setEnabled(false);
+        RateLimiter disabled = new RateLimiter(properties, clock);
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(disabled.tryAcquire("/api/auth/login", "ip:10.0.0.1"));
+        }
+    }
+
+    @Test
+    void evictIdle_dropsOnlyRefilledBuckets() {
+        rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.1");
+        clock.advance(Duration.ofSeconds(5));
+        rateLimiter.tryAcquire("/api/auth/login", "ip:10.0.0.2");
+        clock.advance(Duration.ofSeconds(5));
+
+        rateLimiter.evictIdle();
+
+        assertEquals(1, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void tryAcquire_concurrentClients_neverExceedCapacity() throws Exception {
+        int threads = 8;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (rateLimiter.tryAcquire("/api/trainings", "user:john") == null) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The clock does not move, so exactly one bucket's worth gets through
+        assertEquals(100, allowed.get());
+    }
+
+    private static AppProperties.RateLimit.Route route(String name, int capacity, int refillTokens,
+                                                       Duration refillPeriod, String path) {
+        AppProperties.RateLimit.Route route = new AppProperties.RateLimit.Route();
+        route.setName(name);
+        route.setCapacity(capacity);
+        route.setRefillTokens(refillTokens);
+        route.setRefillPeriod(refillPeriod);
+        route.setPaths(List.of(path));
+        return route;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
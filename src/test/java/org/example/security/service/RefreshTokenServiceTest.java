@@ -0,0 +1,173 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.example.exception.InvalidRefreshTokenException;
+import org.example.persistance.entity.RefreshTokenEntity;
+import org.example.persistance.repository.RefreshTokenRepo;
+import org.example.persistance.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+    @Autowired
+    private UserRepo userRepo;
+
+    private UserSecurityVersions securityVersions;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().setJwtSecret("mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm123456");
+        properties.getSecurity().setRefreshTokenTtl(Duration.ofDays(1));
+        securityVersions = new UserSecurityVersions(userRepo, properties, transactionManager, clock);
+        service = new RefreshTokenService(refreshTokenRepo, properties, securityVersions, transactionManager, clock);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void issue_storesOnlyKeyedDigest() {
+        String token = service.issue("john");
+
+        RefreshTokenEntity stored = refreshTokenRepo.findAll().get(0);
+        assertEquals("john", stored.getUsername());
+        assertEquals(64, stored.getTokenHash().length());
+        assertNotEquals(token, stored.getTokenHash());
+        assertFalse(stored.getTokenHash().contains(token));
+    }
+
+    @Test
+    void rotate_returnsOwnerAndReplacementInSameFamily() {
+        String token = service.issue("john");
+
+        RefreshTokenService.Rotation rotation = service.rotate(token);
+
+        assertEquals("john", rotation.username());
+        assertNotEquals(token, rotation.refreshToken());
+        List<RefreshTokenEntity> family = refreshTokenRepo.findAll();
+        assertEquals(2, family.size());
+        assertEquals(1, family.stream().map(RefreshTokenEntity::getFamilyId).distinct().count());
+        assertEquals("john", service.rotate(rotation.refreshToken()).username());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesWholeFamily() {
+        String stolen = service.issue("john");
+        String current = service.rotate(stolen).refreshToken();
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(stolen));
+
+        // The legitimate holder is logged out as well
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(current));
+        assertEquals(0, refreshTokenRepo.count());
+    }
+
+    @Test
+    void rotate_reuseDoesNotTouchOtherSessions() {
+        String stolen = service.issue("john");
+        service.rotate(stolen);
+        String otherDevice = service.issue("john");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(stolen));
+
+        assertEquals("john", service.rotate(otherDevice).username());
+    }
+
+    @Test
+    void revoke_endsTheTokensFamilyOnly() {
+        String loggedOut = service.issue("john");
+        String renewed = service.rotate(loggedOut).refreshToken();
+        String otherDevice = service.issue("john");
+
+        service.revoke(renewed);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(renewed));
+        assertEquals("john", service.rotate(otherDevice).username());
+    }
+
+    @Test
+    void rotate_expiredToken_rejected() {
+        String token = service.issue("john");
+        clock.advance(Duration.ofDays(1));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(token));
+    }
+
+    @Test
+    void rotate_unknownToken_rejected() {
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate("not-a-token"));
+    }
+
+    @Test
+    void invalidate_revokesEveryTokenOfTheUser() {
+        String first = service.issue("john");
+        String second = service.issue("john");
+        String other = service.issue("jane");
+
+        securityVersions.invalidate("john");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(first));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(second));
+        assertEquals("jane", service.rotate(other).username());
+    }
+
+    @Test
+    void deleteExpired_removesOnlyExpiredTokens() {
+        service.issue("john");
+        clock.advance(Duration.ofDays(2));
+        service.issue("jane");
+
+        service.deleteExpired();
+
+        assertEquals(List.of("jane"), refreshTokenRepo.findAll().stream().map(RefreshTokenEntity::getUsername).toList());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.example.persistance.entity.RevokedTokenEntity;
+import org.example.persistance.repository.RevokedTokenRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepo revokedTokenRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+    private AppProperties properties;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new AppProperties();
+        properties.getSecurity().setExpectedRevokedTokens(4);
+        revocationList = new TokenRevocationList(revokedTokenRepo, properties, transactionManager, clock);
+    }
+
+    @Test
+    void revoke_persistsAndRejectsUntilExpiry() {
+        revocationList.revoke("jti-1", clock.instant().plus(Duration.ofMinutes(10)));
+
+        verify(revokedTokenRepo).save(any(RevokedTokenEntity.class));
+        assertTrue(revocationList.isRevoked("jti-1"));
+        assertFalse(revocationList.isRevoked("jti-2"));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void revoke_alreadyExpiredToken_ignored() {
+        revocationList.revoke("jti-1", clock.instant());
+
+        verifyNoInteractions(revokedTokenRepo);
+        assertEquals(0, revocationList.size());
+    }
+
+    @Test
+    void revoke_beyondExpectedSize_keepsEveryId() {
+        Instant expiresAt = clock.instant().plus(Duration.ofHours(1));
+        for (int i = 0; i < 50; i++) {
+            revocationList.revoke("jti-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(revocationList.isRevoked("jti-" + i));
+        }
+    }
+
+    @Test
+    void purgeExpired_dropsExpiredIdsAndRows() {
+        revocationList.revoke("short", clock.instant().plus(Duration.ofMinutes(1)));
+        revocationList.revoke("long", clock.instant().plus(Duration.ofHours(1)));
+        clock.advance(Duration.ofMinutes(5));
+
+        revocationList.purgeExpired();
+
+        assertEquals(1, revocationList.size());
+        assertTrue(revocationList.isRevoked("long"));
+        verify(revokedTokenRepo).deleteExpired(LocalDateTime.now(clock));
+    }
+
+    @Test
+    void load_restoresActiveRevocations() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        when(revokedTokenRepo.findByExpiresAtAfter(now))
+                .thenReturn(List.of(new RevokedTokenEntity("jti-1", now.plusMinutes(10), now.minusMinutes(1))));
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void sync_picksUpRevocationsFromOtherInstances() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        when(revokedTokenRepo.findByRevokedAtAfter(any()))
+                .thenReturn(List.of(new RevokedTokenEntity("remote", now.plusMinutes(10), now)));
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked("remote"));
+        verify(revokedTokenRepo).findByRevokedAtAfter(now.minusSeconds(30));
+    }
+
+    @Test
+    void sync_databaseDown_keepsCurrentList() {
+        revocationList.revoke("jti-1", clock.instant().plus(Duration.ofMinutes(10)));
+        when(revokedTokenRepo.findByRevokedAtAfter(any())).thenThrow(new QueryTimeoutException("down"));
+
+        assertDoesNotThrow(() -> revocationList.sync());
+        assertTrue(revocationList.isRevoked("jti-1"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.security.service;
+
+import org.example.api.config.AppProperties;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecurityVersionsTest {
+
+    private static final Duration TTL = Duration.ofSeconds(5);
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+    private UserSecurityVersions nodeA;
+    private UserSecurityVersions nodeB;
+
+    @BeforeEach
+    void setUp() {
+        userRepo.save(UserEntity.builder()
+                .firstName("John")
+                .lastName("Smith")
+                .username("John.Smith")
+                .password("encoded-password".toCharArray())
+                .isActive(true)
+                .build());
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void invalidate_persistsTheBumpAcrossRestarts() {
+        assertEquals(0, nodeA.current("John.Smith"));
+
+        nodeA.invalidate("John.Smith");
+
+        assertEquals(1, nodeA.current("John.Smith"));
+        assertEquals(1, node().current("John.Smith"), "a restarted instance must not fall back to 0");
+        assertEquals(1, nodeA.forNewToken("John.Smith"));
+    }
+
+    @Test
+    void invalidate_onOneNode_isEnforcedOnAnotherWithinTheTtl() {
+        assertEquals(0, nodeB.current("John.Smith"));
+
+        nodeA.invalidate("John.Smith");
+
+        // Node B still serves its cached copy, but mints new tokens from the database
+        assertEquals(0, nodeB.current("John.Smith"));
+        assertEquals(1, nodeB.forNewToken("John.Smith"));
+
+        clock.advance(TTL);
+        assertEquals(1, nodeB.current("John.Smith"));
+    }
+
+    @Test
+    void invalidate_rolledBack_leavesVersionAndListenersAlone() {
+        List<String> notified = new ArrayList<>();
+        nodeA.onInvalidate(notified::add);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nodeA.invalidate("John.Smith");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, nodeA.current("John.Smith"));
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    void invalidate_committed_notifiesListenersAfterCommit() {
+        List<String> notified = new ArrayList<>();
+        nodeA.onInvalidate(notified::add);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nodeA.invalidate("John.Smith");
+            assertTrue(notified.isEmpty());
+        });
+
+        assertEquals(List.of("John.Smith"), notified);
+    }
+
+    @Test
+    void current_unknownUsername_acceptsNoToken() {
+        assertEquals(UserSecurityVersions.NO_USER, nodeA.current("Jane.Doe"));
+        assertEquals(0, nodeA.forNewToken("Jane.Doe"));
+    }
+
+    @Test
+    void evictExpired_dropsStaleEntries() {
+        nodeB.current("John.Smith");
+        nodeA.invalidate("John.Smith");
+        clock.advance(TTL);
+
+        nodeB.evictExpired();
+        clock.advance(Duration.ofSeconds(-5));
+
+        // Reloaded even though the clock is back inside the old entry's lifetime
+        assertEquals(1, nodeB.current("John.Smith"));
+    }
+
+    private UserSecurityVersions node() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().setSecurityVersionCacheTtl(TTL);
+        return new UserSecurityVersions(userRepo, properties, transactionManager, clock);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.services.impl;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.example.security.TokenClaims;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sign and verify throughput of jjwt against {@link HmacJwtCodec} for the claims issued at
+ * login: sub, iat, exp, jti, sv and one role. Verification bypasses the verified-token cache.
+ * Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=HmacJwtCodecBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class HmacJwtCodecBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm123456";
+    private static final int TOKENS = Integer.getInteger("benchmark.tokens", 1_000);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 50_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500_000);
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    private final HmacJwtCodec codec = new HmacJwtCodec(secretKey);
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKey(secretKey)
+            .setClock(() -> Date.from(NOW))
+            .build();
+
+    @Test
+    void compareSignAndVerify() {
+        List<TokenClaims> claims = new ArrayList<>(TOKENS);
+        for (int i = 0; i < TOKENS; i++) {
+            claims.add(TokenClaims.builder()
+                    .tokenId(UUID.randomUUID().toString())
+                    .username("bench.user" + i)
+                    .roles(List.of("ROLE_TRAINEE"))
+                    .issuedAt(NOW)
+                    .expiresAt(NOW.plusSeconds(3_600))
+                    .build());
+        }
+        List<String> tokens = claims.stream().map(codec::encode).toList();
+
+        double jjwtSign = nanosPerOperation(i -> jjwtSign(claims.get(i)));
+        double codecSign = nanosPerOperation(i -> codec.encode(claims.get(i)));
+        double jjwtVerify = nanosPerOperation(i -> jwtParser.parseClaimsJws(tokens.get(i)).getBody().getSubject());
+        double codecVerify = nanosPerOperation(i -> codec.decode(tokens.get(i), NOW).getUsername());
+
+        log.info("sign: jjwt {} ns/op, codec {} ns/op; verify: jjwt {} ns/op, codec {} ns/op",
+                Math.round(jjwtSign), Math.round(codecSign), Math.round(jjwtVerify), Math.round(codecVerify));
+        log.info("throughput: sign {}x, verify {}x", Math.round(jjwtSign / codecSign * 10) / 10.0,
+                Math.round(jjwtVerify / codecVerify * 10) / 10.0);
+    }
+
+    // What TokenServiceImpl.generateToken(UserDetails) did before the codec
+    private String jjwtSign(TokenClaims claims) {
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("roles", claims.getRoles());
+        extraClaims.put("sv", claims.getSecurityVersion());
+        return Jwts.builder()
+                .setClaims(extraClaims)
+                .setId(claims.getTokenId())
+                .setSubject(claims.getUsername())
+                .setIssuedAt(Date.from(claims.getIssuedAt()))
+                .setExpiration(Date.from(claims.getExpiresAt()))
+                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private double nanosPerOperation(IntFunction<String> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.apply(i % TOKENS);
+        }
+
+        int produced = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (operation.apply(i % TOKENS) != null) {
+                produced++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(ITERATIONS, produced);
+        return (double) elapsed / ITERATIONS;
+    }
+}
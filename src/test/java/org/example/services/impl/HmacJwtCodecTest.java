@@ -0,0 +1,203 @@
+package org.example.services.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.example.security.TokenClaims;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacJwtCodecTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    // Usernames are mostly ASCII, but the codec must stay byte-exact for everything else too
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789._-@ éüß日本語😀";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(
+            "mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm123456".getBytes(StandardCharsets.UTF_8));
+    private final HmacJwtCodec codec = new HmacJwtCodec(key);
+    private final JwtParser jjwt = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .setClock(() -> Date.from(NOW))
+            .build();
+    private final Random random = new Random(42);
+
+    @Test
+    void encode_isAcceptedByJjwtWithTheSameClaims() {
+        for (int i = 0; i < 500; i++) {
+            TokenClaims expected = randomClaims();
+
+            Claims parsed = jjwt.parseClaimsJws(codec.encode(expected)).getBody();
+
+            assertEquals(expected.getUsername(), parsed.getSubject());
+            assertEquals(expected.getTokenId(), parsed.getId());
+            assertEquals(expected.getIssuedAt(), parsed.getIssuedAt().toInstant());
+            assertEquals(expected.getExpiresAt(), parsed.getExpiration().toInstant());
+            assertEquals(expected.getSecurityVersion(), ((Number) parsed.get("sv")).longValue());
+            assertEquals(expected.getRoles(), parsed.get("roles") == null ? List.of() : parsed.get("roles"));
+        }
+    }
+
+    @Test
+    void decode_readsTokensSignedByJjwt() {
+        for (int i = 0; i < 500; i++) {
+            TokenClaims expected = randomClaims();
+            var builder = Jwts.builder()
+                    .claim("sv", expected.getSecurityVersion())
+                    .setId(expected.getTokenId())
+                    .setSubject(expected.getUsername())
+                    .setIssuedAt(Date.from(expected.getIssuedAt()))
+                    .setExpiration(Date.from(expected.getExpiresAt()));
+            if (!expected.getRoles().isEmpty()) {
+                builder.claim("roles", expected.getRoles());
+            }
+
+            String token = builder.signWith(key, SignatureAlgorithm.HS256).compact();
+
+            assertEquals(expected, codec.decode(token, NOW), token);
+        }
+    }
+
+    @Test
+    void decode_roundTripsEncode() {
+        for (int i = 0; i < 500; i++) {
+            TokenClaims expected = randomClaims();
+
+            assertEquals(expected, codec.decode(codec.encode(expected), NOW));
+        }
+    }
+
+    @Test
+    void decode_rejectsAnyFlippedCharacterLikeJjwt() {
+        String token = codec.encode(randomClaims());
+
+        for (int i = 0; i < 200; i++) {
+            char[] chars = token.toCharArray();
+            int position = random.nextInt(chars.length);
+            if (chars[position] == '.') {
+                continue;
+            }
+            chars[position] = chars[position] == 'A' ? 'B' : 'A';
+            String tampered = new String(chars);
+
+            TokenClaims fast;
+            try {
+                fast = codec.decode(tampered, NOW);
+            } catch (SignatureException e) {
+                continue;
+            }
+            // Not recognised by the codec, so the caller falls back to jjwt, which must refuse it as well
+            if (fast == null) {
+                assertThrows(RuntimeException.class, () -> jjwt.parseClaimsJws(tampered), tampered);
+            } else {
+                fail("tampered token accepted: " + tampered);
+            }
+        }
+    }
+
+    @Test
+    void decode_expiredAfterExpiryInstant() {
+        TokenClaims claims = claims(List.of());
+        String token = codec.encode(claims);
+
+        assertNotNull(codec.decode(token, claims.getExpiresAt()));
+        assertThrows(ExpiredJwtException.class, () -> codec.decode(token, claims.getExpiresAt().plusMillis(1)));
+
+        // Same boundary as jjwt
+        assertDoesNotThrow(() -> jjwtAt(claims.getExpiresAt()).parseClaimsJws(token));
+        assertThrows(ExpiredJwtException.class, () -> jjwtAt(claims.getExpiresAt().plusMillis(1)).parseClaimsJws(token));
+    }
+
+    @Test
+    void decode_otherShapes_leftToJjwt() {
+        String withNotBefore = Jwts.builder()
+                .setSubject("john")
+                .setNotBefore(Date.from(NOW.plusSeconds(60)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        String withTyp = Jwts.builder()
+                .setHeaderParam("typ", "JWT")
+                .setSubject("john")
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        assertNull(codec.decode(withNotBefore, NOW));
+        assertNull(codec.decode(withTyp, NOW));
+        assertNull(codec.decode("not.a.token", NOW));
+    }
+
+    @Test
+    void escapedStrings_matchJjwt() {
+        TokenClaims claims = claims("jo\"h\\n\t\u0001/", List.of(), 0);
+        String token = codec.encode(claims);
+
+        assertEquals(claims.getUsername(), jjwt.parseClaimsJws(token).getBody().getSubject());
+        assertEquals(claims, codec.decode(token, NOW));
+    }
+
+    @Test
+    void decode_foreignKey_throwsSignatureException() {
+        SecretKey other = Keys.hmacShaKeyFor(
+                "anotherSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm99".getBytes(StandardCharsets.UTF_8));
+        String token = new HmacJwtCodec(other).encode(claims(List.of("ROLE_TRAINEE")));
+
+        assertThrows(SignatureException.class, () -> codec.decode(token, NOW));
+    }
+
+    private TokenClaims randomClaims() {
+        List<String> roles = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            roles.add("ROLE_" + randomText());
+        }
+        TokenClaims claims = claims(randomText(), roles, random.nextInt(1_000));
+        // Tokens issued before ids were added have no jti
+        return random.nextBoolean() ? claims : TokenClaims.builder()
+                .username(claims.getUsername())
+                .roles(claims.getRoles())
+                .issuedAt(claims.getIssuedAt())
+                .expiresAt(claims.getExpiresAt())
+                .securityVersion(claims.getSecurityVersion())
+                .build();
+    }
+
+    private TokenClaims claims(List<String> roles) {
+        return claims("john.doe", roles, 0);
+    }
+
+    private TokenClaims claims(String username, List<String> roles, long securityVersion) {
+        return TokenClaims.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .username(username)
+                .roles(List.copyOf(roles))
+                .issuedAt(NOW)
+                .expiresAt(NOW.plusSeconds(3_600))
+                .securityVersion(securityVersion)
+                .build();
+    }
+
+    private JwtParser jjwtAt(Instant now) {
+        return Jwts.parserBuilder().setSigningKey(key).setClock(() -> Date.from(now)).build();
+    }
+
+    private String randomText() {
+        int[] codePoints = ALPHABET.codePoints().toArray();
+        StringBuilder text = new StringBuilder();
+        for (int i = 1 + random.nextInt(20); i > 0; i--) {
+            text.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -5,13 +5,13 @@ import org.example.exception.UserNotFoundException;
 import org.example.persistance.model.Trainee;
 import org.example.persistance.model.User;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.UserService;
+import org.example.services.UsernameAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,14 +23,19 @@ class ProfileServiceImplTest {
     private UserService userService;
     private UserRepo userRepo;
     private PasswordEncoder passwordEncoder;
+    private UsernameAllocator usernameAllocator;
+    private UserSecurityVersions securityVersions;
 
     @BeforeEach
     void setup() {
         userService = mock(UserService.class);
         userRepo = mock(UserRepo.class);
         passwordEncoder = mock(PasswordEncoder.class);
+        usernameAllocator = mock(UsernameAllocator.class);
 
-        service = new ProfileServiceImpl(userService, userRepo, passwordEncoder);
+        securityVersions = mock(UserSecurityVersions.class);
+
+        service = new ProfileServiceImpl(userService, userRepo, passwordEncoder, usernameAllocator, securityVersions);
 
         when(passwordEncoder.encode(anyString())).thenReturn("ENCODED_PASS");
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
@@ -44,7 +49,7 @@ class ProfileServiceImplTest {
         user.setFirstName("John");
         user.setLastName("Doe");
 
-        when(userService.fetchAll()).thenReturn(new ArrayList<>());
+        when(usernameAllocator.allocate("John", "Doe")).thenReturn("John.Doe");
         when(userService.createUser(any(User.class))).thenReturn(user);
 
         service.createProfile(user);
@@ -54,21 +59,18 @@ class ProfileServiceImplTest {
         assertNotNull(user.getPassword());
         assertTrue(user.getIsActive());
 
-        verify(userService).fetchAll();
+        verify(userService, never()).fetchAll();
         verify(userService).createUser(user);
         verify(passwordEncoder).encode(anyString());
     }
 
     @Test
-    void createProfile_appendsIndexWhenUsernameExists() {
+    void createProfile_usesAllocatedUsernameWhenBaseIsTaken() {
         User user = new Trainee();
         user.setFirstName("John");
         user.setLastName("Doe");
 
-        User existing = new Trainee();
-        existing.setUsername("John.Doe");
-
-        when(userService.fetchAll()).thenReturn(List.of(existing));
+        when(usernameAllocator.allocate("John", "Doe")).thenReturn("John.Doe1");
         when(userService.createUser(any(User.class))).thenReturn(user);
 
         service.createProfile(user);
@@ -138,6 +140,7 @@ class ProfileServiceImplTest {
         assertArrayEquals("ENCODED_PASS".toCharArray(), entity.getPassword());
         verify(userRepo).save(entity);
         verify(passwordEncoder).encode("newPass");
+        verify(securityVersions).invalidate("john.doe");
     }
 
     @Test
@@ -183,6 +186,7 @@ class ProfileServiceImplTest {
         assertFalse(result);
         assertFalse(entity.getIsActive());
         verify(userRepo).save(entity);
+        verify(securityVersions).invalidate("john.doe");
     }
 
     @Test
@@ -0,0 +1,151 @@
+package org.example.services.impl;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.actuator.TokenCacheMetrics;
+import org.example.api.config.AppProperties;
+import org.example.security.TokenClaims;
+import org.example.security.service.UserSecurityVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenServiceImplTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final UserSecurityVersions securityVersions = mock(UserSecurityVersions.class);
+    private SimpleMeterRegistry meterRegistry;
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenService = tokenService("mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm123456");
+    }
+
+    @Test
+    void verifyToken_returnsTypedClaims() {
+        String token = tokenService.generateToken(User.withUsername("john.doe")
+                .password("secret")
+                .authorities(new SimpleGrantedAuthority("ROLE_TRAINEE"))
+                .build());
+
+        TokenClaims claims = tokenService.verifyToken(token);
+
+        assertEquals("john.doe", claims.getUsername());
+        assertEquals(List.of("ROLE_TRAINEE"), claims.getRoles());
+        assertEquals(clock.instant(), claims.getIssuedAt());
+        assertEquals(clock.instant().plus(Duration.ofHours(1)), claims.getExpiresAt());
+    }
+
+    @Test
+    void generateToken_assignsUniqueTokenId() {
+        String first = tokenService.verifyToken(tokenService.generateToken("john.doe")).getTokenId();
+        String second = tokenService.verifyToken(tokenService.generateToken("john.doe")).getTokenId();
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void generateToken_stampsCurrentSecurityVersion() {
+        when(securityVersions.forNewToken("john.doe")).thenReturn(0L, 1L);
+        assertEquals(0, tokenService.verifyToken(tokenService.generateToken("john.doe")).getSecurityVersion());
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertEquals(1, tokenService.verifyToken(tokenService.generateToken("john.doe")).getSecurityVersion());
+    }
+
+    @Test
+    void verifyToken_servesRepeatedTokenFromCache() {
+        String token = tokenService.generateToken("john.doe");
+
+        TokenClaims first = tokenService.verifyToken(token);
+        TokenClaims second = tokenService.verifyToken(token);
+
+        assertSame(first, second);
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(1.0, lookups("hit"));
+    }
+
+    @Test
+    void verifyToken_stopsServingCachedClaimsAtExpiry() {
+        String token = tokenService.generateToken("john.doe");
+        tokenService.verifyToken(token);
+
+        clock.advance(Duration.ofHours(1).plusSeconds(1));
+
+        assertThrows(ExpiredJwtException.class, () -> tokenService.verifyToken(token));
+        assertEquals(0.0, lookups("hit"));
+        assertEquals(2.0, lookups("miss"));
+    }
+
+    @Test
+    void verifyToken_rejectsForeignSignatureEveryTime() {
+        String tampered = tokenService("anotherSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm99")
+                .generateToken("john.doe");
+
+        assertThrows(SignatureException.class, () -> tokenService.verifyToken(tampered));
+        assertThrows(SignatureException.class, () -> tokenService.verifyToken(tampered));
+        assertEquals(0.0, lookups("hit"));
+    }
+
+    @Test
+    void validateToken_delegatesToSingleVerification() {
+        String token = tokenService.generateToken("john.doe");
+
+        assertTrue(tokenService.validateToken(token));
+        assertEquals("john.doe", tokenService.getUsernameFromToken(token));
+        assertFalse(tokenService.isTokenExpired(token));
+        assertFalse(tokenService.validateToken("not.a.token"));
+    }
+
+    private TokenServiceImpl tokenService(String secret) {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().setJwtSecret(secret);
+        properties.getSecurity().setJwtExpiration(Duration.ofHours(1).toMillis());
+        return new TokenServiceImpl(properties, new TokenCacheMetrics(meterRegistry), securityVersions, clock);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("jwt.verification.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
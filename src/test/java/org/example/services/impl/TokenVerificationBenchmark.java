@@ -0,0 +1,92 @@
+package org.example.services.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.TokenCacheMetrics;
+import org.example.api.config.AppProperties;
+import org.example.security.service.UserSecurityVersions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of the JWT filter path: the old two-call path (fresh parser, decode and
+ * HMAC check for both the username and the validity), a single verification without the
+ * cache, and a single verification with the cache warm. Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=TokenVerificationBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class TokenVerificationBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm123456";
+    private static final int TOKENS = Integer.getInteger("benchmark.tokens", 1_000);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 20_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+
+    private final SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void compareFilterPaths() {
+        TokenServiceImpl uncached = tokenService(0);
+        TokenServiceImpl cached = tokenService(TOKENS);
+
+        List<String> tokens = new ArrayList<>(TOKENS);
+        for (int i = 0; i < TOKENS; i++) {
+            tokens.add(cached.generateToken("bench.user" + i));
+        }
+
+        double oldPath = nanosPerRequest(tokens, this::twoParsePath);
+        double singleParse = nanosPerRequest(tokens, token -> uncached.verifyToken(token).getUsername());
+        double cachedPath = nanosPerRequest(tokens, token -> cached.verifyToken(token).getUsername());
+
+        log.info("{} tokens: two parses {} ns/request, single parse {} ns/request, cached {} ns/request",
+                TOKENS, Math.round(oldPath), Math.round(singleParse), Math.round(cachedPath));
+    }
+
+    // What JwtAuthenticationFilter did before: getUsernameFromToken, then validateToken
+    private String twoParsePath(String token) {
+        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+        return claims.getSubject();
+    }
+
+    private double nanosPerRequest(List<String> tokens, Function<String, String> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.apply(tokens.get(i % tokens.size()));
+        }
+
+        int matched = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int index = i % tokens.size();
+            if (path.apply(tokens.get(index)).equals("bench.user" + index)) {
+                matched++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(ITERATIONS, matched);
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private TokenServiceImpl tokenService(int cacheSize) {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().setJwtSecret(SECRET);
+        properties.getSecurity().setJwtExpiration(3_600_000);
+        properties.getSecurity().setVerifiedTokenCacheSize(cacheSize);
+        return new TokenServiceImpl(properties, new TokenCacheMetrics(new SimpleMeterRegistry()),
+                mock(UserSecurityVersions.class));
+    }
+}
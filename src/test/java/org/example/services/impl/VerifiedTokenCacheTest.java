@@ -0,0 +1,126 @@
+package org.example.services.impl;
+
+import org.example.security.TokenClaims;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void put_dropsLeastRecentlyUsedPastCapacity() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("a", claims("a", NOW.plusSeconds(60)));
+        cache.put("b", claims("b", NOW.plusSeconds(60)));
+        cache.get("a");
+
+        cache.put("c", claims("c", NOW.plusSeconds(60)));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void put_pastCapacity_dropsExpiredBeforeLeastRecentlyUsed() {
+        MutableClock clock = new MutableClock();
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, clock);
+        cache.put("old", claims("old", NOW.plusSeconds(60)));
+        cache.put("short", claims("short", NOW.plusSeconds(1)));
+        clock.now = NOW.plusSeconds(1);
+
+        cache.put("new", claims("new", NOW.plusSeconds(60)));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("old"));
+        assertNotNull(cache.get("new"));
+    }
+
+    @Test
+    void concurrentGetsAndPuts_stayWithinCapacity() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Clock.fixed(NOW, ZoneOffset.UTC));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String token = thread + "-" + i;
+                        cache.put(token, claims(token, NOW.plusSeconds(60)));
+                        TokenClaims cached = cache.get(token);
+                        assertTrue(cached == null || token.equals(cached.getUsername()));
+                        cache.get("0-0");
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void get_evictsEntryAtTokenExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("live", claims("live", NOW.plusSeconds(1)));
+        cache.put("expired", claims("expired", NOW));
+        cache.put("no-exp", claims("no-exp", null));
+
+        assertNotNull(cache.get("live"));
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("no-exp"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void zeroCapacity_disablesCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("a", claims("a", NOW.plusSeconds(60)));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    private static TokenClaims claims(String username, Instant expiresAt) {
+        return TokenClaims.builder().username(username).expiresAt(expiresAt).build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
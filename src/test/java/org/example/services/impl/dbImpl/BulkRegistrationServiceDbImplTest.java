@@ -0,0 +1,184 @@
+package org.example.services.impl.dbImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.actuator.RegistrationMetrics;
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.model.RegistrationOutcome;
+import org.example.persistance.model.Trainee;
+import org.example.persistance.model.Trainer;
+import org.example.persistance.repository.TraineeRepo;
+import org.example.persistance.repository.TrainerRepo;
+import org.example.persistance.repository.UserRepo;
+import org.example.services.UsernameAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRegistrationServiceDbImplTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private TraineeRepo traineeRepo;
+
+    @Mock
+    private TrainerRepo trainerRepo;
+
+    @Mock
+    private TrainingTypeCache trainingTypeCache;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UsernameAllocator usernameAllocator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService hashingExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private BulkRegistrationServiceDbImpl service;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BulkRegistrationServiceDbImpl(userRepo, traineeRepo, trainerRepo, trainingTypeCache,
+                passwordEncoder, usernameAllocator, Validation.buildDefaultValidatorFactory().getValidator(),
+                new RegistrationMetrics(meterRegistry), hashingExecutor, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Test
+    void registerTrainees_hashesOnPoolAndReportsRowsInOrder() {
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        when(usernameAllocator.allocateAll(List.of("John.Smith", "Jane.Doe"))).thenReturn(List.of("John.Smith", "Jane.Doe"));
+
+        List<RegistrationOutcome> outcomes = new ArrayList<>();
+        service.registerTrainees(List.of(trainee("John", "Smith"), trainee("Al", "Short"), trainee("Jane", "Doe")),
+                outcomes::add);
+
+        assertEquals(List.of(0, 1, 2), outcomes.stream().map(RegistrationOutcome::getRow).toList());
+        assertEquals("John.Smith", outcomes.get(0).getUsername());
+        assertNotNull(outcomes.get(0).getTemporaryPassword());
+        assertEquals("First name must be between 3 and 50 characters", outcomes.get(1).getError());
+        assertEquals("Jane.Doe", outcomes.get(2).getUsername());
+
+        ArgumentCaptor<List<UserEntity>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepo).saveAll(users.capture());
+        assertEquals("hashed-" + outcomes.get(0).getTemporaryPassword(), new String(users.getValue().get(0).getPassword()));
+
+        ArgumentCaptor<List<TraineeEntity>> trainees = ArgumentCaptor.forClass(List.class);
+        verify(traineeRepo).saveAll(trainees.capture());
+        assertEquals(2, trainees.getValue().size());
+        assertSame(users.getValue().get(1), trainees.getValue().get(1).getUserEntity());
+
+        verify(transactionManager).commit(any());
+        assertEquals(2.0, meterRegistry.get("registration.bulk.registered").counter().count());
+        assertEquals(4, meterRegistry.get("registration.bulk.stage").timers().size());
+    }
+
+    @Test
+    void registerTrainees_splitsIntoChunkTransactions() {
+        int rows = BulkRegistrationServiceDbImpl.CHUNK_SIZE + 1;
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(usernameAllocator.allocateAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Trainee> trainees = IntStream.range(0, rows).mapToObj(i -> trainee("First" + i, "Last" + i)).toList();
+        List<RegistrationOutcome> outcomes = new ArrayList<>();
+        service.registerTrainees(trainees, outcomes::add);
+
+        assertEquals(rows, outcomes.size());
+        verify(transactionManager, times(2)).commit(any());
+        verify(userRepo, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void registerTrainers_rejectsUnknownSpecialization() {
+        TrainingTypeEntity yoga = new TrainingTypeEntity();
+        yoga.setTrainingTypeName("Yoga");
+        when(trainingTypeCache.findId("Yoga")).thenReturn(Optional.of(7L));
+        when(trainingTypeCache.findId("Chess")).thenReturn(Optional.empty());
+        when(trainingTypeCache.reference(7L)).thenReturn(yoga);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(usernameAllocator.allocateAll(List.of("Anna.Stone"))).thenReturn(List.of("Anna.Stone"));
+
+        List<RegistrationOutcome> outcomes = new ArrayList<>();
+        service.registerTrainers(List.of(trainer("Anna", "Stone", "Yoga"), trainer("Boris", "Kane", "Chess")),
+                outcomes::add);
+
+        assertEquals("Anna.Stone", outcomes.get(0).getUsername());
+        assertEquals("Invalid specialization: Chess", outcomes.get(1).getError());
+
+        ArgumentCaptor<List<TrainerEntity>> trainers = ArgumentCaptor.forClass(List.class);
+        verify(trainerRepo).saveAll(trainers.capture());
+        assertSame(yoga, trainers.getValue().get(0).getSpecialization());
+    }
+
+    @Test
+    void registerTrainers_looksUpEachSpecializationOnce() {
+        when(trainingTypeCache.findId("Yoga")).thenReturn(Optional.of(7L));
+        when(trainingTypeCache.reference(7L)).thenReturn(new TrainingTypeEntity());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(usernameAllocator.allocateAll(anyList())).thenReturn(List.of("Anna.Stone", "Boris.Kane"));
+
+        service.registerTrainers(List.of(trainer("Anna", "Stone", "Yoga"), trainer("Boris", "Kane", "Yoga")),
+                outcome -> { });
+
+        verify(trainingTypeCache, times(1)).findId("Yoga");
+        verify(trainingTypeCache, never()).getReference(anyString());
+    }
+
+    @Test
+    void registerTrainees_reportsRolledBackChunkAsResubmittable() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(usernameAllocator.allocateAll(anyList())).thenReturn(List.of("John.Smith"));
+        when(userRepo.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate username"));
+
+        List<RegistrationOutcome> outcomes = new ArrayList<>();
+        service.registerTrainees(List.of(trainee("John", "Smith")), outcomes::add);
+
+        assertEquals(1, outcomes.size());
+        assertNull(outcomes.get(0).getUsername());
+        assertEquals("Registration failed, resubmit this row", outcomes.get(0).getError());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static Trainee trainee(String firstName, String lastName) {
+        return Trainee.builder().firstName(firstName).lastName(lastName).build();
+    }
+
+    private static Trainer trainer(String firstName, String lastName, String specialization) {
+        return Trainer.builder().firstName(firstName).lastName(lastName).specialization(specialization).build();
+    }
+}
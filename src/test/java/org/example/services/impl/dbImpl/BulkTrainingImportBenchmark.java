@@ -0,0 +1,180 @@
+package org.example.services.impl.dbImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.example.actuator.TrainingTypeCacheMetrics;
+import org.example.api.dto.request.TrainingRequest;
+import org.example.integration.messaging.WorkloadOutbox;
+import org.example.mapper.TrainingMapper;
+import org.example.persistance.entity.TraineeEntity;
+import org.example.persistance.entity.TrainerEntity;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.model.BulkTrainingResult;
+import org.example.persistance.repository.TrainingRepo;
+import org.example.persistance.repository.TrainingTypeRepo;
+import org.example.persistance.repository.WorkloadOutboxRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second through POST /api/trainings (one transaction and one INSERT per row) versus
+ * the bulk path (set-based lookups, pooled sequence ids, JDBC batches), each writing its workload
+ * events to the real outbox. Excluded from the
+ * default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=BulkTrainingImportBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({TrainingServiceDbImpl.class, TrainingTypeCache.class, TrainingTypeCacheMetrics.class, WorkloadOutbox.class,
+        BulkTrainingImportBenchmark.Mappers.class})
+class BulkTrainingImportBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000);
+    private static final int TRAINEES = 50;
+    private static final int TRAINERS = 10;
+
+    @TestConfiguration
+    @ComponentScan(basePackageClasses = TrainingMapper.class)
+    static class Mappers {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private WorkloadOutboxRepo workloadOutboxRepo;
+
+    @Autowired
+    private TrainingServiceDbImpl trainingService;
+
+    @Autowired
+    private TrainingRepo trainingRepo;
+
+    @Autowired
+    private TrainingTypeRepo trainingTypeRepo;
+
+    @Autowired
+    private TrainingTypeCache trainingTypeCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        deleteImported();
+        if (trainingTypeRepo.count() > 0) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TrainingTypeEntity type = new TrainingTypeEntity();
+            type.setTrainingTypeName("Cardio");
+            entityManager.persist(type);
+
+            for (int i = 0; i < TRAINERS; i++) {
+                TrainerEntity trainer = new TrainerEntity();
+                trainer.setUserEntity(user("bulk.trainer" + i));
+                trainer.setSpecialization(type);
+                entityManager.persist(trainer);
+            }
+            for (int i = 0; i < TRAINEES; i++) {
+                TraineeEntity trainee = new TraineeEntity();
+                trainee.setUserEntity(user("bulk.trainee" + i));
+                entityManager.persist(trainee);
+            }
+        });
+        trainingTypeCache.refresh();
+    }
+
+    @Test
+    void compareSingleRowAndBulkThroughput() {
+        List<TrainingRequest> requests = requests();
+
+        long start = System.nanoTime();
+        requests.forEach(trainingService::createTraining);
+        long singleNanos = System.nanoTime() - start;
+        assertEquals(ROWS, trainingRepo.count());
+        assertEquals(ROWS, workloadOutboxRepo.count());
+
+        deleteImported();
+
+        start = System.nanoTime();
+        BulkTrainingResult result = trainingService.createTrainings(requests);
+        long bulkNanos = System.nanoTime() - start;
+        assertEquals(ROWS, result.getCreated());
+        assertEquals(ROWS, trainingRepo.count());
+        assertEquals(ROWS, workloadOutboxRepo.count());
+
+        log.info("{} rows: single-row {} rows/s, bulk {} rows/s",
+                ROWS, rowsPerSecond(singleNanos), rowsPerSecond(bulkNanos));
+    }
+
+    private void deleteImported() {
+        trainingRepo.deleteAllInBatch();
+        workloadOutboxRepo.deleteAllInBatch();
+    }
+
+    private long rowsPerSecond(long nanos) {
+        return ROWS * 1_000_000_000L / Math.max(1, nanos);
+    }
+
+    private List<TrainingRequest> requests() {
+        List<TrainingRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(TrainingRequest.builder()
+                    .traineeUsername("bulk.trainee" + i % TRAINEES)
+                    .trainerUsername("bulk.trainer" + i % TRAINERS)
+                    .trainingName("Bulk session " + i)
+                    .trainingType("Cardio")
+                    .trainingDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .trainingDurationMinutes(60)
+                    .build());
+        }
+        return requests;
+    }
+
+    private UserEntity user(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setFirstName("Bulk");
+        user.setLastName("User");
+        user.setPassword("encodedPassword".toCharArray());
+        user.setIsActive(true);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -7,7 +7,9 @@ import org.example.mapper.TraineeMapper;
 import org.example.persistance.model.Trainee;
 import org.example.persistance.repository.TraineeRepo;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
+import org.example.services.UsernameAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +45,12 @@ class TraineeServiceDbImplTest {
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private UsernameAllocator usernameAllocator;
+
+    @Mock
+    private UserSecurityVersions securityVersions;
+
     @InjectMocks
     private TraineeServiceDbImpl traineeService;
 
@@ -78,8 +86,8 @@ class TraineeServiceDbImplTest {
 
     @Test
     void createTrainee_shouldCreateAndReturnTrainee() {
-        when(userRepo.findByUsername(anyString()))
-                .thenReturn(Optional.empty());
+        when(usernameAllocator.allocate("John", "Doe"))
+                .thenReturn("John.Doe");
 
         when(passwordEncoder.encode(anyString()))
                 .thenReturn("encoded");
@@ -146,6 +154,7 @@ class TraineeServiceDbImplTest {
         traineeService.deleteTraineeByUsername("john.doe");
 
         verify(traineeRepo).deleteByUsername("john.doe");
+        verify(securityVersions).invalidate("john.doe");
     }
 
     @Test
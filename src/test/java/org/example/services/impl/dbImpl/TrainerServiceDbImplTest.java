@@ -8,10 +8,11 @@ import org.example.persistance.entity.UserEntity;
 import org.example.persistance.model.Trainer;
 import org.example.persistance.model.TrainerRegistrationResult;
 import org.example.persistance.repository.TrainerRepo;
-import org.example.persistance.repository.TrainingTypeRepo;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.example.services.TokenService;
 import org.example.services.UserService;
+import org.example.services.UsernameAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,11 +34,15 @@ class TrainerServiceDbImplTest {
 
     @Mock private TrainerRepo trainerRepo;
     @Mock private TrainerMapper trainerMapper;
-    @Mock private TrainingTypeRepo trainingTypeRepo;
+    @Mock private TrainingTypeCache trainingTypeCache;
     @Mock private UserRepo userRepo;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private TokenService tokenService;
     @Mock private UserService userService; // required by constructor
+    @Mock private UsernameAllocator usernameAllocator;
+
+    @Mock
+    private UserSecurityVersions securityVersions;
 
     @InjectMocks
     private TrainerServiceDbImpl trainerService;
@@ -74,13 +79,12 @@ class TrainerServiceDbImplTest {
 
     @Test
     void createTrainer_success() {
-        // username availability check: first call returns empty => username is free
-        when(userRepo.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(usernameAllocator.allocate("Mike", "Johnson")).thenReturn("Mike.Johnson");
 
         when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
         when(userRepo.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        when(trainingTypeRepo.findByTrainingTypeName("Fitness")).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCache.getReference("Fitness")).thenReturn(Optional.of(trainingType));
         when(trainerRepo.save(any(TrainerEntity.class))).thenReturn(trainerEntity);
 
         when(tokenService.generateToken(anyString())).thenReturn("jwt-token");
@@ -110,25 +114,25 @@ class TrainerServiceDbImplTest {
     }
 
     @Test
-    void createTrainer_shouldAppendCounter_whenUsernameAlreadyExists() {
-        // base username "Mike.Johnson" is taken, then "Mike.Johnson1" is free
-        when(userRepo.findByUsername("Mike.Johnson")).thenReturn(Optional.of(userEntity));
-        when(userRepo.findByUsername("Mike.Johnson1")).thenReturn(Optional.empty());
+    void createTrainer_usesAllocatedUsername() {
+        // the allocator already skipped the taken "Mike.Johnson"
+        when(usernameAllocator.allocate("Mike", "Johnson")).thenReturn("Mike.Johnson1");
 
         when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
         when(userRepo.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(trainingTypeRepo.findByTrainingTypeName("Fitness")).thenReturn(Optional.of(trainingType));
+        when(trainingTypeCache.getReference("Fitness")).thenReturn(Optional.of(trainingType));
         when(trainerRepo.save(any(TrainerEntity.class))).thenReturn(trainerEntity);
         when(tokenService.generateToken(anyString())).thenReturn("jwt-token");
 
         TrainerRegistrationResult result = trainerService.createTrainer(trainerModel);
 
         assertEquals("Mike.Johnson1", result.getUsername());
+        verify(userRepo, never()).findByUsername(anyString());
     }
 
     @Test
     void createTrainer_trainingTypeNotFound() {
-        when(userRepo.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(usernameAllocator.allocate("Mike", "Johnson")).thenReturn("Mike.Johnson");
 
         // ✅ needed to avoid NPE on toCharArray()
         when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
@@ -136,7 +140,7 @@ class TrainerServiceDbImplTest {
         when(userRepo.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // ✅ trigger your expected exception
-        when(trainingTypeRepo.findByTrainingTypeName("Fitness")).thenReturn(Optional.empty());
+        when(trainingTypeCache.getReference("Fitness")).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class,
                 () -> trainerService.createTrainer(trainerModel));
@@ -189,15 +193,15 @@ class TrainerServiceDbImplTest {
 
         // username should remain the same
         assertEquals("Mike.Johnson", trainerEntity.getUserEntity().getUsername());
-        verify(userRepo, never()).findByUsername(anyString()); // generateUniqueUsername should NOT be called
+        verify(usernameAllocator, never()).allocate(anyString(), anyString());
     }
 
     @Test
     void updateTrainer_success_nameChanged_shouldRegenerateUsername() {
         when(trainerRepo.findByUsername("Mike.Johnson")).thenReturn(Optional.of(trainerEntity));
 
-        // when name changes, service calls generateUniqueUsername(base)
-        when(userRepo.findByUsername("New.Name")).thenReturn(Optional.empty());
+        // when name changes, service allocates a username for the new name
+        when(usernameAllocator.allocate("New", "Name")).thenReturn("New.Name");
 
         // trainerRepo.save returns entity with updated username (same object in this case)
         when(trainerRepo.save(any(TrainerEntity.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -219,10 +223,11 @@ class TrainerServiceDbImplTest {
 
         assertNotNull(result);
         verify(trainerMapper).updateEntity(updatedTrainer, trainerEntity);
-        verify(userRepo).findByUsername("New.Name");
+        verify(usernameAllocator).allocate("New", "Name");
         verify(trainerRepo).save(trainerEntity);
 
         assertEquals("New.Name", trainerEntity.getUserEntity().getUsername());
+        verify(securityVersions).invalidate("Mike.Johnson");
     }
 
     @Test
@@ -1,27 +1,45 @@
 package org.example.services.impl.dbImpl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.example.api.dto.request.TrainingRequest;
 import org.example.exception.UserNotFoundException;
+import org.example.integration.messaging.WorkloadEventMessage;
+import org.example.integration.messaging.WorkloadOutbox;
+import org.example.integration.workload.dto.TrainerWorkloadEventRequest;
+import org.example.mapper.TrainerWorkloadEventMapper;
 import org.example.mapper.TrainingMapper;
 import org.example.persistance.entity.TraineeEntity;
 import org.example.persistance.entity.TrainerEntity;
 import org.example.persistance.entity.TrainingEntity;
 import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.model.BulkTrainingResult;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingCursor;
+import org.example.persistance.model.TrainingPage;
 import org.example.persistance.model.TrainingType;
+import org.example.persistance.projection.TrainingView;
 import org.example.persistance.repository.TraineeRepo;
 import org.example.persistance.repository.TrainerRepo;
 import org.example.persistance.repository.TrainingRepo;
-import org.example.persistance.repository.TrainingTypeRepo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,24 +58,36 @@ class TrainingServiceDbImplTest {
     private TrainerRepo trainerRepo;
 
     @Mock
-    private TrainingTypeRepo trainingTypeRepo;
+    private TrainingTypeCache trainingTypeCache;
 
     @Mock
     private TrainingMapper trainingMapper;
 
+    @Mock
+    private TrainerWorkloadEventMapper trainerWorkloadEventMapper;
+
+    @Mock
+    private WorkloadOutbox workloadOutbox;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private TrainingServiceDbImpl service;
 
     @Test
     void getTraineeTrainings_success() {
-        TrainingEntity entity = new TrainingEntity();
+        TrainingView view = view(1L, LocalDate.now());
         Training model = new Training();
 
         when(trainingRepo.findTraineeTrainings(
                 eq("john"), any(), any(), any(), any()
-        )).thenReturn(List.of(entity));
+        )).thenReturn(List.of(view));
 
-        when(trainingMapper.toTrainingModels(List.of(entity)))
+        when(trainingMapper.toTrainingModelsFromViews(List.of(view)))
                 .thenReturn(List.of(model));
 
         List<Training> result = service.getTraineeTrainings(
@@ -70,19 +100,19 @@ class TrainingServiceDbImplTest {
 
         assertEquals(1, result.size());
         verify(trainingRepo).findTraineeTrainings(eq("john"), any(), any(), any(), any());
-        verify(trainingMapper).toTrainingModels(anyList());
+        verify(trainingMapper).toTrainingModelsFromViews(anyList());
     }
 
     @Test
     void getTrainerTrainings_success() {
-        TrainingEntity entity = new TrainingEntity();
+        TrainingView view = view(1L, LocalDate.now());
         Training model = new Training();
 
         when(trainingRepo.findTrainerTrainings(
                 eq("trainer01"), any(), any(), any()
-        )).thenReturn(List.of(entity));
+        )).thenReturn(List.of(view));
 
-        when(trainingMapper.toTrainingModels(List.of(entity)))
+        when(trainingMapper.toTrainingModelsFromViews(List.of(view)))
                 .thenReturn(List.of(model));
 
         List<Training> result = service.getTrainerTrainings(
@@ -94,7 +124,7 @@ class TrainingServiceDbImplTest {
 
         assertEquals(1, result.size());
         verify(trainingRepo).findTrainerTrainings(eq("trainer01"), any(), any(), any());
-        verify(trainingMapper).toTrainingModels(anyList());
+        verify(trainingMapper).toTrainingModelsFromViews(anyList());
     }
 
 //    @Test
@@ -124,7 +154,7 @@ class TrainingServiceDbImplTest {
 //
 //        when(traineeRepo.findByUsername("john")).thenReturn(Optional.of(trainee));
 //        when(trainerRepo.findByUsername("alex")).thenReturn(Optional.of(trainer));
-//        when(trainingTypeRepo.findByTrainingTypeName("Cardio")).thenReturn(Optional.of(typeEntity));
+//        when(trainingTypeCache.find("Cardio")).thenReturn(Optional.of(typeEntity));
 //        when(trainingRepo.save(any(TrainingEntity.class))).thenReturn(savedEntity);
 //        when(trainingMapper.toTrainingModel(savedEntity)).thenReturn(training);
 //
@@ -173,7 +203,7 @@ class TrainingServiceDbImplTest {
 //
 //        when(traineeRepo.findByUsername("john")).thenReturn(Optional.of(new TraineeEntity()));
 //        when(trainerRepo.findByUsername("alex")).thenReturn(Optional.of(new TrainerEntity()));
-//        when(trainingTypeRepo.findByTrainingTypeName("InvalidType")).thenReturn(Optional.empty());
+//        when(trainingTypeCache.find("InvalidType")).thenReturn(Optional.empty());
 //
 //        assertThrows(IllegalArgumentException.class, () -> service.createTraining(request));
 //    }
@@ -212,4 +242,184 @@ class TrainingServiceDbImplTest {
         assertEquals(1, result.size());
         verify(trainingRepo).findAll();
     }
+
+    @Test
+    void listPage_firstPage_returnsNextCursorWhenMoreRowsExist() {
+        TrainingView first = view(1L, LocalDate.of(2025, 1, 1));
+        TrainingView second = view(2L, LocalDate.of(2025, 1, 2));
+        TrainingView extra = view(3L, LocalDate.of(2025, 1, 3));
+
+        when(trainingRepo.findFirstPage(PageRequest.of(0, 3))).thenReturn(List.of(first, second, extra));
+        when(trainingMapper.toTrainingModelsFromViews(List.of(first, second)))
+                .thenReturn(List.of(new Training(), new Training()));
+
+        TrainingPage page = service.listPage(null, 2);
+
+        assertEquals(2, page.getTrainings().size());
+        TrainingCursor next = TrainingCursor.decode(page.getNextCursor());
+        assertEquals(LocalDate.of(2025, 1, 2), next.getTrainingDate());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void listPage_afterCursor_lastPageHasNoNextCursor() {
+        String cursor = new TrainingCursor(LocalDate.of(2025, 1, 2), 2L).encode();
+        TrainingView last = view(3L, LocalDate.of(2025, 1, 3));
+
+        when(trainingRepo.findPageAfter(LocalDate.of(2025, 1, 2), 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(last));
+        when(trainingMapper.toTrainingModelsFromViews(List.of(last))).thenReturn(List.of(new Training()));
+
+        TrainingPage page = service.listPage(cursor, 2);
+
+        assertEquals(1, page.getTrainings().size());
+        assertNull(page.getNextCursor());
+        verify(trainingRepo, never()).findFirstPage(any());
+    }
+
+    @Test
+    void listPage_clampsLimit() {
+        when(trainingRepo.findFirstPage(PageRequest.of(0, 501))).thenReturn(List.of());
+        when(trainingMapper.toTrainingModelsFromViews(List.of())).thenReturn(List.of());
+
+        service.listPage(null, 10_000);
+
+        verify(trainingRepo).findFirstPage(PageRequest.of(0, 501));
+    }
+
+    @Test
+    void listPage_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> service.listPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void listPage_cursorWithNameTiebreak_rejected() {
+        String cursor = new TrainingCursor(LocalDate.of(2025, 1, 2), "Morning Run").encode();
+
+        assertThrows(IllegalArgumentException.class, () -> service.listPage(cursor, 10));
+        verifyNoInteractions(trainingRepo);
+    }
+
+    @Test
+    void streamAll_mapsEveryRow() {
+        TrainingView first = view(1L, LocalDate.of(2025, 1, 1));
+        TrainingView second = view(2L, LocalDate.of(2025, 1, 2));
+        Training firstModel = Training.builder().trainingName("T1").build();
+        Training secondModel = Training.builder().trainingName("T2").build();
+
+        when(trainingRepo.streamAllOrdered()).thenReturn(Stream.of(first, second));
+        when(trainingMapper.toTrainingModelFromView(first)).thenReturn(firstModel);
+        when(trainingMapper.toTrainingModelFromView(second)).thenReturn(secondModel);
+
+        List<Training> streamed = new ArrayList<>();
+        service.streamAll(streamed::add);
+
+        assertEquals(List.of(firstModel, secondModel), streamed);
+    }
+
+    @Test
+    void createTrainings_resolvesReferencesOnceAndReportsRejectedRows() {
+        TraineeEntity trainee = traineeEntity("john");
+        TrainerEntity trainer = trainerEntity("alex");
+        TrainingTypeEntity cardio = new TrainingTypeEntity();
+        cardio.setTrainingTypeName("Cardio");
+
+        when(traineeRepo.findAllByUsernameIn(Set.of("john"))).thenReturn(List.of(trainee));
+        when(trainerRepo.findAllByUsernameIn(Set.of("alex", "ghost"))).thenReturn(List.of(trainer));
+        when(trainingTypeCache.find("Cardio")).thenReturn(Optional.of(cardio));
+        when(trainingTypeCache.find("Chess")).thenReturn(Optional.empty());
+        when(trainingRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(trainerWorkloadEventMapper.toAddEvent(any(), any())).thenReturn(new TrainerWorkloadEventRequest());
+
+        List<TrainingRequest> requests = List.of(
+                bulkRow("john", "alex", "Cardio", 60),
+                bulkRow("john", "ghost", "Cardio", 60),
+                bulkRow("john", "alex", "Chess", 60),
+                bulkRow("john", "alex", "Cardio", 0),
+                bulkRow("john", "alex", "Cardio", 45)
+        );
+
+        BulkTrainingResult result = service.createTrainings(requests);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(
+                new BulkTrainingResult.RowFailure(1, "Trainer not found: ghost"),
+                new BulkTrainingResult.RowFailure(2, "Invalid training type: Chess"),
+                new BulkTrainingResult.RowFailure(3, "Training duration must be at least 1 minute")
+        ), result.getFailures());
+
+        ArgumentCaptor<List<TrainingEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(trainingRepo).saveAll(saved.capture());
+        assertEquals(List.of(60, 45), saved.getValue().stream().map(TrainingEntity::getTrainingDurationMinutes).toList());
+        verify(trainingRepo, never()).save(any());
+        verify(traineeRepo, never()).findByUsername(any());
+
+        ArgumentCaptor<List<WorkloadEventMessage>> events = ArgumentCaptor.forClass(List.class);
+        verify(workloadOutbox).enqueueAll(events.capture());
+        assertEquals(2, events.getValue().size());
+    }
+
+    @Test
+    void createTrainings_flushesAndClearsThePersistenceContextPerChunk() {
+        TraineeEntity trainee = traineeEntity("john");
+        TrainerEntity trainer = trainerEntity("alex");
+        TrainingTypeEntity cardio = new TrainingTypeEntity();
+        cardio.setTrainingTypeName("Cardio");
+
+        when(traineeRepo.findAllByUsernameIn(Set.of("john"))).thenReturn(List.of(trainee));
+        when(trainerRepo.findAllByUsernameIn(Set.of("alex"))).thenReturn(List.of(trainer));
+        when(trainingTypeCache.find("Cardio")).thenReturn(Optional.of(cardio));
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(trainingRepo.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TrainingEntity> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+        when(trainerWorkloadEventMapper.toAddEvent(any(), any())).thenReturn(new TrainerWorkloadEventRequest());
+
+        List<TrainingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TrainingServiceDbImpl.BULK_FLUSH_SIZE + 1; i++) {
+            requests.add(bulkRow("john", "alex", "Cardio", 60));
+        }
+
+        BulkTrainingResult result = service.createTrainings(requests);
+
+        assertEquals(TrainingServiceDbImpl.BULK_FLUSH_SIZE + 1, result.getCreated());
+        assertEquals(List.of(TrainingServiceDbImpl.BULK_FLUSH_SIZE, 1), chunkSizes);
+        InOrder inOrder = inOrder(trainingRepo, workloadOutbox, entityManager);
+        for (int chunk = 0; chunk < 2; chunk++) {
+            inOrder.verify(trainingRepo).saveAll(anyList());
+            inOrder.verify(workloadOutbox).enqueueAll(anyList());
+            inOrder.verify(entityManager).flush();
+            inOrder.verify(entityManager).clear();
+        }
+    }
+
+    private static TrainingRequest bulkRow(String trainee, String trainer, String type, int duration) {
+        return TrainingRequest.builder()
+                .traineeUsername(trainee)
+                .trainerUsername(trainer)
+                .trainingName("Bulk session")
+                .trainingType(type)
+                .trainingDate(LocalDate.of(2025, 1, 1))
+                .trainingDurationMinutes(duration)
+                .build();
+    }
+
+    private static TraineeEntity traineeEntity(String username) {
+        TraineeEntity trainee = new TraineeEntity();
+        trainee.setUserEntity(UserEntity.builder().username(username).build());
+        return trainee;
+    }
+
+    private static TrainerEntity trainerEntity(String username) {
+        TrainerEntity trainer = new TrainerEntity();
+        trainer.setUserEntity(UserEntity.builder().username(username).build());
+        return trainer;
+    }
+
+    private static TrainingView view(Long id, LocalDate trainingDate) {
+        return new TrainingView(id, "john", "alex", "Session " + id, "Cardio", trainingDate, 60);
+    }
 }
@@ -0,0 +1,126 @@
+package org.example.services.impl.dbImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.actuator.TrainingTypeCacheMetrics;
+import org.example.persistance.entity.TrainingTypeEntity;
+import org.example.persistance.repository.TrainingTypeRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingTypeCacheTest {
+
+    @Mock
+    private TrainingTypeRepo trainingTypeRepo;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrainingTypeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TrainingTypeCache(trainingTypeRepo, entityManager, new TrainingTypeCacheMetrics(meterRegistry));
+        when(trainingTypeRepo.findAll(any(Sort.class))).thenReturn(List.of(type(1L, "Yoga"), type(2L, "Cardio")));
+        cache.refresh();
+    }
+
+    @Test
+    void find_returnsDetachedCopyWithoutQuerying() {
+        TrainingTypeEntity yoga = cache.find("Yoga").orElseThrow();
+
+        assertEquals(1L, yoga.getId());
+        assertEquals("Yoga", yoga.getTrainingTypeName());
+        assertNotSame(yoga, cache.find("Yoga").orElseThrow());
+        assertTrue(cache.find("Chess").isEmpty());
+        assertTrue(cache.find(null).isEmpty());
+
+        verify(trainingTypeRepo, times(1)).findAll(any(Sort.class));
+        verifyNoMoreInteractions(trainingTypeRepo);
+        assertEquals(2.0, lookups("hit"));
+        assertEquals(2.0, lookups("miss"));
+    }
+
+    @Test
+    void getReference_delegatesToPersistenceContext() {
+        TrainingTypeEntity reference = new TrainingTypeEntity();
+        when(entityManager.getReference(TrainingTypeEntity.class, 2L)).thenReturn(reference);
+
+        assertSame(reference, cache.getReference("Cardio").orElseThrow());
+        assertTrue(cache.getReference("Chess").isEmpty());
+        verify(entityManager, never()).getReference(TrainingTypeEntity.class, null);
+    }
+
+    @Test
+    void refresh_swapsWholeSnapshot() {
+        assertEquals(List.of("Yoga", "Cardio"), cache.names());
+
+        when(trainingTypeRepo.findAll(any(Sort.class))).thenReturn(List.of(type(2L, "Cardio"), type(3L, "Zumba")));
+        cache.refresh();
+
+        assertEquals(List.of("Cardio", "Zumba"), cache.names());
+        assertTrue(cache.findId("Yoga").isEmpty());
+        assertEquals(3L, cache.find("Zumba").orElseThrow().getId());
+        assertEquals(2.0, meterRegistry.get("training_types.cache.refreshes").counter().count());
+    }
+
+    @Test
+    void getReference_countsOneLookupPerName() {
+        when(entityManager.getReference(TrainingTypeEntity.class, 2L)).thenReturn(new TrainingTypeEntity());
+
+        Long id = cache.findId("Cardio").orElseThrow();
+        cache.reference(id);
+
+        assertEquals(1.0, lookups("hit"));
+    }
+
+    @Test
+    void refreshAfterCommit_waitsForTheWritingTransaction() {
+        when(trainingTypeRepo.findAll(any(Sort.class))).thenReturn(List.of(type(1L, "Yoga"), type(3L, "Zumba")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.refreshAfterCommit();
+            assertEquals(List.of("Yoga", "Cardio"), cache.names());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("Yoga", "Zumba"), cache.names());
+    }
+
+    @Test
+    void scheduledRefresh_keepsPreviousSnapshotWhenDatabaseFails() {
+        when(trainingTypeRepo.findAll(any(Sort.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        cache.scheduledRefresh();
+
+        assertEquals(List.of("Yoga", "Cardio"), cache.names());
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("training_types.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private static TrainingTypeEntity type(Long id, String name) {
+        return TrainingTypeEntity.builder().id(id).trainingTypeName(name).build();
+    }
+}
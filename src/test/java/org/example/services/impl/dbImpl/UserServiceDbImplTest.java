@@ -5,6 +5,7 @@ import org.example.exception.UserNotFoundException;
 import org.example.mapper.UserMapper;
 import org.example.persistance.model.User;
 import org.example.persistance.repository.UserRepo;
+import org.example.security.service.UserSecurityVersions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,7 +32,7 @@ class UserServiceDbImplTest {
         userMapper = mock(UserMapper.class);
         passwordEncoder = mock(PasswordEncoder.class);
 
-        service = new UserServiceDbImpl(userRepo, userMapper, passwordEncoder);
+        service = new UserServiceDbImpl(userRepo, userMapper, passwordEncoder, mock(UserSecurityVersions.class));
 
         SecurityContextHolder.clearContext();
     }
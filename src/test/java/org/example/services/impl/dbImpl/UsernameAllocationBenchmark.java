@@ -0,0 +1,106 @@
+package org.example.services.impl.dbImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-registration latency as more people share one name: the old probe loop (one SELECT per
+ * taken suffix) against the counter allocator. Excluded from the default build; run with
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=UsernameAllocationBenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UsernameAllocatorDbImpl.class)
+class UsernameAllocationBenchmark {
+
+    private static final int DUPLICATES = Integer.getInteger("benchmark.rows", 1_000);
+    private static final int BUCKET = 100;
+
+    @Autowired
+    private UsernameAllocatorDbImpl allocator;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        userRepo.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM username_counters");
+    }
+
+    @Test
+    void compareProbeLoopAndCounter() {
+        // Warm up both code paths on a different name so the first bucket is not JIT time
+        for (int i = 0; i < BUCKET; i++) {
+            saveUser(probe("Warm.Up"));
+            saveUser(allocator.allocate("Warm", "Counter"));
+        }
+        cleanUp();
+
+        measure("probe loop", () -> probe("John.Smith"));
+        cleanUp();
+        measure("counter", () -> allocator.allocate("John", "Smith"));
+    }
+
+    private void measure(String strategy, Supplier<String> usernames) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long[] bucketNanos = new long[DUPLICATES / BUCKET];
+
+        for (int i = 0; i < DUPLICATES; i++) {
+            long start = System.nanoTime();
+            transaction.executeWithoutResult(status -> saveUser(usernames.get()));
+            bucketNanos[i / BUCKET] += System.nanoTime() - start;
+        }
+        assertEquals(DUPLICATES, userRepo.count());
+
+        log.info("{}: first {} registrations {} us avg, last {} registrations {} us avg",
+                strategy,
+                BUCKET, bucketNanos[0] / BUCKET / 1_000,
+                BUCKET, bucketNanos[bucketNanos.length - 1] / BUCKET / 1_000);
+    }
+
+    // What TraineeServiceDbImpl/TrainerServiceDbImpl did before the counter existed
+    private String probe(String base) {
+        String username = base;
+        int counter = 1;
+        while (userRepo.findByUsername(username).isPresent()) {
+            username = base + counter;
+            counter++;
+        }
+        return username;
+    }
+
+    private void saveUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setFirstName("John");
+        user.setLastName("Smith");
+        user.setPassword("encodedPassword".toCharArray());
+        user.setIsActive(true);
+        userRepo.save(user);
+    }
+}
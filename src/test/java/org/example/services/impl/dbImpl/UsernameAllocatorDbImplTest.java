@@ -0,0 +1,147 @@
+package org.example.services.impl.dbImpl;
+
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UsernameAllocatorDbImpl.class)
+class UsernameAllocatorDbImplTest {
+
+    @Autowired
+    private UsernameAllocatorDbImpl allocator;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        userRepo.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM username_counters");
+    }
+
+    @Test
+    void allocate_startsWithBareBaseNameAndCountsUp() {
+        assertEquals("John.Smith", allocator.allocate("John", "Smith"));
+        assertEquals("John.Smith1", allocator.allocate("John", "Smith"));
+        assertEquals("John.Smith2", allocator.allocate("John", "Smith"));
+        assertEquals("Jane.Smith", allocator.allocate("Jane", "Smith"));
+    }
+
+    @Test
+    void allocate_seedsCounterPastExistingUsers() {
+        saveUser("John.Smith");
+        saveUser("John.Smith1");
+        saveUser("John.Smith3");
+        saveUser("John.Smith07");
+        saveUser("John.Smithson");
+
+        assertEquals("John.Smith4", allocator.allocate("John", "Smith"));
+        assertEquals("John.Smith5", allocator.allocate("John", "Smith"));
+    }
+
+    @Test
+    void allocate_treatsLikeWildcardsInNamesLiterally() {
+        saveUser("Ann_x.Lee");
+        saveUser("Annax.Lee1");
+
+        assertEquals("Ann_x.Lee1", allocator.allocate("Ann_x", "Lee"));
+    }
+
+    @Test
+    void allocate_baseEndingInDigit_doesNotReuseAnotherCountersUsername() {
+        assertEquals("John.Smith", allocator.allocate("John", "Smith"));
+        saveUser("John.Smith");
+        assertEquals("John.Smith1", allocator.allocate("John", "Smith1"));
+        saveUser("John.Smith1");
+
+        assertEquals("John.Smith2", allocator.allocate("John", "Smith"));
+    }
+
+    @Test
+    void allocate_baseEndingInDigitRegisteredFirst_shorterBaseSeedsPastIt() {
+        assertEquals("John.Smith1", allocator.allocate("John", "Smith1"));
+        saveUser("John.Smith1");
+
+        assertEquals("John.Smith2", allocator.allocate("John", "Smith"));
+    }
+
+    @Test
+    void allocateAll_clashWithinOneBatch_drawsNextSuffix() {
+        List<String> usernames = allocator.allocateAll(List.of("John.Smith", "John.Smith1", "John.Smith"));
+
+        assertEquals(3, Set.copyOf(usernames).size());
+        assertEquals(List.of("John.Smith", "John.Smith1", "John.Smith2"), usernames);
+    }
+
+    @Test
+    void allocateAll_reservesOneBlockPerBaseName() {
+        saveUser("Ann.Lee");
+
+        List<String> usernames = allocator.allocateAll(List.of("Ann.Lee", "Bob.Ray", "Ann.Lee", "Ann.Lee"));
+
+        assertEquals(List.of("Ann.Lee1", "Bob.Ray", "Ann.Lee2", "Ann.Lee3"), usernames);
+        assertEquals("Ann.Lee4", allocator.allocate("Ann", "Lee"));
+        assertEquals(5L, jdbcTemplate.queryForObject(
+                "SELECT next_suffix FROM username_counters WHERE base_name = 'Ann.Lee'", Long.class));
+    }
+
+    @Test
+    void allocate_neverHandsOutTheSameUsernameConcurrently() throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Callable<List<String>> registrations = () -> IntStream.range(0, perThread)
+                    .mapToObj(i -> allocator.allocate("Mike", "Johnson"))
+                    .toList();
+            List<Future<List<String>>> results = executor.invokeAll(
+                    IntStream.range(0, threads).mapToObj(i -> registrations).toList());
+
+            Set<String> usernames = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                usernames.addAll(result.get());
+            }
+
+            Set<String> expected = IntStream.range(0, threads * perThread)
+                    .mapToObj(i -> i == 0 ? "Mike.Johnson" : "Mike.Johnson" + i)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, usernames);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void saveUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setFirstName("Existing");
+        user.setLastName("User");
+        user.setPassword("encodedPassword".toCharArray());
+        user.setIsActive(true);
+        userRepo.save(user);
+    }
+}
@@ -1,8 +1,11 @@
 package org.example.services.impl.inMemoryImpl;
 
 import org.example.api.dto.request.TrainingRequest;
+import org.example.dao.TraineeDao;
+import org.example.dao.TrainerDao;
 import org.example.dao.TrainingDao;
 import org.example.persistance.model.Training;
+import org.example.persistance.model.TrainingPage;
 import org.example.persistance.model.TrainingType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,13 +22,19 @@ import static org.mockito.Mockito.*;
 class TrainingServiceInMemoryImplTest {
 
     private TrainingDao trainingDao;
+    private TraineeDao traineeDao;
+    private TrainerDao trainerDao;
     private TrainingServiceInMemoryImpl trainingService;
 
     @BeforeEach
     void setUp() {
         trainingDao = mock(TrainingDao.class);
+        traineeDao = mock(TraineeDao.class);
+        trainerDao = mock(TrainerDao.class);
         trainingService = new TrainingServiceInMemoryImpl();
         trainingService.setTrainingDao(trainingDao);
+        trainingService.setTraineeDao(traineeDao);
+        trainingService.setTrainerDao(trainerDao);
     }
 
     private TrainingRequest createTrainingRequest(String name, String trainee, String trainer, String type, LocalDate date, int duration) {
@@ -128,14 +138,73 @@ class TrainingServiceInMemoryImplTest {
     }
 
     @Test
-    void testGetTraineeTrainings_unsupported() {
-        assertThrows(UnsupportedOperationException.class, () ->
-                trainingService.getTraineeTrainings("trainee01", null, null, null, null));
+    void testListPage_walksAllTrainingsByDateThenName() {
+        Training first = Training.builder().trainingName("B").trainingDate(LocalDate.of(2025, 1, 1)).build();
+        Training second = Training.builder().trainingName("A").trainingDate(LocalDate.of(2025, 1, 2)).build();
+        Training third = Training.builder().trainingName("C").trainingDate(LocalDate.of(2025, 1, 2)).build();
+        when(trainingDao.findAll()).thenReturn(List.of(third, first, second));
+
+        TrainingPage page1 = trainingService.listPage(null, 2);
+        assertEquals(List.of(first, second), page1.getTrainings());
+        assertNotNull(page1.getNextCursor());
+
+        TrainingPage page2 = trainingService.listPage(page1.getNextCursor(), 2);
+        assertEquals(List.of(third), page2.getTrainings());
+        assertNull(page2.getNextCursor());
     }
 
     @Test
-    void testGetTrainerTrainings_unsupported() {
-        assertThrows(UnsupportedOperationException.class, () ->
-                trainingService.getTrainerTrainings("trainer01", null, null, null));
+    void testListPage_rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> trainingService.listPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetTraineeTrainings_filtersByDateTypeAndTrainerName() {
+        Training march = training("March", "trainee01", "trainer01", "Cardio", LocalDate.of(2025, 3, 1));
+        Training january = training("January", "trainee01", "trainer01", "Cardio", LocalDate.of(2025, 1, 1));
+        Training otherTrainer = training("Other trainer", "trainee01", "trainer02", "Cardio", LocalDate.of(2025, 2, 1));
+        Training otherType = training("Other type", "trainee01", "trainer01", "Yoga", LocalDate.of(2025, 2, 1));
+        Training otherTrainee = training("Other trainee", "trainee02", "trainer01", "Cardio", LocalDate.of(2025, 2, 1));
+        when(trainingDao.findAll()).thenReturn(List.of(march, january, otherTrainer, otherType, otherTrainee));
+        when(trainerDao.findUsernamesByNameContaining("smi")).thenReturn(Set.of("trainer01"));
+
+        List<Training> result = trainingService.getTraineeTrainings(
+                "trainee01", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), "smi", "Cardio");
+
+        assertEquals(List.of(january, march), result);
+    }
+
+    @Test
+    void testGetTraineeTrainings_withoutNameFilterSkipsIndex() {
+        Training training = training("Solo", "trainee01", "trainer01", "Cardio", LocalDate.of(2025, 1, 1));
+        when(trainingDao.findAll()).thenReturn(List.of(training));
+
+        List<Training> result = trainingService.getTraineeTrainings("trainee01", null, null, null, null);
+
+        assertEquals(List.of(training), result);
+        verifyNoInteractions(trainerDao);
+    }
+
+    @Test
+    void testGetTrainerTrainings_filtersByTraineeName() {
+        Training matched = training("Matched", "trainee01", "trainer01", "Cardio", LocalDate.of(2025, 1, 1));
+        Training unmatched = training("Unmatched", "trainee02", "trainer01", "Cardio", LocalDate.of(2025, 1, 2));
+        when(trainingDao.findAll()).thenReturn(List.of(matched, unmatched));
+        when(traineeDao.findUsernamesByNameContaining("ann")).thenReturn(Set.of("trainee01"));
+
+        List<Training> result = trainingService.getTrainerTrainings("trainer01", null, null, "ann");
+
+        assertEquals(List.of(matched), result);
+    }
+
+    private Training training(String name, String trainee, String trainer, String type, LocalDate date) {
+        return Training.builder()
+                .trainingName(name)
+                .traineeUsername(trainee)
+                .trainerUsername(trainer)
+                .trainingType(new TrainingType(type))
+                .trainingDate(date)
+                .trainingDurationMinutes(60)
+                .build();
     }
 }